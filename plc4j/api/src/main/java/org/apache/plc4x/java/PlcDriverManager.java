@@ -31,8 +31,9 @@ import java.net.URISyntaxException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
 
-public class PlcDriverManager {
+public class PlcDriverManager implements AutoCloseable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PlcDriverManager.class);
 
@@ -90,6 +91,42 @@ public class PlcDriverManager {
         return connection;
     }
 
+    /**
+     * Connects to a PLC using the given plc connection string without blocking the calling thread.
+     *
+     * @param url plc connection string.
+     * @return future completed with the PlcConnection as soon as it's connected or exceptionally with a
+     * {@link PlcConnectionException} if the connection attempt failed.
+     */
+    public CompletableFuture<PlcConnection> getConnectionAsync(String url) {
+        try {
+            return getDriver(url).getConnection(url).connectAsync();
+        } catch (PlcConnectionException e) {
+            CompletableFuture<PlcConnection> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    /**
+     * Connects to a PLC using the given plc connection string and authentication credentials without blocking
+     * the calling thread.
+     *
+     * @param url            plc connection string.
+     * @param authentication authentication credentials.
+     * @return future completed with the PlcConnection as soon as it's connected or exceptionally with a
+     * {@link PlcConnectionException} if the connection attempt failed.
+     */
+    public CompletableFuture<PlcConnection> getConnectionAsync(String url, PlcAuthentication authentication) {
+        try {
+            return getDriver(url).getConnection(url, authentication).connectAsync();
+        } catch (PlcConnectionException e) {
+            CompletableFuture<PlcConnection> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
     /**
      * Returns suitble driver for protocol or throws an Exception.
      * @param url Uri to use
@@ -111,4 +148,22 @@ public class PlcDriverManager {
         }
     }
 
+    /**
+     * Closes all drivers of this manager, which hold resources shared by their connections (Like the event loop
+     * threads of the Netty based drivers). Connections which are still open keep on working, the shared resources
+     * are released as soon as the last of them is closed.
+     */
+    @Override
+    public void close() {
+        for (PlcDriver driver : driverMap.values()) {
+            if (driver instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) driver).close();
+                } catch (Exception e) {
+                    LOGGER.warn("Error closing driver for protocol {}", driver.getProtocolCode(), e);
+                }
+            }
+        }
+    }
+
 }
\ No newline at end of file
@@ -44,6 +44,24 @@ public interface PlcConnection extends AutoCloseable {
      */
     void connect() throws PlcConnectionException;
 
+    /**
+     * Establishes the connection to the remote PLC without blocking the calling thread (If supported by the
+     * connection, otherwise this simply calls {@link #connect()}).
+     *
+     * @return future completed with this connection as soon as it's established or exceptionally with a
+     * {@link PlcConnectionException} if the connection attempt failed.
+     */
+    default CompletableFuture<PlcConnection> connectAsync() {
+        CompletableFuture<PlcConnection> future = new CompletableFuture<>();
+        try {
+            connect();
+            future.complete(this);
+        } catch (PlcConnectionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
     /**
      * Indicates if the connection is established to a remote PLC.
      * @return {@code true} if connected, {@code false} otherwise
@@ -85,6 +103,20 @@ public interface PlcConnection extends AutoCloseable {
      */
     PlcReadRequest.Builder readRequestBuilder();
 
+    /**
+     * Prepares a read request, which is going to be executed repeatedly (Comparable to a prepared statement in
+     * JDBC). The fields of a built request are already parsed, preparing it additionally does all the work the
+     * connection would otherwise have to do for every execution, like splitting it up into multiple requests.
+     * The returned request can only be executed using this connection. Drivers may answer prepared requests
+     * with a {@link org.apache.plc4x.java.api.messages.PlcColumnarReadResponse}.
+     *
+     * @param readRequest read request built by the {@link #readRequestBuilder()} of this connection.
+     * @return prepared read request, which can be executed multiple times.
+     */
+    default PlcReadRequest prepareReadRequest(PlcReadRequest readRequest) {
+        return readRequest;
+    }
+
     /**
      * Obtain write request builder.
      * @throws PlcUnsupportedOperationException if the connection does not support writing
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.api.messages;
+
+import org.apache.plc4x.java.api.Experimental;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.api.value.PlcValue;
+
+/**
+ * {@link PlcReadResponse} storing the values of scalar numeric and boolean fields in primitive arrays.
+ *
+ * Fields are addressed by their ordinal in the request (The order they were added to the request builder in).
+ * Resolving the ordinal of a field name once and using the index based accessors afterwards doesn't box any
+ * values and doesn't create any intermediate objects.
+ *
+ * Usually returned for requests prepared with {@link org.apache.plc4x.java.api.PlcConnection#prepareReadRequest}.
+ */
+@Experimental
+public interface PlcColumnarReadResponse extends PlcReadResponse {
+
+    /**
+     * @return number of fields in this response.
+     */
+    int getNumberOfFields();
+
+    /**
+     * @param name name of the field.
+     * @return ordinal of the field with the given name or -1 if there is no such field.
+     */
+    int getFieldIndex(String name);
+
+    String getFieldName(int fieldIndex);
+
+    PlcResponseCode getResponseCode(int fieldIndex);
+
+    /**
+     * @param fieldIndex ordinal of the field.
+     * @return true if the field was read successfully.
+     */
+    boolean isOk(int fieldIndex);
+
+    PlcValue getPlcValue(int fieldIndex);
+
+    boolean getBoolean(int fieldIndex);
+
+    byte getByte(int fieldIndex);
+
+    short getShort(int fieldIndex);
+
+    int getInt(int fieldIndex);
+
+    long getLong(int fieldIndex);
+
+    float getFloat(int fieldIndex);
+
+    double getDouble(int fieldIndex);
+
+}
@@ -21,9 +21,9 @@ package org.apache.plc4x.java.abeth.configuration;
 import org.apache.plc4x.java.abeth.AbEthDriver;
 import org.apache.plc4x.java.spi.configuration.Configuration;
 import org.apache.plc4x.java.spi.configuration.annotations.ConfigurationParameter;
-import org.apache.plc4x.java.transport.tcp.TcpTransportConfiguration;
+import org.apache.plc4x.java.transport.tcp.DefaultTcpTransportConfiguration;
 
-public class AbEthConfiguration implements Configuration, TcpTransportConfiguration {
+public class AbEthConfiguration extends DefaultTcpTransportConfiguration implements Configuration {
 
     @ConfigurationParameter
     private int station;
@@ -65,7 +65,7 @@ public class AbEthProtocolLogic extends Plc4xProtocolBase<CIPEncapsulationPacket
     public void setConfiguration(AbEthConfiguration configuration) {
         this.configuration = configuration;
         // Set the transaction manager to allow only one message at a time.
-        this.tm = new RequestTransactionManager(1);
+        this.tm = new RequestTransactionManager(1, () -> context.getChannel().eventLoop());
     }
 
     @Override
@@ -110,7 +110,7 @@ public class AbEthProtocolLogic extends Plc4xProtocolBase<CIPEncapsulationPacket
             RequestTransactionManager.RequestTransaction transaction = tm.startRequest();
             transaction.submit(() -> context.sendRequest(read)
                 .expectResponse(CIPEncapsulationPacket.class, REQUEST_TIMEOUT)
-                .onTimeout(future::completeExceptionally)
+                .onTimeout(transaction.failOnTimeout(future))
                 .onError((p, e) -> future.completeExceptionally(e))
                 .check(p -> p instanceof CIPEncapsulationReadResponse)
                 .unwrap(p -> (CIPEncapsulationReadResponse) p)
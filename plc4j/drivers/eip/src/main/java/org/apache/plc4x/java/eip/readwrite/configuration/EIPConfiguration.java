@@ -21,9 +21,9 @@ package org.apache.plc4x.java.eip.readwrite.configuration;
 import org.apache.plc4x.java.eip.readwrite.EIPDriver;
 import org.apache.plc4x.java.spi.configuration.Configuration;
 import org.apache.plc4x.java.spi.configuration.annotations.ConfigurationParameter;
-import org.apache.plc4x.java.transport.tcp.TcpTransportConfiguration;
+import org.apache.plc4x.java.transport.tcp.DefaultTcpTransportConfiguration;
 
-public class EIPConfiguration implements Configuration, TcpTransportConfiguration {
+public class EIPConfiguration extends DefaultTcpTransportConfiguration implements Configuration {
 
     @ConfigurationParameter
     private int backplane;
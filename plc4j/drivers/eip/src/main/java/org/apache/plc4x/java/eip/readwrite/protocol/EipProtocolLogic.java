@@ -69,7 +69,7 @@ public class EipProtocolLogic extends Plc4xProtocolBase<EipPacket> implements Ha
     public void setConfiguration(EIPConfiguration configuration) {
         this.configuration = configuration;
         // Set the transaction manager to allow only one message at a time.
-        this.tm = new RequestTransactionManager(1);
+        this.tm = new RequestTransactionManager(1, () -> context.getChannel().eventLoop());
     }
 
     @Override
@@ -217,7 +217,7 @@ public class EipProtocolLogic extends Plc4xProtocolBase<EipPacket> implements Ha
 
             transaction.submit(() -> context.sendRequest(pkt)
                 .expectResponse(EipPacket.class, REQUEST_TIMEOUT)
-                .onTimeout(future::completeExceptionally)
+                .onTimeout(transaction.failOnTimeout(future))
                 .onError((p, e) -> future.completeExceptionally(e))
                 .check(p -> p instanceof CipRRData)
                 .check(p -> p.getSessionHandle() == sessionHandle)
@@ -236,7 +236,7 @@ public class EipProtocolLogic extends Plc4xProtocolBase<EipPacket> implements Ha
             CipRRData pkt = new CipRRData(sessionHandle, 0L, emptySenderContext, 0L, exchange);
             transaction.submit(() -> context.sendRequest(pkt)
                 .expectResponse(EipPacket.class, REQUEST_TIMEOUT)
-                .onTimeout(future::completeExceptionally)
+                .onTimeout(transaction.failOnTimeout(future))
                 .onError((p, e) -> future.completeExceptionally(e))
                 .check(p -> p instanceof CipRRData)
                 .check(p -> p.getSessionHandle() == sessionHandle)
@@ -410,7 +410,7 @@ public class EipProtocolLogic extends Plc4xProtocolBase<EipPacket> implements Ha
                 new CipUnconnectedRequest(items.get(0),(byte)configuration.getBackplane(),(byte)configuration.getSlot())));
             transaction.submit(() -> context.sendRequest(rrdata)
                 .expectResponse(EipPacket.class, REQUEST_TIMEOUT)
-                .onTimeout(future::completeExceptionally)
+                .onTimeout(transaction.failOnTimeout(future))
                 .onError((p, e) -> future.completeExceptionally(e))
                 .check(p -> p instanceof CipRRData).unwrap(p -> (CipRRData) p)
                 .check(p -> p.getSessionHandle() == sessionHandle)
@@ -449,7 +449,7 @@ public class EipProtocolLogic extends Plc4xProtocolBase<EipPacket> implements Ha
 
             transaction.submit(() -> context.sendRequest(pkt)
                 .expectResponse(EipPacket.class, REQUEST_TIMEOUT)
-                .onTimeout(future::completeExceptionally)
+                .onTimeout(transaction.failOnTimeout(future))
                 .onError((p, e) -> future.completeExceptionally(e))
                 .check(p -> p instanceof CipRRData)
                 .check(p -> p.getSessionHandle() == sessionHandle)
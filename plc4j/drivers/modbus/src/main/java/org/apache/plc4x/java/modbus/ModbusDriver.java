@@ -20,8 +20,10 @@ package org.apache.plc4x.java.modbus;
 
 import io.netty.buffer.ByteBuf;
 import org.apache.plc4x.java.modbus.config.ModbusConfiguration;
+import org.apache.plc4x.java.modbus.context.ModbusDriverContext;
 import org.apache.plc4x.java.modbus.field.ModbusField;
 import org.apache.plc4x.java.modbus.field.ModbusFieldHandler;
+import org.apache.plc4x.java.modbus.optimizer.ModbusOptimizer;
 import org.apache.plc4x.java.modbus.protocol.ModbusProtocolLogic;
 import org.apache.plc4x.java.modbus.readwrite.ModbusTcpADU;
 import org.apache.plc4x.java.modbus.readwrite.io.ModbusTcpADUIO;
@@ -30,7 +32,6 @@ import org.apache.plc4x.java.spi.connection.GeneratedDriverBase;
 import org.apache.plc4x.java.spi.connection.ProtocolStackConfigurer;
 import org.apache.plc4x.java.spi.connection.SingleProtocolStackConfigurer;
 import org.apache.plc4x.java.spi.optimizer.BaseOptimizer;
-import org.apache.plc4x.java.spi.optimizer.SingleFieldOptimizer;
 
 import java.util.function.ToIntFunction;
 
@@ -77,7 +78,7 @@ public class ModbusDriver extends GeneratedDriverBase<ModbusTcpADU> {
 
     @Override
     protected BaseOptimizer getOptimizer() {
-        return new SingleFieldOptimizer();
+        return new ModbusOptimizer();
     }
 
     @Override
@@ -89,6 +90,7 @@ public class ModbusDriver extends GeneratedDriverBase<ModbusTcpADU> {
     protected ProtocolStackConfigurer<ModbusTcpADU> getStackConfigurer() {
         return SingleProtocolStackConfigurer.builder(ModbusTcpADU.class, ModbusTcpADUIO.class)
             .withProtocol(ModbusProtocolLogic.class)
+            .withDriverContext(ModbusDriverContext.class)
             .withPacketSizeEstimator(ByteLengthEstimator.class)
             // Every incoming message is to be treated as a response.
             .withParserArgs(true)
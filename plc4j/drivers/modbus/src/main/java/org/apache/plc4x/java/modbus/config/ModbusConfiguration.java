@@ -22,9 +22,9 @@ import org.apache.plc4x.java.modbus.readwrite.ModbusConstants;
 import org.apache.plc4x.java.spi.configuration.Configuration;
 import org.apache.plc4x.java.spi.configuration.annotations.ConfigurationParameter;
 import org.apache.plc4x.java.spi.configuration.annotations.defaults.IntDefaultValue;
-import org.apache.plc4x.java.transport.tcp.TcpTransportConfiguration;
+import org.apache.plc4x.java.transport.tcp.DefaultTcpTransportConfiguration;
 
-public class ModbusConfiguration implements Configuration, TcpTransportConfiguration {
+public class ModbusConfiguration extends DefaultTcpTransportConfiguration implements Configuration {
 
     @ConfigurationParameter("request-timeout")
     @IntDefaultValue(1_000)
@@ -34,6 +34,22 @@ public class ModbusConfiguration implements Configuration, TcpTransportConfigura
     @IntDefaultValue(1)
     private int unitIdentifier;
 
+    /**
+     * Fields of the same table, which are at most this number of coils or registers apart,
+     * are read with one request. A negative value disables merging fields.
+     */
+    @ConfigurationParameter("read-coalescing-gap")
+    @IntDefaultValue(0)
+    private int readCoalescingGap;
+
+    /**
+     * Maximum number of requests sent to the device without having received their responses.
+     * Responses are matched to their requests via the transaction identifier.
+     */
+    @ConfigurationParameter("max-in-flight")
+    @IntDefaultValue(1)
+    private int maxInFlight;
+
     public int getRequestTimeout() {
         return requestTimeout;
     }
@@ -50,6 +66,22 @@ public class ModbusConfiguration implements Configuration, TcpTransportConfigura
         this.unitIdentifier = unitIdentifier;
     }
 
+    public int getReadCoalescingGap() {
+        return readCoalescingGap;
+    }
+
+    public void setReadCoalescingGap(int readCoalescingGap) {
+        this.readCoalescingGap = readCoalescingGap;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
     @Override
     public int getDefaultPort() {
         return ModbusConstants.MODBUSTCPDEFAULTPORT;
@@ -0,0 +1,102 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.modbus.optimizer;
+
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcRequest;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.modbus.context.ModbusDriverContext;
+import org.apache.plc4x.java.modbus.field.ModbusField;
+import org.apache.plc4x.java.modbus.field.ModbusFieldCoil;
+import org.apache.plc4x.java.modbus.field.ModbusFieldDiscreteInput;
+import org.apache.plc4x.java.spi.context.DriverContext;
+import org.apache.plc4x.java.spi.messages.DefaultPlcReadRequest;
+import org.apache.plc4x.java.spi.optimizer.SingleFieldOptimizer;
+
+import java.util.*;
+
+/**
+ * Groups the fields of a read request by table (coils, discrete inputs, input registers and holding registers)
+ * and merges fields with contiguous (or near-contiguous) addresses into one request, as long as the protocol
+ * limits of 2000 coils / discrete inputs or 125 registers per request aren't exceeded. Write requests are still
+ * split up into one request per field.
+ */
+public class ModbusOptimizer extends SingleFieldOptimizer {
+
+    public static final int MAX_BITS_PER_REQUEST = 2000;
+    public static final int MAX_REGISTERS_PER_REQUEST = 125;
+
+    @Override
+    protected List<PlcRequest> processReadRequest(PlcReadRequest readRequest, DriverContext driverContext) {
+        int maxGap = ((ModbusDriverContext) driverContext).getReadCoalescingGap();
+
+        // Group all fields by table.
+        Map<Class<? extends ModbusField>, List<Map.Entry<String, ModbusField>>> tables = new LinkedHashMap<>();
+        for (String fieldName : readRequest.getFieldNames()) {
+            ModbusField field = (ModbusField) readRequest.getField(fieldName);
+            tables.computeIfAbsent(field.getClass(), key -> new ArrayList<>())
+                .add(new AbstractMap.SimpleImmutableEntry<>(fieldName, field));
+        }
+
+        List<PlcRequest> processedRequests = new LinkedList<>();
+        for (Map.Entry<Class<? extends ModbusField>, List<Map.Entry<String, ModbusField>>> table : tables.entrySet()) {
+            int maxQuantity = isBitTable(table.getKey()) ? MAX_BITS_PER_REQUEST : MAX_REGISTERS_PER_REQUEST;
+            List<Map.Entry<String, ModbusField>> fields = table.getValue();
+            fields.sort(Comparator.comparingInt(entry -> entry.getValue().getAddress()));
+
+            LinkedHashMap<String, PlcField> curFields = new LinkedHashMap<>();
+            int curStart = 0;
+            int curEnd = 0;
+            for (Map.Entry<String, ModbusField> fieldEntry : fields) {
+                ModbusField field = fieldEntry.getValue();
+                int start = field.getAddress();
+                int end = start + field.getQuantity();
+                // Start a new request, if the field is too far away or the request would get too big.
+                if (!curFields.isEmpty() && ((maxGap < 0) || (start > curEnd + maxGap) ||
+                    (Math.max(curEnd, end) - curStart > maxQuantity))) {
+                    processedRequests.add(new DefaultPlcReadRequest(
+                        ((DefaultPlcReadRequest) readRequest).getReader(), curFields));
+                    curFields = new LinkedHashMap<>();
+                }
+                if (curFields.isEmpty()) {
+                    curStart = start;
+                    curEnd = end;
+                } else {
+                    curEnd = Math.max(curEnd, end);
+                }
+                curFields.put(fieldEntry.getKey(), field);
+            }
+            if (!curFields.isEmpty()) {
+                processedRequests.add(new DefaultPlcReadRequest(
+                    ((DefaultPlcReadRequest) readRequest).getReader(), curFields));
+            }
+        }
+
+        // If everything can be read with one request, there's no need to split up anything.
+        if (processedRequests.size() == 1) {
+            return Collections.singletonList(readRequest);
+        }
+        return processedRequests;
+    }
+
+    private boolean isBitTable(Class<? extends ModbusField> table) {
+        return (table == ModbusFieldCoil.class) || (table == ModbusFieldDiscreteInput.class);
+    }
+
+}
@@ -30,6 +30,7 @@ import org.apache.plc4x.java.api.value.PlcList;
 import org.apache.plc4x.java.api.value.PlcShort;
 import org.apache.plc4x.java.api.value.PlcValue;
 import org.apache.plc4x.java.modbus.config.ModbusConfiguration;
+import org.apache.plc4x.java.modbus.field.ModbusField;
 import org.apache.plc4x.java.modbus.field.ModbusFieldCoil;
 import org.apache.plc4x.java.modbus.field.ModbusFieldDiscreteInput;
 import org.apache.plc4x.java.modbus.field.ModbusFieldHoldingRegister;
@@ -50,9 +51,12 @@ import org.apache.plc4x.java.spi.transaction.RequestTransactionManager;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -67,7 +71,8 @@ public class ModbusProtocolLogic extends Plc4xProtocolBase<ModbusTcpADU> impleme
     public void setConfiguration(ModbusConfiguration configuration) {
         this.requestTimeout = Duration.ofMillis(configuration.getRequestTimeout());
         this.unitIdentifier = (short) configuration.getUnitIdentifier();
-        this.tm = new RequestTransactionManager(1);
+        this.tm = new RequestTransactionManager(Math.max(1, configuration.getMaxInFlight()),
+            () -> context.getChannel().eventLoop());
         this.transactionIdentifierGenerator = new AtomicInteger(10);
     }
 
@@ -76,6 +81,11 @@ public class ModbusProtocolLogic extends Plc4xProtocolBase<ModbusTcpADU> impleme
         // Nothing to do here ...
     }
 
+    @Override
+    protected Object getCorrelationKey(ModbusTcpADU msg) {
+        return msg.getTransactionIdentifier();
+    }
+
     @Override
     public CompletableFuture<PlcReadResponse> read(PlcReadRequest readRequest) {
         CompletableFuture<PlcReadResponse> future = new CompletableFuture<>();
@@ -88,47 +98,61 @@ public class ModbusProtocolLogic extends Plc4xProtocolBase<ModbusTcpADU> impleme
         //      - HoldingRegister   (read-write)    --> ModbusPduReadHoldingRegistersRequest
         //      - FifoQueue         (read-only)     --> ModbusPduReadFifoQueueRequest
         //      - FileRecord        (read-write)    --> ModbusPduReadFileRecordRequest
-        // 2. Split up into multiple sub-requests
-
-        // Example for sending a request ...
-        if(request.getFieldNames().size() == 1) {
-            String fieldName = request.getFieldNames().iterator().next();
-            PlcField field = request.getField(fieldName);
-            final ModbusPDU requestPdu = getReadRequestPdu(field);
-            int transactionIdentifier = transactionIdentifierGenerator.getAndIncrement();
-            ModbusTcpADU modbusTcpADU = new ModbusTcpADU(transactionIdentifier, unitIdentifier, requestPdu);
-            RequestTransactionManager.RequestTransaction transaction = tm.startRequest();
-            transaction.submit(() -> context.sendRequest(modbusTcpADU)
-                .expectResponse(ModbusTcpADU.class, requestTimeout)
-                .onTimeout(future::completeExceptionally)
-                .onError((p, e) -> future.completeExceptionally(e))
-                .check(p -> p.getTransactionIdentifier() == transactionIdentifier)
-                .unwrap(ModbusTcpADU::getPdu)
-                .handle(responsePdu -> {
+        // 2. Split up into multiple sub-requests (done by the ModbusOptimizer)
+        // All fields of one request are read with one PDU, so they have to be in the same table.
+        ModbusField firstField = (ModbusField) request.getFields().get(0);
+        int startAddress = firstField.getAddress();
+        int endAddress = startAddress + firstField.getQuantity();
+        for (PlcField field : request.getFields()) {
+            if (field.getClass() != firstField.getClass()) {
+                future.completeExceptionally(new PlcRuntimeException(
+                    "Modbus only supports requests for fields of the same table"));
+                return future;
+            }
+            ModbusField modbusField = (ModbusField) field;
+            startAddress = Math.min(startAddress, modbusField.getAddress());
+            endAddress = Math.max(endAddress, modbusField.getAddress() + modbusField.getQuantity());
+        }
+        final int rangeAddress = startAddress;
+        final ModbusPDU requestPdu = getReadRequestPdu(firstField, startAddress, endAddress - startAddress);
+        int transactionIdentifier = nextTransactionIdentifier();
+        ModbusTcpADU modbusTcpADU = new ModbusTcpADU(transactionIdentifier, unitIdentifier, requestPdu);
+        RequestTransactionManager.RequestTransaction transaction = tm.startRequest();
+        transaction.submit(() -> context.sendRequest(modbusTcpADU)
+            .expectResponse(ModbusTcpADU.class, requestTimeout)
+            .correlate(transactionIdentifier)
+            .onTimeout(transaction.failOnTimeout(future))
+            .onError((p, e) -> future.completeExceptionally(e))
+            .check(p -> p.getTransactionIdentifier() == transactionIdentifier)
+            .unwrap(ModbusTcpADU::getPdu)
+            .handle(responsePdu -> {
+                byte[] data = getResponseData(requestPdu, responsePdu);
+                Map<String, ResponseItem<PlcValue>> values = new HashMap<>();
+                for (String fieldName : request.getFieldNames()) {
+                    ModbusField field = (ModbusField) request.getField(fieldName);
                     // Try to decode the response data based on the corresponding request.
                     PlcValue plcValue = null;
                     PlcResponseCode responseCode;
                     try {
-                        plcValue = toPlcValue(requestPdu, responsePdu);
+                        plcValue = toPlcValue(requestPdu, data,
+                            field.getAddress() - rangeAddress, field.getQuantity());
                         responseCode = PlcResponseCode.OK;
                     } catch (ParseException e) {
                         // Add an error response code ...
                         responseCode = PlcResponseCode.INTERNAL_ERROR;
                     }
+                    values.put(fieldName, new ResponseItem<>(responseCode, plcValue));
+                }
 
-                    // Prepare the response.
-                    PlcReadResponse response = new DefaultPlcReadResponse(request,
-                        Collections.singletonMap(fieldName, new ResponseItem<>(responseCode, plcValue)));
+                // Prepare the response.
+                PlcReadResponse response = new DefaultPlcReadResponse(request, values);
 
-                    // Pass the response back to the application.
-                    future.complete(response);
+                // Pass the response back to the application.
+                future.complete(response);
 
-                    // Finish the request-transaction.
-                    transaction.endRequest();
+                // Finish the request-transaction.
+                transaction.endRequest();
             }));
-        } else {
-            future.completeExceptionally(new PlcRuntimeException("Modbus only supports single filed requests"));
-        }
         return future;
     }
 
@@ -149,12 +173,13 @@ public class ModbusProtocolLogic extends Plc4xProtocolBase<ModbusTcpADU> impleme
             String fieldName = request.getFieldNames().iterator().next();
             PlcField field = request.getField(fieldName);
             final ModbusPDU requestPdu = getWriteRequestPdu(field, ((DefaultPlcWriteRequest) writeRequest).getPlcValue(fieldName));
-            int transactionIdentifier = transactionIdentifierGenerator.getAndIncrement();
+            int transactionIdentifier = nextTransactionIdentifier();
             ModbusTcpADU modbusTcpADU = new ModbusTcpADU(transactionIdentifier, unitIdentifier, requestPdu);
             RequestTransactionManager.RequestTransaction transaction = tm.startRequest();
             transaction.submit(() -> context.sendRequest(modbusTcpADU)
                 .expectResponse(ModbusTcpADU.class, requestTimeout)
-                .onTimeout(future::completeExceptionally)
+                .correlate(transactionIdentifier)
+                .onTimeout(transaction.failOnTimeout(future))
                 .onError((p, e) -> future.completeExceptionally(e))
                 .check(p -> p.getTransactionIdentifier() == transactionIdentifier)
                 .unwrap(ModbusTcpADU::getPdu)
@@ -182,19 +207,23 @@ public class ModbusProtocolLogic extends Plc4xProtocolBase<ModbusTcpADU> impleme
         return future;
     }
 
-    private ModbusPDU getReadRequestPdu(PlcField field) {
+    /**
+     * The transaction identifier is transferred as unsigned 16 bit value, so it has to wrap around at 0xFFFF
+     * in order to still match the identifier of the response.
+     */
+    int nextTransactionIdentifier() {
+        return transactionIdentifierGenerator.getAndIncrement() & 0xFFFF;
+    }
+
+    private ModbusPDU getReadRequestPdu(PlcField field, int address, int quantity) {
         if(field instanceof ModbusFieldDiscreteInput) {
-            ModbusFieldDiscreteInput discreteInput = (ModbusFieldDiscreteInput) field;
-            return new ModbusPDUReadDiscreteInputsRequest(discreteInput.getAddress(), discreteInput.getQuantity());
+            return new ModbusPDUReadDiscreteInputsRequest(address, quantity);
         } else if(field instanceof ModbusFieldCoil) {
-            ModbusFieldCoil coil = (ModbusFieldCoil) field;
-            return new ModbusPDUReadCoilsRequest(coil.getAddress(), coil.getQuantity());
+            return new ModbusPDUReadCoilsRequest(address, quantity);
         } else if(field instanceof ModbusFieldInputRegister) {
-            ModbusFieldInputRegister inputRegister = (ModbusFieldInputRegister) field;
-            return new ModbusPDUReadInputRegistersRequest(inputRegister.getAddress(), inputRegister.getQuantity());
+            return new ModbusPDUReadInputRegistersRequest(address, quantity);
         } else if(field instanceof ModbusFieldHoldingRegister) {
-            ModbusFieldHoldingRegister holdingRegister = (ModbusFieldHoldingRegister) field;
-            return new ModbusPDUReadHoldingRegistersRequest(holdingRegister.getAddress(), holdingRegister.getQuantity());
+            return new ModbusPDUReadHoldingRegistersRequest(address, quantity);
         }
         throw new PlcRuntimeException("Unsupported read field type " + field.getClass().getName());
     }
@@ -212,37 +241,64 @@ public class ModbusProtocolLogic extends Plc4xProtocolBase<ModbusTcpADU> impleme
         throw new PlcRuntimeException("Unsupported write field type " + field.getClass().getName());
     }
 
-    private PlcValue toPlcValue(ModbusPDU request, ModbusPDU response) throws ParseException {
+    private byte[] getResponseData(ModbusPDU request, ModbusPDU response) {
         if (request instanceof ModbusPDUReadDiscreteInputsRequest) {
             if (!(response instanceof ModbusPDUReadDiscreteInputsResponse)) {
                 throw new PlcRuntimeException("Unexpected response type ModbusPDUReadDiscreteInputsResponse");
             }
-            ModbusPDUReadDiscreteInputsRequest req = (ModbusPDUReadDiscreteInputsRequest) request;
-            ModbusPDUReadDiscreteInputsResponse resp = (ModbusPDUReadDiscreteInputsResponse) response;
-            return readBooleanList(req.getQuantity(), resp.getValue());
+            return ((ModbusPDUReadDiscreteInputsResponse) response).getValue();
         } else if (request instanceof ModbusPDUReadCoilsRequest) {
             if (!(response instanceof ModbusPDUReadCoilsResponse)) {
                 throw new PlcRuntimeException("Unexpected response type ModbusPDUReadCoilsResponse");
             }
-            ModbusPDUReadCoilsRequest req = (ModbusPDUReadCoilsRequest) request;
-            ModbusPDUReadCoilsResponse resp = (ModbusPDUReadCoilsResponse) response;
-            return readBooleanList(req.getQuantity(), resp.getValue());
+            return ((ModbusPDUReadCoilsResponse) response).getValue();
         } else if (request instanceof ModbusPDUReadInputRegistersRequest) {
             if (!(response instanceof ModbusPDUReadInputRegistersResponse)) {
                 throw new PlcRuntimeException("Unexpected response type ModbusPDUReadInputRegistersResponse");
             }
-            ModbusPDUReadInputRegistersRequest req = (ModbusPDUReadInputRegistersRequest) request;
-            ModbusPDUReadInputRegistersResponse resp = (ModbusPDUReadInputRegistersResponse) response;
-            ReadBuffer io = new ReadBuffer(resp.getValue());
-            return DataItemIO.staticParse(io, (short) 2, (short) req.getQuantity());
+            return ((ModbusPDUReadInputRegistersResponse) response).getValue();
         } else if (request instanceof ModbusPDUReadHoldingRegistersRequest) {
             if (!(response instanceof ModbusPDUReadHoldingRegistersResponse)) {
                 throw new PlcRuntimeException("Unexpected response type ModbusPDUReadHoldingRegistersResponse");
             }
-            ModbusPDUReadHoldingRegistersRequest req = (ModbusPDUReadHoldingRegistersRequest) request;
-            ModbusPDUReadHoldingRegistersResponse resp = (ModbusPDUReadHoldingRegistersResponse) response;
-            ReadBuffer io = new ReadBuffer(resp.getValue());
-            return DataItemIO.staticParse(io, (short) 2, (short) req.getQuantity());
+            return ((ModbusPDUReadHoldingRegistersResponse) response).getValue();
+        }
+        return null;
+    }
+
+    /**
+     * Decodes the value of one field from the data returned for a (possibly bigger) range.
+     *
+     * @param request request PDU the data was returned for.
+     * @param data data returned for the request.
+     * @param offset number of coils or registers between the start of the request and the field.
+     * @param quantity number of coils or registers of the field.
+     * @return decoded value.
+     * @throws ParseException if the data doesn't contain the field.
+     */
+    private PlcValue toPlcValue(ModbusPDU request, byte[] data, int offset, int quantity) throws ParseException {
+        if (data == null) {
+            return null;
+        }
+        if ((request instanceof ModbusPDUReadDiscreteInputsRequest) || (request instanceof ModbusPDUReadCoilsRequest)) {
+            if ((offset + quantity) > (data.length * 8)) {
+                throw new ParseException("Response doesn't contain the requested bits");
+            }
+            if (offset == 0) {
+                return readBooleanList(quantity, data);
+            }
+            // Bits are ordered from the least significant one, which is exactly how BitSet parses byte[]
+            byte[] bits = BitSet.valueOf(data).get(offset, offset + quantity).toByteArray();
+            return readBooleanList(quantity, Arrays.copyOf(bits, (quantity + 7) / 8));
+        } else if ((request instanceof ModbusPDUReadInputRegistersRequest) ||
+            (request instanceof ModbusPDUReadHoldingRegistersRequest)) {
+            if (((offset + quantity) * 2) > data.length) {
+                throw new ParseException("Response doesn't contain the requested registers");
+            }
+            byte[] registers = ((offset == 0) && (quantity * 2 == data.length)) ?
+                data : Arrays.copyOfRange(data, offset * 2, (offset + quantity) * 2);
+            ReadBuffer io = new ReadBuffer(registers);
+            return DataItemIO.staticParse(io, (short) 2, (short) quantity);
         }
         return null;
     }
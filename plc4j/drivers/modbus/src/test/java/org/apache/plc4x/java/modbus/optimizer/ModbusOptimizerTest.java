@@ -0,0 +1,115 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.modbus.optimizer;
+
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcRequest;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.modbus.context.ModbusDriverContext;
+import org.apache.plc4x.java.modbus.field.ModbusField;
+import org.apache.plc4x.java.spi.messages.DefaultPlcReadRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ModbusOptimizerTest {
+
+    private ModbusOptimizer optimizer;
+    private ModbusDriverContext driverContext;
+
+    @BeforeEach
+    public void setUp() {
+        optimizer = new ModbusOptimizer();
+        driverContext = new ModbusDriverContext();
+    }
+
+    @Test
+    public void adjacentFieldsOfTheSameTableAreMerged() {
+        List<PlcRequest> requests = optimizer.processReadRequest(readRequest(
+            "a", "holding-register:1",
+            "b", "coil:1[4]",
+            "c", "holding-register:2[2]",
+            "d", "coil:5",
+            "e", "holding-register:10"), driverContext);
+
+        assertEquals(3, requests.size());
+        assertEquals(Arrays.asList("a", "c"), fieldNames(requests.get(0)));
+        assertEquals(Arrays.asList("e"), fieldNames(requests.get(1)));
+        assertEquals(Arrays.asList("b", "d"), fieldNames(requests.get(2)));
+    }
+
+    @Test
+    public void fieldsWithinTheGapAreMerged() {
+        driverContext.setReadCoalescingGap(6);
+        PlcReadRequest readRequest = readRequest(
+            "a", "holding-register:1",
+            "b", "holding-register:2[2]",
+            "c", "holding-register:10");
+
+        List<PlcRequest> requests = optimizer.processReadRequest(readRequest, driverContext);
+
+        assertEquals(1, requests.size());
+        assertSame(readRequest, requests.get(0));
+    }
+
+    @Test
+    public void requestsDontExceedTheProtocolLimits() {
+        List<PlcRequest> requests = optimizer.processReadRequest(readRequest(
+            "a", "holding-register:0[100]",
+            "b", "holding-register:100[25]",
+            "c", "holding-register:125",
+            "d", "coil:0[2000]",
+            "e", "coil:2000"), driverContext);
+
+        assertEquals(4, requests.size());
+        assertEquals(Arrays.asList("a", "b"), fieldNames(requests.get(0)));
+        assertEquals(Arrays.asList("c"), fieldNames(requests.get(1)));
+        assertEquals(Arrays.asList("d"), fieldNames(requests.get(2)));
+        assertEquals(Arrays.asList("e"), fieldNames(requests.get(3)));
+    }
+
+    @Test
+    public void negativeGapDisablesMerging() {
+        driverContext.setReadCoalescingGap(-1);
+        List<PlcRequest> requests = optimizer.processReadRequest(readRequest(
+            "a", "holding-register:1",
+            "b", "holding-register:2"), driverContext);
+
+        assertEquals(2, requests.size());
+    }
+
+    private static PlcReadRequest readRequest(String... namesAndAddresses) {
+        LinkedHashMap<String, PlcField> fields = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndAddresses.length; i += 2) {
+            fields.put(namesAndAddresses[i], ModbusField.of(namesAndAddresses[i + 1]));
+        }
+        return new DefaultPlcReadRequest(null, fields);
+    }
+
+    private static List<String> fieldNames(PlcRequest request) {
+        return Arrays.asList(((PlcReadRequest) request).getFieldNames().toArray(new String[0]));
+    }
+
+}
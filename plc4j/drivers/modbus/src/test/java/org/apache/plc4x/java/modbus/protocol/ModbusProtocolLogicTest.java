@@ -0,0 +1,157 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.modbus.protocol;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.HashedWheelTimer;
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.modbus.config.ModbusConfiguration;
+import org.apache.plc4x.java.modbus.field.ModbusField;
+import org.apache.plc4x.java.modbus.readwrite.ModbusPDUReadHoldingRegistersResponse;
+import org.apache.plc4x.java.modbus.readwrite.ModbusTcpADU;
+import org.apache.plc4x.java.spi.Plc4xNettyWrapper;
+import org.apache.plc4x.java.spi.messages.DefaultPlcReadRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ModbusProtocolLogicTest {
+
+    private static final short UNIT_IDENTIFIER = 1;
+
+    private final HashedWheelTimer timer = new HashedWheelTimer();
+
+    /**
+     * Requests sent to the device. Queued requests are sent by the event loop of the channel as soon as a response
+     * arrives, the embedded channel runs these tasks when the response is written to it.
+     */
+    private final BlockingQueue<ModbusTcpADU> sentRequests = new LinkedBlockingQueue<>();
+
+    private ModbusProtocolLogic protocolLogic;
+
+    private EmbeddedChannel channel;
+
+    @BeforeEach
+    public void setUp() {
+        ModbusConfiguration configuration = new ModbusConfiguration();
+        configuration.setRequestTimeout(10000);
+        configuration.setUnitIdentifier(UNIT_IDENTIFIER);
+        configuration.setMaxInFlight(2);
+        protocolLogic = new ModbusProtocolLogic();
+        protocolLogic.setConfiguration(configuration);
+
+        channel = new EmbeddedChannel();
+        channel.pipeline().addLast(new ChannelOutboundHandlerAdapter() {
+            @Override
+            public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+                sentRequests.add((ModbusTcpADU) msg);
+                promise.setSuccess();
+            }
+        });
+        channel.pipeline().addLast(
+            new Plc4xNettyWrapper<>(timer, channel.pipeline(), protocolLogic, ModbusTcpADU.class));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+        timer.stop();
+    }
+
+    @Test
+    public void atMostMaxInFlightRequestsAreOutstanding() throws Exception {
+        CompletableFuture<PlcReadResponse> first = protocolLogic.read(readRequest("holding-register:1"));
+        CompletableFuture<PlcReadResponse> second = protocolLogic.read(readRequest("holding-register:2"));
+        CompletableFuture<PlcReadResponse> third = protocolLogic.read(readRequest("holding-register:3"));
+
+        ModbusTcpADU firstRequest = sentRequests.poll(1, TimeUnit.SECONDS);
+        ModbusTcpADU secondRequest = sentRequests.poll(1, TimeUnit.SECONDS);
+        assertNotNull(firstRequest);
+        assertNotNull(secondRequest);
+        // The third request has to wait for one of the others to be answered.
+        assertNull(sentRequests.poll(100, TimeUnit.MILLISECONDS));
+
+        // Responses may arrive in any order, they are matched by their transaction identifier.
+        respond(secondRequest, 2);
+        assertEquals(2, second.get(1, TimeUnit.SECONDS).getPlcValue("value").getInteger());
+        assertFalse(first.isDone());
+
+        ModbusTcpADU thirdRequest = sentRequests.poll(1, TimeUnit.SECONDS);
+        assertNotNull(thirdRequest);
+        assertNull(sentRequests.poll(100, TimeUnit.MILLISECONDS));
+
+        respond(thirdRequest, 3);
+        respond(firstRequest, 1);
+        assertEquals(1, first.get(1, TimeUnit.SECONDS).getPlcValue("value").getInteger());
+        assertEquals(3, third.get(1, TimeUnit.SECONDS).getPlcValue("value").getInteger());
+    }
+
+    @Test
+    public void transactionIdentifierWrapsAroundAtSixteenBits() throws Exception {
+        int transactionIdentifier = protocolLogic.nextTransactionIdentifier();
+        while (transactionIdentifier < 0xFFFE) {
+            int next = protocolLogic.nextTransactionIdentifier();
+            assertEquals(transactionIdentifier + 1, next);
+            transactionIdentifier = next;
+        }
+
+        CompletableFuture<PlcReadResponse> last = protocolLogic.read(readRequest("holding-register:1"));
+        ModbusTcpADU lastRequest = sentRequests.poll(1, TimeUnit.SECONDS);
+        assertEquals(0xFFFF, lastRequest.getTransactionIdentifier());
+        respond(lastRequest, 1);
+        assertEquals(1, last.get(1, TimeUnit.SECONDS).getPlcValue("value").getInteger());
+
+        CompletableFuture<PlcReadResponse> wrapped = protocolLogic.read(readRequest("holding-register:1"));
+        ModbusTcpADU wrappedRequest = sentRequests.poll(1, TimeUnit.SECONDS);
+        assertEquals(0, wrappedRequest.getTransactionIdentifier());
+        respond(wrappedRequest, 2);
+        assertEquals(2, wrapped.get(1, TimeUnit.SECONDS).getPlcValue("value").getInteger());
+    }
+
+    /**
+     * Answers a read of one holding register with the given value.
+     */
+    private void respond(ModbusTcpADU request, int value) {
+        channel.writeInbound(new ModbusTcpADU(request.getTransactionIdentifier(), UNIT_IDENTIFIER,
+            new ModbusPDUReadHoldingRegistersResponse(new byte[] {(byte) (value >> 8), (byte) value})));
+    }
+
+    private PlcReadRequest readRequest(String address) {
+        LinkedHashMap<String, PlcField> fields = new LinkedHashMap<>();
+        fields.put("value", ModbusField.of(address));
+        return new DefaultPlcReadRequest(null, fields);
+    }
+
+}
@@ -23,9 +23,9 @@ import org.apache.plc4x.java.s7.readwrite.S7Driver;
 import org.apache.plc4x.java.spi.configuration.Configuration;
 import org.apache.plc4x.java.spi.configuration.annotations.ConfigurationParameter;
 import org.apache.plc4x.java.spi.configuration.annotations.defaults.IntDefaultValue;
-import org.apache.plc4x.java.transport.tcp.TcpTransportConfiguration;
+import org.apache.plc4x.java.transport.tcp.DefaultTcpTransportConfiguration;
 
-public class S7Configuration implements Configuration, TcpTransportConfiguration {
+public class S7Configuration extends DefaultTcpTransportConfiguration implements Configuration {
 
     @ConfigurationParameter("local-rack")
     @IntDefaultValue(1)
@@ -58,6 +58,14 @@ public class S7Configuration implements Configuration, TcpTransportConfiguration
     @ConfigurationParameter("controller-type")
     public String controllerType;
 
+    /**
+     * Fields of the same memory area (and block), which are at most this number of bytes apart,
+     * are read as one continuous block. A negative value disables merging fields.
+     */
+    @ConfigurationParameter("read-coalescing-gap")
+    @IntDefaultValue(0)
+    public int readCoalescingGap = 0;
+
     public int getLocalRack() {
         return localRack;
     }
@@ -122,6 +130,14 @@ public class S7Configuration implements Configuration, TcpTransportConfiguration
         this.controllerType = controllerType;
     }
 
+    public int getReadCoalescingGap() {
+        return readCoalescingGap;
+    }
+
+    public void setReadCoalescingGap(int readCoalescingGap) {
+        this.readCoalescingGap = readCoalescingGap;
+    }
+
     /**
      * Per default port for the S7 protocol is 102.
      * @return 102
@@ -142,6 +158,7 @@ public class S7Configuration implements Configuration, TcpTransportConfiguration
             ", maxAmqCaller=" + maxAmqCaller +
             ", maxAmqCallee=" + maxAmqCallee +
             ", controllerType='" + controllerType + '\'' +
+            ", readCoalescingGap=" + readCoalescingGap +
             '}';
     }
 
@@ -35,6 +35,7 @@ public class S7DriverContext implements DriverContext, HasConfiguration<S7Config
     private int maxAmqCaller;
     private int maxAmqCallee;
     private S7ControllerType controllerType;
+    private int readCoalescingGap;
 
     @Override
     public void setConfiguration(S7Configuration configuration) {
@@ -59,6 +60,7 @@ public class S7DriverContext implements DriverContext, HasConfiguration<S7Config
         this.pduSize = cotpTpduSize.getSizeInBytes() - 16;
         this.maxAmqCaller = configuration.maxAmqCaller;
         this.maxAmqCallee = configuration.maxAmqCallee;
+        this.readCoalescingGap = configuration.readCoalescingGap;
     }
 
     public int getCallingTsapId() {
@@ -117,6 +119,14 @@ public class S7DriverContext implements DriverContext, HasConfiguration<S7Config
         this.controllerType = controllerType;
     }
 
+    public int getReadCoalescingGap() {
+        return readCoalescingGap;
+    }
+
+    public void setReadCoalescingGap(int readCoalescingGap) {
+        this.readCoalescingGap = readCoalescingGap;
+    }
+
     /**
      * Iterate over all values until one is found that the given tpdu size will fit.
      *
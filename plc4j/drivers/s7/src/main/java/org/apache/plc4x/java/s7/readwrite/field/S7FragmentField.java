@@ -0,0 +1,100 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.s7.readwrite.field;
+
+import org.apache.plc4x.java.api.value.PlcValueAdapter;
+import org.apache.plc4x.java.s7.readwrite.types.TransportSize;
+
+/**
+ * Field reading or writing a part of the bytes of an {@link S7Field}, which is too big to fit into one PDU.
+ * It's created by the optimizer, which splits up such fields and reassembles the data of all fragments.
+ */
+public class S7FragmentField extends S7Field {
+
+    private final String fieldName;
+    private final S7Field field;
+    private final int fragmentOffset;
+
+    public S7FragmentField(String fieldName, S7Field field, int fragmentOffset, int numBytes) {
+        super(TransportSize.BYTE, field.getMemoryArea(), field.getBlockNumber(),
+            field.getByteOffset() + fragmentOffset, (byte) 0, numBytes);
+        this.fieldName = fieldName;
+        this.field = field;
+        this.fragmentOffset = fragmentOffset;
+    }
+
+    /**
+     * @return name of the field this is a fragment of.
+     */
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * @return the field this is a fragment of.
+     */
+    public S7Field getField() {
+        return field;
+    }
+
+    /**
+     * @return offset of the first byte of this fragment relative to the start of the field.
+     */
+    public int getFragmentOffset() {
+        return fragmentOffset;
+    }
+
+    @Override
+    public String toString() {
+        return "S7FragmentField{" +
+            "fieldName='" + fieldName + '\'' +
+            ", fragmentOffset=" + fragmentOffset +
+            ", numBytes=" + getNumElements() +
+            ", field=" + field +
+            '}';
+    }
+
+    /**
+     * Raw bytes of a fragment, as they are read from or written to the PLC.
+     */
+    public static class Data extends PlcValueAdapter {
+
+        private final byte[] data;
+
+        public Data(byte[] data) {
+            this.data = data;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+
+        @Override
+        public Object getObject() {
+            return data;
+        }
+
+        @Override
+        public int getLength() {
+            return data.length;
+        }
+
+    }
+
+}
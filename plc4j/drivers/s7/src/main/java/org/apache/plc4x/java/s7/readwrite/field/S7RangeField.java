@@ -0,0 +1,80 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.s7.readwrite.field;
+
+import org.apache.plc4x.java.s7.readwrite.types.MemoryArea;
+import org.apache.plc4x.java.s7.readwrite.types.TransportSize;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Field reading a continuous range of bytes from one memory area (and block), which contains multiple
+ * {@link S7Field}s. It's created by the optimizer to read multiple fields with one request item,
+ * the values of the individual fields are sliced out of the returned data.
+ */
+public class S7RangeField extends S7Field {
+
+    private final Map<String, S7Field> fields;
+
+    public S7RangeField(MemoryArea memoryArea, int blockNumber, int byteOffset, int numBytes,
+                        LinkedHashMap<String, S7Field> fields) {
+        super(TransportSize.BYTE, memoryArea, blockNumber, byteOffset, (byte) 0, numBytes);
+        this.fields = Collections.unmodifiableMap(fields);
+    }
+
+    /**
+     * @return the fields (by name) contained in this range.
+     */
+    public Map<String, S7Field> getFields() {
+        return fields;
+    }
+
+    /**
+     * @param field field contained in this range.
+     * @return offset of the first byte of the given field relative to the start of this range.
+     */
+    public int getRelativeByteOffset(S7Field field) {
+        return field.getByteOffset() - getByteOffset();
+    }
+
+    /**
+     * @param field field to be read.
+     * @return number of bytes the given field occupies in the memory of the PLC.
+     */
+    public static int getNumBytes(S7Field field) {
+        if (field.getDataType() == TransportSize.BOOL) {
+            return ((field.getBitOffset() + field.getNumElements() - 1) / 8) + 1;
+        }
+        return field.getNumElements() * field.getDataType().getSizeInBytes();
+    }
+
+    @Override
+    public String toString() {
+        return "S7RangeField{" +
+            "memoryArea=" + getMemoryArea() +
+            ", blockNumber=" + getBlockNumber() +
+            ", byteOffset=" + getByteOffset() +
+            ", numBytes=" + getNumElements() +
+            ", fields=" + fields.keySet() +
+            '}';
+    }
+
+}
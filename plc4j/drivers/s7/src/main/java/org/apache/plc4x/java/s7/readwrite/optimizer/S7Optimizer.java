@@ -18,25 +18,44 @@ under the License.
 */
 package org.apache.plc4x.java.s7.readwrite.optimizer;
 
+import io.vavr.control.Either;
 import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
 import org.apache.plc4x.java.api.messages.*;
 import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
 import org.apache.plc4x.java.api.value.PlcValue;
 import org.apache.plc4x.java.s7.readwrite.*;
 import org.apache.plc4x.java.s7.readwrite.context.S7DriverContext;
+import org.apache.plc4x.java.s7.readwrite.io.DataItemIO;
 import org.apache.plc4x.java.s7.readwrite.field.S7Field;
+import org.apache.plc4x.java.s7.readwrite.field.S7FragmentField;
+import org.apache.plc4x.java.s7.readwrite.field.S7RangeField;
 import org.apache.plc4x.java.s7.readwrite.types.MemoryArea;
 import org.apache.plc4x.java.s7.readwrite.types.TransportSize;
 import org.apache.plc4x.java.spi.context.DriverContext;
+import org.apache.plc4x.java.spi.generation.ParseException;
+import org.apache.plc4x.java.spi.generation.ReadBuffer;
+import org.apache.plc4x.java.spi.generation.WriteBuffer;
+import org.apache.plc4x.java.spi.messages.DefaultPlcColumnarReadResponse;
 import org.apache.plc4x.java.spi.messages.DefaultPlcReadRequest;
+import org.apache.plc4x.java.spi.messages.DefaultPlcReadResponse;
 import org.apache.plc4x.java.spi.messages.DefaultPlcWriteRequest;
+import org.apache.plc4x.java.spi.messages.DefaultPlcWriteResponse;
+import org.apache.plc4x.java.spi.messages.InternalPlcReadRequest;
+import org.apache.plc4x.java.spi.messages.InternalPlcWriteRequest;
+import org.apache.plc4x.java.spi.messages.PreparedPlcReadRequest;
 import org.apache.plc4x.java.spi.messages.utils.FieldValueItem;
+import org.apache.plc4x.java.spi.messages.utils.ResponseItem;
 import org.apache.plc4x.java.spi.optimizer.BaseOptimizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.*;
 
 public class S7Optimizer extends BaseOptimizer {
 
+    private static final Logger logger = LoggerFactory.getLogger(S7Optimizer.class);
+
     public static final int EMPTY_READ_REQUEST_SIZE = new S7MessageRequest(0, new S7ParameterReadVarRequest(
         new S7VarRequestParameterItem[0]), null).getLengthInBytes();
     public static final int EMPTY_READ_RESPONSE_SIZE = new S7MessageResponseData(0, new S7ParameterReadVarResponse(
@@ -47,6 +66,8 @@ public class S7Optimizer extends BaseOptimizer {
         (short) 0), new S7PayloadWriteVarResponse(new S7VarPayloadStatusItem[0]), (short) 0, (short) 0).getLengthInBytes();
     public static final int S7_ADDRESS_ANY_SIZE = 2 +
         new S7AddressAny(TransportSize.INT, 1, 1, MemoryArea.DATA_BLOCKS, 1, (byte) 0).getLengthInBytes();
+    public static final String RANGE_FIELD_NAME_PREFIX = "s7-range-";
+    public static final String FRAGMENT_FIELD_NAME_PREFIX = "s7-fragment-";
 
     @Override
     protected List<PlcRequest> processReadRequest(PlcReadRequest readRequest, DriverContext driverContext) {
@@ -61,8 +82,14 @@ public class S7Optimizer extends BaseOptimizer {
         // List of all items in the current request.
         LinkedHashMap<String, PlcField> curFields = new LinkedHashMap<>();
 
-        for (String fieldName : readRequest.getFieldNames()) {
-            S7Field field = (S7Field) readRequest.getField(fieldName);
+        // Item header of the response.
+        int maxFragmentSize = (s7DriverContext.getPduSize() - EMPTY_READ_RESPONSE_SIZE - 4) & ~1;
+        LinkedHashMap<String, S7Field> fields = splitFields(
+            coalesceFields(readRequest, s7DriverContext), maxFragmentSize);
+
+        for (Map.Entry<String, S7Field> fieldEntry : fields.entrySet()) {
+            String fieldName = fieldEntry.getKey();
+            S7Field field = fieldEntry.getValue();
 
             int readRequestItemSize = S7_ADDRESS_ANY_SIZE;
             int readResponseItemSize = 4 + (field.getNumElements() * field.getDataType().getSizeInBytes());
@@ -83,19 +110,23 @@ public class S7Optimizer extends BaseOptimizer {
             // If they would exceed, start a new request.
             else {
                 // Create a new PlcReadRequest containing the current field item.
-                processedRequests.add(new DefaultPlcReadRequest(
-                    ((DefaultPlcReadRequest) readRequest).getReader(), curFields));
+                if(!curFields.isEmpty()) {
+                    processedRequests.add(new DefaultPlcReadRequest(
+                        ((DefaultPlcReadRequest) readRequest).getReader(), curFields));
+                }
 
                 // Reset the size and item lists.
                 curRequestSize = EMPTY_READ_REQUEST_SIZE;
                 curResponseSize = EMPTY_READ_RESPONSE_SIZE;
                 curFields = new LinkedHashMap<>();
 
-                // Splitting of huge fields not yet implemented, throw an exception instead.
-                if(((curRequestSize + readRequestItemSize) > s7DriverContext.getPduSize()) &&
+                // Fields which can't be split up have to fit into one request.
+                if(((curRequestSize + readRequestItemSize) > s7DriverContext.getPduSize()) ||
                     ((curResponseSize + readResponseItemSize) > s7DriverContext.getPduSize())) {
                     throw new PlcRuntimeException("Field size exceeds maximum payload for one item.");
                 }
+                curRequestSize += readRequestItemSize;
+                curResponseSize += readResponseItemSize;
             }
             curFields.put(fieldName, field);
         }
@@ -109,6 +140,295 @@ public class S7Optimizer extends BaseOptimizer {
         return processedRequests;
     }
 
+    /**
+     * Merges fields of the same memory area (and block), which are adjacent or at most
+     * {@link S7DriverContext#getReadCoalescingGap()} bytes apart, into {@link S7RangeField}s,
+     * as long as the resulting range still fits into one response.
+     *
+     * @param readRequest original read request.
+     * @param s7DriverContext driver context containing the negotiated pdu size.
+     * @return fields to be read (by name), merged fields are replaced by the range containing them.
+     */
+    protected LinkedHashMap<String, S7Field> coalesceFields(PlcReadRequest readRequest, S7DriverContext s7DriverContext) {
+        LinkedHashMap<String, S7Field> fields = new LinkedHashMap<>();
+        int maxGap = s7DriverContext.getReadCoalescingGap();
+        // Item header and possibly one byte of padding.
+        int maxRangeSize = s7DriverContext.getPduSize() - EMPTY_READ_RESPONSE_SIZE - 5;
+
+        // Group all candidates by memory area and block number.
+        Map<AbstractMap.SimpleImmutableEntry<MemoryArea, Integer>, List<Map.Entry<String, S7Field>>> groups =
+            new LinkedHashMap<>();
+        for (String fieldName : readRequest.getFieldNames()) {
+            S7Field field = (S7Field) readRequest.getField(fieldName);
+            if ((maxGap < 0) || !isCoalescable(field)) {
+                fields.put(fieldName, field);
+                continue;
+            }
+            groups.computeIfAbsent(
+                new AbstractMap.SimpleImmutableEntry<>(field.getMemoryArea(), field.getBlockNumber()),
+                key -> new ArrayList<>()).add(new AbstractMap.SimpleImmutableEntry<>(fieldName, field));
+        }
+
+        // Ranges must not shadow any of the fields of the original request.
+        Set<String> usedFieldNames = new HashSet<>(readRequest.getFieldNames());
+        for (List<Map.Entry<String, S7Field>> group : groups.values()) {
+            group.sort(Comparator.comparingInt(entry -> entry.getValue().getByteOffset()));
+
+            LinkedHashMap<String, S7Field> rangeFields = new LinkedHashMap<>();
+            int rangeStart = 0;
+            int rangeEnd = 0;
+            for (Map.Entry<String, S7Field> entry : group) {
+                S7Field field = entry.getValue();
+                int start = field.getByteOffset();
+                int end = start + S7RangeField.getNumBytes(field);
+                // Start a new range, if the field is too far away or the range would get too big.
+                if (!rangeFields.isEmpty() &&
+                    ((start > rangeEnd + maxGap) || (Math.max(rangeEnd, end) - rangeStart > maxRangeSize))) {
+                    addRange(fields, rangeFields, rangeStart, rangeEnd, usedFieldNames);
+                    rangeFields = new LinkedHashMap<>();
+                }
+                if (rangeFields.isEmpty()) {
+                    rangeStart = start;
+                    rangeEnd = end;
+                } else {
+                    rangeEnd = Math.max(rangeEnd, end);
+                }
+                rangeFields.put(entry.getKey(), field);
+            }
+            if (!rangeFields.isEmpty()) {
+                addRange(fields, rangeFields, rangeStart, rangeEnd, usedFieldNames);
+            }
+        }
+        return fields;
+    }
+
+    private void addRange(LinkedHashMap<String, S7Field> fields, LinkedHashMap<String, S7Field> rangeFields,
+                          int rangeStart, int rangeEnd, Set<String> usedFieldNames) {
+        // No need to wrap single fields.
+        if (rangeFields.size() == 1) {
+            fields.putAll(rangeFields);
+            return;
+        }
+        S7Field firstField = rangeFields.values().iterator().next();
+        fields.put(unusedFieldName(RANGE_FIELD_NAME_PREFIX, usedFieldNames), new S7RangeField(
+            firstField.getMemoryArea(), firstField.getBlockNumber(), rangeStart, rangeEnd - rangeStart, rangeFields));
+    }
+
+    /**
+     * @param prefix prefix of the name.
+     * @param usedFieldNames names already in use, the returned name is added to them.
+     * @return the first name consisting of the prefix and a number, which isn't in use yet.
+     */
+    private static String unusedFieldName(String prefix, Set<String> usedFieldNames) {
+        for (int index = 0; ; index++) {
+            String fieldName = prefix + index;
+            if (usedFieldNames.add(fieldName)) {
+                return fieldName;
+            }
+        }
+    }
+
+    /**
+     * Splits up fields, which are bigger than the given size, into {@link S7FragmentField}s of at most
+     * this size.
+     *
+     * @param fields fields to be read (by name).
+     * @param maxFragmentSize maximum number of bytes which can be read with one request item.
+     * @return fields to be read (by name), split up fields are replaced by their fragments.
+     */
+    protected LinkedHashMap<String, S7Field> splitFields(LinkedHashMap<String, S7Field> fields, int maxFragmentSize) {
+        LinkedHashMap<String, S7Field> splitFields = new LinkedHashMap<>();
+        // Fragments must neither shadow the given fields nor the fields contained in ranges.
+        Set<String> usedFieldNames = new HashSet<>(fields.keySet());
+        for (S7Field field : fields.values()) {
+            if (field instanceof S7RangeField) {
+                usedFieldNames.addAll(((S7RangeField) field).getFields().keySet());
+            }
+        }
+        for (Map.Entry<String, S7Field> fieldEntry : fields.entrySet()) {
+            S7Field field = fieldEntry.getValue();
+            int numBytes = S7RangeField.getNumBytes(field);
+            if ((numBytes <= maxFragmentSize) || !isSplittable(field)) {
+                splitFields.put(fieldEntry.getKey(), field);
+                continue;
+            }
+            for (int fragmentOffset = 0; fragmentOffset < numBytes; fragmentOffset += maxFragmentSize) {
+                splitFields.put(unusedFieldName(FRAGMENT_FIELD_NAME_PREFIX, usedFieldNames),
+                    new S7FragmentField(fieldEntry.getKey(), field, fragmentOffset,
+                        Math.min(maxFragmentSize, numBytes - fragmentOffset)));
+            }
+        }
+        return splitFields;
+    }
+
+    /**
+     * Only fields in memory areas that can be accessed byte-wise are merged. Bit fields are only
+     * merged if they address a single bit.
+     */
+    private boolean isCoalescable(S7Field field) {
+        return isByteAddressable(field) &&
+            ((field.getDataType() != TransportSize.BOOL) || (field.getNumElements() == 1));
+    }
+
+    /**
+     * Only fields in memory areas that can be accessed byte-wise can be split up. Bit fields
+     * are never split up.
+     */
+    private boolean isSplittable(S7Field field) {
+        return isByteAddressable(field) && (field.getDataType() != TransportSize.BOOL) &&
+            !(field instanceof S7RangeField);
+    }
+
+    private boolean isByteAddressable(S7Field field) {
+        if (field.getMemoryArea() == null) {
+            return false;
+        }
+        switch (field.getMemoryArea()) {
+            case INPUTS:
+            case OUTPUTS:
+            case FLAGS_MARKERS:
+            case DATA_BLOCKS:
+            case INSTANCE_DATA_BLOCKS:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    protected PlcReadResponse processReadResponses(PlcReadRequest readRequest,
+                                                   Map<PlcRequest, Either<PlcResponse, Exception>> readResponses) {
+        Map<String, ResponseItem<PlcValue>> fields = new HashMap<>();
+        // Reassembled data of split up fields (by name).
+        Map<String, byte[]> fragmentedData = new HashMap<>();
+        for (Map.Entry<PlcRequest, Either<PlcResponse, Exception>> requestsEntries : readResponses.entrySet()) {
+            PlcReadRequest curRequest = (PlcReadRequest) requestsEntries.getKey();
+            Either<PlcResponse, Exception> readResponse = requestsEntries.getValue();
+            for (String curFieldName : curRequest.getFieldNames()) {
+                PlcField curField = curRequest.getField(curFieldName);
+                if (curField instanceof S7FragmentField) {
+                    ResponseItem<PlcValue> fragment = null;
+                    if (readResponse.isLeft()) {
+                        PlcReadResponse subReadResponse = (PlcReadResponse) readResponse.getLeft();
+                        fragment = new ResponseItem<>(subReadResponse.getResponseCode(curFieldName),
+                            subReadResponse.getPlcValue(curFieldName));
+                    }
+                    processFragment((S7FragmentField) curField, fragment, fields, fragmentedData);
+                    continue;
+                }
+                // The values of merged fields are returned under the names of the original fields.
+                Collection<String> fieldNames = (curField instanceof S7RangeField) ?
+                    ((S7RangeField) curField).getFields().keySet() : Collections.singletonList(curFieldName);
+                for (String fieldName : fieldNames) {
+                    if (readResponse.isLeft()) {
+                        PlcReadResponse subReadResponse = (PlcReadResponse) readResponse.getLeft();
+                        fields.put(fieldName, new ResponseItem<>(subReadResponse.getResponseCode(fieldName),
+                            subReadResponse.getPlcValue(fieldName)));
+                    } else {
+                        fields.put(fieldName, new ResponseItem<>(PlcResponseCode.INTERNAL_ERROR, null));
+                    }
+                }
+            }
+        }
+
+        // Parse the values of all completely read split up fields.
+        for (Map.Entry<String, byte[]> dataEntry : fragmentedData.entrySet()) {
+            String fieldName = dataEntry.getKey();
+            if (fields.get(fieldName).getCode() == PlcResponseCode.OK) {
+                S7Field field = (S7Field) readRequest.getField(fieldName);
+                fields.put(fieldName, new ResponseItem<>(PlcResponseCode.OK, parsePlcValue(field, dataEntry.getValue())));
+            }
+        }
+        return new DefaultPlcReadResponse((InternalPlcReadRequest) readRequest, fields);
+    }
+
+    @Override
+    protected void processFailedColumnarRead(PlcReadRequest subRequest, DefaultPlcColumnarReadResponse.Builder columns) {
+        for (String curFieldName : subRequest.getFieldNames()) {
+            PlcField curField = subRequest.getField(curFieldName);
+            if (curField instanceof S7FragmentField) {
+                columns.setIntermediate(curFieldName, PlcResponseCode.INTERNAL_ERROR, null);
+            } else if (curField instanceof S7RangeField) {
+                for (String fieldName : ((S7RangeField) curField).getFields().keySet()) {
+                    columns.set(fieldName, PlcResponseCode.INTERNAL_ERROR, null);
+                }
+            } else {
+                columns.set(curFieldName, PlcResponseCode.INTERNAL_ERROR, null);
+            }
+        }
+    }
+
+    @Override
+    protected PlcReadResponse processColumnarReadResponses(PreparedPlcReadRequest readRequest,
+                                                           List<PlcRequest> subRequests,
+                                                           DefaultPlcColumnarReadResponse.Builder columns) {
+        // Only split up fields have to be merged, all others have already been decoded into the columns.
+        Map<String, ResponseItem<PlcValue>> fields = new HashMap<>();
+        Map<String, byte[]> fragmentedData = new HashMap<>();
+        for (PlcRequest subRequest : subRequests) {
+            PlcReadRequest curRequest = (PlcReadRequest) subRequest;
+            for (String curFieldName : curRequest.getFieldNames()) {
+                PlcField curField = curRequest.getField(curFieldName);
+                if (curField instanceof S7FragmentField) {
+                    processFragment((S7FragmentField) curField, columns.getIntermediate(curFieldName),
+                        fields, fragmentedData);
+                }
+            }
+        }
+        for (Map.Entry<String, ResponseItem<PlcValue>> fieldEntry : fields.entrySet()) {
+            String fieldName = fieldEntry.getKey();
+            PlcResponseCode responseCode = fieldEntry.getValue().getCode();
+            PlcValue plcValue = null;
+            if (responseCode == PlcResponseCode.OK) {
+                S7Field field = (S7Field) readRequest.getField(fieldName);
+                plcValue = parsePlcValue(field, fragmentedData.get(fieldName));
+            }
+            columns.set(fieldName, responseCode, plcValue);
+        }
+        return columns.build();
+    }
+
+    /**
+     * Copies the data of one fragment into the data of the field it belongs to.
+     *
+     * @param fragment result of the fragment or null if reading it failed.
+     */
+    private void processFragment(S7FragmentField fragmentField, ResponseItem<PlcValue> fragment,
+                                 Map<String, ResponseItem<PlcValue>> fields, Map<String, byte[]> fragmentedData) {
+        String fieldName = fragmentField.getFieldName();
+        PlcResponseCode responseCode = PlcResponseCode.INTERNAL_ERROR;
+        byte[] fragmentData = null;
+        if (fragment != null) {
+            responseCode = fragment.getCode();
+            if (fragment.getValue() instanceof S7FragmentField.Data) {
+                fragmentData = ((S7FragmentField.Data) fragment.getValue()).getData();
+            }
+        }
+        if ((responseCode == PlcResponseCode.OK) &&
+            ((fragmentData == null) || (fragmentData.length < fragmentField.getNumElements()))) {
+            responseCode = PlcResponseCode.INTERNAL_ERROR;
+        }
+        // If any of the fragments failed, the whole field failed.
+        if (responseCode != PlcResponseCode.OK) {
+            fields.put(fieldName, new ResponseItem<>(responseCode, null));
+            return;
+        }
+        fields.putIfAbsent(fieldName, new ResponseItem<>(PlcResponseCode.OK, null));
+        byte[] data = fragmentedData.computeIfAbsent(fieldName,
+            name -> new byte[S7RangeField.getNumBytes(fragmentField.getField())]);
+        System.arraycopy(fragmentData, 0, data, fragmentField.getFragmentOffset(), fragmentField.getNumElements());
+    }
+
+    private PlcValue parsePlcValue(S7Field field, byte[] data) {
+        ReadBuffer readBuffer = new ReadBuffer(data);
+        try {
+            return DataItemIO.staticParse(readBuffer, field.getDataType().getDataProtocolId());
+        } catch (ParseException e) {
+            logger.warn(String.format("Error parsing field item of type: '%s'", field.getDataType().name()), e);
+        }
+        return null;
+    }
+
     @Override
     protected List<PlcRequest> processWriteRequest(PlcWriteRequest writeRequest, DriverContext driverContext) {
         S7DriverContext s7DriverContext = (S7DriverContext) driverContext;
@@ -122,9 +442,11 @@ public class S7Optimizer extends BaseOptimizer {
         // List of all items in the current request.
         LinkedHashMap<String, FieldValueItem> curFields = new LinkedHashMap<>();
 
-        for (String fieldName : writeRequest.getFieldNames()) {
-            S7Field field = (S7Field) writeRequest.getField(fieldName);
-            PlcValue value = ((DefaultPlcWriteRequest) writeRequest).getPlcValue(fieldName);
+        // Item header of the request payload.
+        int maxFragmentSize = (s7DriverContext.getPduSize() - EMPTY_WRITE_REQUEST_SIZE - S7_ADDRESS_ANY_SIZE - 4) & ~1;
+        for (Map.Entry<String, FieldValueItem> fieldEntry : splitFields(writeRequest, maxFragmentSize).entrySet()) {
+            String fieldName = fieldEntry.getKey();
+            S7Field field = (S7Field) fieldEntry.getValue().getField();
 
             int writeRequestItemSize = S7_ADDRESS_ANY_SIZE + (field.getNumElements() * field.getDataType().getSizeInBytes());
             // If it's an odd number of bytes, add one to make it even
@@ -145,21 +467,25 @@ public class S7Optimizer extends BaseOptimizer {
             // If they would exceed, start a new request.
             else {
                 // Create a new PlcWriteRequest containing the current field item.
-                processedRequests.add(new DefaultPlcWriteRequest(
-                    ((DefaultPlcWriteRequest) writeRequest).getWriter(), curFields));
+                if(!curFields.isEmpty()) {
+                    processedRequests.add(new DefaultPlcWriteRequest(
+                        ((DefaultPlcWriteRequest) writeRequest).getWriter(), curFields));
+                }
 
                 // Reset the size and item lists.
                 curRequestSize = EMPTY_WRITE_REQUEST_SIZE;
                 curResponseSize = EMPTY_WRITE_RESPONSE_SIZE;
                 curFields = new LinkedHashMap<>();
 
-                // Splitting of huge fields not yet implemented, throw an exception instead.
-                if(((curRequestSize + writeRequestItemSize) > s7DriverContext.getPduSize()) &&
+                // Fields which can't be split up have to fit into one request.
+                if(((curRequestSize + writeRequestItemSize) > s7DriverContext.getPduSize()) ||
                     ((curResponseSize + writeResponseItemSize) > s7DriverContext.getPduSize())) {
                     throw new PlcRuntimeException("Field size exceeds maximum payload for one item.");
                 }
+                curRequestSize += writeRequestItemSize;
+                curResponseSize += writeResponseItemSize;
             }
-            curFields.put(fieldName, new FieldValueItem(field, value));
+            curFields.put(fieldName, fieldEntry.getValue());
         }
 
         // Create a new PlcWriteRequest from the remaining field items.
@@ -171,4 +497,75 @@ public class S7Optimizer extends BaseOptimizer {
         return processedRequests;
     }
 
+    /**
+     * Splits up fields, whose serialized value is bigger than the given size, into {@link S7FragmentField}s of
+     * at most this size, each writing its part of the serialized value.
+     *
+     * @param writeRequest original write request.
+     * @param maxFragmentSize maximum number of bytes which can be written with one request item.
+     * @return fields and values to be written (by name), split up fields are replaced by their fragments.
+     */
+    protected LinkedHashMap<String, FieldValueItem> splitFields(PlcWriteRequest writeRequest, int maxFragmentSize) {
+        LinkedHashMap<String, FieldValueItem> fields = new LinkedHashMap<>();
+        // Fragments must not shadow any of the fields of the original request.
+        Set<String> usedFieldNames = new HashSet<>(writeRequest.getFieldNames());
+        for (String fieldName : writeRequest.getFieldNames()) {
+            S7Field field = (S7Field) writeRequest.getField(fieldName);
+            PlcValue value = ((DefaultPlcWriteRequest) writeRequest).getPlcValue(fieldName);
+            if ((S7RangeField.getNumBytes(field) <= maxFragmentSize) || !isSplittable(field)) {
+                fields.put(fieldName, new FieldValueItem(field, value));
+                continue;
+            }
+            byte[] data = serializePlcValue(field, value);
+            for (int fragmentOffset = 0; fragmentOffset < data.length; fragmentOffset += maxFragmentSize) {
+                int numBytes = Math.min(maxFragmentSize, data.length - fragmentOffset);
+                fields.put(unusedFieldName(FRAGMENT_FIELD_NAME_PREFIX, usedFieldNames), new FieldValueItem(
+                    new S7FragmentField(fieldName, field, fragmentOffset, numBytes),
+                    new S7FragmentField.Data(Arrays.copyOfRange(data, fragmentOffset, fragmentOffset + numBytes))));
+            }
+        }
+        return fields;
+    }
+
+    private byte[] serializePlcValue(S7Field field, PlcValue plcValue) {
+        try {
+            WriteBuffer writeBuffer = DataItemIO.staticSerialize(plcValue, field.getDataType().getDataProtocolId());
+            if (writeBuffer != null) {
+                return writeBuffer.getData();
+            }
+        } catch (ParseException e) {
+            throw new PlcRuntimeException(
+                String.format("Error serializing field item of type: '%s'", field.getDataType().name()), e);
+        }
+        throw new PlcRuntimeException(
+            String.format("Error serializing field item of type: '%s'", field.getDataType().name()));
+    }
+
+    @Override
+    protected PlcWriteResponse processWriteResponses(PlcWriteRequest writeRequest,
+                                                     Map<PlcRequest, Either<PlcResponse, Exception>> writeResponses) {
+        Map<String, PlcResponseCode> fields = new HashMap<>();
+        for (Map.Entry<PlcRequest, Either<PlcResponse, Exception>> requestsEntries : writeResponses.entrySet()) {
+            PlcWriteRequest curRequest = (PlcWriteRequest) requestsEntries.getKey();
+            Either<PlcResponse, Exception> writeResponse = requestsEntries.getValue();
+            for (String curFieldName : curRequest.getFieldNames()) {
+                PlcField curField = curRequest.getField(curFieldName);
+                // The response codes of fragments are returned under the name of the split up field.
+                String fieldName = (curField instanceof S7FragmentField) ?
+                    ((S7FragmentField) curField).getFieldName() : curFieldName;
+                PlcResponseCode responseCode = PlcResponseCode.INTERNAL_ERROR;
+                if (writeResponse.isLeft()) {
+                    PlcWriteResponse subWriteResponse = (PlcWriteResponse) writeResponse.getLeft();
+                    responseCode = subWriteResponse.getResponseCode(curFieldName);
+                }
+                // If any of the fragments failed, the whole field failed.
+                PlcResponseCode previousResponseCode = fields.get(fieldName);
+                if ((previousResponseCode == null) || (previousResponseCode == PlcResponseCode.OK)) {
+                    fields.put(fieldName, responseCode);
+                }
+            }
+        }
+        return new DefaultPlcWriteResponse((InternalPlcWriteRequest) writeRequest, fields);
+    }
+
 }
@@ -75,13 +75,17 @@ import org.apache.plc4x.java.s7.readwrite.types.DataTransportSize;
 import org.apache.plc4x.java.s7.readwrite.types.S7ControllerType;
 import org.apache.plc4x.java.s7.readwrite.types.SzlModuleTypeClass;
 import org.apache.plc4x.java.s7.readwrite.types.SzlSublist;
+import org.apache.plc4x.java.s7.readwrite.types.TransportSize;
 import org.apache.plc4x.java.s7.readwrite.field.S7Field;
+import org.apache.plc4x.java.s7.readwrite.field.S7FragmentField;
+import org.apache.plc4x.java.s7.readwrite.field.S7RangeField;
 import org.apache.plc4x.java.spi.ConversationContext;
 import org.apache.plc4x.java.spi.Plc4xProtocolBase;
 import org.apache.plc4x.java.spi.context.DriverContext;
 import org.apache.plc4x.java.spi.generation.ParseException;
 import org.apache.plc4x.java.spi.generation.ReadBuffer;
 import org.apache.plc4x.java.spi.generation.WriteBuffer;
+import org.apache.plc4x.java.spi.messages.DefaultPlcColumnarReadResponse;
 import org.apache.plc4x.java.spi.messages.DefaultPlcReadRequest;
 import org.apache.plc4x.java.spi.messages.DefaultPlcReadResponse;
 import org.apache.plc4x.java.spi.messages.DefaultPlcWriteRequest;
@@ -95,6 +99,7 @@ import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -112,7 +117,7 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
     public static final Duration REQUEST_TIMEOUT = Duration.ofMillis(10000);
 
     private S7DriverContext s7DriverContext;
-    private static final AtomicInteger tpduGenerator = new AtomicInteger(10);
+    private final AtomicInteger tpduGenerator = new AtomicInteger(10);
     private RequestTransactionManager tm;
 
     @Override
@@ -125,7 +130,7 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
         // maximum of only one request being able to be sent at a time. During the login process
         // No concurrent requests can be sent anyway. It will be updated when receiving the
         // S7ParameterSetupCommunication response.
-        this.tm = new RequestTransactionManager(1);
+        this.tm = new RequestTransactionManager(1, () -> context.getChannel().eventLoop());
     }
 
     @Override
@@ -193,6 +198,29 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
 
     @Override
     public CompletableFuture<PlcReadResponse> read(PlcReadRequest readRequest) {
+        // Just send a single response and chain it as Response
+        return toPlcReadResponse((InternalPlcReadRequest) readRequest, readInternal(createReadRequest(readRequest)));
+    }
+
+    @Override
+    public boolean canReadColumnar() {
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<Void> readColumnar(PlcReadRequest readRequest,
+                                                DefaultPlcColumnarReadResponse.Builder columns) {
+        return readInternal(createReadRequest(readRequest))
+            .thenAccept(p -> {
+                try {
+                    decodeReadResponse(p, (InternalPlcReadRequest) readRequest, columns);
+                } catch (PlcProtocolException e) {
+                    throw new PlcRuntimeException("Unable to decode Response", e);
+                }
+            });
+    }
+
+    private S7MessageRequest createReadRequest(PlcReadRequest readRequest) {
         DefaultPlcReadRequest request = (DefaultPlcReadRequest) readRequest;
         List<S7VarRequestParameterItem> requestItems = new ArrayList<>(request.getNumberOfFields());
         for (PlcField field : request.getFields()) {
@@ -201,12 +229,9 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
 
         // Create a read request template.
         // tpuId will be inserted before sending in #readInternal so we insert -1 as dummy here
-        final S7MessageRequest s7MessageRequest = new S7MessageRequest(-1,
+        return new S7MessageRequest(-1,
             new S7ParameterReadVarRequest(requestItems.toArray(new S7VarRequestParameterItem[0])),
             null);
-
-        // Just send a single response and chain it as Response
-        return toPlcReadResponse((InternalPlcReadRequest) readRequest, readInternal(s7MessageRequest));
     }
 
     /** Maps the S7ReadResponse of a PlcReadRequest to a PlcReadRespoonse */
@@ -230,7 +255,7 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
      */
     private CompletableFuture<S7MessageResponseData> readInternal(S7MessageRequest request) {
         CompletableFuture<S7MessageResponseData> future = new CompletableFuture<>();
-        int tpduId = tpduGenerator.getAndIncrement();
+        int tpduId = nextTpduReference();
 
         // Create a new Request with correct tpuId (is not known before)
         S7MessageRequest s7MessageRequest = new S7MessageRequest(tpduId, request.getParameter(), request.getPayload());
@@ -240,7 +265,8 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
         RequestTransactionManager.RequestTransaction transaction = tm.startRequest();
         transaction.submit(() -> context.sendRequest(tpktPacket)
             .expectResponse(TPKTPacket.class, REQUEST_TIMEOUT)
-            .onTimeout(future::completeExceptionally)
+            .correlate(tpduId)
+            .onTimeout(transaction.failOnTimeout(future))
             .onError((p, e) -> future.completeExceptionally(e))
             .check(p -> p.getPayload() instanceof COTPPacketData)
             .unwrap(p -> (COTPPacketData) p.getPayload())
@@ -268,7 +294,7 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
             parameterItems.add(new S7VarRequestParameterItemAddress(encodeS7Address(field)));
             payloadItems.add(serializePlcValue(field, plcValue));
         }
-        final int tpduId = tpduGenerator.getAndIncrement();
+        final int tpduId = nextTpduReference();
         TPKTPacket tpktPacket = new TPKTPacket(new COTPPacketData(null,
             new S7MessageRequest(tpduId,
                 new S7ParameterWriteVarRequest(parameterItems.toArray(new S7VarRequestParameterItem[0])),
@@ -279,7 +305,8 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
         RequestTransactionManager.RequestTransaction transaction = tm.startRequest();
         transaction.submit(() -> context.sendRequest(tpktPacket)
             .expectResponse(TPKTPacket.class, REQUEST_TIMEOUT)
-            .onTimeout(future::completeExceptionally)
+            .correlate(tpduId)
+            .onTimeout(transaction.failOnTimeout(future))
             .onError((p, e) -> future.completeExceptionally(e))
             .check(p -> p.getPayload() instanceof COTPPacketData)
             .unwrap(p -> ((COTPPacketData) p.getPayload()))
@@ -299,11 +326,28 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
         return future;
     }
 
+    /**
+     * The tpdu reference is transferred as unsigned 16 bit value, so it has to wrap around at 0xFFFF in order to
+     * still match the reference of the response (which is used as correlation key).
+     */
+    int nextTpduReference() {
+        return tpduGenerator.getAndIncrement() & 0xFFFF;
+    }
+
     @Override
     public void close(ConversationContext<TPKTPacket> context) {
         // TODO Implement Closing on Protocol Level
     }
 
+    @Override
+    protected Object getCorrelationKey(TPKTPacket msg) {
+        // Responses to read and write requests are correlated by their tpdu reference.
+        if ((msg.getPayload() instanceof COTPPacketData) && (msg.getPayload().getPayload() != null)) {
+            return msg.getPayload().getPayload().getTpduReference();
+        }
+        return null;
+    }
+
     private void extractControllerTypeAndFireConnected(ConversationContext<TPKTPacket> context, S7PayloadUserData payloadUserData) {
         for (S7PayloadUserDataItem item : payloadUserData.getItems()) {
             if (!(item instanceof S7PayloadUserDataItemCpuFunctionReadSzlResponse)) {
@@ -391,10 +435,17 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
             S7VarPayloadDataItem payloadItem = payloadItems[index];
 
             PlcResponseCode responseCode = decodeResponseCode(payloadItem.getReturnCode());
+            if (field instanceof S7RangeField) {
+                decodeRangeField((S7RangeField) field, responseCode, payloadItem.getData(), values);
+                index++;
+                continue;
+            }
             PlcValue plcValue = null;
             ByteBuf data = Unpooled.wrappedBuffer(payloadItem.getData());
             if (responseCode == PlcResponseCode.OK) {
-                plcValue = parsePlcValue(field, data);
+                // Fragments are reassembled and parsed by the optimizer.
+                plcValue = (field instanceof S7FragmentField) ?
+                    new S7FragmentField.Data(payloadItem.getData()) : parsePlcValue(field, data);
             }
             ResponseItem<PlcValue> result = new ResponseItem<>(responseCode, plcValue);
             values.put(fieldName, result);
@@ -404,6 +455,143 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
         return new DefaultPlcReadResponse(plcReadRequest, values);
     }
 
+    /**
+     * Slices the values of all fields contained in a range out of the data returned for the range.
+     */
+    static void decodeRangeField(S7RangeField rangeField, PlcResponseCode responseCode, byte[] data,
+                                 Map<String, ResponseItem<PlcValue>> values) {
+        for (Map.Entry<String, S7Field> fieldEntry : rangeField.getFields().entrySet()) {
+            S7Field field = fieldEntry.getValue();
+            PlcResponseCode fieldResponseCode = responseCode;
+            PlcValue plcValue = null;
+            if (fieldResponseCode == PlcResponseCode.OK) {
+                int start = rangeField.getRelativeByteOffset(field);
+                int end = start + S7RangeField.getNumBytes(field);
+                if (end > data.length) {
+                    fieldResponseCode = PlcResponseCode.INTERNAL_ERROR;
+                } else if (field.getDataType() == TransportSize.BOOL) {
+                    // Single bits are returned in the least significant bit of a byte.
+                    byte bit = (byte) ((data[start] >> field.getBitOffset()) & 0x01);
+                    plcValue = parsePlcValue(field, Unpooled.wrappedBuffer(new byte[] {bit}));
+                } else {
+                    plcValue = parsePlcValue(field, Unpooled.wrappedBuffer(Arrays.copyOfRange(data, start, end)));
+                }
+            }
+            values.put(fieldEntry.getKey(), new ResponseItem<>(fieldResponseCode, plcValue));
+        }
+    }
+
+    /**
+     * Same as {@link #decodeReadResponse(S7MessageResponseData, InternalPlcReadRequest)}, but decodes the values
+     * directly into the columns of the response to a prepared request. Scalar numeric and boolean values are read
+     * straight from the returned bytes without creating any {@link PlcValue}.
+     */
+    private void decodeReadResponse(S7MessageResponseData responseMessage, InternalPlcReadRequest plcReadRequest,
+                                    DefaultPlcColumnarReadResponse.Builder columns) throws PlcProtocolException {
+        S7PayloadReadVarResponse payload = (S7PayloadReadVarResponse) responseMessage.getPayload();
+
+        if (plcReadRequest.getNumberOfFields() != payload.getItems().length) {
+            throw new PlcProtocolException(
+                "The number of requested items doesn't match the number of returned items");
+        }
+
+        S7VarPayloadDataItem[] payloadItems = payload.getItems();
+        int index = 0;
+        for (String fieldName : plcReadRequest.getFieldNames()) {
+            S7Field field = (S7Field) plcReadRequest.getField(fieldName);
+            S7VarPayloadDataItem payloadItem = payloadItems[index];
+            index++;
+
+            PlcResponseCode responseCode = decodeResponseCode(payloadItem.getReturnCode());
+            byte[] data = payloadItem.getData();
+            if (field instanceof S7RangeField) {
+                S7RangeField rangeField = (S7RangeField) field;
+                for (Map.Entry<String, S7Field> fieldEntry : rangeField.getFields().entrySet()) {
+                    S7Field curField = fieldEntry.getValue();
+                    int start = rangeField.getRelativeByteOffset(curField);
+                    decodeColumn(curField, responseCode, data, start, start + S7RangeField.getNumBytes(curField),
+                        curField.getBitOffset(), columns.getFieldIndex(fieldEntry.getKey()), columns);
+                }
+            } else if (field instanceof S7FragmentField) {
+                // Fragments are reassembled and parsed by the optimizer.
+                columns.setIntermediate(fieldName, responseCode,
+                    (responseCode == PlcResponseCode.OK) ? new S7FragmentField.Data(data) : null);
+            } else {
+                decodeColumn(field, responseCode, data, 0, data.length, 0, columns.getFieldIndex(fieldName), columns);
+            }
+        }
+    }
+
+    /**
+     * Decodes the value of one field, which is contained in the given part of the returned data.
+     */
+    private void decodeColumn(S7Field field, PlcResponseCode responseCode, byte[] data, int start, int end,
+                              int bitOffset, int fieldIndex, DefaultPlcColumnarReadResponse.Builder columns) {
+        if (fieldIndex < 0) {
+            return;
+        }
+        if (responseCode != PlcResponseCode.OK) {
+            columns.set(fieldIndex, responseCode, null);
+            return;
+        }
+        if ((end > data.length) ||
+            ((field.getNumElements() == 1) && (end - start < field.getDataType().getSizeInBytes()))) {
+            columns.set(fieldIndex, PlcResponseCode.INTERNAL_ERROR, null);
+            return;
+        }
+        if (field.getNumElements() == 1) {
+            switch (field.getDataType().getDataProtocolId()) {
+                case 1:
+                    // Single bits are returned in the least significant bit of a byte.
+                    columns.setBoolean(fieldIndex, ((data[start] >> bitOffset) & 0x01) != 0);
+                    return;
+                case 21:
+                    columns.setInt(fieldIndex, data[start]);
+                    return;
+                case 22:
+                    columns.setInt(fieldIndex, data[start] & 0xFF);
+                    return;
+                case 23:
+                    columns.setInt(fieldIndex, (short) readUnsigned(data, start, 2));
+                    return;
+                case 24:
+                    columns.setInt(fieldIndex, (int) readUnsigned(data, start, 2));
+                    return;
+                case 25:
+                    columns.setInt(fieldIndex, (int) readUnsigned(data, start, 4));
+                    return;
+                case 26:
+                    columns.setLong(fieldIndex, readUnsigned(data, start, 4));
+                    return;
+                case 27:
+                    columns.setLong(fieldIndex, readUnsigned(data, start, 8));
+                    return;
+                case 31:
+                    columns.setFloat(fieldIndex, Float.intBitsToFloat((int) readUnsigned(data, start, 4)));
+                    return;
+                case 32:
+                    columns.setDouble(fieldIndex, Double.longBitsToDouble(readUnsigned(data, start, 8)));
+                    return;
+                default:
+                    break;
+            }
+        }
+        // All other types (Strings, dates, arrays, ...) are parsed the usual way.
+        byte[] fieldData = ((start == 0) && (end == data.length)) ? data : Arrays.copyOfRange(data, start, end);
+        columns.set(fieldIndex, PlcResponseCode.OK, parsePlcValue(field, Unpooled.wrappedBuffer(fieldData)));
+    }
+
+    /**
+     * Reads a big endian value of the given number of bytes (At most 8).
+     */
+    private static long readUnsigned(byte[] data, int start, int numBytes) {
+        long value = 0;
+        for (int i = start; i < start + numBytes; i++) {
+            value = (value << 8) | (data[i] & 0xFF);
+        }
+        return value;
+    }
+
     private PlcResponse decodeWriteResponse(S7MessageResponseData responseMessage, InternalPlcWriteRequest plcWriteRequest) throws PlcProtocolException {
         S7PayloadWriteVarResponse payload = (S7PayloadWriteVarResponse) responseMessage.getPayload();
 
@@ -430,6 +618,11 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
     }
 
     private S7VarPayloadDataItem serializePlcValue(S7Field field, PlcValue plcValue) {
+        // Fragments already contain their part of the serialized value.
+        if (field instanceof S7FragmentField) {
+            byte[] data = ((S7FragmentField.Data) plcValue).getData();
+            return new S7VarPayloadDataItem(DataTransportErrorCode.OK, DataTransportSize.BYTE_WORD_DWORD, data.length, data);
+        }
         try {
             DataTransportSize transportSize = (field.getDataType().getDataProtocolId() == 1) ?
                 DataTransportSize.BIT : DataTransportSize.BYTE_WORD_DWORD;
@@ -444,7 +637,7 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
         return null;
     }
 
-    private PlcValue parsePlcValue(S7Field field, ByteBuf data) {
+    private static PlcValue parsePlcValue(S7Field field, ByteBuf data) {
         ReadBuffer readBuffer = new ReadBuffer(data.array());
         try {
             return DataItemIO.staticParse(readBuffer, field.getDataType().getDataProtocolId());
@@ -0,0 +1,284 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.s7.readwrite.optimizer;
+
+import io.vavr.control.Either;
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.java.api.messages.PlcRequest;
+import org.apache.plc4x.java.api.messages.PlcResponse;
+import org.apache.plc4x.java.api.messages.PlcWriteRequest;
+import org.apache.plc4x.java.api.messages.PlcWriteResponse;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.api.value.PlcInteger;
+import org.apache.plc4x.java.api.value.PlcLong;
+import org.apache.plc4x.java.api.value.PlcValue;
+import org.apache.plc4x.java.s7.readwrite.context.S7DriverContext;
+import org.apache.plc4x.java.s7.readwrite.field.S7Field;
+import org.apache.plc4x.java.s7.readwrite.field.S7FragmentField;
+import org.apache.plc4x.java.s7.readwrite.field.S7RangeField;
+import org.apache.plc4x.java.spi.messages.DefaultPlcReadRequest;
+import org.apache.plc4x.java.spi.messages.DefaultPlcReadResponse;
+import org.apache.plc4x.java.spi.messages.DefaultPlcWriteRequest;
+import org.apache.plc4x.java.spi.messages.DefaultPlcWriteResponse;
+import org.apache.plc4x.java.spi.messages.InternalPlcReadRequest;
+import org.apache.plc4x.java.spi.messages.InternalPlcWriteRequest;
+import org.apache.plc4x.java.spi.messages.utils.FieldValueItem;
+import org.apache.plc4x.java.spi.messages.utils.ResponseItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class S7OptimizerTest {
+
+    private S7Optimizer optimizer;
+    private S7DriverContext driverContext;
+
+    @BeforeEach
+    public void setUp() {
+        optimizer = new S7Optimizer();
+        driverContext = new S7DriverContext();
+        driverContext.setPduSize(240);
+    }
+
+    @Test
+    public void adjacentFieldsAreMerged() {
+        Map<String, S7Field> fields = optimizer.coalesceFields(readRequest(
+            "a", "%DB1.DBW0:INT",
+            "b", "%DB1.DBD2:DINT",
+            "c", "%DB1.DBX6.3:BOOL",
+            "d", "%DB2.DBW0:INT"), driverContext);
+
+        assertEquals(2, fields.size());
+        S7RangeField range = (S7RangeField) fields.get(S7Optimizer.RANGE_FIELD_NAME_PREFIX + "0");
+        assertEquals(0, range.getByteOffset());
+        assertEquals(7, range.getNumElements());
+        assertEquals(3, range.getFields().size());
+        assertEquals(6, range.getRelativeByteOffset(range.getFields().get("c")));
+        assertFalse(fields.get("d") instanceof S7RangeField);
+    }
+
+    @Test
+    public void rangesDontShadowFieldsOfTheRequest() {
+        String userFieldName = S7Optimizer.RANGE_FIELD_NAME_PREFIX + "0";
+        Map<String, S7Field> fields = optimizer.coalesceFields(readRequest(
+            "a", "%DB1.DBW0:INT",
+            "b", "%DB1.DBW2:INT",
+            userFieldName, "%DB2.DBW0:INT"), driverContext);
+
+        assertEquals(2, fields.size());
+        assertFalse(fields.get(userFieldName) instanceof S7RangeField);
+        S7RangeField range = (S7RangeField) fields.get(S7Optimizer.RANGE_FIELD_NAME_PREFIX + "1");
+        assertEquals(2, range.getFields().size());
+    }
+
+    @Test
+    public void fieldsWithinTheGapAreMerged() {
+        PlcReadRequest readRequest = readRequest(
+            "a", "%DB1.DBW0:INT",
+            "b", "%DB1.DBW10:INT");
+
+        driverContext.setReadCoalescingGap(0);
+        assertEquals(2, optimizer.coalesceFields(readRequest, driverContext).size());
+
+        driverContext.setReadCoalescingGap(8);
+        Map<String, S7Field> fields = optimizer.coalesceFields(readRequest, driverContext);
+        assertEquals(1, fields.size());
+        assertEquals(12, fields.values().iterator().next().getNumElements());
+
+        driverContext.setReadCoalescingGap(-1);
+        fields = optimizer.coalesceFields(readRequest(
+            "a", "%DB1.DBW0:INT",
+            "b", "%DB1.DBW2:INT"), driverContext);
+        assertEquals(2, fields.size());
+    }
+
+    @Test
+    public void rangesDontExceedThePduSize() {
+        driverContext.setReadCoalescingGap(100);
+        Map<String, S7Field> fields = optimizer.coalesceFields(readRequest(
+            "a", "%DB1.DBB0:BYTE[100]",
+            "b", "%DB1.DBB100:BYTE[100]",
+            "c", "%DB1.DBB200:BYTE[100]"), driverContext);
+
+        assertEquals(2, fields.size());
+        assertTrue(fields.get(S7Optimizer.RANGE_FIELD_NAME_PREFIX + "0") instanceof S7RangeField);
+        assertEquals(200, fields.get("c").getByteOffset());
+    }
+
+    @Test
+    public void largeFieldsAreSplitAndReassembled() {
+        PlcReadRequest readRequest = readRequest("text", "%DB1:0:STRING[254]");
+        byte[] plcData = new byte[256];
+        plcData[0] = (byte) 254;
+        plcData[1] = 100;
+        Arrays.fill(plcData, 2, 102, (byte) 'x');
+
+        List<PlcRequest> subRequests = optimizer.processReadRequest(readRequest, driverContext);
+        assertEquals(2, subRequests.size());
+
+        Map<PlcRequest, Either<PlcResponse, Exception>> subResponses = new HashMap<>();
+        for (PlcRequest subRequest : subRequests) {
+            subResponses.put(subRequest, Either.left(respond((PlcReadRequest) subRequest, plcData, PlcResponseCode.OK)));
+        }
+        PlcReadResponse response = optimizer.processReadResponses(readRequest, subResponses);
+        assertEquals(PlcResponseCode.OK, response.getResponseCode("text"));
+        assertEquals(new String(plcData, 2, 100), response.getPlcValue("text").getString());
+
+        // If one fragment fails, the whole field fails.
+        PlcReadRequest failedRequest = (PlcReadRequest) subRequests.get(1);
+        subResponses.put(failedRequest, Either.left(respond(failedRequest, plcData, PlcResponseCode.INVALID_ADDRESS)));
+        response = optimizer.processReadResponses(readRequest, subResponses);
+        assertEquals(PlcResponseCode.INVALID_ADDRESS, response.getResponseCode("text"));
+    }
+
+    @Test
+    public void fragmentsDontShadowFieldsOfTheRequest() {
+        String userFieldName = S7Optimizer.FRAGMENT_FIELD_NAME_PREFIX + "0";
+        PlcReadRequest readRequest = readRequest(
+            userFieldName, "%DB1:300:INT",
+            "text", "%DB1:0:STRING[254]");
+
+        Map<String, PlcField> fields = new HashMap<>();
+        for (PlcRequest subRequest : optimizer.processReadRequest(readRequest, driverContext)) {
+            PlcReadRequest subReadRequest = (PlcReadRequest) subRequest;
+            for (String fieldName : subReadRequest.getFieldNames()) {
+                assertFalse(fields.containsKey(fieldName));
+                fields.put(fieldName, subReadRequest.getField(fieldName));
+            }
+        }
+        assertEquals(3, fields.size());
+        assertFalse(fields.get(userFieldName) instanceof S7FragmentField);
+    }
+
+    @Test
+    public void largeWritesAreSplitIntoFragments() {
+        PlcWriteRequest writeRequest = writeRequest(
+            "flag", "%DB1:20:INT", new PlcInteger(1),
+            "value", "%DB1:0:LINT", new PlcLong(0x0102030405060708L));
+
+        Map<String, FieldValueItem> fields = optimizer.splitFields(writeRequest, 4);
+
+        assertEquals(3, fields.size());
+        assertFalse(fields.get("flag").getField() instanceof S7FragmentField);
+        List<S7FragmentField> fragments = new ArrayList<>();
+        for (FieldValueItem item : fields.values()) {
+            if (item.getField() instanceof S7FragmentField) {
+                S7FragmentField fragment = (S7FragmentField) item.getField();
+                assertEquals("value", fragment.getFieldName());
+                assertEquals(4, fragment.getNumElements());
+                byte[] expectedData = new byte[4];
+                for (int i = 0; i < 4; i++) {
+                    expectedData[i] = (byte) (fragment.getFragmentOffset() + i + 1);
+                }
+                assertArrayEquals(expectedData, ((S7FragmentField.Data) item.getValue()).getData());
+                fragments.add(fragment);
+            }
+        }
+        assertEquals(2, fragments.size());
+        assertEquals(0, fragments.get(0).getFragmentOffset());
+        assertEquals(4, fragments.get(1).getFragmentOffset());
+
+        // Fields that fit aren't split up.
+        assertEquals(2, optimizer.splitFields(writeRequest, 8).size());
+    }
+
+    @Test
+    public void responseCodesOfWriteFragmentsAreMerged() {
+        PlcWriteRequest writeRequest = writeRequest(
+            "value", "%DB1:0:LINT", new PlcLong(0x0102030405060708L),
+            "flag", "%DB1:20:INT", new PlcInteger(1));
+        // Leaves room for exactly one fragment of 4 bytes per request.
+        driverContext.setPduSize(S7Optimizer.EMPTY_WRITE_REQUEST_SIZE + S7Optimizer.S7_ADDRESS_ANY_SIZE + 4 + 4);
+
+        List<PlcRequest> subRequests = optimizer.processWriteRequest(writeRequest, driverContext);
+        assertEquals(3, subRequests.size());
+
+        Map<PlcRequest, Either<PlcResponse, Exception>> subResponses = new HashMap<>();
+        for (PlcRequest subRequest : subRequests) {
+            subResponses.put(subRequest, Either.left(respond((PlcWriteRequest) subRequest, PlcResponseCode.OK)));
+        }
+        PlcWriteResponse response = optimizer.processWriteResponses(writeRequest, subResponses);
+        assertEquals(2, response.getFieldNames().size());
+        assertEquals(PlcResponseCode.OK, response.getResponseCode("value"));
+        assertEquals(PlcResponseCode.OK, response.getResponseCode("flag"));
+
+        // If one fragment fails, the whole field fails, the other fields aren't affected.
+        PlcWriteRequest failedRequest = (PlcWriteRequest) subRequests.get(1);
+        subResponses.put(failedRequest, Either.left(respond(failedRequest, PlcResponseCode.ACCESS_DENIED)));
+        response = optimizer.processWriteResponses(writeRequest, subResponses);
+        assertEquals(PlcResponseCode.ACCESS_DENIED, response.getResponseCode("value"));
+        assertEquals(PlcResponseCode.OK, response.getResponseCode("flag"));
+
+        // Same, if the request of a fragment failed completely.
+        subResponses.put(failedRequest, Either.right(new RuntimeException("Connection lost")));
+        response = optimizer.processWriteResponses(writeRequest, subResponses);
+        assertEquals(PlcResponseCode.INTERNAL_ERROR, response.getResponseCode("value"));
+        assertEquals(PlcResponseCode.OK, response.getResponseCode("flag"));
+    }
+
+    private PlcWriteResponse respond(PlcWriteRequest writeRequest, PlcResponseCode responseCode) {
+        Map<String, PlcResponseCode> responseCodes = new HashMap<>();
+        for (String fieldName : writeRequest.getFieldNames()) {
+            responseCodes.put(fieldName, responseCode);
+        }
+        return new DefaultPlcWriteResponse((InternalPlcWriteRequest) writeRequest, responseCodes);
+    }
+
+    private PlcWriteRequest writeRequest(Object... namesAddressesAndValues) {
+        LinkedHashMap<String, FieldValueItem> fields = new LinkedHashMap<>();
+        for (int i = 0; i < namesAddressesAndValues.length; i += 3) {
+            fields.put((String) namesAddressesAndValues[i], new FieldValueItem(
+                S7Field.of((String) namesAddressesAndValues[i + 1]), (PlcValue) namesAddressesAndValues[i + 2]));
+        }
+        return new DefaultPlcWriteRequest(null, fields);
+    }
+
+    private PlcReadResponse respond(PlcReadRequest readRequest, byte[] plcData, PlcResponseCode responseCode) {
+        Map<String, ResponseItem<PlcValue>> values = new HashMap<>();
+        for (String fieldName : readRequest.getFieldNames()) {
+            S7FragmentField field = (S7FragmentField) readRequest.getField(fieldName);
+            byte[] data = Arrays.copyOfRange(plcData, field.getFragmentOffset(),
+                field.getFragmentOffset() + field.getNumElements());
+            values.put(fieldName, new ResponseItem<>(responseCode, new S7FragmentField.Data(data)));
+        }
+        return new DefaultPlcReadResponse((InternalPlcReadRequest) readRequest, values);
+    }
+
+    private PlcReadRequest readRequest(String... namesAndAddresses) {
+        LinkedHashMap<String, PlcField> fields = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndAddresses.length; i += 2) {
+            fields.put(namesAndAddresses[i], S7Field.of(namesAndAddresses[i + 1]));
+        }
+        return new DefaultPlcReadRequest(null, fields);
+    }
+
+}
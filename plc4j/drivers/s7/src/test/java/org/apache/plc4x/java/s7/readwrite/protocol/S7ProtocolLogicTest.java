@@ -0,0 +1,227 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.s7.readwrite.protocol;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.HashedWheelTimer;
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.api.value.PlcValue;
+import org.apache.plc4x.java.s7.readwrite.COTPPacketData;
+import org.apache.plc4x.java.s7.readwrite.S7MessageResponseData;
+import org.apache.plc4x.java.s7.readwrite.S7ParameterReadVarResponse;
+import org.apache.plc4x.java.s7.readwrite.S7PayloadReadVarResponse;
+import org.apache.plc4x.java.s7.readwrite.S7VarPayloadDataItem;
+import org.apache.plc4x.java.s7.readwrite.TPKTPacket;
+import org.apache.plc4x.java.s7.readwrite.context.S7DriverContext;
+import org.apache.plc4x.java.s7.readwrite.field.S7Field;
+import org.apache.plc4x.java.s7.readwrite.field.S7RangeField;
+import org.apache.plc4x.java.s7.readwrite.types.DataTransportErrorCode;
+import org.apache.plc4x.java.s7.readwrite.types.DataTransportSize;
+import org.apache.plc4x.java.s7.readwrite.types.MemoryArea;
+import org.apache.plc4x.java.spi.Plc4xNettyWrapper;
+import org.apache.plc4x.java.spi.messages.DefaultPlcReadRequest;
+import org.apache.plc4x.java.spi.messages.utils.ResponseItem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class S7ProtocolLogicTest {
+
+    private static Object[][] values() {
+        return new Object[][]{
+            {"%DB1:2:SINT", bytes(0xFE), -2},
+            {"%DB1:2:USINT", bytes(0xFE), 254},
+            {"%DB1:2:INT", bytes(0xFF, 0xFE), -2},
+            {"%DB1:2:UINT", bytes(0xFF, 0xFE), 65534},
+            {"%DB1:2:DINT", bytes(0xFF, 0xFF, 0xFF, 0xFE), -2},
+            {"%DB1:2:UDINT", bytes(0xFF, 0xFF, 0xFF, 0xFE), 4294967294L},
+            {"%DB1:2:LINT", bytes(0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFE), -2L},
+            {"%DB1:2:REAL", bytes(0x3F, 0xC0, 0x00, 0x00), 1.5f},
+            {"%DB1:2:LREAL", bytes(0x3F, 0xF8, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00), 1.5d},
+        };
+    }
+
+    @ParameterizedTest
+    @MethodSource("values")
+    public void valuesAreSlicedOutOfTheRange(String address, byte[] plcData, Object expectedValue) {
+        // The field is preceded by another one, so it doesn't start at the beginning of the range.
+        byte[] data = new byte[2 + plcData.length];
+        System.arraycopy(plcData, 0, data, 2, plcData.length);
+        S7RangeField rangeField = rangeField(data.length,
+            "filler", "%DB1:0:INT",
+            "value", address);
+
+        Map<String, ResponseItem<PlcValue>> values = new HashMap<>();
+        S7ProtocolLogic.decodeRangeField(rangeField, PlcResponseCode.OK, data, values);
+
+        assertEquals(PlcResponseCode.OK, values.get("value").getCode());
+        assertEquals(expectedValue, values.get("value").getValue().getObject());
+        assertEquals(0, values.get("filler").getValue().getInteger());
+    }
+
+    @Test
+    public void bitsAreExtractedFromTheirByte() {
+        S7RangeField rangeField = rangeField(2,
+            "bit0", "%DB1:0.0:BOOL",
+            "bit1", "%DB1:0.1:BOOL",
+            "bit2", "%DB1:0.2:BOOL",
+            "bit3", "%DB1:0.3:BOOL",
+            "bit15", "%DB1:1.7:BOOL");
+
+        Map<String, ResponseItem<PlcValue>> values = new HashMap<>();
+        S7ProtocolLogic.decodeRangeField(rangeField, PlcResponseCode.OK, bytes(0x0A, 0x80), values);
+
+        assertFalse(values.get("bit0").getValue().getBoolean());
+        assertTrue(values.get("bit1").getValue().getBoolean());
+        assertFalse(values.get("bit2").getValue().getBoolean());
+        assertTrue(values.get("bit3").getValue().getBoolean());
+        assertTrue(values.get("bit15").getValue().getBoolean());
+    }
+
+    @Test
+    public void fieldsBeyondTheReturnedDataFail() {
+        S7RangeField rangeField = rangeField(6,
+            "a", "%DB1:0:INT",
+            "b", "%DB1:2:DINT");
+
+        Map<String, ResponseItem<PlcValue>> values = new HashMap<>();
+        S7ProtocolLogic.decodeRangeField(rangeField, PlcResponseCode.OK, bytes(0x00, 0x2A, 0x00, 0x00), values);
+
+        assertEquals(PlcResponseCode.OK, values.get("a").getCode());
+        assertEquals(42, values.get("a").getValue().getInteger());
+        assertEquals(PlcResponseCode.INTERNAL_ERROR, values.get("b").getCode());
+        assertNull(values.get("b").getValue());
+    }
+
+    @Test
+    public void responseCodeOfTheRangeIsPassedOn() {
+        S7RangeField rangeField = rangeField(4,
+            "a", "%DB1:0:INT",
+            "b", "%DB1:2.1:BOOL");
+
+        Map<String, ResponseItem<PlcValue>> values = new HashMap<>();
+        S7ProtocolLogic.decodeRangeField(rangeField, PlcResponseCode.INVALID_ADDRESS, new byte[0], values);
+
+        assertEquals(2, values.size());
+        for (ResponseItem<PlcValue> value : values.values()) {
+            assertEquals(PlcResponseCode.INVALID_ADDRESS, value.getCode());
+            assertNull(value.getValue());
+        }
+    }
+
+    @Test
+    public void tpduReferenceWrapsAroundAtSixteenBits() throws Exception {
+        S7ProtocolLogic protocolLogic = new S7ProtocolLogic();
+        protocolLogic.setDriverContext(new S7DriverContext());
+        BlockingQueue<TPKTPacket> sentRequests = new LinkedBlockingQueue<>();
+        HashedWheelTimer timer = new HashedWheelTimer();
+        EmbeddedChannel channel = new EmbeddedChannel();
+        channel.pipeline().addLast(new ChannelOutboundHandlerAdapter() {
+            @Override
+            public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+                sentRequests.add((TPKTPacket) msg);
+                promise.setSuccess();
+            }
+        });
+        channel.pipeline().addLast(
+            new Plc4xNettyWrapper<>(timer, channel.pipeline(), protocolLogic, TPKTPacket.class));
+        try {
+            int tpduReference = protocolLogic.nextTpduReference();
+            while (tpduReference < 0xFFFE) {
+                int next = protocolLogic.nextTpduReference();
+                assertEquals(tpduReference + 1, next);
+                tpduReference = next;
+            }
+
+            CompletableFuture<PlcReadResponse> last = protocolLogic.read(readRequest("%DB1:0:INT"));
+            TPKTPacket lastRequest = sentRequests.poll(1, TimeUnit.SECONDS);
+            assertEquals(0xFFFF, tpduReference(lastRequest));
+            channel.writeInbound(readResponse(lastRequest, 1));
+            assertEquals(1, last.get(1, TimeUnit.SECONDS).getPlcValue("value").getInteger());
+
+            CompletableFuture<PlcReadResponse> wrapped = protocolLogic.read(readRequest("%DB1:0:INT"));
+            TPKTPacket wrappedRequest = sentRequests.poll(1, TimeUnit.SECONDS);
+            assertEquals(0, tpduReference(wrappedRequest));
+            channel.writeInbound(readResponse(wrappedRequest, 2));
+            assertEquals(2, wrapped.get(1, TimeUnit.SECONDS).getPlcValue("value").getInteger());
+        } finally {
+            channel.finishAndReleaseAll();
+            timer.stop();
+        }
+    }
+
+    private static int tpduReference(TPKTPacket packet) {
+        return packet.getPayload().getPayload().getTpduReference();
+    }
+
+    /**
+     * Answers a read of one INT with the given value.
+     */
+    private static TPKTPacket readResponse(TPKTPacket request, int value) {
+        int tpduReference = tpduReference(request);
+        S7VarPayloadDataItem item = new S7VarPayloadDataItem(DataTransportErrorCode.OK,
+            DataTransportSize.BYTE_WORD_DWORD, 2, bytes(value >> 8, value));
+        return new TPKTPacket(new COTPPacketData(null,
+            new S7MessageResponseData(tpduReference, new S7ParameterReadVarResponse((short) 1),
+                new S7PayloadReadVarResponse(new S7VarPayloadDataItem[] {item}), (short) 0, (short) 0),
+            true, (short) tpduReference));
+    }
+
+    private static PlcReadRequest readRequest(String address) {
+        LinkedHashMap<String, PlcField> fields = new LinkedHashMap<>();
+        fields.put("value", S7Field.of(address));
+        return new DefaultPlcReadRequest(null, fields);
+    }
+
+    private static S7RangeField rangeField(int numBytes, String... namesAndAddresses) {
+        LinkedHashMap<String, S7Field> fields = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndAddresses.length; i += 2) {
+            fields.put(namesAndAddresses[i], S7Field.of(namesAndAddresses[i + 1]));
+        }
+        return new S7RangeField(MemoryArea.DATA_BLOCKS, 1, 0, numBytes, fields);
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+
+}
@@ -0,0 +1,183 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.benchmarks;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.Plc4xEmbeddedChannel;
+import org.apache.plc4x.java.PlcDriverManager;
+import org.apache.plc4x.java.api.PlcConnection;
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.java.spi.connection.ChannelExposingConnection;
+import org.apache.plc4x.java.spi.connection.GeneratedDriverBase;
+import org.apache.plc4x.java.spi.events.ConnectedEvent;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Measures the round-trip of read requests through a full driver stack (connection, optimizer, request transaction
+ * manager, protocol logic and codecs), without a real PLC: the driver is connected via the "test" transport and a
+ * {@link ScriptedResponder} answers every request.
+ *
+ * Throughput mode reports the requests per second, sample time mode the latency percentiles (p0.50, p0.99, ...).
+ * Running the {@link #main(String[])} method runs the benchmark with 1, 4 and 16 concurrent threads and the GC
+ * profiler enabled, so the allocations per read are reported too (Additional JMH command line options are passed
+ * along). As the EIP driver sends all fields in one request and only allows one request at a time, it's only
+ * benchmarked with up to {@link #EIP_MAX_FIELD_COUNT} fields (its frames must not exceed 255 bytes) and one
+ * request in flight.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DriverBenchmark {
+
+    private static final int[] CONCURRENCY_LEVELS = {1, 4, 16};
+
+    private static final int EIP_MAX_FIELD_COUNT = 10;
+
+    /**
+     * Protocol of the simulated device.
+     */
+    @Param({"modbus", "s7", "eip"})
+    public String protocol;
+
+    /**
+     * Number of fields per read request. The fields are located at consecutive addresses.
+     */
+    @Param({"1", "10", "200"})
+    public int fieldCount;
+
+    /**
+     * Number of requests the driver may send without having received the responses.
+     */
+    @Param({"1", "8"})
+    public int maxInFlight;
+
+    /**
+     * Simulated latency of the responses.
+     */
+    @Param({"0"})
+    public long latencyMicros;
+
+    private PlcConnection connection;
+    private ScriptedResponder responder;
+    private PlcReadRequest readRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        final String connectionString;
+        final UnaryOperator<byte[]> script;
+        final IntFunction<String> address;
+        boolean handshake = true;
+        switch (protocol) {
+            case "modbus":
+                connectionString = "modbus:test://localhost?max-in-flight=" + maxInFlight;
+                script = ScriptedResponder::respondModbus;
+                address = i -> "holding-register:" + i;
+                handshake = false;
+                break;
+            case "s7":
+                connectionString = "s7:test://localhost?controller-type=S7_1500&max-amq-caller=" + maxInFlight +
+                    "&max-amq-callee=" + maxInFlight;
+                script = ScriptedResponder::respondS7;
+                address = i -> "%DB1.DBW" + (i * 2) + ":INT";
+                break;
+            case "eip":
+                connectionString = "eip:test://localhost";
+                script = ScriptedResponder::respondEip;
+                address = i -> "%rate" + i;
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported protocol " + protocol);
+        }
+        // The channel only exists once connected, so don't wait for the handshake while connecting, but after
+        // installing the responder, which answers it.
+        System.setProperty(GeneratedDriverBase.PROPERTY_PLC4X_FORCE_AWAIT_SETUP_COMPLETE, "false");
+        connection = new PlcDriverManager().getConnection(connectionString);
+        Plc4xEmbeddedChannel channel = (Plc4xEmbeddedChannel) ((ChannelExposingConnection) connection).getChannel();
+        CompletableFuture<Void> connected = new CompletableFuture<>();
+        channel.pipeline().addFirst(new ChannelInboundHandlerAdapter() {
+            @Override
+            public void userEventTriggered(ChannelHandlerContext ctx, Object evt) {
+                if (evt instanceof ConnectedEvent) {
+                    connected.complete(null);
+                }
+                ctx.fireUserEventTriggered(evt);
+            }
+        });
+        responder = new ScriptedResponder(script, latencyMicros);
+        responder.install(channel);
+        if (handshake) {
+            connected.get(10, TimeUnit.SECONDS);
+        }
+
+        PlcReadRequest.Builder builder = connection.readRequestBuilder();
+        for (int i = 0; i < fieldCount; i++) {
+            builder.addItem("field-" + i, address.apply(i));
+        }
+        readRequest = builder.build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        connection.close();
+        responder.close();
+    }
+
+    @Benchmark
+    public PlcReadResponse read() throws Exception {
+        return readRequest.execute().get(10, TimeUnit.SECONDS);
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        for (int threads : CONCURRENCY_LEVELS) {
+            new Runner(options(commandLineOptions, threads)
+                .param("protocol", "modbus", "s7")
+                .build()).run();
+            new Runner(options(commandLineOptions, threads)
+                .param("protocol", "eip")
+                .param("fieldCount", "1", String.valueOf(EIP_MAX_FIELD_COUNT))
+                .param("maxInFlight", "1")
+                .build()).run();
+        }
+    }
+
+    private static ChainedOptionsBuilder options(CommandLineOptions commandLineOptions, int threads) {
+        return new OptionsBuilder()
+            .parent(commandLineOptions)
+            .include(DriverBenchmark.class.getName())
+            .threads(threads)
+            .addProfiler(GCProfiler.class);
+    }
+
+}
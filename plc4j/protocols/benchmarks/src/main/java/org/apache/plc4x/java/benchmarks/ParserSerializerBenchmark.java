@@ -0,0 +1,240 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.benchmarks;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.apache.plc4x.java.spi.generation.ByteBufReadBuffer;
+import org.apache.plc4x.java.spi.generation.ByteBufWriteBuffer;
+import org.apache.plc4x.java.spi.generation.Message;
+import org.apache.plc4x.java.spi.generation.ReadBuffer;
+import org.apache.plc4x.java.spi.generation.WriteBuffer;
+import org.apache.plc4x.test.parserserializer.ParserSerializerTestsuiteRunner;
+import org.apache.plc4x.test.parserserializer.exceptions.ParserSerializerTestsuiteException;
+import org.apache.plc4x.test.parserserializer.model.ParserSerializerTestsuite;
+import org.apache.plc4x.test.parserserializer.model.Testcase;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks the generated static parse and serialize methods with every testcase of the parser-serializer
+ * testsuites of the generated drivers.
+ *
+ * The testcases are passed in as "testcase" parameter in the form "{testsuite document}:{index}:{testcase name}",
+ * the index selects the testcase, so testcases with the same name are still told apart. Running the
+ * {@link #main(String[])} method benchmarks all testcases of all parser-serializer testsuites found in the
+ * {@link #TESTSUITE_DIRECTORY} with the GC profiler enabled (Additional JMH command line options are passed along).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserSerializerBenchmark {
+
+    static final String TESTSUITE_DIRECTORY = "/testsuite";
+
+    private static final String PARSER_SERIALIZER_TESTSUITE_NAMESPACE =
+        "https://plc4x.apache.org/schemas/parser-serializer-testsuite.xsd";
+
+    @Param("/testsuite/modbus/ModbusTestsuite.xml:0:Read Input Registers Request")
+    public String testcase;
+
+    /** Generated static parse method with the parser arguments already bound: (ReadBuffer) -> Object */
+    private MethodHandle parseHandle;
+    /** Generated static serialize method: (WriteBuffer, Object) -> void */
+    private MethodHandle serializeHandle;
+    private boolean littleEndian;
+    /** Raw message, as the codec gets it from the channel */
+    private ByteBuf rawBuffer;
+    /** Reused outbound buffer, as the codec gets it from the channel */
+    private ByteBuf outBuffer;
+    private Object message;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        // The testcase name may contain colons itself, so only the first two are separators.
+        String[] parts = testcase.split(":", 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Expecting a testcase in the form {testsuite}:{index}:{testcase}");
+        }
+        ParserSerializerTestsuite testsuite = loadTestsuite(parts[0]);
+        int index = Integer.parseInt(parts[1]);
+        if ((index < 0) || (index >= testsuite.getTestcases().size())
+            || !testsuite.getTestcases().get(index).getName().equals(parts[2])) {
+            throw new IllegalArgumentException("Unknown testcase " + testcase);
+        }
+        Testcase selected = testsuite.getTestcases().get(index);
+
+        // The methods are looked up and the parser arguments converted only once, so the benchmark methods
+        // neither use reflection nor allocate anything besides the buffer and the parsed message.
+        Method parseMethod = ParserSerializerTestsuiteRunner.getStaticParseMethod(selected);
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        parseHandle = MethodHandles.insertArguments(lookup.unreflect(parseMethod), 1,
+                ParserSerializerTestsuiteRunner.getParserArguments(selected, parseMethod))
+            .asType(MethodType.methodType(Object.class, ReadBuffer.class));
+        serializeHandle = lookup.unreflect(ParserSerializerTestsuiteRunner.getStaticSerializeMethod(selected))
+            .asType(MethodType.methodType(void.class, WriteBuffer.class, Object.class));
+        littleEndian = testsuite.isLittleEndian();
+        byte[] raw = selected.getRaw();
+        rawBuffer = Unpooled.directBuffer(raw.length).writeBytes(raw);
+        // Parse the message once, so we have something to serialize.
+        message = parse();
+        outBuffer = Unpooled.directBuffer(((Message) message).getLengthInBytes());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        rawBuffer.release();
+        outBuffer.release();
+    }
+
+    /**
+     * Parses the message just like the {@link org.apache.plc4x.java.spi.GeneratedDriverByteToMessageCodec}.
+     */
+    @Benchmark
+    public Object parse() throws Throwable {
+        ReadBuffer readBuffer = new ByteBufReadBuffer(rawBuffer, littleEndian);
+        return (Object) parseHandle.invokeExact(readBuffer);
+    }
+
+    /**
+     * Serializes the message just like the {@link org.apache.plc4x.java.spi.GeneratedDriverByteToMessageCodec}.
+     */
+    @Benchmark
+    public ByteBuf serialize() throws Throwable {
+        outBuffer.clear();
+        outBuffer.ensureWritable(((Message) message).getLengthInBytes());
+        WriteBuffer writeBuffer = new ByteBufWriteBuffer(outBuffer, littleEndian);
+        serializeHandle.invokeExact(writeBuffer, message);
+        return outBuffer;
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> testcases = new ArrayList<>();
+        for (String testsuiteDocument : findTestsuites()) {
+            List<Testcase> curTestcases = loadTestsuite(testsuiteDocument).getTestcases();
+            for (int i = 0; i < curTestcases.size(); i++) {
+                testcases.add(testsuiteDocument + ":" + i + ":" + curTestcases.get(i).getName());
+            }
+        }
+        if (testcases.isEmpty()) {
+            throw new IllegalStateException("Couldn't find any testcases in " + TESTSUITE_DIRECTORY);
+        }
+        Options options = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .include(ParserSerializerBenchmark.class.getName())
+            .param("testcase", testcases.toArray(new String[0]))
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * @return resource names of all parser-serializer testsuites in the {@link #TESTSUITE_DIRECTORY} and its
+     * subdirectories, both if it's a directory or inside of a jar (as in the shaded benchmarks jar). Other xml
+     * documents, like driver testsuites, are skipped.
+     */
+    static List<String> findTestsuites() throws IOException, URISyntaxException, XMLStreamException {
+        URL url = ParserSerializerBenchmark.class.getResource(TESTSUITE_DIRECTORY);
+        if (url == null) {
+            return Collections.emptyList();
+        }
+        URI uri = url.toURI();
+        List<String> documents;
+        if ("jar".equals(uri.getScheme())) {
+            try (FileSystem fileSystem = FileSystems.newFileSystem(uri, Collections.emptyMap())) {
+                documents = listDocuments(fileSystem.getPath(TESTSUITE_DIRECTORY));
+            }
+        } else {
+            documents = listDocuments(Paths.get(uri));
+        }
+        List<String> testsuites = new ArrayList<>();
+        for (String document : documents) {
+            if (isParserSerializerTestsuite(document)) {
+                testsuites.add(document);
+            }
+        }
+        return testsuites;
+    }
+
+    private static List<String> listDocuments(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths
+                .filter(Files::isRegularFile)
+                .filter(path -> path.getFileName().toString().endsWith(".xml"))
+                .map(path -> TESTSUITE_DIRECTORY + "/" + directory.relativize(path).toString().replace('\\', '/'))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    private static boolean isParserSerializerTestsuite(String document) throws IOException, XMLStreamException {
+        try (InputStream is = ParserSerializerBenchmark.class.getResourceAsStream(document)) {
+            XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(is);
+            try {
+                reader.nextTag();
+                return PARSER_SERIALIZER_TESTSUITE_NAMESPACE.equals(reader.getNamespaceURI())
+                    && "testsuite".equals(reader.getLocalName());
+            } finally {
+                reader.close();
+            }
+        }
+    }
+
+    private static ParserSerializerTestsuite loadTestsuite(String testsuiteDocument)
+        throws ParserSerializerTestsuiteException, IOException {
+        try (InputStream is = ParserSerializerBenchmark.class.getResourceAsStream(testsuiteDocument)) {
+            if (is == null) {
+                throw new IllegalArgumentException("Couldn't find testsuite " + testsuiteDocument);
+            }
+            return ParserSerializerTestsuiteRunner.parseTestsuite(is);
+        }
+    }
+
+}
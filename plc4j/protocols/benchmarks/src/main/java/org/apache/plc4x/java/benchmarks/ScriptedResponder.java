@@ -0,0 +1,398 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.benchmarks;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.Plc4xEmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * Simulates a PLC on the other end of a {@link Plc4xEmbeddedChannel}.
+ *
+ * Installed as first handler of the pipeline, it intercepts every message the driver sends to the wire, lets the
+ * script create the response for it and passes that back into the channel after the configured latency.
+ *
+ * The event loop of the embedded channel claims to be the current thread for every thread, so the pipeline would
+ * be used concurrently by all threads sending requests. Therefore {@link #install} also adds a handler to
+ * the tail of the pipeline, which hands all outbound operations to one single "wire" thread. That thread also
+ * delivers the responses, so all work in the pipeline is serialized, just like it would be by the event loop of a
+ * real channel.
+ */
+public class ScriptedResponder extends ChannelOutboundHandlerAdapter implements AutoCloseable {
+
+    private final UnaryOperator<byte[]> script;
+    private final long latencyMicros;
+    private final ScheduledExecutorService wire;
+
+    /**
+     * @param script creates the response for a request (null, if the request isn't answered).
+     * @param latencyMicros time it takes for the response to arrive.
+     */
+    public ScriptedResponder(UnaryOperator<byte[]> script, long latencyMicros) {
+        this.script = script;
+        this.latencyMicros = latencyMicros;
+        this.wire = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "scripted-responder");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Adds the responder to the head and the hand-over to the wire thread to the tail of the pipeline of the
+     * channel. Messages the driver has already sent (e.g. the start of a handshake) are answered right away.
+     */
+    public void install(Plc4xEmbeddedChannel channel) {
+        channel.pipeline().addFirst(this);
+        channel.pipeline().addLast(new WireThreadHandler());
+        wire.execute(() -> {
+            Object msg;
+            while ((msg = channel.readOutbound()) != null) {
+                respond(channel, msg);
+            }
+        });
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+        promise.trySuccess();
+        respond((Plc4xEmbeddedChannel) ctx.channel(), msg);
+    }
+
+    private void respond(Plc4xEmbeddedChannel channel, Object msg) {
+        byte[] request;
+        try {
+            request = ByteBufUtil.getBytes((ByteBuf) msg);
+        } finally {
+            ReferenceCountUtil.release(msg);
+        }
+
+        byte[] response = script.apply(request);
+        if (response != null) {
+            wire.schedule(() -> channel.writeInbound(Unpooled.wrappedBuffer(response)),
+                latencyMicros, TimeUnit.MICROSECONDS);
+        }
+    }
+
+    @Override
+    public void close() {
+        wire.shutdownNow();
+    }
+
+    /**
+     * Continues every outbound operation on the wire thread.
+     */
+    private class WireThreadHandler extends ChannelOutboundHandlerAdapter {
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+            wire.execute(() -> ctx.write(msg, promise));
+        }
+
+        @Override
+        public void flush(ChannelHandlerContext ctx) {
+            wire.execute(ctx::flush);
+        }
+
+    }
+
+    /**
+     * Answers Modbus TCP requests: read requests are answered with zeros, write requests are acknowledged and
+     * everything else is answered with an "illegal function" exception.
+     */
+    public static byte[] respondModbus(byte[] request) {
+        // Transaction id (2), protocol id (2), length (2) and unit id (1) followed by the PDU.
+        final int function = request[7] & 0xFF;
+        final int quantity = ((request[10] & 0xFF) << 8) | (request[11] & 0xFF);
+        final byte[] pdu;
+        switch (function) {
+            // Read coils / discrete inputs
+            case 0x01:
+            case 0x02:
+                pdu = readResponse(function, (quantity + 7) / 8);
+                break;
+            // Read holding / input registers
+            case 0x03:
+            case 0x04:
+                pdu = readResponse(function, quantity * 2);
+                break;
+            // Write single coil / register and write multiple coils / registers
+            case 0x05:
+            case 0x06:
+            case 0x0F:
+            case 0x10:
+                pdu = new byte[5];
+                System.arraycopy(request, 7, pdu, 0, 5);
+                break;
+            default:
+                pdu = new byte[] {(byte) (function | 0x80), 0x01};
+                break;
+        }
+        byte[] response = new byte[7 + pdu.length];
+        // Transaction id and protocol id are copied from the request.
+        System.arraycopy(request, 0, response, 0, 4);
+        response[4] = (byte) ((pdu.length + 1) >> 8);
+        response[5] = (byte) (pdu.length + 1);
+        response[6] = request[6];
+        System.arraycopy(pdu, 0, response, 7, pdu.length);
+        return response;
+    }
+
+    private static byte[] readResponse(int function, int byteCount) {
+        byte[] pdu = new byte[2 + byteCount];
+        pdu[0] = (byte) function;
+        pdu[1] = (byte) byteCount;
+        return pdu;
+    }
+
+    /**
+     * Answers S7 requests: the COTP connection request and the S7 setup communication are confirmed with the
+     * requested parameters, read requests are answered with zeros and write requests are acknowledged. The
+     * identification of the remote isn't scripted, so the "controller-type" has to be set in the connection string.
+     */
+    public static byte[] respondS7(byte[] request) {
+        // TPKT header (4) followed by the COTP header, which starts with its length (without the length byte).
+        if ((request[5] & 0xFF) == 0xE0) {
+            // COTP connection request: the response has the same parameters and references the request.
+            byte[] response = request.clone();
+            response[5] = (byte) 0xD0;
+            response[6] = request[8];
+            response[7] = request[9];
+            response[8] = 0x00;
+            response[9] = 0x01;
+            return response;
+        }
+        // S7 header of a request: protocol id, message type, reserved (2), tpdu reference (2), parameter length (2)
+        // and payload length (2) followed by the parameter.
+        final int s7 = 5 + (request[4] & 0xFF);
+        final int parameterType = request[s7 + 10] & 0xFF;
+        final ByteArrayOutputStream parameter = new ByteArrayOutputStream();
+        final ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        switch (parameterType) {
+            // Setup communication
+            case 0xF0:
+                parameter.write(request, s7 + 10, 8);
+                break;
+            // Read var
+            case 0x04: {
+                final int numItems = request[s7 + 11] & 0xFF;
+                parameter.write(0x04);
+                parameter.write(numItems);
+                for (int i = 0; i < numItems; i++) {
+                    // Item type, length, address type, transport size, number of elements, ...
+                    final int item = s7 + 12 + (i * 12);
+                    final int transportSize = request[item + 3] & 0xFF;
+                    final int numberOfElements = ((request[item + 4] & 0xFF) << 8) | (request[item + 5] & 0xFF);
+                    final int dataTransportSize;
+                    final int dataLength;
+                    final int numBytes;
+                    if (transportSize == 0x01) {
+                        // BOOL: the length is given in bits.
+                        dataTransportSize = 0x03;
+                        dataLength = numberOfElements;
+                        numBytes = (numberOfElements + 7) / 8;
+                    } else {
+                        dataTransportSize = 0x04;
+                        numBytes = numberOfElements * s7SizeInBytes(transportSize);
+                        dataLength = numBytes * 8;
+                    }
+                    payload.write(0xFF);
+                    payload.write(dataTransportSize);
+                    payload.write(dataLength >> 8);
+                    payload.write(dataLength);
+                    payload.write(new byte[numBytes], 0, numBytes);
+                    if ((i < numItems - 1) && (numBytes % 2 == 1)) {
+                        payload.write(0x00);
+                    }
+                }
+                break;
+            }
+            // Write var
+            case 0x05: {
+                final int numItems = request[s7 + 11] & 0xFF;
+                parameter.write(0x05);
+                parameter.write(numItems);
+                for (int i = 0; i < numItems; i++) {
+                    payload.write(0xFF);
+                }
+                break;
+            }
+            default:
+                return null;
+        }
+        final int length = 4 + 3 + 12 + parameter.size() + payload.size();
+        final ByteArrayOutputStream response = new ByteArrayOutputStream(length);
+        // TPKT header
+        response.write(0x03);
+        response.write(0x00);
+        response.write(length >> 8);
+        response.write(length);
+        // COTP data header (end of transmission, tpdu reference 0)
+        response.write(0x02);
+        response.write(0xF0);
+        response.write(0x80);
+        // S7 header of a response (ack data): the tpdu reference is copied from the request.
+        response.write(0x32);
+        response.write(0x03);
+        response.write(0x00);
+        response.write(0x00);
+        response.write(request, s7 + 4, 2);
+        response.write(parameter.size() >> 8);
+        response.write(parameter.size());
+        response.write(payload.size() >> 8);
+        response.write(payload.size());
+        // Error class and code
+        response.write(0x00);
+        response.write(0x00);
+        response.write(parameter.toByteArray(), 0, parameter.size());
+        response.write(payload.toByteArray(), 0, payload.size());
+        return response.toByteArray();
+    }
+
+    private static int s7SizeInBytes(int transportSize) {
+        switch (transportSize) {
+            // WORD, INT
+            case 0x04:
+            case 0x05:
+                return 2;
+            // DWORD, DINT, REAL
+            case 0x06:
+            case 0x07:
+            case 0x08:
+                return 4;
+            // BYTE, CHAR, ...
+            default:
+                return 1;
+        }
+    }
+
+    /**
+     * Answers EtherNet/IP requests: sessions are registered, read requests are answered with DINT zeros and write
+     * requests are acknowledged (also if they are bundled in a multiple service request).
+     */
+    public static byte[] respondEip(byte[] request) {
+        // The encapsulation header (24 bytes) starts with the command (little endian).
+        final int command = (request[0] & 0xFF) | ((request[1] & 0xFF) << 8);
+        switch (command) {
+            // Register session
+            case 0x0065: {
+                byte[] response = request.clone();
+                response[4] = 0x01;
+                return response;
+            }
+            // Send RR data
+            case 0x006F:
+                break;
+            default:
+                return null;
+        }
+        // Reserved (6), item count (2), null address (4), data item type (2) and length (2) are followed by the
+        // unconnected request (service, path (5), timeout (2) and message size (2)) wrapping the actual service.
+        final int service = 50;
+        final byte[] data;
+        if ((request[service] & 0xFF) == 0x0A) {
+            // Multiple service request: the path (size and 4 bytes) is followed by the number of services and their
+            // offsets (relative to the number of services).
+            final int services = service + 6;
+            final int serviceNb = readUInt16LE(request, services);
+            final ByteArrayOutputStream servicesData = new ByteArrayOutputStream();
+            final int[] offsets = new int[serviceNb];
+            for (int i = 0; i < serviceNb; i++) {
+                offsets[i] = 2 + (serviceNb * 2) + servicesData.size();
+                byte[] serviceResponse = respondEipService(request, services + readUInt16LE(request, services + 2 + (i * 2)));
+                if (serviceResponse == null) {
+                    return null;
+                }
+                servicesData.write(serviceResponse, 0, serviceResponse.length);
+            }
+            final ByteArrayOutputStream multipleServiceResponse = new ByteArrayOutputStream();
+            multipleServiceResponse.write(0x8A);
+            multipleServiceResponse.write(0x00);
+            multipleServiceResponse.write(0x00);
+            multipleServiceResponse.write(0x00);
+            writeUInt16LE(multipleServiceResponse, serviceNb);
+            for (int offset : offsets) {
+                writeUInt16LE(multipleServiceResponse, offset);
+            }
+            multipleServiceResponse.write(servicesData.toByteArray(), 0, servicesData.size());
+            data = multipleServiceResponse.toByteArray();
+        } else {
+            data = respondEipService(request, service);
+        }
+        if (data == null) {
+            return null;
+        }
+        final ByteArrayOutputStream response = new ByteArrayOutputStream(40 + data.length);
+        // Encapsulation header: command, length, session handle, status, sender context and options.
+        response.write(request, 0, 2);
+        writeUInt16LE(response, 16 + data.length);
+        response.write(request, 4, 4);
+        response.write(new byte[4], 0, 4);
+        response.write(request, 12, 12);
+        // Reserved, item count, null address, unconnected data item and its length.
+        response.write(new byte[6], 0, 6);
+        writeUInt16LE(response, 2);
+        response.write(new byte[4], 0, 4);
+        writeUInt16LE(response, 0xB2);
+        writeUInt16LE(response, data.length);
+        response.write(data, 0, data.length);
+        return response.toByteArray();
+    }
+
+    private static byte[] respondEipService(byte[] request, int service) {
+        switch (request[service] & 0xFF) {
+            // Read: the request path (size in words) is followed by the number of elements.
+            case 0x4C: {
+                final int requestPathSize = request[service + 1] & 0xFF;
+                final int elementNb = readUInt16LE(request, service + 2 + (requestPathSize * 2));
+                final byte[] response = new byte[6 + (elementNb * 4)];
+                response[0] = (byte) 0xCC;
+                // DINT
+                response[4] = (byte) 0xC4;
+                return response;
+            }
+            // Write
+            case 0x4D:
+                return new byte[] {(byte) 0xCD, 0x00, 0x00, 0x00};
+            default:
+                return null;
+        }
+    }
+
+    private static int readUInt16LE(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) | ((bytes[offset + 1] & 0xFF) << 8);
+    }
+
+    private static void writeUInt16LE(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >> 8);
+    }
+
+}
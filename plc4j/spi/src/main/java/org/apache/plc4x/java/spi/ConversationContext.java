@@ -47,6 +47,17 @@ public interface ConversationContext<T> {
 
         SendRequestContext<T> check(Predicate<T> checker);
 
+        /**
+         * Sets a key identifying the response to this request (e.g. a transaction id or a tpdu reference).
+         * Handlers with a correlation key are looked up directly by the key extracted from incoming messages
+         * via {@link Plc4xProtocolBase#getCorrelationKey(Object)}, instead of checking every registered handler.
+         * All checks of the handler are still applied to the message found this way.
+         *
+         * @param correlationKey key of the expected response (has to implement equals and hashCode).
+         * @return this context.
+         */
+        SendRequestContext<T> correlate(Object correlationKey);
+
         void handle(Consumer<T> packetConsumer);
 
         <E extends Throwable> SendRequestContext<T> onTimeout(Consumer<TimeoutException> packetConsumer);
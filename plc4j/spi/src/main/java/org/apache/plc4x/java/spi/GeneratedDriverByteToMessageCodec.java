@@ -19,9 +19,11 @@
 package org.apache.plc4x.java.spi;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageCodec;
-import org.apache.commons.codec.binary.Hex;
+import org.apache.plc4x.java.spi.generation.ByteBufReadBuffer;
+import org.apache.plc4x.java.spi.generation.ByteBufWriteBuffer;
 import org.apache.plc4x.java.spi.generation.Message;
 import org.apache.plc4x.java.spi.generation.MessageIO;
 import org.apache.plc4x.java.spi.generation.ReadBuffer;
@@ -48,10 +50,15 @@ public abstract class GeneratedDriverByteToMessageCodec<T extends Message> exten
 
     @Override
     protected void encode(ChannelHandlerContext ctx, T packet, ByteBuf byteBuf) throws Exception {
-        WriteBuffer buffer = new WriteBuffer(packet.getLengthInBytes(), !bigEndian);
+        // Serialize directly into the (pooled) outbound buffer, which is sized up-front.
+        byteBuf.ensureWritable(packet.getLengthInBytes());
+        int startIndex = byteBuf.writerIndex();
+        WriteBuffer buffer = new ByteBufWriteBuffer(byteBuf, !bigEndian);
         io.serialize(buffer, packet);
-        byteBuf.writeBytes(buffer.getData());
-        logger.debug("Sending bytes to PLC for message {} as data {}", packet, Hex.encodeHexString(buffer.getData()));
+        if(logger.isDebugEnabled()) {
+            logger.debug("Sending bytes to PLC for message {} as data {}", packet,
+                ByteBufUtil.hexDump(byteBuf, startIndex, byteBuf.writerIndex() - startIndex));
+        }
     }
 
     @Override
@@ -59,7 +66,7 @@ public abstract class GeneratedDriverByteToMessageCodec<T extends Message> exten
         logger.trace("Receiving bytes, trying to decode Message...");
         // As long as there is data available, continue checking the content.
         while(byteBuf.readableBytes() > 0) {
-            byte[] bytes = null;
+            ByteBuf packetBuf = null;
             try {
                 // Check if enough data is present to process the entire package.
                 int packetSize = getPacketSize(byteBuf);
@@ -67,10 +74,9 @@ public abstract class GeneratedDriverByteToMessageCodec<T extends Message> exten
                     return;
                 }
 
-                // Read the packet data into a new ReadBuffer
-                bytes = new byte[packetSize];
-                byteBuf.readBytes(bytes);
-                ReadBuffer readBuffer = new ReadBuffer(bytes, !bigEndian);
+                // Wrap the packet data in a ReadBuffer (without copying it)
+                packetBuf = byteBuf.readSlice(packetSize);
+                ReadBuffer readBuffer = new ByteBufReadBuffer(packetBuf, !bigEndian);
 
                 // Parse the packet.
                 T packet = io.parse(readBuffer, parserArgs);
@@ -84,8 +90,8 @@ public abstract class GeneratedDriverByteToMessageCodec<T extends Message> exten
                     return;
                 }
             } catch (Exception e) {
-                if(bytes != null) {
-                    logger.warn("Error decoding package with content [" + Hex.encodeHexString(bytes) + "]: "
+                if(packetBuf != null) {
+                    logger.warn("Error decoding package with content [" + ByteBufUtil.hexDump(packetBuf) + "]: "
                         + e.getMessage(), e);
                 }
                 // Just remove any trailing junk ... if there is any.
@@ -23,6 +23,7 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPipeline;
 import io.netty.handler.codec.MessageToMessageCodec;
+import io.netty.util.Timer;
 import io.vavr.control.Either;
 import org.apache.plc4x.java.spi.events.CloseConnectionEvent;
 import org.apache.plc4x.java.spi.events.ConnectEvent;
@@ -40,8 +41,12 @@ import java.time.Instant;
 import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -52,12 +57,19 @@ public class Plc4xNettyWrapper<T> extends MessageToMessageCodec<T, Object> {
 
     private final Plc4xProtocolBase<T> protocolBase;
     private final Queue<HandlerRegistration> registeredHandlers;
+    private final Map<Object, HandlerRegistration> correlatedHandlers;
     private final ChannelPipeline pipeline;
+    private final Timer timer;
 
-    public Plc4xNettyWrapper(ChannelPipeline pipeline, Plc4xProtocolBase<T> protocol, Class<T> clazz) {
+    /**
+     * @param timer timer used for expiring registered handlers (usually shared by all connections).
+     */
+    public Plc4xNettyWrapper(Timer timer, ChannelPipeline pipeline, Plc4xProtocolBase<T> protocol, Class<T> clazz) {
         super(clazz, Object.class);
+        this.timer = timer;
         this.pipeline = pipeline;
         this.registeredHandlers = new ConcurrentLinkedQueue<>();
+        this.correlatedHandlers = new ConcurrentHashMap<>();
         this.protocolBase = protocol;
         this.protocolBase.setContext(new ConversationContext<T>() {
             @Override
@@ -84,7 +96,7 @@ public class Plc4xNettyWrapper<T> extends MessageToMessageCodec<T, Object> {
             public SendRequestContext<T> sendRequest(T packet) {
                 return new DefaultSendRequestContext<>(handler -> {
                     logger.trace("Adding Response Handler ...");
-                    registeredHandlers.add(handler);
+                    register(handler);
                 }, packet, this);
             }
 
@@ -92,7 +104,7 @@ public class Plc4xNettyWrapper<T> extends MessageToMessageCodec<T, Object> {
             public ExpectRequestContext<T> expectRequest(Class<T> clazz, Duration timeout) {
                 return new DefaultExpectRequestContext<>(handler -> {
                     logger.trace("Adding Request Handler ...");
-                    registeredHandlers.add(handler);
+                    register(handler);
                 }, clazz, timeout, this);
             }
 
@@ -117,41 +129,20 @@ public class Plc4xNettyWrapper<T> extends MessageToMessageCodec<T, Object> {
     @Override
     protected void decode(ChannelHandlerContext channelHandlerContext, T t, List<Object> list) throws Exception {
         logger.trace("Decoding {}", t);
-        // Just iterate the list to find a suitable  Handler
-
-        registrations:
-        for (Iterator<HandlerRegistration> iter = this.registeredHandlers.iterator(); iter.hasNext(); ) {
-            HandlerRegistration registration = iter.next();
-            // Check if the handler can still be used or should be removed
-            if (registration.getTimeout().isBefore(Instant.now())) {
-                logger.debug("Removing {} as its timed out (was set till {})", registration, registration.getTimeout());
-                iter.remove();
-                continue;
-            }
-            logger.trace("Checking handler {} for Object of type {}", registration, t.getClass().getSimpleName());
-            if (registration.getExpectClazz().isInstance(t)) {
-                logger.trace("Handler {} has right expected type {}, checking condition", registration, registration.getExpectClazz().getSimpleName());
-                // Check all Commands / Functions
-                Deque<Either<Function<?, ?>, Predicate<?>>> commands = registration.getCommands();
-                Object instance = t;
-                for (Iterator<Either<Function<?, ?>, Predicate<?>>> iterator = commands.iterator(); iterator.hasNext(); ) {
-                    Either<Function<?, ?>, Predicate<?>> either = iterator.next();
-                    if (either.isLeft()) {
-                        Function unwrap = either.getLeft();
-                        instance = unwrap.apply(instance);
-                    } else {
-                        Predicate predicate = either.get();
-                        if (predicate.test(instance) == false) {
-                            // We do not match -> cannot handle
-                            logger.trace("Registration {} does not match object {} (currently wrapped to {})", registration, t.getClass().getSimpleName(), instance.getClass().getSimpleName());
-                            continue registrations;
-                        }
-                    }
+        // If there are handlers waiting for a correlated response, try to find the matching one directly.
+        if (!correlatedHandlers.isEmpty()) {
+            Object correlationKey = protocolBase.getCorrelationKey(t);
+            if (correlationKey != null) {
+                HandlerRegistration registration = correlatedHandlers.get(correlationKey);
+                if ((registration != null) && handle(registration, t)) {
+                    return;
                 }
-                logger.trace("Handler {} accepts element {}, calling handle method", registration, t);
-                this.registeredHandlers.remove(registration);
-                Consumer handler = registration.getPacketConsumer();
-                handler.accept(instance);
+            }
+        }
+        // Just iterate the list to find a suitable  Handler
+        // (Expired handlers have already been removed by the timer)
+        for (HandlerRegistration registration : this.registeredHandlers) {
+            if (handle(registration, t)) {
                 return;
             }
         }
@@ -159,6 +150,95 @@ public class Plc4xNettyWrapper<T> extends MessageToMessageCodec<T, Object> {
         protocolBase.decode(new DefaultConversationContext<>(channelHandlerContext), t);
     }
 
+    /**
+     * Checks if the given registration accepts the message and if it does, removes the registration
+     * and passes the (unwrapped) message to it.
+     *
+     * @return true if the message was handled by the registration.
+     */
+    private boolean handle(HandlerRegistration registration, T t) {
+        logger.trace("Checking handler {} for Object of type {}", registration, t.getClass().getSimpleName());
+        if (!registration.getExpectClazz().isInstance(t)) {
+            return false;
+        }
+        logger.trace("Handler {} has right expected type {}, checking condition", registration, registration.getExpectClazz().getSimpleName());
+        // Check all Commands / Functions
+        Deque<Either<Function<?, ?>, Predicate<?>>> commands = registration.getCommands();
+        Object instance = t;
+        for (Iterator<Either<Function<?, ?>, Predicate<?>>> iterator = commands.iterator(); iterator.hasNext(); ) {
+            Either<Function<?, ?>, Predicate<?>> either = iterator.next();
+            if (either.isLeft()) {
+                Function unwrap = either.getLeft();
+                instance = unwrap.apply(instance);
+            } else {
+                Predicate predicate = either.get();
+                if (predicate.test(instance) == false) {
+                    // We do not match -> cannot handle
+                    logger.trace("Registration {} does not match object {} (currently wrapped to {})", registration, t.getClass().getSimpleName(), instance.getClass().getSimpleName());
+                    return false;
+                }
+            }
+        }
+        logger.trace("Handler {} accepts element {}, calling handle method", registration, t);
+        if (!unregister(registration)) {
+            // The registration timed out in the meantime.
+            return false;
+        }
+        registration.cancelTimeout();
+        Consumer handler = registration.getPacketConsumer();
+        handler.accept(instance);
+        return true;
+    }
+
+    private void register(HandlerRegistration registration) {
+        Object correlationKey = registration.getCorrelationKey();
+        if (correlationKey == null) {
+            registeredHandlers.add(registration);
+        } else {
+            HandlerRegistration replaced = correlatedHandlers.put(correlationKey, registration);
+            if (replaced != null) {
+                // The response to the replaced registration can't be told apart any more, so time it out right away.
+                logger.warn("Replacing {} as {} is waiting for a response with the same correlation key {}", replaced, registration, correlationKey);
+                replaced.cancelTimeout();
+                fireTimeout(replaced);
+            }
+        }
+        // Have the timer expire the registration, instead of checking it with every incoming message.
+        long delay = Math.max(0, Duration.between(Instant.now(), registration.getTimeout()).toMillis());
+        registration.setTimeoutHandle(timer.newTimeout(timeout -> expire(registration), delay, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * @return true if the registration was still registered.
+     */
+    private boolean unregister(HandlerRegistration registration) {
+        Object correlationKey = registration.getCorrelationKey();
+        if (correlationKey == null) {
+            return registeredHandlers.remove(registration);
+        }
+        return correlatedHandlers.remove(correlationKey, registration);
+    }
+
+    private void expire(HandlerRegistration registration) {
+        // If the registration is no longer registered, it has been handled in the meantime.
+        if (!unregister(registration)) {
+            return;
+        }
+        logger.debug("Removing {} as its timed out (was set till {})", registration, registration.getTimeout());
+        fireTimeout(registration);
+    }
+
+    private void fireTimeout(HandlerRegistration registration) {
+        Consumer<TimeoutException> onTimeoutConsumer = registration.getOnTimeoutConsumer();
+        if (onTimeoutConsumer != null) {
+            try {
+                onTimeoutConsumer.accept(new TimeoutException("Timed out waiting for a response (was set till " + registration.getTimeout() + ")"));
+            } catch (Exception e) {
+                logger.warn("Error handling the timeout of {}", registration, e);
+            }
+        }
+    }
+
     @Override
     public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
         // If the connection has just been established, start setting up the connection
@@ -208,7 +288,7 @@ public class Plc4xNettyWrapper<T> extends MessageToMessageCodec<T, Object> {
         public SendRequestContext<T1> sendRequest(T1 packet) {
             return new DefaultSendRequestContext<>(handler -> {
                 logger.trace("Adding Response Handler ...");
-                registeredHandlers.add(handler);
+                register(handler);
             }, packet, this);
         }
 
@@ -216,7 +296,7 @@ public class Plc4xNettyWrapper<T> extends MessageToMessageCodec<T, Object> {
         public ExpectRequestContext<T1> expectRequest(Class<T1> clazz, Duration timeout) {
             return new DefaultExpectRequestContext<>(handler -> {
                 logger.trace("Adding Request Handler ...");
-                registeredHandlers.add(handler);
+                register(handler);
             }, clazz, timeout, this);
         }
     }
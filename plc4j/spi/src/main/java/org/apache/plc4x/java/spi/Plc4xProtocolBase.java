@@ -29,6 +29,7 @@ import org.apache.plc4x.java.api.messages.PlcUnsubscriptionResponse;
 import org.apache.plc4x.java.api.messages.PlcWriteRequest;
 import org.apache.plc4x.java.api.messages.PlcWriteResponse;
 import org.apache.plc4x.java.spi.context.DriverContext;
+import org.apache.plc4x.java.spi.messages.DefaultPlcColumnarReadResponse;
 
 import java.util.concurrent.CompletableFuture;
 
@@ -70,10 +71,44 @@ public abstract class Plc4xProtocolBase<T> {
     protected void decode(ConversationContext<T> context, T msg) throws Exception {
     }
 
+    /**
+     * Extracts the key correlating an incoming message with the request it answers
+     * (see {@link ConversationContext.SendRequestContext#correlate(Object)}).
+     * Protocols supporting multiple concurrent requests should override this.
+     *
+     * @param msg incoming message
+     * @return correlation key or null, if the message can't be correlated this way.
+     */
+    protected Object getCorrelationKey(T msg) {
+        return null;
+    }
+
     public CompletableFuture<PlcReadResponse> read(PlcReadRequest readRequest) {
         throw new NotImplementedException("");
     }
 
+    /**
+     * @return true if the protocol implements
+     * {@link #readColumnar(PlcReadRequest, DefaultPlcColumnarReadResponse.Builder)}.
+     */
+    public boolean canReadColumnar() {
+        return false;
+    }
+
+    /**
+     * Reads the given (sub-)request of a prepared read request and decodes the returned values directly into the
+     * columns of the response, instead of boxing them into a {@link PlcReadResponse} first.
+     *
+     * @param readRequest request to be sent.
+     * @param columns columns of the response to the prepared request, fields which are not part of the prepared
+     *                request itself (e.g. parts of split up fields) are stored as intermediate results.
+     * @return future completed as soon as all values are decoded.
+     */
+    public CompletableFuture<Void> readColumnar(PlcReadRequest readRequest,
+                                                DefaultPlcColumnarReadResponse.Builder columns) {
+        throw new NotImplementedException("");
+    }
+
     public CompletableFuture<PlcWriteResponse> write(PlcWriteRequest writeRequest) {
         throw new NotImplementedException("");
     }
@@ -147,6 +147,15 @@ public abstract class AbstractPlcConnection implements PlcConnection, PlcConnect
         return new DefaultPlcUnsubscriptionRequest.Builder(this);
     }
 
+    @Override
+    public PlcReadRequest prepareReadRequest(PlcReadRequest readRequest) {
+        // Requests can only be split up as soon as the protocol is set up.
+        if((optimizer != null) && (protocol != null)) {
+            return optimizer.prepareRead(readRequest, protocol);
+        }
+        return readRequest;
+    }
+
     @Override
     public CompletableFuture<PlcReadResponse> read(PlcReadRequest readRequest) {
         if(optimizer != null) {
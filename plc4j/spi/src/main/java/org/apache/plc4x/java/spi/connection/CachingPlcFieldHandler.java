@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.spi.connection;
+
+import org.apache.plc4x.java.api.exceptions.PlcInvalidFieldException;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.api.value.PlcValue;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link PlcFieldHandler} caching the fields created by another {@link PlcFieldHandler}, so requesting the same
+ * field query over and over again doesn't parse it every time. As fields are immutable, the cached instances can
+ * be shared between requests and connections.
+ *
+ * The cache is bounded, but only approximately, so looking up a cached field never takes a lock: when adding a field
+ * exceeds the maximum number of fields, arbitrary other fields are evicted until the cache is within its bound
+ * again. While fields are added concurrently, the cache may briefly exceed its bound by the number of adding threads.
+ * Invalid field queries aren't cached.
+ */
+public class CachingPlcFieldHandler implements PlcFieldHandler {
+
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private final PlcFieldHandler delegate;
+    private final int maxSize;
+    private final Map<String, PlcField> cache;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    public CachingPlcFieldHandler(PlcFieldHandler delegate) {
+        this(delegate, DEFAULT_MAX_SIZE);
+    }
+
+    public CachingPlcFieldHandler(PlcFieldHandler delegate, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be greater than zero. Was " + maxSize);
+        }
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.cache = new ConcurrentHashMap<>();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    @Override
+    public PlcField createField(String fieldQuery) throws PlcInvalidFieldException {
+        PlcField field = cache.get(fieldQuery);
+        if (field != null) {
+            hits.increment();
+            return field;
+        }
+        misses.increment();
+        // Concurrent misses for the same query may parse it twice, but only the first parsed field is cached and returned.
+        field = delegate.createField(fieldQuery);
+        PlcField cachedField = cache.putIfAbsent(fieldQuery, field);
+        if (cachedField != null) {
+            return cachedField;
+        }
+        if (cache.size() > maxSize) {
+            evict(fieldQuery);
+        }
+        return field;
+    }
+
+    private void evict(String addedFieldQuery) {
+        Iterator<String> fieldQueries = cache.keySet().iterator();
+        while ((cache.size() > maxSize) && fieldQueries.hasNext()) {
+            if (!fieldQueries.next().equals(addedFieldQuery)) {
+                fieldQueries.remove();
+            }
+        }
+    }
+
+    public PlcFieldHandler getDelegate() {
+        return delegate;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getSize() {
+        return cache.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    @Override
+    public PlcValue encodeBoolean(PlcField field, Object[] values) {
+        return delegate.encodeBoolean(field, values);
+    }
+
+    @Override
+    public PlcValue encodeByte(PlcField field, Object[] values) {
+        return delegate.encodeByte(field, values);
+    }
+
+    @Override
+    public PlcValue encodeShort(PlcField field, Object[] values) {
+        return delegate.encodeShort(field, values);
+    }
+
+    @Override
+    public PlcValue encodeInteger(PlcField field, Object[] values) {
+        return delegate.encodeInteger(field, values);
+    }
+
+    @Override
+    public PlcValue encodeBigInteger(PlcField field, Object[] values) {
+        return delegate.encodeBigInteger(field, values);
+    }
+
+    @Override
+    public PlcValue encodeLong(PlcField field, Object[] values) {
+        return delegate.encodeLong(field, values);
+    }
+
+    @Override
+    public PlcValue encodeFloat(PlcField field, Object[] values) {
+        return delegate.encodeFloat(field, values);
+    }
+
+    @Override
+    public PlcValue encodeBigDecimal(PlcField field, Object[] values) {
+        return delegate.encodeBigDecimal(field, values);
+    }
+
+    @Override
+    public PlcValue encodeDouble(PlcField field, Object[] values) {
+        return delegate.encodeDouble(field, values);
+    }
+
+    @Override
+    public PlcValue encodeString(PlcField field, Object[] values) {
+        return delegate.encodeString(field, values);
+    }
+
+    @Override
+    public PlcValue encodeTime(PlcField field, Object[] values) {
+        return delegate.encodeTime(field, values);
+    }
+
+    @Override
+    public PlcValue encodeDate(PlcField field, Object[] values) {
+        return delegate.encodeDate(field, values);
+    }
+
+    @Override
+    public PlcValue encodeDateTime(PlcField field, Object[] values) {
+        return delegate.encodeDateTime(field, values);
+    }
+
+}
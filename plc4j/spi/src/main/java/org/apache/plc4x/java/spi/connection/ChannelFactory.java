@@ -23,10 +23,28 @@ import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelPipeline;
 import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface ChannelFactory {
 
     Channel createChannel(ChannelHandler channelHandler) throws PlcConnectionException;
 
+    /**
+     * Creates the channel without blocking the calling thread.
+     * By default this simply calls the blocking {@link #createChannel(ChannelHandler)}.
+     *
+     * @return future completed with the channel as soon as it's connected.
+     */
+    default CompletableFuture<Channel> createChannelAsync(ChannelHandler channelHandler) {
+        CompletableFuture<Channel> future = new CompletableFuture<>();
+        try {
+            future.complete(createChannel(channelHandler));
+        } catch (PlcConnectionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
     /** Possibility to add an initial Layer to the Pipeline */
     default void initializePipeline(ChannelPipeline pipeline) {
         // Intentionally do Nothing
@@ -25,7 +25,9 @@ import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelPipeline;
 import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
 import io.netty.util.Timer;
+import org.apache.plc4x.java.api.PlcConnection;
 import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
 import org.apache.plc4x.java.api.exceptions.PlcIoException;
 import org.apache.plc4x.java.spi.configuration.Configuration;
@@ -38,33 +40,52 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 public class DefaultNettyPlcConnection extends AbstractPlcConnection implements ChannelExposingConnection {
 
     /**
      * a {@link HashedWheelTimer} shall be only instantiated once.
+     * It's also used for expiring the response handlers of all connections.
      */
     // TODO: maybe find a way to make this configurable per jvm
     protected final static Timer timer = new HashedWheelTimer();
     private static final Logger logger = LoggerFactory.getLogger(DefaultNettyPlcConnection.class);
 
+    /**
+     * Default maximum time (in milliseconds) the protocol handshake may take after the channel is connected.
+     */
+    public static final long DEFAULT_HANDSHAKE_TIMEOUT = 10000;
+
     protected final Configuration configuration;
     protected final ChannelFactory channelFactory;
     protected final boolean awaitSessionSetupComplete;
+    protected final long handshakeTimeout;
     protected final ProtocolStackConfigurer stackConfigurer;
 
-    protected Channel channel;
-    protected boolean connected;
+    protected volatile Channel channel;
+    protected volatile boolean connected;
 
     public DefaultNettyPlcConnection(boolean canRead, boolean canWrite, boolean canSubscribe,
                                      PlcFieldHandler fieldHandler, Configuration configuration,
                                      ChannelFactory channelFactory, boolean awaitSessionSetupComplete,
                                      ProtocolStackConfigurer stackConfigurer, BaseOptimizer optimizer) {
+        this(canRead, canWrite, canSubscribe, fieldHandler, configuration, channelFactory, awaitSessionSetupComplete,
+            DEFAULT_HANDSHAKE_TIMEOUT, stackConfigurer, optimizer);
+    }
+
+    public DefaultNettyPlcConnection(boolean canRead, boolean canWrite, boolean canSubscribe,
+                                     PlcFieldHandler fieldHandler, Configuration configuration,
+                                     ChannelFactory channelFactory, boolean awaitSessionSetupComplete,
+                                     long handshakeTimeout, ProtocolStackConfigurer stackConfigurer,
+                                     BaseOptimizer optimizer) {
         super(canRead, canWrite, canSubscribe, fieldHandler, optimizer);
         this.configuration = configuration;
         this.channelFactory = channelFactory;
         this.awaitSessionSetupComplete = awaitSessionSetupComplete;
+        this.handshakeTimeout = handshakeTimeout;
         this.stackConfigurer = stackConfigurer;
 
         this.connected = false;
@@ -73,44 +94,79 @@ public class DefaultNettyPlcConnection extends AbstractPlcConnection implements
     @Override
     public void connect() throws PlcConnectionException {
         try {
-            // As we don't just want to wait till the connection is established,
-            // define a future we can use to signal back that the s7 session is
-            // finished initializing.
-            CompletableFuture<Void> sessionSetupCompleteFuture = new CompletableFuture<>();
-
-            if(channelFactory == null) {
-                throw new PlcConnectionException("No channel factory provided");
-            }
-
-            // Inject the configuration
-            ConfigurationFactory.configure(configuration, channelFactory);
-
-            // Have the channel factory create a new channel instance.
-            channel = channelFactory.createChannel(getChannelHandler(sessionSetupCompleteFuture));
-            channel.closeFuture().addListener(future -> {
-                if (!sessionSetupCompleteFuture.isDone()) {
-                    sessionSetupCompleteFuture.completeExceptionally(
-                        new PlcIoException("Connection terminated by remote"));
-                }
-            });
-            // Send an event to the pipeline telling the Protocol filters what's going on.
-            sendChannelCreatedEvent();
-
-            // Wait till the connection is established.
-            if (awaitSessionSetupComplete) {
-                sessionSetupCompleteFuture.get();
-            }
-
-            // Set the connection to "connected"
-            connected = true;
+            connectAsync().get();
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new PlcConnectionException(e);
         } catch (ExecutionException e) {
-            throw new PlcConnectionException(e);
+            if (e.getCause() instanceof PlcConnectionException) {
+                throw (PlcConnectionException) e.getCause();
+            }
+            throw new PlcConnectionException(e.getCause());
         }
     }
 
+    /**
+     * Connects the channel and runs the protocol handshake without blocking the calling thread.
+     * If the handshake doesn't finish within the handshake timeout, the channel is closed and the
+     * returned future fails with a {@link PlcConnectionException}.
+     */
+    @Override
+    public CompletableFuture<PlcConnection> connectAsync() {
+        if(channelFactory == null) {
+            CompletableFuture<PlcConnection> future = new CompletableFuture<>();
+            future.completeExceptionally(new PlcConnectionException("No channel factory provided"));
+            return future;
+        }
+
+        // As we don't just want to wait till the connection is established,
+        // define a future we can use to signal back that the s7 session is
+        // finished initializing.
+        CompletableFuture<Void> sessionSetupCompleteFuture = new CompletableFuture<>();
+
+        // Inject the configuration
+        ConfigurationFactory.configure(configuration, channelFactory);
+
+        // Have the channel factory create a new channel instance.
+        return channelFactory.createChannelAsync(getChannelHandler(sessionSetupCompleteFuture))
+            .thenCompose(newChannel -> {
+                channel = newChannel;
+                channel.closeFuture().addListener(future -> {
+                    if (!sessionSetupCompleteFuture.isDone()) {
+                        sessionSetupCompleteFuture.completeExceptionally(
+                            new PlcIoException("Connection terminated by remote"));
+                    }
+                });
+                // Send an event to the pipeline telling the Protocol filters what's going on.
+                sendChannelCreatedEvent();
+
+                // Without waiting for the handshake the connection is usable right away.
+                if (!awaitSessionSetupComplete) {
+                    return CompletableFuture.<Void>completedFuture(null);
+                }
+                if (handshakeTimeout > 0) {
+                    Timeout timeout = timer.newTimeout(t -> sessionSetupCompleteFuture.completeExceptionally(
+                        new PlcConnectionException("Protocol handshake didn't finish within " + handshakeTimeout + "ms")),
+                        handshakeTimeout, TimeUnit.MILLISECONDS);
+                    sessionSetupCompleteFuture.whenComplete((ignored, throwable) -> timeout.cancel());
+                }
+                return sessionSetupCompleteFuture;
+            })
+            .<PlcConnection>handle((ignored, throwable) -> {
+                if (throwable != null) {
+                    // Don't leave a half initialized channel open.
+                    if (channel != null) {
+                        channel.close();
+                    }
+                    Throwable cause = (throwable instanceof CompletionException) ? throwable.getCause() : throwable;
+                    throw new CompletionException(cause);
+                }
+                // Set the connection to "connected"
+                connected = true;
+                return this;
+            });
+    }
+
     /*@Override
     public CompletableFuture<Void> ping() {
         CompletableFuture<Void> future = new CompletableFuture<>();
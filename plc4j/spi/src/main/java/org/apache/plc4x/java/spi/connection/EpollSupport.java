@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.spi.connection;
+
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Access to Nettys native epoll transport (Linux only).
+ * <p>
+ * The netty-transport-native-epoll dependency (with the classifier matching the platform) is optional, so all
+ * epoll classes must only be used after checking {@link #isAvailable()}.
+ */
+public final class EpollSupport {
+
+    private static final Logger logger = LoggerFactory.getLogger(EpollSupport.class);
+
+    private static final boolean AVAILABLE = checkAvailable();
+
+    private EpollSupport() {
+        // Utility class
+    }
+
+    /**
+     * @return true if the native epoll transport can be used on this machine.
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * @return the shared epoll event loop group, which has to be used for all epoll channels.
+     * @throws IllegalStateException if epoll isn't available.
+     */
+    public static SharedEventLoopGroup getSharedEventLoopGroup() {
+        if (!AVAILABLE) {
+            throw new IllegalStateException("The native epoll transport is not available");
+        }
+        return EventLoopGroupHolder.INSTANCE;
+    }
+
+    private static boolean checkAvailable() {
+        try {
+            if (!Epoll.isAvailable()) {
+                logger.debug("Native epoll transport not available", Epoll.unavailabilityCause());
+                return false;
+            }
+            return true;
+        } catch (NoClassDefFoundError e) {
+            logger.debug("Native epoll transport not on the classpath");
+            return false;
+        }
+    }
+
+    // Separate class, so the epoll event loop group is only loaded, if it's available.
+    private static class EventLoopGroupHolder {
+        private static final SharedEventLoopGroup INSTANCE =
+            new SharedEventLoopGroup("plc4x-epoll", EpollEventLoopGroup::new);
+    }
+
+}
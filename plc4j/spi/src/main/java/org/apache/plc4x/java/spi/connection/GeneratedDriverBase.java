@@ -21,6 +21,7 @@ package org.apache.plc4x.java.spi.connection;
 
 import static org.apache.plc4x.java.spi.configuration.ConfigurationFactory.*;
 
+import io.netty.channel.EventLoopGroup;
 import org.apache.plc4x.java.api.PlcConnection;
 import org.apache.plc4x.java.api.PlcDriver;
 import org.apache.plc4x.java.api.authentication.PlcAuthentication;
@@ -31,13 +32,23 @@ import org.apache.plc4x.java.spi.configuration.ConfigurationFactory;
 import org.apache.plc4x.java.spi.optimizer.BaseOptimizer;
 import org.apache.plc4x.java.spi.transport.Transport;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-public abstract class GeneratedDriverBase<BASE_PACKET extends Message> implements PlcDriver {
+public abstract class GeneratedDriverBase<BASE_PACKET extends Message> implements PlcDriver, AutoCloseable {
 
     public static final String PROPERTY_PLC4X_FORCE_AWAIT_SETUP_COMPLETE = "PLC4X_FORCE_AWAIT_SETUP_COMPLETE";
+    /**
+     * Maximum number of parsed fields cached per driver (0 disables caching).
+     */
+    public static final String PROPERTY_PLC4X_FIELD_CACHE_SIZE = "PLC4X_FIELD_CACHE_SIZE";
+    /**
+     * Maximum time (in milliseconds) the protocol handshake of a new connection may take (0 waits forever).
+     */
+    public static final String PROPERTY_PLC4X_HANDSHAKE_TIMEOUT = "PLC4X_HANDSHAKE_TIMEOUT";
 
     private static final Pattern URI_PATTERN = Pattern.compile(
         "^(?<protocolCode>[a-z0-9\\-]*)(:(?<transportCode>[a-z0-9]*))?://(?<transportConfig>[^?]*)(\\?(?<paramString>.*))?");
@@ -60,12 +71,59 @@ public abstract class GeneratedDriverBase<BASE_PACKET extends Message> implement
         return true;
     }
 
+    protected long getHandshakeTimeout() {
+        return DefaultNettyPlcConnection.DEFAULT_HANDSHAKE_TIMEOUT;
+    }
+
     protected BaseOptimizer getOptimizer() {
         return null;
     }
 
     protected abstract PlcFieldHandler getFieldHandler();
 
+    // Shared by all connections of this driver, so every field query only has to be parsed once.
+    private CachingPlcFieldHandler cachingFieldHandler;
+
+    /**
+     * @return the field handler of this driver, wrapped in a {@link CachingPlcFieldHandler} unless the cache is
+     * disabled by setting the system property {@link #PROPERTY_PLC4X_FIELD_CACHE_SIZE} to 0.
+     */
+    protected synchronized PlcFieldHandler getCachingFieldHandler() {
+        if(cachingFieldHandler == null) {
+            int cacheSize = Integer.getInteger(PROPERTY_PLC4X_FIELD_CACHE_SIZE, CachingPlcFieldHandler.DEFAULT_MAX_SIZE);
+            if(cacheSize <= 0) {
+                return getFieldHandler();
+            }
+            cachingFieldHandler = new CachingPlcFieldHandler(getFieldHandler(), cacheSize);
+        }
+        return cachingFieldHandler;
+    }
+
+    // References to the shared event loop groups used by the connections of this driver, held till it's closed,
+    // so the event loop threads aren't stopped and started again every time the last connection is closed.
+    private final Map<SharedEventLoopGroup, EventLoopGroup> eventLoopGroups = new HashMap<>();
+
+    private synchronized void retainEventLoopGroup(ChannelFactory channelFactory) {
+        if(!(channelFactory instanceof NettyChannelFactory)) {
+            return;
+        }
+        SharedEventLoopGroup sharedEventLoopGroup = ((NettyChannelFactory) channelFactory).getSharedEventLoopGroup();
+        if((sharedEventLoopGroup != null) && !eventLoopGroups.containsKey(sharedEventLoopGroup)) {
+            eventLoopGroups.put(sharedEventLoopGroup, sharedEventLoopGroup.retain());
+        }
+    }
+
+    /**
+     * Releases the shared resources held by this driver. Connections which are still open keep on working.
+     */
+    @Override
+    public synchronized void close() {
+        for (Map.Entry<SharedEventLoopGroup, EventLoopGroup> eventLoopGroup : eventLoopGroups.entrySet()) {
+            eventLoopGroup.getKey().release(eventLoopGroup.getValue());
+        }
+        eventLoopGroups.clear();
+    }
+
     protected abstract String getDefaultTransport();
 
     protected abstract ProtocolStackConfigurer<BASE_PACKET> getStackConfigurer();
@@ -125,6 +183,7 @@ public abstract class GeneratedDriverBase<BASE_PACKET extends Message> implement
             throw new PlcConnectionException("Unable to get channel factory from url " + transportConfig);
         }
         configure(configuration, channelFactory);
+        retainEventLoopGroup(channelFactory);
 
         // Give drivers the option to customize the channel.
         initializePipeline(channelFactory);
@@ -134,13 +193,15 @@ public abstract class GeneratedDriverBase<BASE_PACKET extends Message> implement
         if(System.getProperty(PROPERTY_PLC4X_FORCE_AWAIT_SETUP_COMPLETE) != null) {
             awaitSetupComplete = Boolean.parseBoolean(System.getProperty(PROPERTY_PLC4X_FORCE_AWAIT_SETUP_COMPLETE));
         }
+        long handshakeTimeout = Long.getLong(PROPERTY_PLC4X_HANDSHAKE_TIMEOUT, getHandshakeTimeout());
 
         return new DefaultNettyPlcConnection(
             canRead(), canWrite(), canSubscribe(),
-            getFieldHandler(),
+            getCachingFieldHandler(),
             configuration,
             channelFactory,
             awaitSetupComplete,
+            handshakeTimeout,
             getStackConfigurer(),
             getOptimizer());
     }
@@ -31,11 +31,12 @@ import org.slf4j.LoggerFactory;
 
 import java.net.SocketAddress;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Adapter with sensible defaults for a Netty Based Channel Factory.
  * <p>
- * By Default Nettys {@link NioEventLoopGroup} is used.
+ * By Default the {@link NioEventLoopGroup} shared by all connections ({@link SharedEventLoopGroup}) is used.
  * Transports which have to use a different EventLoopGroup have to override {@link #getEventLoopGroup()}.
  */
 public abstract class NettyChannelFactory implements ChannelFactory {
@@ -82,19 +83,75 @@ public abstract class NettyChannelFactory implements ChannelFactory {
      * Has to be in accordance with {@link #getChannel()}
      * otherwise a Runtime Exception will be produced by Netty
      * <p>
-     * By Default Nettys {@link NioEventLoopGroup} is used.
-     * Transports which have to use a different EventLoopGroup have to override {@link #getEventLoopGroup()}.
+     * By Default a reference to the group of {@link #getSharedEventLoopGroup()} is used, which is released as soon
+     * as the channel is closed. Groups returned by overriding implementations are used for one channel only and
+     * are shut down together with it.
      */
     public EventLoopGroup getEventLoopGroup() {
-        return new NioEventLoopGroup();
+        return getSharedEventLoopGroup().retain();
+    }
+
+    /**
+     * @return the shared event loop group the channels of this factory are using by default
+     * (null for transports which always use their own {@link #getEventLoopGroup()}).
+     */
+    public SharedEventLoopGroup getSharedEventLoopGroup() {
+        return SharedEventLoopGroup.getInstance();
     }
 
     @Override
     public Channel createChannel(ChannelHandler channelHandler) throws PlcConnectionException {
+        final ChannelFuture f = connect(channelHandler);
+        final Channel channel = f.channel();
+        try {
+            if(!isEmbedded(channel)) {
+                // Wait for sync
+                f.sync();
+                // Wait till the session is finished initializing.
+                f.awaitUninterruptibly(); // jf: unsure if we need that
+            }
+
+            return channel;
+/*        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PlcConnectionException("Error creating channel.", e);*/
+        } catch (Exception e) {
+            throw new PlcConnectionException("Error creating channel.", e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Channel> createChannelAsync(ChannelHandler channelHandler) {
+        CompletableFuture<Channel> channelFuture = new CompletableFuture<>();
+        try {
+            final ChannelFuture f = connect(channelHandler);
+            if(isEmbedded(f.channel())) {
+                channelFuture.complete(f.channel());
+            } else {
+                f.addListener(future -> {
+                    if (future.isSuccess()) {
+                        channelFuture.complete(f.channel());
+                    } else {
+                        channelFuture.completeExceptionally(
+                            new PlcConnectionException("Error creating channel.", future.cause()));
+                    }
+                });
+            }
+        } catch (PlcConnectionException e) {
+            channelFuture.completeExceptionally(e);
+        }
+        return channelFuture;
+    }
+
+    /**
+     * Starts connecting a new channel (without waiting for the connection to be established).
+     */
+    private ChannelFuture connect(ChannelHandler channelHandler) throws PlcConnectionException {
+        final EventLoopGroup workerGroup = getEventLoopGroup();
+        final ChannelFuture f;
         try {
             Bootstrap bootstrap = createBootstrap();
 
-            final EventLoopGroup workerGroup = getEventLoopGroup();
             if(workerGroup != null) {
                 bootstrap.group(workerGroup);
             }
@@ -105,33 +162,38 @@ public abstract class NettyChannelFactory implements ChannelFactory {
             configureBootstrap(bootstrap);
             bootstrap.handler(channelHandler);
             // Start the client.
-            final ChannelFuture f = bootstrap.connect(address);
-            f.addListener(future -> {
-                if (!future.isSuccess()) {
-                    logger.info("Unable to connect, shutting down worker thread.");
-                    workerGroup.shutdownGracefully();
-                }
-            });
-
-            final Channel channel = f.channel();
-
-            // It seems the embedded channel operates differently.
-            // Intentionally using the class name as we don't want to require a
-            // hard dependency on the test-channel.
-            if(!"Plc4xEmbeddedChannel".equals(channel.getClass().getSimpleName())) {
-                // Wait for sync
-                f.sync();
-                // Wait till the session is finished initializing.
-                f.awaitUninterruptibly(); // jf: unsure if we need that
-            }
-
-            return channel;
-/*        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new PlcConnectionException("Error creating channel.", e);*/
+            f = bootstrap.connect(address);
         } catch (Exception e) {
+            releaseEventLoopGroup(workerGroup);
             throw new PlcConnectionException("Error creating channel.", e);
         }
+        // The worker group is only needed as long as the channel is open.
+        f.channel().closeFuture().addListener(future -> releaseEventLoopGroup(workerGroup));
+        f.addListener(future -> {
+            if (!future.isSuccess()) {
+                logger.info("Unable to connect, closing channel.");
+                f.channel().close();
+            }
+        });
+        return f;
+    }
+
+    // It seems the embedded channel operates differently.
+    // Intentionally using the class name as we don't want to require a
+    // hard dependency on the test-channel.
+    private static boolean isEmbedded(Channel channel) {
+        return "Plc4xEmbeddedChannel".equals(channel.getClass().getSimpleName());
+    }
+
+    private void releaseEventLoopGroup(EventLoopGroup workerGroup) {
+        if(workerGroup == null) {
+            return;
+        }
+        SharedEventLoopGroup sharedEventLoopGroup = getSharedEventLoopGroup();
+        if((sharedEventLoopGroup == null) || !sharedEventLoopGroup.release(workerGroup)) {
+            // Group created for this channel only.
+            workerGroup.shutdownGracefully();
+        }
     }
 
     // TODO do we want to keep this like that?
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.spi.connection;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.function.BiFunction;
+
+/**
+ * Reference counted {@link EventLoopGroup}, which is shared by the channels of all connections instead of starting
+ * new event loop threads for every single connection.
+ * <p>
+ * Every user of the group has to {@link #retain()} it and {@link #release(EventLoopGroup)} it as soon as it's no
+ * longer needed. The group is created with the first reference and shut down as soon as the last one is released
+ * (The next {@link #retain()} simply creates a new group). Channels retain the group as long as they are open,
+ * drivers retain it till they are closed by the {@link org.apache.plc4x.java.PlcDriverManager} that loaded them.
+ * <p>
+ * The number of threads and their names can be configured with the system properties
+ * {@link #PROPERTY_PLC4X_EVENT_LOOP_THREADS} and {@link #PROPERTY_PLC4X_EVENT_LOOP_THREAD_NAME}.
+ */
+public class SharedEventLoopGroup {
+
+    /**
+     * Number of threads of the shared event loop group (0 uses the Netty default of two threads per core).
+     */
+    public static final String PROPERTY_PLC4X_EVENT_LOOP_THREADS = "PLC4X_EVENT_LOOP_THREADS";
+    /**
+     * Prefix of the names of the event loop threads.
+     */
+    public static final String PROPERTY_PLC4X_EVENT_LOOP_THREAD_NAME = "PLC4X_EVENT_LOOP_THREAD_NAME";
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedEventLoopGroup.class);
+
+    private static final SharedEventLoopGroup INSTANCE = new SharedEventLoopGroup("plc4x-nio", NioEventLoopGroup::new);
+
+    private final String defaultThreadName;
+    private final BiFunction<Integer, ThreadFactory, EventLoopGroup> groupFactory;
+
+    private EventLoopGroup group;
+    private int references;
+
+    protected SharedEventLoopGroup(String defaultThreadName,
+                                   BiFunction<Integer, ThreadFactory, EventLoopGroup> groupFactory) {
+        this.defaultThreadName = defaultThreadName;
+        this.groupFactory = groupFactory;
+    }
+
+    /**
+     * @return the shared NIO event loop group.
+     */
+    public static SharedEventLoopGroup getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Adds a reference to the group and creates it, if it doesn't exist yet.
+     *
+     * @return the event loop group, which has to be passed to {@link #release(EventLoopGroup)} later on.
+     */
+    public synchronized EventLoopGroup retain() {
+        if (group == null) {
+            int threads = Integer.getInteger(PROPERTY_PLC4X_EVENT_LOOP_THREADS, 0);
+            String threadName = System.getProperty(PROPERTY_PLC4X_EVENT_LOOP_THREAD_NAME, defaultThreadName);
+            // Daemon threads, as an idle event loop shouldn't keep the application from terminating.
+            group = groupFactory.apply(threads, new DefaultThreadFactory(threadName, true));
+            logger.debug("Created shared event loop group {}", group);
+        }
+        references++;
+        return group;
+    }
+
+    /**
+     * Removes a reference to the group and shuts it down, if this was the last one.
+     *
+     * @param eventLoopGroup group returned by {@link #retain()}.
+     * @return false if the given group isn't the one managed by this instance (in this case nothing is released).
+     */
+    public synchronized boolean release(EventLoopGroup eventLoopGroup) {
+        if ((eventLoopGroup == null) || (eventLoopGroup != group)) {
+            return false;
+        }
+        references--;
+        if (references == 0) {
+            logger.debug("Shutting down shared event loop group {}", group);
+            group.shutdownGracefully();
+            group = null;
+        }
+        return true;
+    }
+
+    /**
+     * @return number of references currently held (0 if there's no group at the moment).
+     */
+    public synchronized int getReferences() {
+        return references;
+    }
+
+}
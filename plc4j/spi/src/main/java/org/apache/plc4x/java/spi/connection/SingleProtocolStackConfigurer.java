@@ -89,7 +89,7 @@ public class SingleProtocolStackConfigurer<BASE_PACKET_CLASS extends Message> im
         if(driverContextClass != null) {
             protocol.setDriverContext(configure(configuration, createInstance(driverContextClass)));
         }
-        Plc4xNettyWrapper<BASE_PACKET_CLASS> context = new Plc4xNettyWrapper<>(pipeline, protocol, basePacketClass);
+        Plc4xNettyWrapper<BASE_PACKET_CLASS> context = new Plc4xNettyWrapper<>(DefaultNettyPlcConnection.timer, pipeline, protocol, basePacketClass);
         pipeline.addLast(context);
         return protocol;
     }
@@ -0,0 +1,329 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.plc4x.java.spi.generation;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+
+/**
+ * {@link ReadBuffer} reading directly from a Netty {@link ByteBuf} without copying its content.
+ *
+ * Byte-aligned reads of 8, 16, 24, 32 and 64 bits are served by the absolute getters of the {@link ByteBuf},
+ * only unaligned reads fall back to reading bit by bit. All indexes are relative to the readerIndex of the
+ * buffer at construction time. The reader- and writerIndex of the buffer itself are not modified.
+ *
+ * The buffer is not retained, so it must stay valid as long as this {@link ReadBuffer} is used.
+ */
+public class ByteBufReadBuffer extends ReadBuffer {
+
+    private final ByteBuf buf;
+    private final int offset;
+    private final long totalBits;
+    private long bitPos;
+
+    public ByteBufReadBuffer(ByteBuf buf) {
+        this(buf, false);
+    }
+
+    public ByteBufReadBuffer(ByteBuf buf, boolean littleEndian) {
+        super(buf.readableBytes(), littleEndian);
+        this.buf = buf;
+        this.offset = buf.readerIndex();
+        this.totalBits = (long) buf.readableBytes() * 8;
+        this.bitPos = 0;
+    }
+
+    @Override
+    public int getPos() {
+        // Same as for the array based version: a partially read byte counts as consumed.
+        return (int) ((bitPos + 7) >>> 3);
+    }
+
+    @Override
+    public byte[] getBytes(int startPos, int endPos) {
+        return ByteBufUtil.getBytes(buf, offset + startPos, endPos - startPos);
+    }
+
+    @Override
+    public boolean hasMore(int numBits) {
+        return (numBits / 8) < (getTotalBytes() - getPos());
+    }
+
+    @Override
+    public byte peekByte(int offset) throws ParseException {
+        int index = getPos() + offset;
+        if ((index < 0) || (index >= getTotalBytes())) {
+            throw new ParseException("Error reading", new IndexOutOfBoundsException("index: " + index));
+        }
+        return buf.getByte(this.offset + index);
+    }
+
+    @Override
+    public boolean readBit() throws ParseException {
+        return readBits(1) != 0;
+    }
+
+    @Override
+    public byte readUnsignedByte(int bitLength) throws ParseException {
+        if (bitLength <= 0) {
+            throw new ParseException("unsigned byte must contain at least 1 bit");
+        }
+        if (bitLength > 4) {
+            throw new ParseException("unsigned byte can only contain max 4 bits");
+        }
+        return (byte) readBits(bitLength);
+    }
+
+    @Override
+    public short readUnsignedShort(int bitLength) throws ParseException {
+        if (bitLength <= 0) {
+            throw new ParseException("unsigned short must contain at least 1 bit");
+        }
+        if (bitLength > 8) {
+            throw new ParseException("unsigned short can only contain max 8 bits");
+        }
+        // No need to flip here as we're only reading one byte.
+        return (short) readBits(bitLength);
+    }
+
+    @Override
+    public int readUnsignedInt(int bitLength) throws ParseException {
+        if (bitLength <= 0) {
+            throw new ParseException("unsigned int must contain at least 1 bit");
+        }
+        if (bitLength > 16) {
+            throw new ParseException("unsigned int can only contain max 16 bits");
+        }
+        int value = (int) readBits(bitLength);
+        if (isLittleEndian()) {
+            return (Integer.reverseBytes(value) >> 16) & 0xFFFF;
+        }
+        return value;
+    }
+
+    @Override
+    public long readUnsignedLong(int bitLength) throws ParseException {
+        if (bitLength <= 0) {
+            throw new ParseException("unsigned long must contain at least 1 bit");
+        }
+        if (bitLength > 32) {
+            throw new ParseException("unsigned long can only contain max 32 bits");
+        }
+        long value = readBits(bitLength);
+        if (isLittleEndian()) {
+            return Long.reverseBytes(value) >> 32;
+        }
+        return value;
+    }
+
+    @Override
+    public BigInteger readUnsignedBigInteger(int bitLength) throws ParseException {
+        throw new UnsupportedOperationException("not implemented yet");
+    }
+
+    @Override
+    public byte readByte(int bitLength) throws ParseException {
+        if (bitLength <= 0) {
+            throw new ParseException("byte must contain at least 1 bit");
+        }
+        if (bitLength > 8) {
+            throw new ParseException("byte can only contain max 8 bits");
+        }
+        return (byte) readSignedBits(bitLength);
+    }
+
+    @Override
+    public short readShort(int bitLength) throws ParseException {
+        if (bitLength <= 0) {
+            throw new ParseException("short must contain at least 1 bit");
+        }
+        if (bitLength > 16) {
+            throw new ParseException("short can only contain max 16 bits");
+        }
+        short value = (short) readSignedBits(bitLength);
+        if (isLittleEndian()) {
+            return Short.reverseBytes(value);
+        }
+        return value;
+    }
+
+    @Override
+    public int readInt(int bitLength) throws ParseException {
+        if (bitLength <= 0) {
+            throw new ParseException("int must contain at least 1 bit");
+        }
+        if (bitLength > 32) {
+            throw new ParseException("int can only contain max 32 bits");
+        }
+        int value = (int) readSignedBits(bitLength);
+        if (isLittleEndian()) {
+            return Integer.reverseBytes(value);
+        }
+        return value;
+    }
+
+    @Override
+    public long readLong(int bitLength) throws ParseException {
+        if (bitLength <= 0) {
+            throw new ParseException("long must contain at least 1 bit");
+        }
+        if (bitLength > 64) {
+            throw new ParseException("long can only contain max 64 bits");
+        }
+        long value = readSignedBits(bitLength);
+        if (isLittleEndian()) {
+            return Long.reverseBytes(value);
+        }
+        return value;
+    }
+
+    @Override
+    public BigInteger readBigInteger(int bitLength) throws ParseException {
+        throw new UnsupportedOperationException("not implemented yet");
+    }
+
+    @Override
+    public float readFloat(int bitLength) throws ParseException {
+        if (bitLength == 16) {
+            // https://en.wikipedia.org/wiki/Half-precision_floating-point_format
+            final boolean sign = readBit();
+            final byte exponent = (byte) readBits(5);
+            final short fraction = (short) readBits(10);
+            if ((exponent >= 1) && (exponent <= 30)) {
+                return (sign ? 1 : -1) * (2 ^ (exponent - 15)) * (1 + (fraction / 10f));
+            } else if (exponent == 0) {
+                if (fraction == 0) {
+                    return 0.0f;
+                } else {
+                    return (sign ? 1 : -1) * (2 ^ (-14)) * (fraction / 10f);
+                }
+            } else if (exponent == 31) {
+                if (fraction == 0) {
+                    return sign ? Float.POSITIVE_INFINITY : Float.NEGATIVE_INFINITY;
+                } else {
+                    return Float.NaN;
+                }
+            } else {
+                throw new NumberFormatException();
+            }
+        } else if (bitLength == 32) {
+            // Keep the byte order of the array based implementation.
+            final byte b0 = (byte) readBits(8);
+            final byte b1 = (byte) readBits(8);
+            final byte b2 = (byte) readBits(8);
+            final byte b3 = (byte) readBits(8);
+            return Float.intBitsToFloat((b0 & 0xff) ^ b1 << 8 ^ b2 << 16 ^ b3 << 24);
+        } else {
+            throw new UnsupportedOperationException("unsupported bit length (only 16 and 32 supported)");
+        }
+    }
+
+    @Override
+    public double readDouble(int bitLength) throws ParseException {
+        throw new UnsupportedOperationException("not implemented yet");
+    }
+
+    @Override
+    public BigDecimal readBigDecimal(int bitLength) throws ParseException {
+        throw new UnsupportedOperationException("not implemented yet");
+    }
+
+    @Override
+    public String readString(int bitLength, String encoding) {
+        byte[] strBytes = new byte[bitLength / 8];
+        for (int i = 0; i < bitLength / 8 && hasMore(8); i++) {
+            try {
+                strBytes[i] = (byte) readBits(8);
+            } catch (Exception e) {
+                throw new PlcRuntimeException(e);
+            }
+        }
+        return new String(strBytes, Charset.forName(encoding));
+    }
+
+    private long readSignedBits(int bitLength) throws ParseException {
+        long value = readBits(bitLength);
+        if (bitLength == 64) {
+            return value;
+        }
+        // Sign-extend the value to the full 64 bits.
+        int shift = 64 - bitLength;
+        return (value << shift) >> shift;
+    }
+
+    /**
+     * Reads the given number of bits (MSB first) as unsigned big endian value.
+     */
+    private long readBits(int bitLength) throws ParseException {
+        if (bitPos + bitLength > totalBits) {
+            throw new ParseException("Error reading", new IndexOutOfBoundsException(
+                "Trying to read " + bitLength + " bits at bit position " + bitPos + " of " + totalBits));
+        }
+        final int index = offset + (int) (bitPos >>> 3);
+        // Fast path: byte aligned reads of whole bytes.
+        if ((bitPos & 7) == 0) {
+            long value;
+            switch (bitLength) {
+                case 8:
+                    value = buf.getUnsignedByte(index);
+                    break;
+                case 16:
+                    value = buf.getUnsignedShort(index);
+                    break;
+                case 24:
+                    value = buf.getUnsignedMedium(index);
+                    break;
+                case 32:
+                    value = buf.getUnsignedInt(index);
+                    break;
+                case 64:
+                    value = buf.getLong(index);
+                    break;
+                default:
+                    return readUnalignedBits(bitLength);
+            }
+            bitPos += bitLength;
+            return value;
+        }
+        return readUnalignedBits(bitLength);
+    }
+
+    private long readUnalignedBits(int bitLength) {
+        long value = 0;
+        int remaining = bitLength;
+        while (remaining > 0) {
+            int bitOffset = (int) (bitPos & 7);
+            int available = 8 - bitOffset;
+            int numBits = Math.min(available, remaining);
+            int current = buf.getUnsignedByte(offset + (int) (bitPos >>> 3));
+            int bits = (current >>> (available - numBits)) & ((1 << numBits) - 1);
+            value = (value << numBits) | bits;
+            remaining -= numBits;
+            bitPos += numBits;
+        }
+        return value;
+    }
+
+}
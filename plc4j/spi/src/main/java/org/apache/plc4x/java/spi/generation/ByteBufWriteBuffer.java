@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.plc4x.java.spi.generation;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+
+/**
+ * {@link WriteBuffer} writing directly to a Netty {@link ByteBuf} (usually the pooled outbound buffer of a channel),
+ * so serializing a message doesn't require any intermediate copies.
+ *
+ * Byte-aligned writes of 8, 16, 24, 32 and 64 bits are passed directly to the {@link ByteBuf}, only unaligned
+ * writes are assembled bit by bit. Just like the {@link java.nio.ByteBuffer} based version, a byte is only written
+ * as soon as all of its 8 bits are known. All positions are relative to the writerIndex of the buffer at
+ * construction time.
+ */
+public class ByteBufWriteBuffer extends WriteBuffer {
+
+    private final ByteBuf buf;
+    private final int offset;
+    // Bits of the current (incomplete) byte.
+    private int pendingBits;
+    private int numPendingBits;
+
+    public ByteBufWriteBuffer(ByteBuf buf) {
+        this(buf, false);
+    }
+
+    public ByteBufWriteBuffer(ByteBuf buf, boolean littleEndian) {
+        super(littleEndian);
+        this.buf = buf;
+        this.offset = buf.writerIndex();
+        this.pendingBits = 0;
+        this.numPendingBits = 0;
+    }
+
+    /**
+     * @return copy of all bytes written by this buffer.
+     */
+    @Override
+    public byte[] getData() {
+        return getBytes(0, getPos());
+    }
+
+    @Override
+    public int getPos() {
+        return buf.writerIndex() - offset;
+    }
+
+    @Override
+    public byte[] getBytes(int startPos, int endPos) {
+        return ByteBufUtil.getBytes(buf, offset + startPos, endPos - startPos);
+    }
+
+    @Override
+    public void writeBit(boolean value) throws ParseException {
+        writeBits(1, value ? 1 : 0);
+    }
+
+    @Override
+    public void writeUnsignedByte(int bitLength, byte value) throws ParseException {
+        if(bitLength <= 0) {
+            throw new ParseException("unsigned byte must contain at least 1 bit");
+        }
+        if(bitLength > 4) {
+            throw new ParseException("unsigned byte can only contain max 4 bits");
+        }
+        writeBits(bitLength, value);
+    }
+
+    @Override
+    public void writeUnsignedShort(int bitLength, short value) throws ParseException {
+        if(bitLength <= 0) {
+            throw new ParseException("unsigned short must contain at least 1 bit");
+        }
+        if(bitLength > 8) {
+            throw new ParseException("unsigned short can only contain max 8 bits");
+        }
+        writeBits(bitLength, value);
+    }
+
+    @Override
+    public void writeUnsignedInt(int bitLength, int value) throws ParseException {
+        if(bitLength <= 0) {
+            throw new ParseException("unsigned int must contain at least 1 bit");
+        }
+        if(bitLength > 16) {
+            throw new ParseException("unsigned int can only contain max 16 bits");
+        }
+        if(isLittleEndian()) {
+            value = Integer.reverseBytes(value) >> 16;
+        }
+        writeBits(bitLength, value);
+    }
+
+    @Override
+    public void writeUnsignedLong(int bitLength, long value) throws ParseException {
+        if(bitLength <= 0) {
+            throw new ParseException("unsigned long must contain at least 1 bit");
+        }
+        if(bitLength > 32) {
+            throw new ParseException("unsigned long can only contain max 32 bits");
+        }
+        if(isLittleEndian()) {
+            value = Long.reverseBytes(value) >> 32;
+        }
+        writeBits(bitLength, value);
+    }
+
+    @Override
+    public void writeUnsignedBigInteger(int bitLength, BigInteger value) throws ParseException {
+        throw new UnsupportedOperationException("not implemented yet");
+    }
+
+    @Override
+    public void writeByte(int bitLength, byte value) throws ParseException {
+        if(bitLength <= 0) {
+            throw new ParseException("byte must contain at least 1 bit");
+        }
+        if(bitLength > 8) {
+            throw new ParseException("byte can only contain max 8 bits");
+        }
+        writeBits(bitLength, value);
+    }
+
+    @Override
+    public void writeShort(int bitLength, short value) throws ParseException {
+        if(bitLength <= 0) {
+            throw new ParseException("short must contain at least 1 bit");
+        }
+        if(bitLength > 16) {
+            throw new ParseException("short can only contain max 16 bits");
+        }
+        if(isLittleEndian()) {
+            value = Short.reverseBytes(value);
+        }
+        writeBits(bitLength, value);
+    }
+
+    @Override
+    public void writeInt(int bitLength, int value) throws ParseException {
+        if(bitLength <= 0) {
+            throw new ParseException("int must contain at least 1 bit");
+        }
+        if(bitLength > 32) {
+            throw new ParseException("int can only contain max 32 bits");
+        }
+        if(isLittleEndian()) {
+            value = Integer.reverseBytes(value);
+        }
+        writeBits(bitLength, value);
+    }
+
+    @Override
+    public void writeLong(int bitLength, long value) throws ParseException {
+        if(bitLength <= 0) {
+            throw new ParseException("long must contain at least 1 bit");
+        }
+        if(bitLength > 64) {
+            throw new ParseException("long can only contain max 64 bits");
+        }
+        if(isLittleEndian()) {
+            value = Long.reverseBytes(value);
+        }
+        writeBits(bitLength, value);
+    }
+
+    @Override
+    public void writeBigInteger(int bitLength, BigInteger value) throws ParseException {
+        throw new UnsupportedOperationException("not implemented yet");
+    }
+
+    @Override
+    public void writeFloat(int bitLength, float value) throws ParseException {
+        throw new UnsupportedOperationException("not implemented yet");
+    }
+
+    @Override
+    public void writeDouble(int bitLength, double value) throws ParseException {
+        throw new UnsupportedOperationException("not implemented yet");
+    }
+
+    @Override
+    public void writeBigDecimal(int bitLength, BigDecimal value) throws ParseException {
+        throw new UnsupportedOperationException("not implemented yet");
+    }
+
+    @Override
+    public void writeString(int bitLength, String encoding, String value) throws ParseException {
+        final byte[] bytes = value.getBytes(Charset.forName(encoding));
+        if(numPendingBits == 0) {
+            buf.writeBytes(bytes);
+            return;
+        }
+        for (byte aByte : bytes) {
+            writeBits(8, aByte);
+        }
+    }
+
+    /**
+     * Writes the lowest bitLength bits of the given value (MSB first).
+     */
+    private void writeBits(int bitLength, long value) {
+        // Fast path: byte aligned writes of whole bytes.
+        if(numPendingBits == 0) {
+            switch (bitLength) {
+                case 8:
+                    buf.writeByte((int) value);
+                    return;
+                case 16:
+                    buf.writeShort((int) value);
+                    return;
+                case 24:
+                    buf.writeMedium((int) value);
+                    return;
+                case 32:
+                    buf.writeInt((int) value);
+                    return;
+                case 64:
+                    buf.writeLong(value);
+                    return;
+                default:
+                    break;
+            }
+        }
+        int remaining = bitLength;
+        while (remaining > 0) {
+            int numBits = Math.min(8 - numPendingBits, remaining);
+            int bits = (int) (value >>> (remaining - numBits)) & ((1 << numBits) - 1);
+            pendingBits = (pendingBits << numBits) | bits;
+            numPendingBits += numBits;
+            remaining -= numBits;
+            if(numPendingBits == 8) {
+                buf.writeByte(pendingBits);
+                pendingBits = 0;
+                numPendingBits = 0;
+            }
+        }
+    }
+
+}
@@ -45,6 +45,23 @@ public class ReadBuffer {
         this.totalBytes = input.length;
     }
 
+    /**
+     * Constructor for implementations that don't read from a byte array
+     * (and therefore override all read operations).
+     *
+     * @param totalBytes number of bytes available for reading.
+     * @param littleEndian true if multi-byte values are encoded little endian.
+     */
+    protected ReadBuffer(long totalBytes, boolean littleEndian) {
+        this.bi = null;
+        this.littleEndian = littleEndian;
+        this.totalBytes = totalBytes;
+    }
+
+    protected boolean isLittleEndian() {
+        return littleEndian;
+    }
+
     public int getPos() {
         return (int) bi.getPos();
     }
@@ -46,6 +46,23 @@ public class WriteBuffer {
         this.littleEndian = littleEndian;
     }
 
+    /**
+     * Constructor for implementations that don't write to a heap {@link ByteBuffer}
+     * (and therefore override all write operations).
+     *
+     * @param littleEndian true if multi-byte values should be encoded little endian.
+     */
+    protected WriteBuffer(boolean littleEndian) {
+        bb = null;
+        bbo = null;
+        bo = null;
+        this.littleEndian = littleEndian;
+    }
+
+    protected boolean isLittleEndian() {
+        return littleEndian;
+    }
+
     public byte[] getData() {
         return bb.array();
     }
@@ -52,13 +52,15 @@ public class DefaultSendRequestContext<T> implements ConversationContext.SendReq
 
     protected Duration timeout = Duration.ofMillis(1000);
 
+    protected Object correlationKey;
+
     public DefaultSendRequestContext(Consumer<HandlerRegistration> finisher, T request, ConversationContext<T> context) {
         this.finisher = finisher;
         this.request = request;
         this.context = context;
     }
 
-    protected DefaultSendRequestContext(Deque<Either<Function<?, ?>, Predicate<?>>> commands, Duration timeout, Consumer<HandlerRegistration> finisher, Object request, ConversationContext<?> context, Class<?> expectClazz, Consumer<?> packetConsumer, Consumer<TimeoutException> onTimeoutConsumer, BiConsumer<?, ? extends Throwable> errorConsumer) {
+    protected DefaultSendRequestContext(Deque<Either<Function<?, ?>, Predicate<?>>> commands, Duration timeout, Consumer<HandlerRegistration> finisher, Object request, ConversationContext<?> context, Class<?> expectClazz, Consumer<?> packetConsumer, Consumer<TimeoutException> onTimeoutConsumer, BiConsumer<?, ? extends Throwable> errorConsumer, Object correlationKey) {
         this.commands = commands;
         this.timeout = timeout;
         this.finisher = finisher;
@@ -68,6 +70,7 @@ public class DefaultSendRequestContext<T> implements ConversationContext.SendReq
         this.packetConsumer = packetConsumer;
         this.onTimeoutConsumer = onTimeoutConsumer;
         this.errorConsumer = errorConsumer;
+        this.correlationKey = correlationKey;
     }
 
     @Override
@@ -87,13 +90,22 @@ public class DefaultSendRequestContext<T> implements ConversationContext.SendReq
         return this;
     }
 
+    @Override
+    public ConversationContext.SendRequestContext<T> correlate(Object correlationKey) {
+        if (this.correlationKey != null) {
+            throw new ConversationContext.PlcWiringException("can't correlate with multiple keys");
+        }
+        this.correlationKey = correlationKey;
+        return this;
+    }
+
     @Override
     public void handle(Consumer<T> packetConsumer) {
         if (this.packetConsumer != null) {
             throw new ConversationContext.PlcWiringException("can't handle multiple consumers");
         }
         this.packetConsumer = packetConsumer;
-        finisher.accept(new HandlerRegistration(commands, expectClazz, packetConsumer, onTimeoutConsumer, errorConsumer, Instant.now().plus(timeout)));
+        finisher.accept(new HandlerRegistration(commands, expectClazz, packetConsumer, onTimeoutConsumer, errorConsumer, Instant.now().plus(timeout), correlationKey));
         context.sendToWire(request);
     }
 
@@ -126,7 +138,7 @@ public class DefaultSendRequestContext<T> implements ConversationContext.SendReq
             };
         }
         commands.addLast(Either.left(unwrapper));
-        return new DefaultSendRequestContext<R>(commands, timeout, finisher, request, context, expectClazz, packetConsumer, onTimeoutConsumer, errorConsumer);
+        return new DefaultSendRequestContext<R>(commands, timeout, finisher, request, context, expectClazz, packetConsumer, onTimeoutConsumer, errorConsumer, correlationKey);
     }
 
     @Override
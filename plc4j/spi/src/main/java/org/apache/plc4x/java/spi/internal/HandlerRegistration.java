@@ -19,6 +19,7 @@
 
 package org.apache.plc4x.java.spi.internal;
 
+import io.netty.util.Timeout;
 import io.vavr.control.Either;
 
 import java.time.Instant;
@@ -46,13 +47,22 @@ public class HandlerRegistration {
     private final BiConsumer<?, ? extends Throwable> errorConsumer;
     private final Instant timeout;
 
+    private final Object correlationKey;
+
+    private volatile Timeout timeoutHandle;
+
     public HandlerRegistration(Deque<Either<Function<?, ?>, Predicate<?>>> commands, Class<?> expectClazz, Consumer<?> packetConsumer, Consumer<TimeoutException> onTimeoutConsumer, BiConsumer<?, ? extends Throwable> errorConsumer, Instant timeout) {
+        this(commands, expectClazz, packetConsumer, onTimeoutConsumer, errorConsumer, timeout, null);
+    }
+
+    public HandlerRegistration(Deque<Either<Function<?, ?>, Predicate<?>>> commands, Class<?> expectClazz, Consumer<?> packetConsumer, Consumer<TimeoutException> onTimeoutConsumer, BiConsumer<?, ? extends Throwable> errorConsumer, Instant timeout, Object correlationKey) {
         this.commands = commands;
         this.expectClazz = expectClazz;
         this.packetConsumer = packetConsumer;
         this.onTimeoutConsumer = onTimeoutConsumer;
         this.errorConsumer = errorConsumer;
         this.timeout = timeout;
+        this.correlationKey = correlationKey;
     }
 
     public Deque<Either<Function<?, ?>, Predicate<?>>> getCommands() {
@@ -79,6 +89,30 @@ public class HandlerRegistration {
         return timeout;
     }
 
+    /**
+     * @return key correlating this handler with the expected message or null, if the handler has to be checked for every message.
+     */
+    public Object getCorrelationKey() {
+        return correlationKey;
+    }
+
+    /**
+     * @param timeoutHandle handle of the timer task expiring this registration.
+     */
+    public void setTimeoutHandle(Timeout timeoutHandle) {
+        this.timeoutHandle = timeoutHandle;
+    }
+
+    /**
+     * Cancels the timer task expiring this registration (if there is one).
+     */
+    public void cancelTimeout() {
+        Timeout handle = this.timeoutHandle;
+        if (handle != null) {
+            handle.cancel();
+        }
+    }
+
     @Override
     public String toString() {
         return "HandlerRegistration#" + id;
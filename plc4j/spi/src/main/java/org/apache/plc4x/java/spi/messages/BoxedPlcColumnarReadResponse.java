@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.spi.messages;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.apache.plc4x.java.api.messages.PlcColumnarReadResponse;
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.api.value.PlcValue;
+import org.apache.plc4x.java.spi.messages.utils.ResponseItem;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read response for a {@link PreparedPlcReadRequest} executed by a protocol, which can't decode the values directly
+ * into the columns of a {@link DefaultPlcColumnarReadResponse}.
+ *
+ * The boxed values of the protocol's response aren't copied, the index based getters just resolve the name of the
+ * field and access the value by name.
+ */
+public class BoxedPlcColumnarReadResponse extends DefaultPlcReadResponse implements PlcColumnarReadResponse {
+
+    private final PreparedPlcReadRequest request;
+
+    public BoxedPlcColumnarReadResponse(PreparedPlcReadRequest request, Map<String, ResponseItem<PlcValue>> values) {
+        super(request, values);
+        this.request = request;
+    }
+
+    /**
+     * @param request prepared request the response belongs to.
+     * @param response response returned by the protocol.
+     * @return the given response as {@link PlcColumnarReadResponse}.
+     */
+    public static PlcColumnarReadResponse of(PreparedPlcReadRequest request, PlcReadResponse response) {
+        if (response instanceof PlcColumnarReadResponse) {
+            return (PlcColumnarReadResponse) response;
+        }
+        if (response instanceof DefaultPlcReadResponse) {
+            return new BoxedPlcColumnarReadResponse(request, ((DefaultPlcReadResponse) response).getValues());
+        }
+        Map<String, ResponseItem<PlcValue>> values = new HashMap<>();
+        for (String fieldName : response.getFieldNames()) {
+            values.put(fieldName,
+                new ResponseItem<>(response.getResponseCode(fieldName), response.getPlcValue(fieldName)));
+        }
+        return new BoxedPlcColumnarReadResponse(request, values);
+    }
+
+    @Override
+    public PreparedPlcReadRequest getRequest() {
+        return request;
+    }
+
+    @Override
+    @JsonIgnore
+    public int getNumberOfFields() {
+        return request.getNumberOfFields();
+    }
+
+    @Override
+    public int getFieldIndex(String name) {
+        return request.getFieldIndex(name);
+    }
+
+    @Override
+    public String getFieldName(int fieldIndex) {
+        return request.getFieldName(fieldIndex);
+    }
+
+    @Override
+    public PlcResponseCode getResponseCode(int fieldIndex) {
+        ResponseItem<PlcValue> item = getValues().get(getFieldName(fieldIndex));
+        return (item != null) ? item.getCode() : null;
+    }
+
+    @Override
+    public boolean isOk(int fieldIndex) {
+        return getResponseCode(fieldIndex) == PlcResponseCode.OK;
+    }
+
+    @Override
+    public PlcValue getPlcValue(int fieldIndex) {
+        return getPlcValue(getFieldName(fieldIndex));
+    }
+
+    @Override
+    public boolean getBoolean(int fieldIndex) {
+        return getFieldInternal(getFieldName(fieldIndex)).getBoolean();
+    }
+
+    @Override
+    public byte getByte(int fieldIndex) {
+        return getFieldInternal(getFieldName(fieldIndex)).getByte();
+    }
+
+    @Override
+    public short getShort(int fieldIndex) {
+        return getFieldInternal(getFieldName(fieldIndex)).getShort();
+    }
+
+    @Override
+    public int getInt(int fieldIndex) {
+        return getFieldInternal(getFieldName(fieldIndex)).getInteger();
+    }
+
+    @Override
+    public long getLong(int fieldIndex) {
+        return getFieldInternal(getFieldName(fieldIndex)).getLong();
+    }
+
+    @Override
+    public float getFloat(int fieldIndex) {
+        return getFieldInternal(getFieldName(fieldIndex)).getFloat();
+    }
+
+    @Override
+    public double getDouble(int fieldIndex) {
+        return getFieldInternal(getFieldName(fieldIndex)).getDouble();
+    }
+
+}
@@ -0,0 +1,414 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.spi.messages;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.apache.plc4x.java.api.exceptions.PlcInvalidFieldException;
+import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
+import org.apache.plc4x.java.api.messages.PlcColumnarReadResponse;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.api.value.*;
+import org.apache.plc4x.java.spi.messages.utils.ResponseItem;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read response for a {@link PreparedPlcReadRequest}, which stores the values of all fields in arrays indexed by
+ * the ordinal of the field.
+ *
+ * Booleans and numeric scalars are stored as primitive longs (Floating point values as their raw bits), all other
+ * values (Lists, strings, ...) are kept as {@link PlcValue}. The index based getters directly return the primitive,
+ * {@link PlcValue} instances are only created if the values are accessed via the name based getters of the
+ * {@link org.apache.plc4x.java.api.messages.PlcReadResponse} interface.
+ */
+public class DefaultPlcColumnarReadResponse extends DefaultPlcReadResponse implements PlcColumnarReadResponse {
+
+    private static final byte TYPE_OBJECT = 0;
+    private static final byte TYPE_BOOLEAN = 1;
+    private static final byte TYPE_BYTE = 2;
+    private static final byte TYPE_SHORT = 3;
+    private static final byte TYPE_INTEGER = 4;
+    private static final byte TYPE_LONG = 5;
+    private static final byte TYPE_FLOAT = 6;
+    private static final byte TYPE_DOUBLE = 7;
+
+    private final Columns columns;
+
+    private DefaultPlcColumnarReadResponse(Columns columns) {
+        super(columns.request, columns);
+        this.columns = columns;
+    }
+
+    @Override
+    public PreparedPlcReadRequest getRequest() {
+        return columns.request;
+    }
+
+    @Override
+    @JsonIgnore
+    public int getNumberOfFields() {
+        return columns.codes.length;
+    }
+
+    @Override
+    public int getFieldIndex(String name) {
+        return columns.request.getFieldIndex(name);
+    }
+
+    @Override
+    public String getFieldName(int fieldIndex) {
+        return columns.request.getFieldName(fieldIndex);
+    }
+
+    @Override
+    public PlcResponseCode getResponseCode(int fieldIndex) {
+        return columns.codes[fieldIndex];
+    }
+
+    @Override
+    public boolean isOk(int fieldIndex) {
+        return columns.codes[fieldIndex] == PlcResponseCode.OK;
+    }
+
+    @Override
+    public PlcValue getPlcValue(int fieldIndex) {
+        return columns.getPlcValue(fieldIndex);
+    }
+
+    @Override
+    public boolean getBoolean(int fieldIndex) {
+        checkOk(fieldIndex);
+        switch (columns.types[fieldIndex]) {
+            case TYPE_OBJECT:
+                return columns.objects[fieldIndex].getBoolean();
+            case TYPE_FLOAT:
+            case TYPE_DOUBLE:
+                return Double.longBitsToDouble(columns.values[fieldIndex]) != 0;
+            default:
+                return columns.values[fieldIndex] != 0;
+        }
+    }
+
+    @Override
+    public byte getByte(int fieldIndex) {
+        return (byte) getLong(fieldIndex);
+    }
+
+    @Override
+    public short getShort(int fieldIndex) {
+        return (short) getLong(fieldIndex);
+    }
+
+    @Override
+    public int getInt(int fieldIndex) {
+        return (int) getLong(fieldIndex);
+    }
+
+    @Override
+    public long getLong(int fieldIndex) {
+        checkOk(fieldIndex);
+        switch (columns.types[fieldIndex]) {
+            case TYPE_OBJECT:
+                return columns.objects[fieldIndex].getLong();
+            case TYPE_FLOAT:
+            case TYPE_DOUBLE:
+                return (long) Double.longBitsToDouble(columns.values[fieldIndex]);
+            default:
+                return columns.values[fieldIndex];
+        }
+    }
+
+    @Override
+    public float getFloat(int fieldIndex) {
+        return (float) getDouble(fieldIndex);
+    }
+
+    @Override
+    public double getDouble(int fieldIndex) {
+        checkOk(fieldIndex);
+        switch (columns.types[fieldIndex]) {
+            case TYPE_OBJECT:
+                return columns.objects[fieldIndex].getDouble();
+            case TYPE_FLOAT:
+            case TYPE_DOUBLE:
+                return Double.longBitsToDouble(columns.values[fieldIndex]);
+            default:
+                return columns.values[fieldIndex];
+        }
+    }
+
+    @Override
+    @JsonIgnore
+    public PlcValue getPlcValue(String name) {
+        int fieldIndex = getFieldIndex(name);
+        return (fieldIndex < 0) ? null : columns.getPlcValue(fieldIndex);
+    }
+
+    @Override
+    @JsonIgnore
+    public PlcResponseCode getResponseCode(String name) {
+        int fieldIndex = getFieldIndex(name);
+        if ((fieldIndex < 0) || (columns.codes[fieldIndex] == null)) {
+            throw new PlcInvalidFieldException(name);
+        }
+        return columns.codes[fieldIndex];
+    }
+
+    @Override
+    protected PlcValue getFieldInternal(String name) {
+        Objects.requireNonNull(name, "Name argument required");
+        int fieldIndex = getFieldIndex(name);
+        if ((fieldIndex < 0) || (columns.codes[fieldIndex] == null)) {
+            throw new PlcInvalidFieldException(name);
+        }
+        checkOk(fieldIndex);
+        return columns.getPlcValue(fieldIndex);
+    }
+
+    private void checkOk(int fieldIndex) {
+        PlcResponseCode code = columns.codes[fieldIndex];
+        if (code != PlcResponseCode.OK) {
+            throw new PlcRuntimeException("Field '" + getFieldName(fieldIndex) +
+                "' could not be fetched, response was " + code);
+        }
+    }
+
+    /**
+     * Collects the results of the individual fields. A field, for which no result is set, isn't part of the
+     * response (Just like a field missing in the map of a {@link DefaultPlcReadResponse}).
+     * The results of different fields may be set concurrently (e.g. by the responses of different sub-requests),
+     * the builder must not be used any more after calling {@link #build()}.
+     */
+    public static class Builder {
+
+        private final Columns columns;
+        // Results of fields which are not part of the request (e.g. parts of split up fields).
+        private final Map<String, ResponseItem<PlcValue>> intermediates = new ConcurrentHashMap<>();
+
+        public Builder(PreparedPlcReadRequest request) {
+            this.columns = new Columns(request);
+        }
+
+        /**
+         * @param fieldName name of the field.
+         * @return ordinal of the field with the given name or -1 if it's not part of the request.
+         */
+        public int getFieldIndex(String fieldName) {
+            return columns.request.getFieldIndex(fieldName);
+        }
+
+        /**
+         * Stores the result of a field, which isn't part of the request itself, until it is merged into the
+         * result of the field it belongs to.
+         */
+        public Builder setIntermediate(String name, PlcResponseCode code, PlcValue value) {
+            intermediates.put(name, new ResponseItem<>(code, value));
+            return this;
+        }
+
+        /**
+         * @return result stored with {@link #setIntermediate(String, PlcResponseCode, PlcValue)} or null if there
+         * is none.
+         */
+        public ResponseItem<PlcValue> getIntermediate(String name) {
+            return intermediates.get(name);
+        }
+
+        /**
+         * Sets the result of a field by name, results for fields which are not part of the request are ignored.
+         */
+        public Builder set(String fieldName, PlcResponseCode code, PlcValue value) {
+            int fieldIndex = columns.request.getFieldIndex(fieldName);
+            if (fieldIndex >= 0) {
+                set(fieldIndex, code, value);
+            }
+            return this;
+        }
+
+        public Builder set(int fieldIndex, PlcResponseCode code, PlcValue value) {
+            columns.codes[fieldIndex] = code;
+            if (value instanceof PlcBoolean) {
+                setPrimitive(fieldIndex, TYPE_BOOLEAN, value.getBoolean() ? 1 : 0);
+            } else if (value instanceof PlcByte) {
+                setPrimitive(fieldIndex, TYPE_BYTE, value.getByte());
+            } else if (value instanceof PlcShort) {
+                setPrimitive(fieldIndex, TYPE_SHORT, value.getShort());
+            } else if (value instanceof PlcInteger) {
+                setPrimitive(fieldIndex, TYPE_INTEGER, value.getInteger());
+            } else if (value instanceof PlcLong) {
+                setPrimitive(fieldIndex, TYPE_LONG, value.getLong());
+            } else if (value instanceof PlcFloat) {
+                setPrimitive(fieldIndex, TYPE_FLOAT, Double.doubleToRawLongBits(value.getFloat()));
+            } else if (value instanceof PlcDouble) {
+                setPrimitive(fieldIndex, TYPE_DOUBLE, Double.doubleToRawLongBits(value.getDouble()));
+            } else {
+                columns.types[fieldIndex] = TYPE_OBJECT;
+                if (value != null) {
+                    columns.getObjects()[fieldIndex] = value;
+                }
+            }
+            return this;
+        }
+
+        public Builder setBoolean(int fieldIndex, boolean value) {
+            return setOk(fieldIndex, TYPE_BOOLEAN, value ? 1 : 0);
+        }
+
+        public Builder setInt(int fieldIndex, int value) {
+            return setOk(fieldIndex, TYPE_INTEGER, value);
+        }
+
+        public Builder setLong(int fieldIndex, long value) {
+            return setOk(fieldIndex, TYPE_LONG, value);
+        }
+
+        public Builder setFloat(int fieldIndex, float value) {
+            return setOk(fieldIndex, TYPE_FLOAT, Double.doubleToRawLongBits(value));
+        }
+
+        public Builder setDouble(int fieldIndex, double value) {
+            return setOk(fieldIndex, TYPE_DOUBLE, Double.doubleToRawLongBits(value));
+        }
+
+        public DefaultPlcColumnarReadResponse build() {
+            return new DefaultPlcColumnarReadResponse(columns);
+        }
+
+        private Builder setOk(int fieldIndex, byte type, long value) {
+            columns.codes[fieldIndex] = PlcResponseCode.OK;
+            setPrimitive(fieldIndex, type, value);
+            return this;
+        }
+
+        private void setPrimitive(int fieldIndex, byte type, long value) {
+            columns.types[fieldIndex] = type;
+            columns.values[fieldIndex] = value;
+        }
+
+    }
+
+    /**
+     * Storage of the response, which at the same time serves as (read-only) map view for the
+     * {@link DefaultPlcReadResponse} base class.
+     */
+    private static class Columns extends AbstractMap<String, ResponseItem<PlcValue>> {
+
+        private final PreparedPlcReadRequest request;
+        private final PlcResponseCode[] codes;
+        private final byte[] types;
+        private final long[] values;
+        // Only allocated, if there are fields with non-primitive values.
+        private volatile PlcValue[] objects;
+
+        private Columns(PreparedPlcReadRequest request) {
+            this.request = request;
+            int numberOfFields = request.getNumberOfFields();
+            this.codes = new PlcResponseCode[numberOfFields];
+            this.types = new byte[numberOfFields];
+            this.values = new long[numberOfFields];
+        }
+
+        private PlcValue[] getObjects() {
+            PlcValue[] curObjects = objects;
+            if (curObjects == null) {
+                synchronized (this) {
+                    curObjects = objects;
+                    if (curObjects == null) {
+                        curObjects = new PlcValue[codes.length];
+                        objects = curObjects;
+                    }
+                }
+            }
+            return curObjects;
+        }
+
+        private PlcValue getPlcValue(int fieldIndex) {
+            long value = values[fieldIndex];
+            switch (types[fieldIndex]) {
+                case TYPE_BOOLEAN:
+                    return new PlcBoolean(value != 0);
+                case TYPE_BYTE:
+                    return new PlcByte((byte) value);
+                case TYPE_SHORT:
+                    return new PlcShort((short) value);
+                case TYPE_INTEGER:
+                    return new PlcInteger((int) value);
+                case TYPE_LONG:
+                    return new PlcLong(value);
+                case TYPE_FLOAT:
+                    return new PlcFloat((float) Double.longBitsToDouble(value));
+                case TYPE_DOUBLE:
+                    return new PlcDouble(Double.longBitsToDouble(value));
+                default:
+                    return (objects != null) ? objects[fieldIndex] : null;
+            }
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (PlcResponseCode code : codes) {
+                if (code != null) {
+                    size++;
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            int fieldIndex = (key instanceof String) ? request.getFieldIndex((String) key) : -1;
+            return (fieldIndex >= 0) && (codes[fieldIndex] != null);
+        }
+
+        @Override
+        public ResponseItem<PlcValue> get(Object key) {
+            if (!containsKey(key)) {
+                return null;
+            }
+            int fieldIndex = request.getFieldIndex((String) key);
+            return new ResponseItem<>(codes[fieldIndex], getPlcValue(fieldIndex));
+        }
+
+        @Override
+        public Set<Entry<String, ResponseItem<PlcValue>>> entrySet() {
+            final List<Entry<String, ResponseItem<PlcValue>>> entries = new ArrayList<>(codes.length);
+            for (int i = 0; i < codes.length; i++) {
+                if (codes[i] != null) {
+                    entries.add(new SimpleImmutableEntry<>(request.getFieldName(i),
+                        new ResponseItem<>(codes[i], getPlcValue(i))));
+                }
+            }
+            return new AbstractSet<Entry<String, ResponseItem<PlcValue>>>() {
+                @Override
+                public Iterator<Entry<String, ResponseItem<PlcValue>>> iterator() {
+                    return entries.iterator();
+                }
+
+                @Override
+                public int size() {
+                    return entries.size();
+                }
+            };
+        }
+
+    }
+
+}
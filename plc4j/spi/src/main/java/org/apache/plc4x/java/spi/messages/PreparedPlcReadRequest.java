@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.spi.messages;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.apache.plc4x.java.api.messages.PlcRequest;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.spi.context.DriverContext;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read request, which has already been split up into sub-requests by the optimizer of the connection.
+ * Executing it again re-uses these sub-requests, as long as the connection still uses the same driver context
+ * the sub-requests were created for. After a reconnect they are created once again for the new driver context.
+ *
+ * The ordinals of the fields are also resolved once, so the responses can be assembled as
+ * {@link DefaultPlcColumnarReadResponse}.
+ */
+public class PreparedPlcReadRequest extends DefaultPlcReadRequest {
+
+    private volatile Plan plan;
+    private final String[] fieldNames;
+    private final Map<String, Integer> fieldIndexes;
+
+    public PreparedPlcReadRequest(PlcReader reader, LinkedHashMap<String, PlcField> fields,
+                                  DriverContext driverContext, List<PlcRequest> subRequests) {
+        super(reader, fields);
+        this.plan = new Plan(driverContext, subRequests);
+        this.fieldNames = fields.keySet().toArray(new String[0]);
+        this.fieldIndexes = new HashMap<>();
+        for (int i = 0; i < fieldNames.length; i++) {
+            fieldIndexes.put(fieldNames[i], i);
+        }
+    }
+
+    @JsonIgnore
+    public DriverContext getDriverContext() {
+        return plan.driverContext;
+    }
+
+    @JsonIgnore
+    public List<PlcRequest> getSubRequests() {
+        return plan.subRequests;
+    }
+
+    /**
+     * @param driverContext driver context currently used by the connection.
+     * @return sub-requests or null, if they were created for another driver context.
+     */
+    public List<PlcRequest> getSubRequests(DriverContext driverContext) {
+        Plan curPlan = plan;
+        return (curPlan.driverContext == driverContext) ? curPlan.subRequests : null;
+    }
+
+    /**
+     * Replaces the sub-requests with the ones created for a new driver context.
+     */
+    public void setSubRequests(DriverContext driverContext, List<PlcRequest> subRequests) {
+        plan = new Plan(driverContext, subRequests);
+    }
+
+    @JsonIgnore
+    public int getNumberOfFields() {
+        return fieldNames.length;
+    }
+
+    /**
+     * @param name name of the field.
+     * @return ordinal of the field with the given name or -1 if it's not part of this request.
+     */
+    public int getFieldIndex(String name) {
+        Integer fieldIndex = fieldIndexes.get(name);
+        return (fieldIndex != null) ? fieldIndex : -1;
+    }
+
+    public String getFieldName(int fieldIndex) {
+        return fieldNames[fieldIndex];
+    }
+
+    private static class Plan {
+
+        private final DriverContext driverContext;
+        private final List<PlcRequest> subRequests;
+
+        private Plan(DriverContext driverContext, List<PlcRequest> subRequests) {
+            this.driverContext = driverContext;
+            this.subRequests = Collections.unmodifiableList(subRequests);
+        }
+
+    }
+
+}
@@ -20,14 +20,19 @@ package org.apache.plc4x.java.spi.optimizer;
 
 import io.vavr.control.Either;
 import org.apache.plc4x.java.api.messages.*;
+import org.apache.plc4x.java.api.model.PlcField;
 import org.apache.plc4x.java.api.types.PlcResponseCode;
 import org.apache.plc4x.java.api.value.PlcValue;
 import org.apache.plc4x.java.spi.Plc4xProtocolBase;
 import org.apache.plc4x.java.spi.context.DriverContext;
+import org.apache.plc4x.java.spi.messages.BoxedPlcColumnarReadResponse;
+import org.apache.plc4x.java.spi.messages.DefaultPlcColumnarReadResponse;
+import org.apache.plc4x.java.spi.messages.DefaultPlcReadRequest;
 import org.apache.plc4x.java.spi.messages.DefaultPlcReadResponse;
 import org.apache.plc4x.java.spi.messages.DefaultPlcWriteResponse;
 import org.apache.plc4x.java.spi.messages.InternalPlcReadRequest;
 import org.apache.plc4x.java.spi.messages.InternalPlcWriteRequest;
+import org.apache.plc4x.java.spi.messages.PreparedPlcReadRequest;
 import org.apache.plc4x.java.spi.messages.utils.ResponseItem;
 
 import java.util.*;
@@ -60,6 +65,28 @@ public abstract class BaseOptimizer {
         return new DefaultPlcReadResponse((InternalPlcReadRequest) readRequest, fields);
     }
 
+    /**
+     * Called if reading a sub-request of a prepared request with
+     * {@link Plc4xProtocolBase#readColumnar(PlcReadRequest, DefaultPlcColumnarReadResponse.Builder)} failed.
+     * Optimizers merging or splitting up fields have to map the failure to the original fields.
+     */
+    protected void processFailedColumnarRead(PlcReadRequest subRequest, DefaultPlcColumnarReadResponse.Builder columns) {
+        for (String fieldName : subRequest.getFieldNames()) {
+            columns.set(fieldName, PlcResponseCode.INTERNAL_ERROR, null);
+        }
+    }
+
+    /**
+     * Called after all sub-requests of a prepared request have been read with
+     * {@link Plc4xProtocolBase#readColumnar(PlcReadRequest, DefaultPlcColumnarReadResponse.Builder)}.
+     * Optimizers storing intermediate results have to merge them into the columns here.
+     */
+    protected PlcReadResponse processColumnarReadResponses(PreparedPlcReadRequest readRequest,
+                                                           List<PlcRequest> subRequests,
+                                                           DefaultPlcColumnarReadResponse.Builder columns) {
+        return columns.build();
+    }
+
     protected List<PlcRequest> processWriteRequest(PlcWriteRequest writeRequest, DriverContext driverContext) {
         return Collections.singletonList(writeRequest);
     }
@@ -103,12 +130,80 @@ public abstract class BaseOptimizer {
         return null;
     }
 
+    /**
+     * Splits up the read request into sub-requests once, so executing the returned request doesn't have to do it
+     * over and over again.
+     * Even if the request doesn't have to be split up at all, it is prepared, so its responses are
+     * {@link PlcColumnarReadResponse}s.
+     *
+     * @param readRequest read request which will be executed multiple times.
+     * @param reader protocol the request will be executed with.
+     * @return prepared read request.
+     */
+    public PlcReadRequest prepareRead(PlcReadRequest readRequest, Plc4xProtocolBase reader) {
+        List<PlcRequest> subRequests = processReadRequest(readRequest, reader.getDriverContext());
+        DefaultPlcReadRequest defaultReadRequest = (DefaultPlcReadRequest) readRequest;
+        LinkedHashMap<String, PlcField> fields = new LinkedHashMap<>();
+        for (String fieldName : readRequest.getFieldNames()) {
+            fields.put(fieldName, readRequest.getField(fieldName));
+        }
+        return new PreparedPlcReadRequest(defaultReadRequest.getReader(), fields,
+            reader.getDriverContext(), subRequests);
+    }
+
     public CompletableFuture<PlcReadResponse> optimizedRead(PlcReadRequest readRequest, Plc4xProtocolBase reader) {
+        if (readRequest instanceof PreparedPlcReadRequest) {
+            return preparedRead((PreparedPlcReadRequest) readRequest, reader);
+        }
         List<PlcRequest> subRequests = processReadRequest(readRequest, reader.getDriverContext());
         return send(readRequest, subRequests, request -> reader.read((PlcReadRequest) request),
             response -> processReadResponses(readRequest, response));
     }
 
+    /**
+     * Prepared requests are always answered with a {@link PlcColumnarReadResponse}. Protocols supporting it decode
+     * the values directly into the columns, the responses of all others are wrapped.
+     */
+    private CompletableFuture<PlcReadResponse> preparedRead(PreparedPlcReadRequest readRequest,
+                                                            Plc4xProtocolBase reader) {
+        List<PlcRequest> subRequests = getSubRequests(readRequest, reader);
+        if (!reader.canReadColumnar()) {
+            CompletableFuture<PlcResponse> response = send(readRequest, subRequests,
+                request -> reader.read((PlcReadRequest) request),
+                responses -> processReadResponses(readRequest, responses));
+            return response.thenApply(
+                readResponse -> (PlcReadResponse) BoxedPlcColumnarReadResponse.of(readRequest, (PlcReadResponse) readResponse));
+        }
+        DefaultPlcColumnarReadResponse.Builder columns = new DefaultPlcColumnarReadResponse.Builder(readRequest);
+        CompletableFuture<?>[] subFutures = new CompletableFuture[subRequests.size()];
+        for (int i = 0; i < subFutures.length; i++) {
+            PlcReadRequest subRequest = (PlcReadRequest) subRequests.get(i);
+            CompletableFuture<Void> subFuture;
+            try {
+                subFuture = reader.readColumnar(subRequest, columns);
+            } catch (RuntimeException e) {
+                subFuture = new CompletableFuture<>();
+                subFuture.completeExceptionally(e);
+            }
+            subFutures[i] = subFuture.exceptionally(throwable -> {
+                processFailedColumnarRead(subRequest, columns);
+                return null;
+            });
+        }
+        return CompletableFuture.allOf(subFutures)
+            .thenApply(aVoid -> processColumnarReadResponses(readRequest, subRequests, columns));
+    }
+
+    private List<PlcRequest> getSubRequests(PreparedPlcReadRequest readRequest, Plc4xProtocolBase reader) {
+        List<PlcRequest> subRequests = readRequest.getSubRequests(reader.getDriverContext());
+        if (subRequests == null) {
+            // The connection has been re-established since preparing the request.
+            subRequests = processReadRequest(readRequest, reader.getDriverContext());
+            readRequest.setSubRequests(reader.getDriverContext(), subRequests);
+        }
+        return subRequests;
+    }
+
     public CompletableFuture<PlcWriteResponse> optimizedWrite(PlcWriteRequest writeRequest, Plc4xProtocolBase writer) {
         List<PlcRequest> subRequests = processWriteRequest(writeRequest, writer.getDriverContext());
         return send(writeRequest, subRequests, request -> writer.write((PlcWriteRequest) request),
@@ -25,13 +25,18 @@ import org.slf4j.LoggerFactory;
 import java.util.Objects;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * This is a limited Queue of Requests, a Protocol can use.
@@ -42,27 +47,57 @@ import java.util.function.Consumer;
  *     <li>Pass Runnable</li>
  *     <li>On Request or Response unregister Slot</li>
  * </ul>
+ * <p>
+ * Each connection has its own instance. The number of concurrently running requests is limited by an atomic
+ * permit counter, so no locks are needed. If a slot is available when submitting a transaction, its operation is
+ * executed directly by the submitting thread, as sending a request is non-blocking. Transactions, which had to
+ * wait for a slot, are handed to the executor as soon as a slot is freed. The protocol logics pass the event loop
+ * of their channel, so queued requests are sent by the thread owning the channel and never by the thread ending
+ * the previous transaction (e.g. the timer thread of a timeout). Without an executor, they are run directly by
+ * the thread ending the previous transaction.
  */
 public class RequestTransactionManager {
 
     private static final Logger logger = LoggerFactory.getLogger(RequestTransactionManager.class);
 
-    /** Executor that performs all operations */
-    static final ExecutorService executor = Executors.newFixedThreadPool(4);
+    /**
+     * Provides the executor that performs the operations of transactions, which had to wait for a free slot.
+     * It's only asked when such a transaction is started, as the event loop of a channel isn't known before
+     * connecting.
+     */
+    private final Supplier<? extends Executor> executorSupplier;
     private final Set<RequestTransaction> runningRequests;
+    /** Number of currently used slots */
+    private final AtomicInteger activeRequests = new AtomicInteger(0);
     /** How many Transactions are allowed to run at the same time? */
-    private int numberOfConcurrentRequests;
+    private volatile int numberOfConcurrentRequests;
     /** Assigns each request a Unique Transaction Id, especially important for failure handling */
-    private AtomicInteger transactionId = new AtomicInteger(0);
+    private final AtomicInteger transactionId = new AtomicInteger(0);
     /** Important, this is a FIFO Queue for Fairness! */
-    private Queue<RequestTransaction> workLog = new ConcurrentLinkedQueue<>();
+    private final Queue<RequestTransaction> workLog = new ConcurrentLinkedQueue<>();
 
-    public RequestTransactionManager(int numberOfConcurrentRequests) {
+    // Metrics
+    private final LongAdder numberOfStartedRequests = new LongAdder();
+    private final LongAdder totalWaitTimeNanos = new LongAdder();
+    private final AtomicLong maxWaitTimeNanos = new AtomicLong(0);
+
+    public RequestTransactionManager(int numberOfConcurrentRequests, Supplier<? extends Executor> executorSupplier) {
         this.numberOfConcurrentRequests = numberOfConcurrentRequests;
+        this.executorSupplier = Objects.requireNonNull(executorSupplier);
         // Immutable Map
         runningRequests = ConcurrentHashMap.newKeySet();
     }
 
+    public RequestTransactionManager(int numberOfConcurrentRequests, Executor executor) {
+        this(numberOfConcurrentRequests, () -> executor);
+        Objects.requireNonNull(executor);
+    }
+
+    public RequestTransactionManager(int numberOfConcurrentRequests) {
+        // Sending is non-blocking, so queued transactions are run by the thread ending the previous one.
+        this(numberOfConcurrentRequests, Runnable::run);
+    }
+
     public RequestTransactionManager() {
         this(1);
     }
@@ -74,14 +109,14 @@ public class RequestTransactionManager {
     public void setNumberOfConcurrentRequests(int numberOfConcurrentRequests) {
         // If we reduced the number of concurrent requests and more requests are in-flight
         // than should be, at least log a warning.
-        if(numberOfConcurrentRequests < runningRequests.size()) {
+        if(numberOfConcurrentRequests < activeRequests.get()) {
             logger.warn("The number of concurrent requests was reduced and currently more requests are in flight.");
         }
 
         this.numberOfConcurrentRequests = numberOfConcurrentRequests;
 
         // As we might have increased the number, try to send some more requests.
-        processWorklog();
+        processWorklog(false);
     }
 
     public void submit(Consumer<RequestTransaction> context) {
@@ -94,20 +129,55 @@ public class RequestTransactionManager {
         assert handle.operation != null;
         // Add this Request with this handle i the Worklog
         // Put Transaction into Worklog
+        handle.queuedAt = System.nanoTime();
         this.workLog.add(handle);
         // Try to Process the Worklog
-        processWorklog();
+        processWorklog(true);
     }
 
-    private void processWorklog() {
-        while (runningRequests.size() < getNumberOfConcurrentRequests() && !workLog.isEmpty()) {
-            RequestTransaction next = workLog.remove();
+    /**
+     * @param runDirectly if true, the operations are run by the current thread, otherwise they are handed to the
+     *                    executor.
+     */
+    private void processWorklog(boolean runDirectly) {
+        while (!workLog.isEmpty()) {
+            if (!tryAcquireSlot()) {
+                // All slots are taken, the next ended request continues processing the worklog.
+                return;
+            }
+            RequestTransaction next = workLog.poll();
+            if (next == null) {
+                // Someone else was faster, give back the slot and check again.
+                activeRequests.decrementAndGet();
+                continue;
+            }
             this.runningRequests.add(next);
-            Future<?> completionFuture = executor.submit(next.operation);
-            next.setCompletionFuture(completionFuture);
+            long waitTime = System.nanoTime() - next.queuedAt;
+            numberOfStartedRequests.increment();
+            totalWaitTimeNanos.add(waitTime);
+            maxWaitTimeNanos.accumulateAndGet(waitTime, Math::max);
+            // The future is set before the operation starts, so failing the transaction can always cancel it.
+            FutureTask<Void> task = new FutureTask<>(next.operation, null);
+            next.setCompletionFuture(task);
+            if (runDirectly) {
+                task.run();
+            } else {
+                executorSupplier.get().execute(task);
+            }
         }
     }
 
+    private boolean tryAcquireSlot() {
+        while (true) {
+            int current = activeRequests.get();
+            if (current >= numberOfConcurrentRequests) {
+                return false;
+            }
+            if (activeRequests.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
 
     public RequestTransaction startRequest() {
         return new RequestTransaction(this, this.transactionId.getAndIncrement());
@@ -117,20 +187,54 @@ public class RequestTransactionManager {
         return this.runningRequests.size();
     }
 
+    /**
+     * @return number of submitted requests waiting for a free slot.
+     */
+    public int getNumberOfQueuedRequests() {
+        return this.workLog.size();
+    }
+
+    /**
+     * @return number of requests that were started since creating this instance.
+     */
+    public long getNumberOfStartedRequests() {
+        return numberOfStartedRequests.sum();
+    }
+
+    /**
+     * @return sum of the times all started requests had to wait for a free slot (in nanoseconds).
+     */
+    public long getTotalWaitTimeNanos() {
+        return totalWaitTimeNanos.sum();
+    }
+
+    /**
+     * @return longest time a started request had to wait for a free slot (in nanoseconds).
+     */
+    public long getMaxWaitTimeNanos() {
+        return maxWaitTimeNanos.get();
+    }
+
     private void failRequest(RequestTransaction transaction) {
-        // Try to fail it!
-        transaction.getCompletionFuture().cancel(true);
+        // If it hasn't been started yet, just drop it.
+        if (this.workLog.remove(transaction)) {
+            return;
+        }
+        // Try to fail it! The operation isn't interrupted, as it runs on a thread it doesn't own (e.g. an event loop).
+        if (transaction.getCompletionFuture() != null) {
+            transaction.getCompletionFuture().cancel(false);
+        }
         // End it
         endRequest(transaction);
     }
 
     private void endRequest(RequestTransaction transaction) {
-        if (!this.runningRequests.contains(transaction)) {
+        if (!this.runningRequests.remove(transaction)) {
             throw new IllegalArgumentException("Unknown Transaction or Transaction already finished!");
         }
-        this.runningRequests.remove(transaction);
+        activeRequests.decrementAndGet();
         // Process the worklog, a slot should be free now
-        processWorklog();
+        processWorklog(false);
     }
 
     public static class RequestTransaction {
@@ -140,7 +244,9 @@ public class RequestTransactionManager {
 
         /** The iniital operation to perform to kick off the request */
         private Runnable operation;
-        private Future<?> completionFuture;
+        private volatile Future<?> completionFuture;
+        /** Time the transaction was added to the worklog (System.nanoTime()) */
+        private long queuedAt;
 
         public RequestTransaction(RequestTransactionManager parent, int transactionId) {
             this.parent = parent;
@@ -160,6 +266,21 @@ public class RequestTransactionManager {
             this.parent.endRequest(this);
         }
 
+        /**
+         * Creates the timeout handler for a request sent in this transaction. As no response will be handled
+         * after the timeout, it not only fails the future of the request, but also ends the transaction to free
+         * its slot.
+         *
+         * @param future future of the request sent in this transaction.
+         * @return handler to pass to {@link org.apache.plc4x.java.spi.ConversationContext.SendRequestContext#onTimeout(Consumer)}.
+         */
+        public Consumer<TimeoutException> failOnTimeout(CompletableFuture<?> future) {
+            return e -> {
+                future.completeExceptionally(e);
+                endRequest();
+            };
+        }
+
         public void setOperation(Runnable operation) {
             this.operation = operation;
         }
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.spi;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.HashedWheelTimer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class Plc4xNettyWrapperTest {
+
+    private final HashedWheelTimer timer = new HashedWheelTimer();
+
+    private final TestProtocol protocol = new TestProtocol();
+
+    private EmbeddedChannel channel;
+
+    @BeforeEach
+    public void setUp() {
+        channel = new EmbeddedChannel();
+        channel.pipeline().addLast(new Plc4xNettyWrapper<>(timer, channel.pipeline(), protocol, Message.class));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+        timer.stop();
+    }
+
+    @Test
+    public void outOfOrderResponsesAreDispatchedByCorrelationKey() {
+        List<CompletableFuture<Message>> responses = new ArrayList<>();
+        for (int id = 0; id < 3; id++) {
+            CompletableFuture<Message> response = new CompletableFuture<>();
+            protocol.context.sendRequest(new Message(id))
+                .expectResponse(Message.class, Duration.ofSeconds(10))
+                .correlate(id)
+                .handle(response::complete);
+            responses.add(response);
+        }
+
+        Message second = new Message(1);
+        Message third = new Message(2);
+        Message first = new Message(0);
+        channel.writeInbound(second);
+        assertSame(second, responses.get(1).getNow(null));
+        assertFalse(responses.get(0).isDone());
+        assertFalse(responses.get(2).isDone());
+        channel.writeInbound(third);
+        channel.writeInbound(first);
+
+        assertSame(first, responses.get(0).getNow(null));
+        assertSame(third, responses.get(2).getNow(null));
+        assertTrue(protocol.unhandled.isEmpty());
+    }
+
+    @Test
+    public void outOfOrderResponsesAreDispatchedByChecks() {
+        List<CompletableFuture<Message>> responses = new ArrayList<>();
+        for (int id = 0; id < 3; id++) {
+            int expectedId = id;
+            CompletableFuture<Message> response = new CompletableFuture<>();
+            protocol.context.sendRequest(new Message(id))
+                .expectResponse(Message.class, Duration.ofSeconds(10))
+                .check(message -> message.id == expectedId)
+                .handle(response::complete);
+            responses.add(response);
+        }
+
+        Message first = new Message(0);
+        Message third = new Message(2);
+        channel.writeInbound(third);
+        channel.writeInbound(first);
+
+        assertSame(first, responses.get(0).getNow(null));
+        assertFalse(responses.get(1).isDone());
+        assertSame(third, responses.get(2).getNow(null));
+    }
+
+    @Test
+    public void responsesWithoutPendingRequestArePassedToTheProtocol() {
+        CompletableFuture<Message> response = new CompletableFuture<>();
+        protocol.context.sendRequest(new Message(0))
+            .expectResponse(Message.class, Duration.ofSeconds(10))
+            .correlate(0)
+            .handle(response::complete);
+
+        Message unexpected = new Message(1);
+        channel.writeInbound(unexpected);
+        Message expected = new Message(0);
+        channel.writeInbound(expected);
+        // Each request is only answered once.
+        Message duplicate = new Message(0);
+        channel.writeInbound(duplicate);
+
+        assertSame(expected, response.getNow(null));
+        assertEquals(2, protocol.unhandled.size());
+        assertSame(unexpected, protocol.unhandled.get(0));
+        assertSame(duplicate, protocol.unhandled.get(1));
+    }
+
+    private static class Message {
+
+        private final int id;
+
+        private Message(int id) {
+            this.id = id;
+        }
+
+    }
+
+    private static class TestProtocol extends Plc4xProtocolBase<Message> {
+
+        private final List<Message> unhandled = new ArrayList<>();
+
+        @Override
+        protected void decode(ConversationContext<Message> context, Message msg) {
+            unhandled.add(msg);
+        }
+
+        @Override
+        protected Object getCorrelationKey(Message msg) {
+            return msg.id;
+        }
+
+        @Override
+        public void close(ConversationContext<Message> context) {
+        }
+
+    }
+
+}
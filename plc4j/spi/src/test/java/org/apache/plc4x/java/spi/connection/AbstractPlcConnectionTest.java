@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.spi.connection;
+
+import org.apache.plc4x.java.api.messages.PlcColumnarReadResponse;
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.java.api.messages.PlcRequest;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.api.value.PlcInteger;
+import org.apache.plc4x.java.api.value.PlcValue;
+import org.apache.plc4x.java.spi.ConversationContext;
+import org.apache.plc4x.java.spi.Plc4xProtocolBase;
+import org.apache.plc4x.java.spi.context.DriverContext;
+import org.apache.plc4x.java.spi.messages.DefaultPlcReadRequest;
+import org.apache.plc4x.java.spi.messages.DefaultPlcReadResponse;
+import org.apache.plc4x.java.spi.messages.InternalPlcReadRequest;
+import org.apache.plc4x.java.spi.messages.PreparedPlcReadRequest;
+import org.apache.plc4x.java.spi.messages.utils.ResponseItem;
+import org.apache.plc4x.java.spi.optimizer.BaseOptimizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AbstractPlcConnectionTest {
+
+    private final AtomicInteger numberOfOptimizations = new AtomicInteger();
+
+    private final AtomicInteger numberOfReads = new AtomicInteger();
+
+    private AbstractPlcConnection connection;
+
+    @BeforeEach
+    public void setUp() {
+        BaseOptimizer optimizer = new BaseOptimizer() {
+            @Override
+            protected List<PlcRequest> processReadRequest(PlcReadRequest readRequest, DriverContext driverContext) {
+                numberOfOptimizations.incrementAndGet();
+                return super.processReadRequest(readRequest, driverContext);
+            }
+        };
+        connection = new AbstractPlcConnection(true, false, false, null, optimizer) {
+            @Override
+            public void connect() {
+                // Nothing to do.
+            }
+
+            @Override
+            public boolean isConnected() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+                // Nothing to do.
+            }
+        };
+        connection.setProtocol(createProtocol());
+    }
+
+    @Test
+    public void preparedRequestIsOptimizedOnce() {
+        PlcReadRequest readRequest = connection.prepareReadRequest(createReadRequest());
+
+        assertTrue(readRequest instanceof PreparedPlcReadRequest);
+        assertEquals(1, numberOfOptimizations.get());
+    }
+
+    @Test
+    public void preparedRequestIsReusedAcrossExecutions() throws Exception {
+        PlcReadRequest readRequest = connection.prepareReadRequest(createReadRequest());
+        List<PlcRequest> subRequests = ((PreparedPlcReadRequest) readRequest).getSubRequests();
+
+        for (int i = 0; i < 3; i++) {
+            PlcReadResponse response = readRequest.execute().get(1, TimeUnit.SECONDS);
+            assertEquals(42, ((PlcColumnarReadResponse) response).getInt(0));
+        }
+
+        assertEquals(3, numberOfReads.get());
+        assertEquals(1, numberOfOptimizations.get());
+        assertSame(subRequests, ((PreparedPlcReadRequest) readRequest).getSubRequests());
+    }
+
+    @Test
+    public void preparedRequestIsInvalidatedOnReconnect() throws Exception {
+        PlcReadRequest readRequest = connection.prepareReadRequest(createReadRequest());
+        readRequest.execute().get(1, TimeUnit.SECONDS);
+
+        // Reconnecting sets up a new protocol instance with a new driver context.
+        Plc4xProtocolBase<Object> protocol = createProtocol();
+        connection.setProtocol(protocol);
+        readRequest.execute().get(1, TimeUnit.SECONDS);
+        assertEquals(2, numberOfOptimizations.get());
+        assertSame(protocol.getDriverContext(), ((PreparedPlcReadRequest) readRequest).getDriverContext());
+
+        // The request is prepared for the new driver context now.
+        readRequest.execute().get(1, TimeUnit.SECONDS);
+        assertEquals(2, numberOfOptimizations.get());
+        assertEquals(3, numberOfReads.get());
+    }
+
+    private PlcReadRequest createReadRequest() {
+        LinkedHashMap<String, PlcField> fields = new LinkedHashMap<>();
+        fields.put("counter", new PlcField() {});
+        return new DefaultPlcReadRequest(connection, fields);
+    }
+
+    private Plc4xProtocolBase<Object> createProtocol() {
+        Plc4xProtocolBase<Object> protocol = new Plc4xProtocolBase<Object>() {
+            @Override
+            public CompletableFuture<PlcReadResponse> read(PlcReadRequest readRequest) {
+                numberOfReads.incrementAndGet();
+                Map<String, ResponseItem<PlcValue>> values = new HashMap<>();
+                values.put("counter", new ResponseItem<>(PlcResponseCode.OK, new PlcInteger(42)));
+                return CompletableFuture.completedFuture(
+                    new DefaultPlcReadResponse((InternalPlcReadRequest) readRequest, values));
+            }
+
+            @Override
+            public void close(ConversationContext<Object> context) {
+                // Nothing to do.
+            }
+        };
+        protocol.setDriverContext(new DriverContext() {});
+        return protocol;
+    }
+
+}
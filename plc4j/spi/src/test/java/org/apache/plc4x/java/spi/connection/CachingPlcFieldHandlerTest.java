@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.spi.connection;
+
+import org.apache.plc4x.java.api.exceptions.PlcInvalidFieldException;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CachingPlcFieldHandlerTest {
+
+    private AtomicInteger parseCounter;
+    private PlcFieldHandler delegate;
+
+    @BeforeEach
+    public void setUp() {
+        parseCounter = new AtomicInteger();
+        delegate = new DefaultPlcFieldHandler() {
+            @Override
+            public PlcField createField(String fieldQuery) throws PlcInvalidFieldException {
+                parseCounter.incrementAndGet();
+                if (fieldQuery.isEmpty()) {
+                    throw new PlcInvalidFieldException(fieldQuery);
+                }
+                return new PlcField() {};
+            }
+        };
+    }
+
+    @Test
+    public void fieldsAreOnlyParsedOnce() {
+        CachingPlcFieldHandler fieldHandler = new CachingPlcFieldHandler(delegate);
+
+        PlcField field = fieldHandler.createField("a");
+        assertSame(field, fieldHandler.createField("a"));
+        assertNotSame(field, fieldHandler.createField("b"));
+
+        assertEquals(2, parseCounter.get());
+        assertEquals(1, fieldHandler.getHits());
+        assertEquals(2, fieldHandler.getMisses());
+        assertEquals(2, fieldHandler.getSize());
+    }
+
+    @Test
+    public void cacheIsBounded() {
+        CachingPlcFieldHandler fieldHandler = new CachingPlcFieldHandler(delegate, 2);
+
+        fieldHandler.createField("a");
+        fieldHandler.createField("b");
+        fieldHandler.createField("c");
+
+        assertEquals(2, fieldHandler.getSize());
+    }
+
+    @Test
+    public void addedFieldIsNotEvicted() {
+        CachingPlcFieldHandler fieldHandler = new CachingPlcFieldHandler(delegate, 2);
+
+        fieldHandler.createField("a");
+        fieldHandler.createField("b");
+        PlcField c = fieldHandler.createField("c");
+
+        assertSame(c, fieldHandler.createField("c"));
+        assertEquals(3, parseCounter.get());
+        assertEquals(2, fieldHandler.getSize());
+    }
+
+    @Test
+    public void concurrentLookupsStayWithinTheBound() throws Exception {
+        CachingPlcFieldHandler fieldHandler = new CachingPlcFieldHandler(delegate, 8);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        fieldHandler.createField("field" + (i % 32));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Concurrent evictions may remove a few more fields than necessary, but never leave too many behind.
+        assertTrue(fieldHandler.getSize() <= 8);
+        assertEquals(4000, fieldHandler.getHits() + fieldHandler.getMisses());
+    }
+
+    @Test
+    public void concurrentLookupsShareTheCachedField() throws Exception {
+        CachingPlcFieldHandler fieldHandler = new CachingPlcFieldHandler(delegate);
+        Map<String, PlcField> firstFields = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        String fieldQuery = "field" + (i % 32);
+                        PlcField field = fieldHandler.createField(fieldQuery);
+                        assertSame(firstFields.computeIfAbsent(fieldQuery, query -> field), field);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(32, fieldHandler.getSize());
+        assertEquals(4000, fieldHandler.getHits() + fieldHandler.getMisses());
+    }
+
+    @Test
+    public void invalidFieldsAreNotCached() {
+        CachingPlcFieldHandler fieldHandler = new CachingPlcFieldHandler(delegate);
+
+        assertThrows(PlcInvalidFieldException.class, () -> fieldHandler.createField(""));
+        assertThrows(PlcInvalidFieldException.class, () -> fieldHandler.createField(""));
+
+        assertEquals(2, parseCounter.get());
+        assertEquals(0, fieldHandler.getSize());
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.spi.connection;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.apache.plc4x.java.api.PlcConnection;
+import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
+import org.apache.plc4x.java.api.exceptions.PlcIoException;
+import org.apache.plc4x.java.spi.events.ConnectEvent;
+import org.apache.plc4x.java.spi.events.ConnectedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DefaultNettyPlcConnectionTest {
+
+    private final EmbeddedChannelFactory channelFactory = new EmbeddedChannelFactory();
+
+    @Test
+    public void connectAsyncCompletesOnceTheHandshakeIsFinished() throws Exception {
+        DefaultNettyPlcConnection connection = connection(1000,
+            ctx -> ctx.pipeline().fireUserEventTriggered(new ConnectedEvent()));
+
+        PlcConnection connected = connection.connectAsync().get(1, TimeUnit.SECONDS);
+
+        assertSame(connection, connected);
+        assertTrue(connection.isConnected());
+        assertSame(channelFactory.channel, connection.getChannel());
+    }
+
+    @Test
+    public void connectAsyncFailsAndClosesTheChannelIfTheHandshakeTimesOut() {
+        DefaultNettyPlcConnection connection = connection(50, ctx -> {
+            // The PLC never answers the handshake.
+        });
+
+        CompletableFuture<PlcConnection> future = connection.connectAsync();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof PlcConnectionException);
+        assertFalse(channelFactory.channel.isOpen());
+        assertFalse(connection.isConnected());
+    }
+
+    @Test
+    public void connectAsyncFailsIfTheChannelIsClosedDuringTheHandshake() {
+        DefaultNettyPlcConnection connection = connection(1000, ctx -> ctx.channel().close());
+
+        CompletableFuture<PlcConnection> future = connection.connectAsync();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof PlcIoException);
+        assertFalse(channelFactory.channel.isOpen());
+        assertFalse(connection.isConnected());
+    }
+
+    @Test
+    public void connectAsyncFailsIfTheHandshakeFails() {
+        DefaultNettyPlcConnection connection = connection(1000, ctx -> {
+            throw new IllegalStateException("Unexpected handshake response");
+        });
+
+        CompletableFuture<PlcConnection> future = connection.connectAsync();
+
+        // The protocol layer closes the channel on errors, which fails the pending handshake.
+        assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertFalse(channelFactory.channel.isOpen());
+        assertFalse(connection.isConnected());
+    }
+
+    @Test
+    public void connectAsyncFailsIfTheChannelCantBeCreated() {
+        channelFactory.failure = new PlcConnectionException("Connection refused");
+        DefaultNettyPlcConnection connection = connection(1000,
+            ctx -> ctx.pipeline().fireUserEventTriggered(new ConnectedEvent()));
+
+        CompletableFuture<PlcConnection> future = connection.connectAsync();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertSame(channelFactory.failure, e.getCause());
+        assertNull(connection.getChannel());
+        assertFalse(connection.isConnected());
+    }
+
+    /**
+     * @param handshakeTimeout maximum duration of the handshake in ms.
+     * @param handshake        reaction of the protocol layer on the {@link ConnectEvent}.
+     */
+    private DefaultNettyPlcConnection connection(long handshakeTimeout, Consumer<ChannelHandlerContext> handshake) {
+        ProtocolStackConfigurer<?> stackConfigurer = (configuration, pipeline) -> {
+            pipeline.addLast(new ChannelInboundHandlerAdapter() {
+                @Override
+                public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+                    if (evt instanceof ConnectEvent) {
+                        handshake.accept(ctx);
+                    } else {
+                        super.userEventTriggered(ctx, evt);
+                    }
+                }
+
+                @Override
+                public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+                    ctx.channel().close();
+                }
+            });
+            return null;
+        };
+        return new DefaultNettyPlcConnection(true, true, false, null, null, channelFactory, true,
+            handshakeTimeout, stackConfigurer, null);
+    }
+
+    private static class EmbeddedChannelFactory implements ChannelFactory {
+
+        private PlcConnectionException failure;
+
+        private EmbeddedChannel channel;
+
+        @Override
+        public Channel createChannel(ChannelHandler channelHandler) throws PlcConnectionException {
+            if (failure != null) {
+                throw failure;
+            }
+            channel = new EmbeddedChannel(channelHandler);
+            return channel;
+        }
+
+    }
+
+}
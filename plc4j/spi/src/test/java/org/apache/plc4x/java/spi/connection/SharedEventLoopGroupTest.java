@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.spi.connection;
+
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SharedEventLoopGroupTest {
+
+    private final SharedEventLoopGroup sharedGroup =
+        new SharedEventLoopGroup("test", (threads, threadFactory) -> new DefaultEventLoopGroup(1, threadFactory));
+
+    @Test
+    public void groupIsSharedTillTheLastReferenceIsReleased() {
+        EventLoopGroup first = sharedGroup.retain();
+        EventLoopGroup second = sharedGroup.retain();
+        assertSame(first, second);
+        assertEquals(2, sharedGroup.getReferences());
+
+        assertTrue(sharedGroup.release(first));
+        assertFalse(first.isShuttingDown());
+        assertTrue(sharedGroup.release(second));
+        assertTrue(first.isShuttingDown());
+        assertEquals(0, sharedGroup.getReferences());
+    }
+
+    @Test
+    public void groupIsCreatedAgainAfterShutdown() {
+        EventLoopGroup first = sharedGroup.retain();
+        sharedGroup.release(first);
+
+        EventLoopGroup second = sharedGroup.retain();
+        assertNotSame(first, second);
+        assertFalse(second.isShuttingDown());
+        sharedGroup.release(second);
+    }
+
+    @Test
+    public void foreignGroupsAreNotReleased() {
+        EventLoopGroup shared = sharedGroup.retain();
+        EventLoopGroup foreign = new DefaultEventLoopGroup(1);
+        try {
+            assertFalse(sharedGroup.release(foreign));
+            assertEquals(1, sharedGroup.getReferences());
+        } finally {
+            foreign.shutdownGracefully();
+            sharedGroup.release(shared);
+        }
+    }
+
+}
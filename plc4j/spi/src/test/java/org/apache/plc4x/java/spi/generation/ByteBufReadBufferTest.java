@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.spi.generation;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ByteBufReadBufferTest {
+
+    private static final byte[] DATA = new byte[] {
+        (byte) 0xA5, (byte) 0x3C, (byte) 0xF0, (byte) 0x0F, (byte) 0x81, (byte) 0x7E, (byte) 0xFF, (byte) 0x00,
+        (byte) 0x12, (byte) 0x34, (byte) 0x56, (byte) 0x78, (byte) 0x9A, (byte) 0xBC, (byte) 0xDE, (byte) 0xF1,
+        (byte) 0x80, (byte) 0x01, (byte) 0x7F, (byte) 0xFE, (byte) 0x55, (byte) 0xAA, (byte) 0xC3, (byte) 0x3C
+    };
+
+    @Test
+    public void alignedReadsMatchArrayBasedBuffer() throws Exception {
+        for (boolean littleEndian : new boolean[] {false, true}) {
+            ReadBuffer expected = new ReadBuffer(DATA, littleEndian);
+            ReadBuffer actual = new ByteBufReadBuffer(Unpooled.wrappedBuffer(DATA), littleEndian);
+
+            assertEquals(expected.readUnsignedShort(8), actual.readUnsignedShort(8));
+            assertEquals(expected.readByte(8), actual.readByte(8));
+            assertEquals(expected.readUnsignedInt(16), actual.readUnsignedInt(16));
+            assertEquals(expected.readShort(16), actual.readShort(16));
+            assertEquals(expected.readUnsignedLong(32), actual.readUnsignedLong(32));
+            assertEquals(expected.readInt(32), actual.readInt(32));
+            assertEquals(expected.readLong(64), actual.readLong(64));
+            assertEquals(expected.getPos(), actual.getPos());
+        }
+    }
+
+    @Test
+    public void unalignedReadsMatchArrayBasedBuffer() throws Exception {
+        ReadBuffer expected = new ReadBuffer(DATA);
+        ReadBuffer actual = new ByteBufReadBuffer(Unpooled.wrappedBuffer(DATA));
+
+        assertEquals(expected.readBit(), actual.readBit());
+        assertEquals(expected.readUnsignedByte(3), actual.readUnsignedByte(3));
+        assertEquals(expected.getPos(), actual.getPos());
+        assertEquals(expected.readUnsignedShort(7), actual.readUnsignedShort(7));
+        assertEquals(expected.readByte(5), actual.readByte(5));
+        assertEquals(expected.readUnsignedInt(13), actual.readUnsignedInt(13));
+        assertEquals(expected.readInt(19), actual.readInt(19));
+        assertEquals(expected.readLong(33), actual.readLong(33));
+        assertEquals(expected.getPos(), actual.getPos());
+    }
+
+    @Test
+    public void readsRelativeToReaderIndexWithoutModifyingTheBuffer() throws Exception {
+        ByteBuf buf = Unpooled.wrappedBuffer(DATA);
+        buf.readerIndex(8);
+        ByteBuf slice = buf.readSlice(8);
+        ByteBufReadBuffer readBuffer = new ByteBufReadBuffer(slice);
+
+        assertEquals(8, readBuffer.getTotalBytes());
+        assertEquals((byte) 0x34, readBuffer.peekByte(1));
+        assertEquals(0x12345678L, readBuffer.readUnsignedLong(32));
+        assertArrayEquals(new byte[] {(byte) 0x34, (byte) 0x56}, readBuffer.getBytes(1, 3));
+        assertEquals(0, slice.readerIndex());
+        assertEquals(16, buf.readerIndex());
+    }
+
+    @Test
+    public void readingBeyondTheEndFails() throws Exception {
+        ReadBuffer readBuffer = new ByteBufReadBuffer(Unpooled.wrappedBuffer(new byte[] {0x01, 0x02}));
+        readBuffer.readUnsignedInt(12);
+        assertFalse(readBuffer.hasMore(8));
+        assertThrows(ParseException.class, () -> readBuffer.readUnsignedShort(8));
+    }
+
+}
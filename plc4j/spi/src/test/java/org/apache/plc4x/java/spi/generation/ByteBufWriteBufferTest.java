@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.spi.generation;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ByteBufWriteBufferTest {
+
+    @Test
+    public void writesMatchByteBufferBasedBuffer() throws Exception {
+        for (boolean littleEndian : new boolean[] {false, true}) {
+            WriteBuffer expected = new WriteBuffer(23, littleEndian);
+            ByteBuf buf = Unpooled.buffer();
+            WriteBuffer actual = new ByteBufWriteBuffer(buf, littleEndian);
+
+            write(expected);
+            write(actual);
+
+            assertEquals(expected.getPos(), actual.getPos());
+            assertArrayEquals(expected.getData(), actual.getData());
+            assertEquals(23, buf.readableBytes());
+        }
+    }
+
+    @Test
+    public void positionsAreRelativeToTheInitialWriterIndex() throws Exception {
+        ByteBuf buf = Unpooled.buffer();
+        buf.writeInt(0xCAFEBABE);
+        WriteBuffer writeBuffer = new ByteBufWriteBuffer(buf);
+
+        writeBuffer.writeUnsignedInt(16, 0x1234);
+        writeBuffer.writeString(16, "UTF-8", "AB");
+
+        assertEquals(4, writeBuffer.getPos());
+        assertArrayEquals(new byte[] {0x12, 0x34, 0x41, 0x42}, writeBuffer.getData());
+        assertEquals(8, buf.writerIndex());
+    }
+
+    private static void write(WriteBuffer writeBuffer) throws ParseException {
+        // Unaligned part
+        writeBuffer.writeBit(true);
+        writeBuffer.writeUnsignedByte(3, (byte) 5);
+        writeBuffer.writeByte(4, (byte) -3);
+        writeBuffer.writeUnsignedShort(5, (short) 17);
+        writeBuffer.writeUnsignedShort(3, (short) 6);
+        // Aligned part
+        writeBuffer.writeUnsignedShort(8, (short) 0xA5);
+        writeBuffer.writeUnsignedInt(16, 0x1234);
+        writeBuffer.writeShort(16, (short) -2);
+        writeBuffer.writeUnsignedLong(32, 0x12345678L);
+        writeBuffer.writeInt(32, -123456);
+        writeBuffer.writeLong(64, 0x0102030405060708L);
+    }
+
+}
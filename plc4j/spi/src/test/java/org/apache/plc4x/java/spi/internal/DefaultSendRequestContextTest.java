@@ -107,6 +107,18 @@ class DefaultSendRequestContextTest {
         assertThat(SUT.onTimeoutConsumer, notNullValue());
     }
 
+    @Test
+    void correlate() {
+        assertThat(SUT.correlationKey, nullValue());
+        SUT.expectResponse(Object.class, Duration.ZERO);
+        SUT.correlate(42);
+        assertThat(SUT.commands, hasSize(1));
+        assertThat(SUT.correlationKey, is(42));
+        assertThrows(ConversationContext.PlcWiringException.class, () -> SUT.correlate(43));
+        DefaultSendRequestContext<String> unwrap = (DefaultSendRequestContext<String>) SUT.unwrap(o -> o.toString());
+        assertThat(unwrap.correlationKey, is(42));
+    }
+
     @Test
     void finish() {
         SUT.handle(o -> {
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.spi.messages;
+
+import org.apache.plc4x.java.api.exceptions.PlcInvalidFieldException;
+import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.api.value.PlcDouble;
+import org.apache.plc4x.java.api.value.PlcInteger;
+import org.apache.plc4x.java.api.value.PlcList;
+import org.apache.plc4x.java.api.value.PlcString;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DefaultPlcColumnarReadResponseTest {
+
+    @Test
+    public void primitiveValuesAreAccessibleByIndexAndName() {
+        PreparedPlcReadRequest request = prepare("temperature", "counter", "running", "name");
+        DefaultPlcColumnarReadResponse response = new DefaultPlcColumnarReadResponse.Builder(request)
+            .set("temperature", PlcResponseCode.OK, new PlcDouble(21.5))
+            .set("counter", PlcResponseCode.OK, new PlcInteger(42000))
+            .setBoolean(2, true)
+            .set("name", PlcResponseCode.OK, new PlcString("pump"))
+            .build();
+
+        assertEquals(4, response.getNumberOfFields());
+        assertEquals(1, response.getFieldIndex("counter"));
+        assertEquals(-1, response.getFieldIndex("unknown"));
+        assertEquals(21.5, response.getDouble(0));
+        assertEquals(21, response.getInt(0));
+        assertEquals(42000, response.getInt(1));
+        assertEquals(42000.0, response.getDouble(1));
+        assertTrue(response.getBoolean(2));
+        assertEquals("pump", response.getPlcValue(3).getString());
+
+        assertEquals(Integer.valueOf(42000), response.getInteger("counter"));
+        assertEquals(Double.valueOf(21.5), response.getDouble("temperature"));
+        assertTrue(response.getBoolean("running"));
+        assertEquals("pump", response.getString("name"));
+        assertEquals(PlcResponseCode.OK, response.getResponseCode("name"));
+        assertEquals(4, response.getValues().size());
+    }
+
+    @Test
+    public void listsAreKeptAsPlcValues() {
+        PreparedPlcReadRequest request = prepare("values");
+        DefaultPlcColumnarReadResponse response = new DefaultPlcColumnarReadResponse.Builder(request)
+            .set(0, PlcResponseCode.OK, new PlcList(Arrays.asList(new PlcInteger(1), new PlcInteger(2))))
+            .build();
+
+        assertEquals(2, response.getNumberOfValues("values"));
+        assertEquals(Integer.valueOf(2), response.getInteger("values", 1));
+    }
+
+    @Test
+    public void failedAndMissingFields() {
+        PreparedPlcReadRequest request = prepare("failed", "missing");
+        DefaultPlcColumnarReadResponse response = new DefaultPlcColumnarReadResponse.Builder(request)
+            .set("failed", PlcResponseCode.NOT_FOUND, null)
+            .set("not-requested", PlcResponseCode.OK, new PlcInteger(1))
+            .build();
+
+        assertFalse(response.isOk(0));
+        assertEquals(PlcResponseCode.NOT_FOUND, response.getResponseCode(0));
+        assertThrows(PlcRuntimeException.class, () -> response.getInt(0));
+        assertThrows(PlcRuntimeException.class, () -> response.getInteger("failed"));
+        assertNull(response.getResponseCode(1));
+        assertThrows(PlcInvalidFieldException.class, () -> response.getResponseCode("missing"));
+        assertEquals(Collections.singleton("failed"), response.getValues().keySet());
+    }
+
+    private static PreparedPlcReadRequest prepare(String... fieldNames) {
+        LinkedHashMap<String, PlcField> fields = new LinkedHashMap<>();
+        for (String fieldName : fieldNames) {
+            fields.put(fieldName, new PlcField() {});
+        }
+        return new PreparedPlcReadRequest(null, fields, null, Collections.emptyList());
+    }
+
+}
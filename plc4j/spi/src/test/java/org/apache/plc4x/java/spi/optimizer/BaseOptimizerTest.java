@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.spi.optimizer;
+
+import org.apache.plc4x.java.api.messages.PlcColumnarReadResponse;
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.java.api.messages.PlcRequest;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.api.value.PlcInteger;
+import org.apache.plc4x.java.api.value.PlcValue;
+import org.apache.plc4x.java.spi.Plc4xProtocolBase;
+import org.apache.plc4x.java.spi.context.DriverContext;
+import org.apache.plc4x.java.spi.messages.DefaultPlcColumnarReadResponse;
+import org.apache.plc4x.java.spi.messages.DefaultPlcReadRequest;
+import org.apache.plc4x.java.spi.messages.DefaultPlcReadResponse;
+import org.apache.plc4x.java.spi.messages.PreparedPlcReadRequest;
+import org.apache.plc4x.java.spi.messages.utils.ResponseItem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BaseOptimizerTest {
+
+    private final BaseOptimizer optimizer = new BaseOptimizer() {};
+
+    @Mock
+    private Plc4xProtocolBase<Object> reader;
+
+    @Mock
+    private DriverContext driverContext;
+
+    @Test
+    public void preparedRequestIsAnsweredColumnarAfterTheDriverContextChanged() throws Exception {
+        // Prepared for another driver context, so the default optimizer forwards the request itself.
+        PreparedPlcReadRequest readRequest = prepare(null, Collections.emptyList(), "counter");
+        when(reader.getDriverContext()).thenReturn(driverContext);
+        Map<String, ResponseItem<PlcValue>> values = new HashMap<>();
+        values.put("counter", new ResponseItem<>(PlcResponseCode.OK, new PlcInteger(42)));
+        when(reader.read(readRequest)).thenReturn(
+            CompletableFuture.completedFuture(new DefaultPlcReadResponse(readRequest, values)));
+
+        PlcReadResponse response = optimizer.optimizedRead(readRequest, reader).get(1, TimeUnit.SECONDS);
+
+        assertThat(response, instanceOf(PlcColumnarReadResponse.class));
+        PlcColumnarReadResponse columnarResponse = (PlcColumnarReadResponse) response;
+        assertEquals(42, columnarResponse.getInt(0));
+        assertEquals(Integer.valueOf(42), columnarResponse.getInteger("counter"));
+    }
+
+    @Test
+    public void columnarProtocolDecodesTheSubRequestsIntoTheColumns() throws Exception {
+        PlcReadRequest okRequest = subRequest("counter");
+        PlcReadRequest failingRequest = subRequest("temperature");
+        PreparedPlcReadRequest readRequest = prepare(driverContext, Arrays.asList(okRequest, failingRequest),
+            "counter", "temperature");
+        when(reader.getDriverContext()).thenReturn(driverContext);
+        when(reader.canReadColumnar()).thenReturn(true);
+        when(reader.readColumnar(any(), any())).thenAnswer(invocation -> {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            if (invocation.getArgument(0) == okRequest) {
+                DefaultPlcColumnarReadResponse.Builder columns = invocation.getArgument(1);
+                columns.setInt(columns.getFieldIndex("counter"), 42);
+                future.complete(null);
+            } else {
+                future.completeExceptionally(new IllegalStateException("broken"));
+            }
+            return future;
+        });
+
+        PlcReadResponse response = optimizer.optimizedRead(readRequest, reader).get(1, TimeUnit.SECONDS);
+
+        assertThat(response, instanceOf(DefaultPlcColumnarReadResponse.class));
+        PlcColumnarReadResponse columnarResponse = (PlcColumnarReadResponse) response;
+        assertEquals(42, columnarResponse.getInt(0));
+        assertFalse(columnarResponse.isOk(1));
+        assertEquals(PlcResponseCode.INTERNAL_ERROR, columnarResponse.getResponseCode(1));
+        verify(reader, never()).read(any());
+    }
+
+    private static PreparedPlcReadRequest prepare(DriverContext driverContext, List<PlcRequest> subRequests,
+                                                  String... fieldNames) {
+        return new PreparedPlcReadRequest(null, fields(fieldNames), driverContext, subRequests);
+    }
+
+    private static PlcReadRequest subRequest(String... fieldNames) {
+        return new DefaultPlcReadRequest(null, fields(fieldNames));
+    }
+
+    private static LinkedHashMap<String, PlcField> fields(String... fieldNames) {
+        LinkedHashMap<String, PlcField> fields = new LinkedHashMap<>();
+        for (String fieldName : fieldNames) {
+            fields.put(fieldName, new PlcField() {});
+        }
+        return fields;
+    }
+
+}
@@ -25,10 +25,24 @@ import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class RequestTransactionManagerTest {
@@ -159,6 +173,150 @@ public class RequestTransactionManagerTest {
         assertTrue(handle.getCompletionFuture().isCancelled());
     }
 
+    @Test
+    public void queuedRequestsAreStartedWhenSlotsAreFreed() {
+        RequestTransactionManager tm = new RequestTransactionManager(2);
+        RequestTransactionManager.RequestTransaction handle1 = tm.startRequest();
+        RequestTransactionManager.RequestTransaction handle2 = tm.startRequest();
+        RequestTransactionManager.RequestTransaction handle3 = tm.startRequest();
+        RequestTransactionManager.RequestTransaction handle4 = tm.startRequest();
+        handle1.submit(() -> {});
+        handle2.submit(() -> {});
+        handle3.submit(() -> {});
+        handle4.submit(() -> {});
+
+        assertEquals(2, tm.getNumberOfActiveRequests());
+        assertEquals(2, tm.getNumberOfQueuedRequests());
+        assertEquals(2, tm.getNumberOfStartedRequests());
+
+        // Failing a queued request simply drops it
+        handle4.failRequest(new RuntimeException());
+        assertEquals(1, tm.getNumberOfQueuedRequests());
+
+        // Ending a running request starts the next one
+        handle1.endRequest();
+        assertEquals(2, tm.getNumberOfActiveRequests());
+        assertEquals(0, tm.getNumberOfQueuedRequests());
+        assertEquals(3, tm.getNumberOfStartedRequests());
+
+        // Failing a running request frees its slot
+        handle2.failRequest(new RuntimeException());
+        handle3.endRequest();
+        assertEquals(0, tm.getNumberOfActiveRequests());
+        assertTrue(tm.getMaxWaitTimeNanos() <= tm.getTotalWaitTimeNanos());
+    }
+
+    @Test
+    public void queuedRequestsAreNotStartedByTheThreadEndingTheRequest() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            RequestTransactionManager tm = new RequestTransactionManager(1, executor);
+            RequestTransactionManager.RequestTransaction handle1 = tm.startRequest();
+            RequestTransactionManager.RequestTransaction handle2 = tm.startRequest();
+            CompletableFuture<Thread> firstThread = new CompletableFuture<>();
+            CompletableFuture<Thread> secondThread = new CompletableFuture<>();
+            handle1.submit(() -> firstThread.complete(Thread.currentThread()));
+            handle2.submit(() -> secondThread.complete(Thread.currentThread()));
+
+            // A free slot is used directly by the submitting thread
+            assertSame(Thread.currentThread(), firstThread.get(1, TimeUnit.SECONDS));
+            assertEquals(1, tm.getNumberOfQueuedRequests());
+
+            // The queued request is handed to the executor (e.g. if a timeout ends the request on the timer thread)
+            Thread timer = new Thread(handle1::endRequest);
+            timer.start();
+            timer.join();
+            Thread started = secondThread.get(1, TimeUnit.SECONDS);
+            assertNotEquals(timer, started);
+            assertNotEquals(Thread.currentThread(), started);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failingAStartedRequestCancelsItsPendingOperation() {
+        Queue<Runnable> eventLoop = new ArrayDeque<>();
+        RequestTransactionManager tm = new RequestTransactionManager(1, (Executor) eventLoop::add);
+        RequestTransactionManager.RequestTransaction handle1 = tm.startRequest();
+        RequestTransactionManager.RequestTransaction handle2 = tm.startRequest();
+        AtomicBoolean operationRun = new AtomicBoolean();
+        handle1.submit(() -> {});
+        handle2.submit(() -> operationRun.set(true));
+        handle1.endRequest();
+        assertEquals(1, eventLoop.size());
+
+        handle2.failRequest(new RuntimeException());
+
+        // The future was set before the operation was handed to the executor, so it can be cancelled
+        assertTrue(handle2.getCompletionFuture().isCancelled());
+        assertEquals(0, tm.getNumberOfActiveRequests());
+        eventLoop.poll().run();
+        assertFalse(operationRun.get());
+    }
+
+    @Test
+    public void executorIsResolvedWhenAQueuedRequestIsStarted() {
+        // Like the event loop of a channel, which is only known after connecting
+        AtomicReference<Executor> channelEventLoop = new AtomicReference<>();
+        RequestTransactionManager tm = new RequestTransactionManager(1, channelEventLoop::get);
+        Queue<Runnable> eventLoop = new ArrayDeque<>();
+        RequestTransactionManager.RequestTransaction handle1 = tm.startRequest();
+        RequestTransactionManager.RequestTransaction handle2 = tm.startRequest();
+        AtomicBoolean operationRun = new AtomicBoolean();
+        handle1.submit(() -> {});
+        handle2.submit(() -> operationRun.set(true));
+
+        channelEventLoop.set(eventLoop::add);
+        handle1.endRequest();
+
+        assertFalse(operationRun.get());
+        eventLoop.poll().run();
+        assertTrue(operationRun.get());
+    }
+
+    @Test
+    public void withoutExecutorQueuedRequestsAreStartedByTheThreadEndingTheRequest() throws Exception {
+        RequestTransactionManager tm = new RequestTransactionManager(1);
+        RequestTransactionManager.RequestTransaction handle1 = tm.startRequest();
+        RequestTransactionManager.RequestTransaction handle2 = tm.startRequest();
+        CompletableFuture<Thread> secondThread = new CompletableFuture<>();
+        handle1.submit(() -> {});
+        handle2.submit(() -> secondThread.complete(Thread.currentThread()));
+
+        Thread responseThread = new Thread(handle1::endRequest);
+        responseThread.start();
+        responseThread.join();
+
+        assertSame(responseThread, secondThread.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void timeoutFailsTheRequestAndFreesTheSlot() throws Exception {
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+        try {
+            RequestTransactionManager tm = new RequestTransactionManager(1);
+            RequestTransactionManager.RequestTransaction handle1 = tm.startRequest();
+            RequestTransactionManager.RequestTransaction handle2 = tm.startRequest();
+            CompletableFuture<Void> response1 = new CompletableFuture<>();
+            CompletableFuture<Void> sendRequest2 = new CompletableFuture<>();
+            // No response arrives, so the timer expires the request
+            handle1.submit(() -> timer.schedule(
+                () -> handle1.failOnTimeout(response1).accept(new TimeoutException("expired")), 10, TimeUnit.MILLISECONDS));
+            handle2.submit(() -> sendRequest2.complete(null));
+            assertEquals(1, tm.getNumberOfQueuedRequests());
+
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> response1.get(1, TimeUnit.SECONDS));
+            assertTrue(exception.getCause() instanceof TimeoutException);
+            // The slot was freed, so the queued request is sent
+            sendRequest2.get(1, TimeUnit.SECONDS);
+            assertEquals(0, tm.getNumberOfQueuedRequests());
+            assertEquals(2, tm.getNumberOfStartedRequests());
+        } finally {
+            timer.shutdownNow();
+        }
+    }
+
     private void sendRequest(RequestTransactionManager tm, CompletableFuture<Void> sendRequest, CompletableFuture<Void> endRequest, CompletableFuture<Void> requestIsEnded) {
         tm.submit(handle -> {
             handle.submit(() -> {
@@ -0,0 +1,245 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one or more
+ contributor license agreements.  See the NOTICE file distributed with
+ this work for additional information regarding copyright ownership.
+ The ASF licenses this file to You under the Apache License, Version 2.0
+ (the "License"); you may not use this file except in compliance with
+ the License.  You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+
+package org.apache.plc4x.java.utils.connectionpool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntSupplier;
+
+/**
+ * Default {@link PoolMetrics}, which publishes the statistics of every key as {@link PoolKeyStatisticsMXBean}
+ * named {@code org.apache.plc4x.java:type=ConnectionPool,pool=<number of the pool>,key="<pool key>"}.
+ */
+public class JmxPoolMetrics implements PoolMetrics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JmxPoolMetrics.class);
+
+    private static final String MX_DOMAIN = "org.apache.plc4x.java";
+
+    private static final long[] BUCKETS_MILLIS = {1, 5, 10, 50, 100, 500, 1_000, 5_000};
+
+    private static final AtomicInteger POOL_COUNTER = new AtomicInteger();
+
+    private final MBeanServer mBeanServer;
+
+    private final int poolNumber = POOL_COUNTER.incrementAndGet();
+
+    private final Map<PoolKey, KeyStatistics> statistics = new ConcurrentHashMap<>();
+
+    public JmxPoolMetrics() {
+        this(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    public JmxPoolMetrics(MBeanServer mBeanServer) {
+        this.mBeanServer = mBeanServer;
+    }
+
+    @Override
+    public void register(PoolKey poolKey, IntSupplier numActive, IntSupplier numIdle) {
+        KeyStatistics keyStatistics = new KeyStatistics(poolKey, numActive, numIdle);
+        if (statistics.putIfAbsent(poolKey, keyStatistics) != null) {
+            return;
+        }
+        try {
+            mBeanServer.registerMBean(keyStatistics, keyStatistics.objectName);
+        } catch (JMException e) {
+            LOGGER.debug("Unable to register statistics of {} as MBean", poolKey, e);
+        }
+    }
+
+    @Override
+    public void connectionCreated(PoolKey poolKey) {
+        KeyStatistics keyStatistics = statistics.get(poolKey);
+        if (keyStatistics != null) {
+            keyStatistics.created.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void connectionDestroyed(PoolKey poolKey) {
+        KeyStatistics keyStatistics = statistics.get(poolKey);
+        if (keyStatistics != null) {
+            keyStatistics.destroyed.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void validationFailed(PoolKey poolKey) {
+        KeyStatistics keyStatistics = statistics.get(poolKey);
+        if (keyStatistics != null) {
+            keyStatistics.failedValidations.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void connectionBorrowed(PoolKey poolKey, long waitTimeNanos) {
+        KeyStatistics keyStatistics = statistics.get(poolKey);
+        if (keyStatistics != null) {
+            keyStatistics.recordBorrow(waitTimeNanos);
+        }
+    }
+
+    @Override
+    public void borrowFailed(PoolKey poolKey) {
+        KeyStatistics keyStatistics = statistics.get(poolKey);
+        if (keyStatistics != null) {
+            keyStatistics.failedBorrows.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return the statistics of the given key or null, if it wasn't registered.
+     */
+    public PoolKeyStatisticsMXBean getStatistics(PoolKey poolKey) {
+        return statistics.get(poolKey);
+    }
+
+    @Override
+    public void close() {
+        for (KeyStatistics keyStatistics : statistics.values()) {
+            try {
+                mBeanServer.unregisterMBean(keyStatistics.objectName);
+            } catch (JMException e) {
+                LOGGER.debug("Unable to unregister MBean {}", keyStatistics.objectName, e);
+            }
+        }
+        statistics.clear();
+    }
+
+    private final class KeyStatistics implements PoolKeyStatisticsMXBean {
+
+        private final PoolKey poolKey;
+        private final ObjectName objectName;
+        private final IntSupplier numActive;
+        private final IntSupplier numIdle;
+
+        private final AtomicLong created = new AtomicLong();
+        private final AtomicLong destroyed = new AtomicLong();
+        private final AtomicLong failedValidations = new AtomicLong();
+        private final AtomicLong borrowed = new AtomicLong();
+        private final AtomicLong failedBorrows = new AtomicLong();
+        private final AtomicLong totalWaitTimeNanos = new AtomicLong();
+        private final AtomicLong maxWaitTimeNanos = new AtomicLong();
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS_MILLIS.length + 1);
+
+        private KeyStatistics(PoolKey poolKey, IntSupplier numActive, IntSupplier numIdle) {
+            this.poolKey = poolKey;
+            this.numActive = numActive;
+            this.numIdle = numIdle;
+            this.objectName = createObjectName(poolKey);
+        }
+
+        private ObjectName createObjectName(PoolKey poolKey) {
+            try {
+                return new ObjectName(MX_DOMAIN + ":type=ConnectionPool,pool=" + poolNumber
+                    + ",key=" + ObjectName.quote(poolKey.toString()));
+            } catch (JMException e) {
+                throw new IllegalArgumentException("Invalid pool key " + poolKey, e);
+            }
+        }
+
+        private void recordBorrow(long waitTimeNanos) {
+            borrowed.incrementAndGet();
+            totalWaitTimeNanos.addAndGet(waitTimeNanos);
+            maxWaitTimeNanos.accumulateAndGet(waitTimeNanos, Math::max);
+            long waitTimeMillis = TimeUnit.NANOSECONDS.toMillis(waitTimeNanos);
+            int bucket = 0;
+            while ((bucket < BUCKETS_MILLIS.length) && (waitTimeMillis >= BUCKETS_MILLIS[bucket])) {
+                bucket++;
+            }
+            histogram.incrementAndGet(bucket);
+        }
+
+        @Override
+        public String getPoolKey() {
+            return poolKey.toString();
+        }
+
+        @Override
+        public int getNumActive() {
+            return numActive.getAsInt();
+        }
+
+        @Override
+        public int getNumIdle() {
+            return numIdle.getAsInt();
+        }
+
+        @Override
+        public long getCreatedCount() {
+            return created.get();
+        }
+
+        @Override
+        public long getDestroyedCount() {
+            return destroyed.get();
+        }
+
+        @Override
+        public long getFailedValidationCount() {
+            return failedValidations.get();
+        }
+
+        @Override
+        public long getBorrowedCount() {
+            return borrowed.get();
+        }
+
+        @Override
+        public long getFailedBorrowCount() {
+            return failedBorrows.get();
+        }
+
+        @Override
+        public double getMeanBorrowWaitTimeMillis() {
+            long count = borrowed.get();
+            return (count == 0) ? 0 : (totalWaitTimeNanos.get() / (double) count) * 1e-6;
+        }
+
+        @Override
+        public double getMaxBorrowWaitTimeMillis() {
+            return maxWaitTimeNanos.get() * 1e-6;
+        }
+
+        @Override
+        public long[] getBorrowWaitTimeBucketsMillis() {
+            return Arrays.copyOf(BUCKETS_MILLIS, BUCKETS_MILLIS.length);
+        }
+
+        @Override
+        public long[] getBorrowWaitTimeHistogram() {
+            long[] counts = new long[histogram.length()];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = histogram.get(i);
+            }
+            return counts;
+        }
+    }
+}
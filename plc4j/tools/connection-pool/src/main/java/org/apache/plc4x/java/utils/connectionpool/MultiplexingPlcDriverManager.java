@@ -0,0 +1,408 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one or more
+ contributor license agreements.  See the NOTICE file distributed with
+ this work for additional information regarding copyright ownership.
+ The ASF licenses this file to You under the Apache License, Version 2.0
+ (the "License"); you may not use this file except in compliance with
+ the License.  You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+
+package org.apache.plc4x.java.utils.connectionpool;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.plc4x.java.PlcDriverManager;
+import org.apache.plc4x.java.api.PlcConnection;
+import org.apache.plc4x.java.api.authentication.PlcAuthentication;
+import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Driver manager which shares one physical connection per {@link PoolKey} between all its users.
+ * <p>
+ * As {@link PlcConnection}s can handle concurrent requests, there's no need to hand out a connection exclusively
+ * like the {@link PooledPlcDriverManager} does. Every {@link #getConnection(String)} returns a lightweight lease of
+ * the shared connection instead, which is handed back by closing it. Getting and closing a lease of an established
+ * connection doesn't take any locks.
+ * <p>
+ * The shared connections aren't validated on every lease. Instead a background task checks them periodically and
+ * closes connections which got disconnected or weren't used for a while. The next lease simply opens a new one.
+ */
+public class MultiplexingPlcDriverManager extends PlcDriverManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MultiplexingPlcDriverManager.class);
+
+    public static final long DEFAULT_HEALTH_CHECK_INTERVAL_MS = 5_000;
+    public static final long DEFAULT_MAX_IDLE_TIME_MS = 60_000;
+
+    private final ConcurrentMap<PoolKey, SharedConnection> sharedConnections = new ConcurrentHashMap<>();
+
+    private final PoolKeyFactory poolKeyFactory;
+
+    private final long maxIdleTimeMs;
+
+    private final PoolMetrics poolMetrics;
+
+    private final ScheduledExecutorService healthCheckExecutor;
+
+    public MultiplexingPlcDriverManager() {
+        this(new PoolKeyFactory());
+    }
+
+    public MultiplexingPlcDriverManager(PoolKeyFactory poolKeyFactory) {
+        this(Thread.currentThread().getContextClassLoader(), poolKeyFactory);
+    }
+
+    public MultiplexingPlcDriverManager(ClassLoader classLoader) {
+        this(classLoader, new PoolKeyFactory());
+    }
+
+    public MultiplexingPlcDriverManager(ClassLoader classLoader, PoolKeyFactory poolKeyFactory) {
+        this(classLoader, poolKeyFactory, DEFAULT_HEALTH_CHECK_INTERVAL_MS, DEFAULT_MAX_IDLE_TIME_MS);
+    }
+
+    public MultiplexingPlcDriverManager(ClassLoader classLoader, PoolKeyFactory poolKeyFactory,
+                                        long healthCheckIntervalMs, long maxIdleTimeMs) {
+        this(classLoader, poolKeyFactory, healthCheckIntervalMs, maxIdleTimeMs, new JmxPoolMetrics());
+    }
+
+    /**
+     * @param healthCheckIntervalMs interval in which the shared connections are checked.
+     * @param maxIdleTimeMs         time after which a connection without leases is closed (0 keeps it open).
+     * @param poolMetrics           receiver of the metrics of the shared connections.
+     */
+    public MultiplexingPlcDriverManager(ClassLoader classLoader, PoolKeyFactory poolKeyFactory,
+                                        long healthCheckIntervalMs, long maxIdleTimeMs, PoolMetrics poolMetrics) {
+        super(classLoader);
+        this.poolKeyFactory = poolKeyFactory;
+        this.maxIdleTimeMs = maxIdleTimeMs;
+        this.poolMetrics = poolMetrics;
+        this.healthCheckExecutor = Executors.newSingleThreadScheduledExecutor(
+            new BasicThreadFactory.Builder()
+                .namingPattern("plc4x-connection-health-check-%d")
+                .daemon(true)
+                .build()
+        );
+        healthCheckExecutor.scheduleWithFixedDelay(this::checkConnections,
+            healthCheckIntervalMs, healthCheckIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public PlcConnection getConnection(String url) throws PlcConnectionException {
+        return getConnection(url, PooledPlcDriverManager.noPlcAuthentication);
+    }
+
+    @Override
+    public PlcConnection getConnection(String url, PlcAuthentication authentication) throws PlcConnectionException {
+        try {
+            return getConnectionAsync(url, authentication).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PlcConnectionException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof PlcConnectionException) {
+                throw (PlcConnectionException) e.getCause();
+            }
+            throw new PlcConnectionException(e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<PlcConnection> getConnectionAsync(String url) {
+        return getConnectionAsync(url, PooledPlcDriverManager.noPlcAuthentication);
+    }
+
+    @Override
+    public CompletableFuture<PlcConnection> getConnectionAsync(String url, PlcAuthentication authentication) {
+        PoolKey poolKey;
+        try {
+            poolKey = poolKeyFactory.getPoolKey(url, authentication);
+        } catch (PlcConnectionException e) {
+            CompletableFuture<PlcConnection> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+        long leaseStart = System.nanoTime();
+        return sharedConnections.computeIfAbsent(poolKey, SharedConnection::new).lease()
+            .whenComplete((lease, throwable) -> {
+                if (throwable != null) {
+                    poolMetrics.borrowFailed(poolKey);
+                } else {
+                    poolMetrics.connectionBorrowed(poolKey, System.nanoTime() - leaseStart);
+                }
+            });
+    }
+
+    /**
+     * @return number of physical connections currently open (or being opened).
+     */
+    public int getNumberOfConnections() {
+        return (int) sharedConnections.values().stream()
+            .filter(sharedConnection -> sharedConnection.current.get() != null)
+            .count();
+    }
+
+    /**
+     * Stops the health checks and closes all shared connections (leased ones as soon as their last lease is closed).
+     */
+    @Override
+    public void close() {
+        healthCheckExecutor.shutdownNow();
+        sharedConnections.values().forEach(SharedConnection::retire);
+        sharedConnections.clear();
+        poolMetrics.close();
+        super.close();
+    }
+
+    private void checkConnections() {
+        long now = System.currentTimeMillis();
+        for (SharedConnection sharedConnection : sharedConnections.values()) {
+            try {
+                sharedConnection.check(now);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Error checking connection {}", sharedConnection.poolKey, e);
+            }
+        }
+    }
+
+    /**
+     * Holder of the current physical connection for one {@link PoolKey}.
+     */
+    private final class SharedConnection {
+
+        private final PoolKey poolKey;
+
+        // Null if there's no connection at the moment, otherwise the (maybe not yet established) connection.
+        private final AtomicReference<CompletableFuture<PhysicalConnection>> current = new AtomicReference<>();
+
+        private SharedConnection(PoolKey poolKey) {
+            this.poolKey = poolKey;
+            poolMetrics.register(poolKey, this::getNumActive, this::getNumIdle);
+        }
+
+        private int getNumActive() {
+            PhysicalConnection physicalConnection = getIfConnected();
+            return (physicalConnection != null) ? physicalConnection.leases.get() : 0;
+        }
+
+        private int getNumIdle() {
+            PhysicalConnection physicalConnection = getIfConnected();
+            return ((physicalConnection != null) && (physicalConnection.leases.get() == 0)) ? 1 : 0;
+        }
+
+        /**
+         * @return the current connection or null, if there's no established connection at the moment.
+         */
+        private PhysicalConnection getIfConnected() {
+            CompletableFuture<PhysicalConnection> future = current.get();
+            if ((future == null) || !future.isDone() || future.isCompletedExceptionally()) {
+                return null;
+            }
+            return future.join();
+        }
+
+        private CompletableFuture<PlcConnection> lease() {
+            return getOrConnect().thenCompose(physicalConnection -> {
+                PlcConnection lease = physicalConnection.tryLease();
+                // The connection was retired in the meantime, so simply try again with the next one.
+                return (lease != null) ? CompletableFuture.completedFuture(lease) : lease();
+            });
+        }
+
+        private CompletableFuture<PhysicalConnection> getOrConnect() {
+            while (true) {
+                CompletableFuture<PhysicalConnection> future = current.get();
+                if (future != null) {
+                    return future;
+                }
+                CompletableFuture<PhysicalConnection> newFuture = new CompletableFuture<>();
+                if (current.compareAndSet(null, newFuture)) {
+                    connect(newFuture);
+                    return newFuture;
+                }
+            }
+        }
+
+        private void connect(CompletableFuture<PhysicalConnection> future) {
+            LOGGER.debug("Opening shared connection for {}", poolKey);
+            CompletableFuture<PlcConnection> connectionFuture =
+                (poolKey.plcAuthentication == PooledPlcDriverManager.noPlcAuthentication) ?
+                    MultiplexingPlcDriverManager.super.getConnectionAsync(poolKey.url) :
+                    MultiplexingPlcDriverManager.super.getConnectionAsync(poolKey.url, poolKey.plcAuthentication);
+            connectionFuture.whenComplete((connection, throwable) -> {
+                if (throwable != null) {
+                    // Let the next lease try again.
+                    current.compareAndSet(future, null);
+                    future.completeExceptionally(throwable);
+                } else {
+                    poolMetrics.connectionCreated(poolKey);
+                    future.complete(new PhysicalConnection(this, future, connection));
+                }
+            });
+        }
+
+        private void check(long now) {
+            PhysicalConnection physicalConnection = getIfConnected();
+            if (physicalConnection == null) {
+                return;
+            }
+            if (!physicalConnection.connection.isConnected()) {
+                LOGGER.info("Shared connection for {} got disconnected", poolKey);
+                poolMetrics.validationFailed(poolKey);
+                physicalConnection.retire();
+            } else if ((maxIdleTimeMs > 0) && (physicalConnection.leases.get() == 0)
+                && ((now - physicalConnection.lastUsed) > maxIdleTimeMs)) {
+                LOGGER.debug("Closing idle shared connection for {}", poolKey);
+                physicalConnection.retire();
+            }
+        }
+
+        private void retire() {
+            CompletableFuture<PhysicalConnection> future = current.get();
+            if (future == null) {
+                return;
+            }
+            // Connections which are still being established are retired as soon as they are.
+            future.thenAccept(PhysicalConnection::retire);
+        }
+    }
+
+    /**
+     * One physical connection, which is closed as soon as it's retired and the last lease is closed.
+     */
+    private final class PhysicalConnection {
+
+        private final SharedConnection owner;
+        private final CompletableFuture<PhysicalConnection> future;
+        private final PlcConnection connection;
+
+        private final AtomicInteger leases = new AtomicInteger(0);
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        // Guarded by this. Reconnect in progress, which all leases calling connect wait for.
+        private CompletableFuture<?> reconnect;
+        private volatile boolean retired;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        private PhysicalConnection(SharedConnection owner, CompletableFuture<PhysicalConnection> future,
+                                   PlcConnection connection) {
+            this.owner = owner;
+            this.future = future;
+            this.connection = connection;
+        }
+
+        /**
+         * @return a new lease or null if this connection was retired.
+         */
+        private PlcConnection tryLease() {
+            leases.incrementAndGet();
+            if (retired) {
+                release();
+                return null;
+            }
+            return new PlcConnectionLease(connection) {
+                @Override
+                public void connect() throws PlcConnectionException {
+                    // Go through the shared reconnect, so leases don't connect the same connection concurrently.
+                    try {
+                        connectAsync().get();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new PlcConnectionException(e);
+                    } catch (ExecutionException e) {
+                        if (e.getCause() instanceof PlcConnectionException) {
+                            throw (PlcConnectionException) e.getCause();
+                        }
+                        throw new PlcConnectionException(e.getCause());
+                    }
+                }
+
+                @Override
+                protected CompletableFuture<?> connectPooledConnection() {
+                    return reconnect();
+                }
+
+                @Override
+                protected void release() {
+                    PhysicalConnection.this.release();
+                }
+
+                @Override
+                protected void invalidate() {
+                    poolMetrics.validationFailed(owner.poolKey);
+                    PhysicalConnection.this.retire();
+                    PhysicalConnection.this.release();
+                }
+            };
+        }
+
+        /**
+         * Reconnects the shared connection, if it isn't connected and no other lease is already reconnecting it.
+         *
+         * @return future completed as soon as the connection is connected again.
+         */
+        private synchronized CompletableFuture<?> reconnect() {
+            if ((reconnect == null) || reconnect.isDone()) {
+                if (connection.isConnected()) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                LOGGER.debug("Reconnecting shared connection for {}", owner.poolKey);
+                try {
+                    reconnect = connection.connectAsync();
+                } catch (RuntimeException e) {
+                    CompletableFuture<Void> failed = new CompletableFuture<>();
+                    failed.completeExceptionally(e);
+                    return failed;
+                }
+            }
+            return reconnect;
+        }
+
+        private void release() {
+            lastUsed = System.currentTimeMillis();
+            if ((leases.decrementAndGet() == 0) && retired) {
+                closeConnection();
+            }
+        }
+
+        private void retire() {
+            // Remove it first, so nobody who notices the retirement gets this connection again.
+            owner.current.compareAndSet(future, null);
+            retired = true;
+            if (leases.get() == 0) {
+                closeConnection();
+            }
+        }
+
+        private void closeConnection() {
+            if (closed.compareAndSet(false, true)) {
+                LOGGER.debug("Closing shared connection {}", connection);
+                try {
+                    connection.close();
+                } catch (Exception e) {
+                    LOGGER.warn("Error closing connection {}", connection, e);
+                } finally {
+                    poolMetrics.connectionDestroyed(owner.poolKey);
+                }
+            }
+        }
+    }
+}
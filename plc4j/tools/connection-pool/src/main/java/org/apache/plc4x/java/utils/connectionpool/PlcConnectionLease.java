@@ -0,0 +1,174 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one or more
+ contributor license agreements.  See the NOTICE file distributed with
+ this work for additional information regarding copyright ownership.
+ The ASF licenses this file to You under the Apache License, Version 2.0
+ (the "License"); you may not use this file except in compliance with
+ the License.  You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+
+package org.apache.plc4x.java.utils.connectionpool;
+
+import org.apache.plc4x.java.api.PlcConnection;
+import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
+import org.apache.plc4x.java.api.exceptions.PlcInvalidFieldException;
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcSubscriptionRequest;
+import org.apache.plc4x.java.api.messages.PlcUnsubscriptionRequest;
+import org.apache.plc4x.java.api.messages.PlcWriteRequest;
+import org.apache.plc4x.java.api.metadata.PlcConnectionMetadata;
+import org.apache.plc4x.java.api.model.PlcField;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Connection handed out by the pools instead of the pooled connection itself.
+ * <p>
+ * All calls are simply delegated to the pooled connection till the lease is closed, which hands the connection back
+ * to the pool instead of closing it. A {@link PlcConnectionException} thrown by the pooled connection invalidates
+ * the lease and the connection. After that every call fails with an {@link IllegalStateException}.
+ */
+abstract class PlcConnectionLease implements PlcConnection {
+
+    protected final PlcConnection connection;
+
+    private final AtomicBoolean invalidated = new AtomicBoolean(false);
+
+    PlcConnectionLease(PlcConnection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Called (once) as soon as the lease is closed.
+     */
+    protected abstract void release() throws Exception;
+
+    /**
+     * Called (once) if the pooled connection failed.
+     */
+    protected abstract void invalidate();
+
+    @Override
+    public void connect() throws PlcConnectionException {
+        checkValid();
+        try {
+            connection.connect();
+        } catch (PlcConnectionException e) {
+            fail();
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<PlcConnection> connectAsync() {
+        checkValid();
+        return connectPooledConnection().handle((ignored, throwable) -> {
+            if (throwable != null) {
+                fail();
+                throw (throwable instanceof CompletionException) ?
+                    (CompletionException) throwable : new CompletionException(throwable);
+            }
+            return this;
+        });
+    }
+
+    /**
+     * Connects the pooled connection for {@link #connectAsync()}.
+     * Pools sharing the connection between several leases override this to serialize the reconnects.
+     */
+    protected CompletableFuture<?> connectPooledConnection() {
+        return connection.connectAsync();
+    }
+
+    @Override
+    public boolean isConnected() {
+        checkValid();
+        return connection.isConnected();
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (!invalidated.compareAndSet(false, true)) {
+            throw new IllegalStateException("Lease not valid anymore");
+        }
+        release();
+    }
+
+    @Override
+    public PlcField prepareField(String fieldQuery) throws PlcInvalidFieldException {
+        checkValid();
+        return connection.prepareField(fieldQuery);
+    }
+
+    @Override
+    public PlcConnectionMetadata getMetadata() {
+        checkValid();
+        return connection.getMetadata();
+    }
+
+    @Override
+    public CompletableFuture<Void> ping() {
+        checkValid();
+        return connection.ping();
+    }
+
+    @Override
+    public PlcReadRequest.Builder readRequestBuilder() {
+        checkValid();
+        return connection.readRequestBuilder();
+    }
+
+    @Override
+    public PlcReadRequest prepareReadRequest(PlcReadRequest readRequest) {
+        checkValid();
+        return connection.prepareReadRequest(readRequest);
+    }
+
+    @Override
+    public PlcWriteRequest.Builder writeRequestBuilder() {
+        checkValid();
+        return connection.writeRequestBuilder();
+    }
+
+    @Override
+    public PlcSubscriptionRequest.Builder subscriptionRequestBuilder() {
+        checkValid();
+        return connection.subscriptionRequestBuilder();
+    }
+
+    @Override
+    public PlcUnsubscriptionRequest.Builder unsubscriptionRequestBuilder() {
+        checkValid();
+        return connection.unsubscriptionRequestBuilder();
+    }
+
+    protected void checkValid() {
+        if (invalidated.get()) {
+            throw new IllegalStateException("Lease not valid anymore");
+        }
+    }
+
+    private void fail() {
+        if (invalidated.compareAndSet(false, true)) {
+            invalidate();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PlcConnectionLease{" +
+            "connection=" + connection +
+            ", invalidated=" + invalidated.get() +
+            '}';
+    }
+}
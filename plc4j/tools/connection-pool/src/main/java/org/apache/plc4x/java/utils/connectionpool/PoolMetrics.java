@@ -0,0 +1,75 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one or more
+ contributor license agreements.  See the NOTICE file distributed with
+ this work for additional information regarding copyright ownership.
+ The ASF licenses this file to You under the Apache License, Version 2.0
+ (the "License"); you may not use this file except in compliance with
+ the License.  You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+
+package org.apache.plc4x.java.utils.connectionpool;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Receiver of the per key metrics of the connection pools.
+ * <p>
+ * The methods map directly onto the usual meter types (gauges, counters and timers), so an implementation for
+ * Micrometer or any other metrics library only has to forward them. {@link JmxPoolMetrics} is used by default.
+ * All methods may be called concurrently and must not block.
+ */
+public interface PoolMetrics extends AutoCloseable {
+
+    /**
+     * Called once per key before any of the other methods is called for it.
+     *
+     * @param poolKey   key of the pool.
+     * @param numActive gauge of the connections currently borrowed (leased).
+     * @param numIdle   gauge of the open connections nobody uses at the moment.
+     */
+    void register(PoolKey poolKey, IntSupplier numActive, IntSupplier numIdle);
+
+    /**
+     * A new physical connection was opened.
+     */
+    void connectionCreated(PoolKey poolKey);
+
+    /**
+     * A physical connection was closed.
+     */
+    void connectionDestroyed(PoolKey poolKey);
+
+    /**
+     * A connection was found to be broken (and will be destroyed).
+     */
+    void validationFailed(PoolKey poolKey);
+
+    /**
+     * A connection was borrowed.
+     *
+     * @param waitTimeNanos time the caller had to wait for the connection.
+     */
+    void connectionBorrowed(PoolKey poolKey, long waitTimeNanos);
+
+    /**
+     * Borrowing a connection failed.
+     */
+    void borrowFailed(PoolKey poolKey);
+
+    /**
+     * Called when the pool is closed, so registered meters can be removed.
+     */
+    @Override
+    default void close() {
+        // Nothing to release by default.
+    }
+
+}
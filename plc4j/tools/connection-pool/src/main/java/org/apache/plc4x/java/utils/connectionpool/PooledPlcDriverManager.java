@@ -17,22 +17,21 @@
 
 package org.apache.plc4x.java.utils.connectionpool;
 
-import org.apache.commons.lang3.reflect.FieldUtils;
 import org.apache.commons.pool2.KeyedObjectPool;
+import org.apache.commons.pool2.PooledObject;
 import org.apache.commons.pool2.impl.GenericKeyedObjectPool;
 import org.apache.plc4x.java.PlcDriverManager;
 import org.apache.plc4x.java.api.PlcConnection;
 import org.apache.plc4x.java.api.authentication.PlcAuthentication;
 import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
-import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Proxy;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PooledPlcDriverManager extends PlcDriverManager {
 
@@ -45,6 +44,11 @@ public class PooledPlcDriverManager extends PlcDriverManager {
 
     private final PoolKeyFactory poolKeyFactory;
 
+    private final PoolMetrics poolMetrics;
+
+    // Keys already registered at the pool metrics.
+    private final Set<PoolKey> registeredPoolKeys = ConcurrentHashMap.newKeySet();
+
     public PooledPlcDriverManager() {
         this(GenericKeyedObjectPool::new);
     }
@@ -58,9 +62,7 @@ public class PooledPlcDriverManager extends PlcDriverManager {
     }
 
     public PooledPlcDriverManager(ClassLoader classLoader, PoolKeyFactory poolKeyFactory) {
-        super(classLoader);
-        setFromPoolCreator(GenericKeyedObjectPool::new);
-        this.poolKeyFactory = poolKeyFactory;
+        this(classLoader, GenericKeyedObjectPool::new, poolKeyFactory, new JmxPoolMetrics());
     }
 
     public PooledPlcDriverManager(PoolCreator poolCreator) {
@@ -68,14 +70,23 @@ public class PooledPlcDriverManager extends PlcDriverManager {
     }
 
     public PooledPlcDriverManager(PoolCreator poolCreator, PoolKeyFactory poolKeyFactory) {
-        setFromPoolCreator(poolCreator);
-        this.poolKeyFactory = poolKeyFactory;
+        this(poolCreator, poolKeyFactory, new JmxPoolMetrics());
+    }
+
+    public PooledPlcDriverManager(PoolCreator poolCreator, PoolKeyFactory poolKeyFactory, PoolMetrics poolMetrics) {
+        this(Thread.currentThread().getContextClassLoader(), poolCreator, poolKeyFactory, poolMetrics);
     }
 
     public PooledPlcDriverManager(ClassLoader classLoader, PoolCreator poolCreator) {
+        this(classLoader, poolCreator, new PoolKeyFactory(), new JmxPoolMetrics());
+    }
+
+    public PooledPlcDriverManager(ClassLoader classLoader, PoolCreator poolCreator, PoolKeyFactory poolKeyFactory,
+                                  PoolMetrics poolMetrics) {
         super(classLoader);
+        this.poolKeyFactory = poolKeyFactory;
+        this.poolMetrics = poolMetrics;
         setFromPoolCreator(poolCreator);
-        poolKeyFactory = new PoolKeyFactory();
     }
 
     private void setFromPoolCreator(PoolCreator poolCreator) {
@@ -84,13 +95,34 @@ public class PooledPlcDriverManager extends PlcDriverManager {
             public PlcConnection create(PoolKey key) throws Exception {
                 PlcAuthentication plcAuthentication = key.plcAuthentication;
                 String url = key.url;
+                PlcConnection plcConnection;
                 if (plcAuthentication == noPlcAuthentication) {
                     LOGGER.debug("getting actual connection for {}", url);
-                    return PooledPlcDriverManager.super.getConnection(url);
+                    plcConnection = PooledPlcDriverManager.super.getConnection(url);
                 } else {
                     LOGGER.debug("getting actual connection for {} and plcAuthentication {}", url, plcAuthentication);
-                    return PooledPlcDriverManager.super.getConnection(url, plcAuthentication);
+                    plcConnection = PooledPlcDriverManager.super.getConnection(url, plcAuthentication);
+                }
+                poolMetrics.connectionCreated(key);
+                return plcConnection;
+            }
+
+            @Override
+            public void destroyObject(PoolKey key, PooledObject<PlcConnection> p) throws Exception {
+                try {
+                    super.destroyObject(key, p);
+                } finally {
+                    poolMetrics.connectionDestroyed(key);
+                }
+            }
+
+            @Override
+            public boolean validateObject(PoolKey key, PooledObject<PlcConnection> p) {
+                boolean valid = super.validateObject(key, p);
+                if (!valid) {
+                    poolMetrics.validationFailed(key);
                 }
+                return valid;
             }
         });
     }
@@ -110,35 +142,58 @@ public class PooledPlcDriverManager extends PlcDriverManager {
                 LOGGER.debug("Try to borrow an object for url {}", url);
             }
         }
+        if (registeredPoolKeys.add(poolKey)) {
+            poolMetrics.register(poolKey,
+                () -> keyedObjectPool.getNumActive(poolKey), () -> keyedObjectPool.getNumIdle(poolKey));
+        }
         PlcConnection plcConnection;
+        long borrowStart = System.nanoTime();
         try {
             plcConnection = keyedObjectPool.borrowObject(poolKey);
         } catch (Exception e) {
+            poolMetrics.borrowFailed(poolKey);
             throw new PlcConnectionException(e);
         }
-        // Used to invalidate a proxy
-        AtomicBoolean proxyInvalidated = new AtomicBoolean(false);
-        return (PlcConnection) Proxy.newProxyInstance(classLoader, new Class[]{PlcConnection.class}, (proxy, method, args) -> {
-            if (proxyInvalidated.get()) {
-                throw new IllegalStateException("Proxy not valid anymore");
-            }
-            if ("close".equals(method.getName())) {
+        poolMetrics.connectionBorrowed(poolKey, System.nanoTime() - borrowStart);
+        return new PlcConnectionLease(plcConnection) {
+            @Override
+            protected void release() throws Exception {
                 LOGGER.debug("close called on {}", plcConnection);
-                proxyInvalidated.set(true);
                 keyedObjectPool.returnObject(poolKey, plcConnection);
-                return null;
-            } else {
+            }
+
+            @Override
+            protected void invalidate() {
+                poolMetrics.validationFailed(poolKey);
                 try {
-                    return method.invoke(plcConnection, args);
-                } catch (InvocationTargetException e) {
-                    if (e.getCause().getClass() == PlcConnectionException.class) {
-                        keyedObjectPool.invalidateObject(poolKey, plcConnection);
-                        proxyInvalidated.set(true);
-                    }
-                    throw e;
+                    keyedObjectPool.invalidateObject(poolKey, plcConnection);
+                } catch (Exception e) {
+                    LOGGER.warn("Error invalidating connection {}", plcConnection, e);
                 }
             }
-        });
+        };
+    }
+
+    /**
+     * Borrowing from the pool blocks, so the returned future is already completed.
+     */
+    @Override
+    public CompletableFuture<PlcConnection> getConnectionAsync(String url) {
+        return getConnectionAsync(url, noPlcAuthentication);
+    }
+
+    /**
+     * Borrowing from the pool blocks, so the returned future is already completed.
+     */
+    @Override
+    public CompletableFuture<PlcConnection> getConnectionAsync(String url, PlcAuthentication authentication) {
+        CompletableFuture<PlcConnection> future = new CompletableFuture<>();
+        try {
+            future.complete(getConnection(url, authentication));
+        } catch (PlcConnectionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
     }
 
     @FunctionalInterface
@@ -146,21 +201,19 @@ public class PooledPlcDriverManager extends PlcDriverManager {
         KeyedObjectPool<PoolKey, PlcConnection> createPool(PooledPlcConnectionFactory pooledPlcConnectionFactory);
     }
 
-    // TODO: maybe export to jmx // generic poolKey has builting jmx too
+    /**
+     * @return a snapshot of the number of active and idle connections. Detailed statistics per key are
+     * published through the {@link PoolMetrics} of this driver manager.
+     */
     public Map<String, Number> getStatistics() {
         HashMap<String, Number> statistics = new HashMap<>();
         statistics.put("numActive", keyedObjectPool.getNumActive());
         statistics.put("numIdle", keyedObjectPool.getNumIdle());
         if (keyedObjectPool instanceof GenericKeyedObjectPool) {
             GenericKeyedObjectPool<PoolKey, PlcConnection> genericKeyedObjectPool = (GenericKeyedObjectPool<PoolKey, PlcConnection>) this.keyedObjectPool;
-            // Thats pretty ugly and we really should't do that...
-            try {
-                Map poolMap = (Map) FieldUtils.getField(GenericKeyedObjectPool.class, "poolMap", true).get(this.keyedObjectPool);
-                statistics.put("pools.count", poolMap.size());
-            } catch (IllegalAccessException e) {
-                throw new PlcRuntimeException(e);
-            }
+            // Contains an entry for every key, which currently has a pool.
             Map<String, Integer> numActivePerKey = genericKeyedObjectPool.getNumActivePerKey();
+            statistics.put("pools.count", numActivePerKey.size());
             for (Map.Entry<String, Integer> entry : numActivePerKey.entrySet()) {
                 statistics.put(entry.getKey() + ".numActive", entry.getValue());
             }
@@ -169,6 +222,16 @@ public class PooledPlcDriverManager extends PlcDriverManager {
         return statistics;
     }
 
+    /**
+     * Closes the pool (including all idle connections) and unregisters the pool metrics.
+     */
+    @Override
+    public void close() {
+        keyedObjectPool.close();
+        poolMetrics.close();
+        super.close();
+    }
+
     private static final class NoPlcAuthentication implements PlcAuthentication {
 
     }
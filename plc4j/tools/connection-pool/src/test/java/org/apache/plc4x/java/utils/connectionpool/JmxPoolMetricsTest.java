@@ -0,0 +1,81 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one or more
+ contributor license agreements.  See the NOTICE file distributed with
+ this work for additional information regarding copyright ownership.
+ The ASF licenses this file to You under the Apache License, Version 2.0
+ (the "License"); you may not use this file except in compliance with
+ the License.  You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+
+package org.apache.plc4x.java.utils.connectionpool;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+class JmxPoolMetricsTest implements WithAssertions {
+
+    // Separate server, so the pools of other tests don't interfere.
+    private final MBeanServer mBeanServer = MBeanServerFactory.newMBeanServer();
+
+    private final JmxPoolMetrics SUT = new JmxPoolMetrics(mBeanServer);
+
+    @AfterEach
+    void tearDown() {
+        SUT.close();
+    }
+
+    @Test
+    void statisticsArePublishedAsMBean() throws Exception {
+        PoolKey poolKey = new PoolKeyFactory().getPoolKey("dummydummy:single", PooledPlcDriverManager.noPlcAuthentication);
+        SUT.register(poolKey, () -> 2, () -> 1);
+        SUT.connectionCreated(poolKey);
+        SUT.connectionCreated(poolKey);
+        SUT.connectionDestroyed(poolKey);
+        SUT.validationFailed(poolKey);
+        SUT.borrowFailed(poolKey);
+        SUT.connectionBorrowed(poolKey, TimeUnit.MILLISECONDS.toNanos(2));
+        SUT.connectionBorrowed(poolKey, TimeUnit.MILLISECONDS.toNanos(20));
+
+        Set<ObjectName> names = mBeanServer.queryNames(new ObjectName("org.apache.plc4x.java:type=ConnectionPool,*"), null);
+        assertThat(names).hasSize(1);
+        ObjectName name = names.iterator().next();
+        assertThat(mBeanServer.getAttribute(name, "PoolKey")).isEqualTo("PoolKey{url='dummydummy:single'}");
+        assertThat(mBeanServer.getAttribute(name, "NumActive")).isEqualTo(2);
+        assertThat(mBeanServer.getAttribute(name, "NumIdle")).isEqualTo(1);
+        assertThat(mBeanServer.getAttribute(name, "CreatedCount")).isEqualTo(2L);
+        assertThat(mBeanServer.getAttribute(name, "DestroyedCount")).isEqualTo(1L);
+        assertThat(mBeanServer.getAttribute(name, "FailedValidationCount")).isEqualTo(1L);
+        assertThat(mBeanServer.getAttribute(name, "FailedBorrowCount")).isEqualTo(1L);
+        assertThat(mBeanServer.getAttribute(name, "BorrowedCount")).isEqualTo(2L);
+        assertThat((double) mBeanServer.getAttribute(name, "MeanBorrowWaitTimeMillis")).isCloseTo(11.0, within(0.001));
+        assertThat((double) mBeanServer.getAttribute(name, "MaxBorrowWaitTimeMillis")).isCloseTo(20.0, within(0.001));
+        assertThat((long[]) mBeanServer.getAttribute(name, "BorrowWaitTimeHistogram"))
+            .containsExactly(0, 1, 0, 1, 0, 0, 0, 0, 0);
+
+        SUT.close();
+        assertThat(mBeanServer.isRegistered(name)).isFalse();
+    }
+
+    @Test
+    void unregisteredKeysAreIgnored() throws Exception {
+        PoolKey poolKey = new PoolKeyFactory().getPoolKey("dummydummy:unknown", PooledPlcDriverManager.noPlcAuthentication);
+        SUT.connectionCreated(poolKey);
+        SUT.connectionBorrowed(poolKey, 1);
+        assertThat(SUT.getStatistics(poolKey)).isNull();
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one or more
+ contributor license agreements.  See the NOTICE file distributed with
+ this work for additional information regarding copyright ownership.
+ The ASF licenses this file to You under the Apache License, Version 2.0
+ (the "License"); you may not use this file except in compliance with
+ the License.  You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+
+package org.apache.plc4x.java.utils.connectionpool;
+
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.apache.plc4x.java.api.PlcConnection;
+import org.apache.plc4x.java.api.PlcDriver;
+import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
+import org.apache.plc4x.java.api.exceptions.PlcUnsupportedOperationException;
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcSubscriptionRequest;
+import org.apache.plc4x.java.api.messages.PlcUnsubscriptionRequest;
+import org.apache.plc4x.java.api.messages.PlcWriteRequest;
+import org.apache.plc4x.java.api.metadata.PlcConnectionMetadata;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MultiplexingPlcDriverManagerTest implements WithAssertions {
+
+    private static final String URL = "dummydummy:single/socket1/socket2?fancyOption=true";
+
+    private MultiplexingPlcDriverManager SUT;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    PlcDriver plcDriver;
+
+    @AfterEach
+    void tearDown() {
+        if (SUT != null) {
+            SUT.close();
+        }
+    }
+
+    @Test
+    void oneConnectionIsSharedByAllLeases() throws Exception {
+        createManager(60_000, 60_000);
+        List<DummyPlcConnection> connections = new ArrayList<>();
+        when(plcDriver.getConnection(anyString())).then(invocationOnMock -> {
+            DummyPlcConnection connection = new DummyPlcConnection();
+            connections.add(connection);
+            return connection;
+        });
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<PlcConnection>> callables = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                callables.add(() -> SUT.getConnection(URL));
+            }
+            List<Future<PlcConnection>> futures = executorService.invokeAll(callables);
+            for (Future<PlcConnection> future : futures) {
+                PlcConnection lease = future.get();
+                assertThat(lease.isConnected()).isTrue();
+                lease.close();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        verify(plcDriver, times(1)).getConnection(anyString());
+        assertThat(SUT.getNumberOfConnections()).isEqualTo(1);
+        // Closing the leases doesn't close the shared connection.
+        assertThat(connections).hasSize(1);
+        assertThat(connections.get(0).isConnected()).isTrue();
+    }
+
+    @Test
+    void closedLeaseIsInvalid() throws Exception {
+        createManager(60_000, 60_000);
+        when(plcDriver.getConnection(anyString())).then(invocationOnMock -> new DummyPlcConnection());
+
+        PlcConnection lease = SUT.getConnection(URL);
+        lease.close();
+        assertThatThrownBy(lease::isConnected).isInstanceOf(IllegalStateException.class).hasMessage("Lease not valid anymore");
+        assertThatThrownBy(lease::getMetadata).isInstanceOf(IllegalStateException.class).hasMessage("Lease not valid anymore");
+        assertThatThrownBy(lease::readRequestBuilder).isInstanceOf(IllegalStateException.class).hasMessage("Lease not valid anymore");
+        assertThatThrownBy(lease::close).isInstanceOf(IllegalStateException.class).hasMessage("Lease not valid anymore");
+    }
+
+    @Test
+    void disconnectedConnectionIsReplaced() throws Exception {
+        createManager(10, 60_000);
+        List<DummyPlcConnection> connections = new ArrayList<>();
+        when(plcDriver.getConnection(anyString())).then(invocationOnMock -> {
+            DummyPlcConnection connection = new DummyPlcConnection();
+            connections.add(connection);
+            return connection;
+        });
+
+        SUT.getConnection(URL).close();
+        // Simulate a broken connection, which has to be noticed by the health check.
+        connections.get(0).connected = false;
+        awaitNumberOfConnections(0);
+
+        PlcConnection lease = SUT.getConnection(URL);
+        assertThat(lease.isConnected()).isTrue();
+        verify(plcDriver, times(2)).getConnection(anyString());
+        lease.close();
+    }
+
+    @Test
+    void failedConnectIsRetriedByNextLease() throws Exception {
+        createManager(60_000, 60_000);
+        when(plcDriver.getConnection(anyString()))
+            .thenThrow(new PlcConnectionException("blub"))
+            .then(invocationOnMock -> new DummyPlcConnection());
+
+        assertThatThrownBy(() -> SUT.getConnection(URL)).isInstanceOf(PlcConnectionException.class).hasMessage("blub");
+        assertThat(SUT.getNumberOfConnections()).isEqualTo(0);
+
+        PlcConnection lease = SUT.getConnection(URL);
+        assertThat(lease.isConnected()).isTrue();
+        lease.close();
+    }
+
+    @Test
+    void idleConnectionIsClosed() throws Exception {
+        createManager(10, 50);
+        DummyPlcConnection connection = new DummyPlcConnection();
+        when(plcDriver.getConnection(anyString())).thenReturn(connection);
+
+        PlcConnection lease = SUT.getConnection(URL);
+        Thread.sleep(100);
+        // Leased connections are never idle.
+        assertThat(connection.isConnected()).isTrue();
+
+        lease.close();
+        awaitNumberOfConnections(0);
+        assertThat(connection.isConnected()).isFalse();
+    }
+
+    @Test
+    void concurrentReconnectsAreSerialized() throws Exception {
+        createManager(60_000, 60_000);
+        DummyPlcConnection connection = new DummyPlcConnection();
+        when(plcDriver.getConnection(anyString())).thenReturn(connection);
+        List<PlcConnection> leases = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            leases.add(SUT.getConnection(URL));
+        }
+        assertThat(connection.connects.get()).isEqualTo(1);
+
+        // The connection dropped and all leases notice it at the same time.
+        connection.connected = false;
+        connection.connectDelayMs = 50;
+        ExecutorService executorService = Executors.newFixedThreadPool(leases.size());
+        try {
+            List<Callable<Void>> callables = new ArrayList<>();
+            for (PlcConnection lease : leases) {
+                callables.add(() -> {
+                    lease.connect();
+                    return null;
+                });
+            }
+            for (Future<Void> future : executorService.invokeAll(callables)) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        assertThat(connection.connects.get()).isEqualTo(2);
+        for (PlcConnection lease : leases) {
+            assertThat(lease.isConnected()).isTrue();
+            lease.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void createManager(long healthCheckIntervalMs, long maxIdleTimeMs) throws Exception {
+        SUT = new MultiplexingPlcDriverManager(MultiplexingPlcDriverManager.class.getClassLoader(),
+            new PoolKeyFactory(), healthCheckIntervalMs, maxIdleTimeMs);
+        Map<String, PlcDriver> driverMap = (Map) FieldUtils.getField(MultiplexingPlcDriverManager.class, "driverMap", true).get(SUT);
+        driverMap.put("dummydummy", plcDriver);
+    }
+
+    private void awaitNumberOfConnections(int expected) throws InterruptedException {
+        for (int i = 0; (i < 100) && (SUT.getNumberOfConnections() != expected); i++) {
+            Thread.sleep(10);
+        }
+        assertThat(SUT.getNumberOfConnections()).isEqualTo(expected);
+    }
+
+    static class DummyPlcConnection implements PlcConnection, PlcConnectionMetadata {
+
+        volatile boolean connected = false;
+
+        volatile long connectDelayMs = 0;
+
+        final AtomicInteger connects = new AtomicInteger();
+
+        @Override
+        public void connect() {
+            connects.incrementAndGet();
+            try {
+                Thread.sleep(connectDelayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            connected = true;
+        }
+
+        @Override
+        public CompletableFuture<Void> ping() {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public boolean isConnected() {
+            return connected;
+        }
+
+        @Override
+        public PlcConnectionMetadata getMetadata() {
+            return this;
+        }
+
+        @Override
+        public boolean canRead() {
+            return false;
+        }
+
+        @Override
+        public boolean canWrite() {
+            return false;
+        }
+
+        @Override
+        public boolean canSubscribe() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+            connected = false;
+        }
+
+        @Override
+        public PlcReadRequest.Builder readRequestBuilder() {
+            throw new PlcUnsupportedOperationException("The connection does not support reading");
+        }
+
+        @Override
+        public PlcWriteRequest.Builder writeRequestBuilder() {
+            throw new PlcUnsupportedOperationException("The connection does not support writing");
+        }
+
+        @Override
+        public PlcSubscriptionRequest.Builder subscriptionRequestBuilder() {
+            throw new PlcUnsupportedOperationException("The connection does not support subscription");
+        }
+
+        @Override
+        public PlcUnsubscriptionRequest.Builder unsubscriptionRequestBuilder() {
+            throw new PlcUnsupportedOperationException("The connection does not support subscription");
+        }
+    }
+}
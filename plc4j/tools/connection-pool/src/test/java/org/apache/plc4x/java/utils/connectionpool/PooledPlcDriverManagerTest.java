@@ -213,14 +213,14 @@ class PooledPlcDriverManagerTest implements WithAssertions {
         assertThat(connection.getMetadata().canSubscribe()).isEqualTo(false);
 
         connection.close();
-        assertThatThrownBy(connection::connect).isInstanceOf(IllegalStateException.class).hasMessage("Proxy not valid anymore");
-        assertThatThrownBy(connection::isConnected).isInstanceOf(IllegalStateException.class).hasMessage("Proxy not valid anymore");
-        assertThatThrownBy(connection::close).isInstanceOf(IllegalStateException.class).hasMessage("Proxy not valid anymore");
-        assertThatThrownBy(connection::getMetadata).isInstanceOf(IllegalStateException.class).hasMessage("Proxy not valid anymore");
-        assertThatThrownBy(connection::readRequestBuilder).isInstanceOf(IllegalStateException.class).hasMessage("Proxy not valid anymore");
-        assertThatThrownBy(connection::writeRequestBuilder).isInstanceOf(IllegalStateException.class).hasMessage("Proxy not valid anymore");
-        assertThatThrownBy(connection::subscriptionRequestBuilder).isInstanceOf(IllegalStateException.class).hasMessage("Proxy not valid anymore");
-        assertThatThrownBy(connection::unsubscriptionRequestBuilder).isInstanceOf(IllegalStateException.class).hasMessage("Proxy not valid anymore");
+        assertThatThrownBy(connection::connect).isInstanceOf(IllegalStateException.class).hasMessage("Lease not valid anymore");
+        assertThatThrownBy(connection::isConnected).isInstanceOf(IllegalStateException.class).hasMessage("Lease not valid anymore");
+        assertThatThrownBy(connection::close).isInstanceOf(IllegalStateException.class).hasMessage("Lease not valid anymore");
+        assertThatThrownBy(connection::getMetadata).isInstanceOf(IllegalStateException.class).hasMessage("Lease not valid anymore");
+        assertThatThrownBy(connection::readRequestBuilder).isInstanceOf(IllegalStateException.class).hasMessage("Lease not valid anymore");
+        assertThatThrownBy(connection::writeRequestBuilder).isInstanceOf(IllegalStateException.class).hasMessage("Lease not valid anymore");
+        assertThatThrownBy(connection::subscriptionRequestBuilder).isInstanceOf(IllegalStateException.class).hasMessage("Lease not valid anymore");
+        assertThatThrownBy(connection::unsubscriptionRequestBuilder).isInstanceOf(IllegalStateException.class).hasMessage("Lease not valid anymore");
     }
 
     @Test
@@ -255,9 +255,7 @@ class PooledPlcDriverManagerTest implements WithAssertions {
             connection.connect();
             fail("This should throw an exception");
         } catch (Exception e) {
-            // TODO: currently UndeclaredThrowableException is the top one which should be InvocationTargetException
-            //assertThat(e).isInstanceOf(InvocationTargetException.class);
-            assertThat(e).hasRootCauseInstanceOf(PlcConnectionException.class);
+            assertThat(e).isInstanceOf(PlcConnectionException.class);
         }
         // Faulty connection should have been discarded
         assertThat(SUT.getStatistics()).containsOnly(
@@ -26,10 +26,10 @@ import org.apache.plc4x.java.PlcDriverManager;
 import org.apache.plc4x.java.api.PlcConnection;
 import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
 import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
-import org.apache.plc4x.java.api.messages.PlcReadRequest;
 import org.apache.plc4x.java.api.messages.PlcReadResponse;
 import org.apache.plc4x.java.api.types.PlcResponseCode;
 import org.apache.plc4x.java.scraper.config.JobConfigurationClassicImpl;
+import org.apache.plc4x.java.scraper.util.PreparedReadRequestCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -68,6 +68,8 @@ public class ScraperTaskImpl implements ScraperTask {
     private final DescriptiveStatistics latencyStatistics = new DescriptiveStatistics(1000);
     private final DescriptiveStatistics failedStatistics = new DescriptiveStatistics(1000);
 
+    private final PreparedReadRequestCache readRequestCache;
+
     public ScraperTaskImpl(PlcDriverManager driverManager,
                            String jobName,
                            String connectionAlias,
@@ -88,6 +90,7 @@ public class ScraperTaskImpl implements ScraperTask {
         this.connectionAlias = connectionAlias;
         this.connectionString = connectionString;
         this.fields = fields;
+        this.readRequestCache = new PreparedReadRequestCache(fields);
         this.requestTimeoutMs = requestTimeoutMs;
         this.handlerService = handlerService;
         this.resultHandler = resultHandler;
@@ -117,15 +120,7 @@ public class ScraperTaskImpl implements ScraperTask {
             LOGGER.debug("Connection to {} established: {}", connectionString, connection);
             PlcReadResponse plcReadResponse;
             try {
-                //build read request
-                PlcReadRequest.Builder readRequestBuilder = connection.readRequestBuilder();
-                //add fields to be acquired to builder
-                fields.forEach((alias, qry) -> {
-                    LOGGER.trace("Requesting: {} -> {}", alias, qry);
-                    readRequestBuilder.addItem(alias, qry);
-                });
-                plcReadResponse = readRequestBuilder
-                    .build()
+                plcReadResponse = readRequestCache.getReadRequest(connection)
                     .execute()
                     .get(requestTimeoutMs, TimeUnit.MILLISECONDS);
             } catch (ExecutionException e) {
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.plc4x.java.scraper.config;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.apache.plc4x.java.scraper.exception.ScraperConfigurationException;
+
+/**
+ * Report-by-exception configuration of a scrape job: a field is only passed to the result handler if its value
+ * changed by more than the deadbands since it was reported the last time, or if it wasn't reported for the max
+ * silence time.
+ * <p>
+ * For numeric values the change has to exceed both, the absolute and the percentage deadband (relative to the last
+ * reported value), so the absolute deadband works as lower bound for values near zero. A deadband of 0 reports every
+ * change. Other values are reported whenever they're not equal to the last reported one.
+ */
+public class DeadbandConfiguration {
+
+    private final double absolute;
+    private final double percent;
+    private final long maxSilenceMs;
+
+    /**
+     * @param absolute     minimum absolute change of numeric values (optional).
+     * @param percent      minimum change of numeric values in percent of the last reported value (optional).
+     * @param maxSilenceMs a field is reported after this time even if it didn't change (optional, 0 disables it).
+     */
+    @JsonCreator
+    public DeadbandConfiguration(@JsonProperty(value = "absolute") Double absolute,
+                                 @JsonProperty(value = "percent") Double percent,
+                                 @JsonProperty(value = "maxSilenceMs") Long maxSilenceMs) {
+        this.absolute = (absolute != null) ? absolute : 0.0;
+        this.percent = (percent != null) ? percent : 0.0;
+        this.maxSilenceMs = (maxSilenceMs != null) ? maxSilenceMs : 0L;
+        if (this.absolute < 0 || this.percent < 0 || this.maxSilenceMs < 0) {
+            throw new ScraperConfigurationException("Deadbands and max silence must not be negative");
+        }
+    }
+
+    public double getAbsolute() {
+        return absolute;
+    }
+
+    public double getPercent() {
+        return percent;
+    }
+
+    public long getMaxSilenceMs() {
+        return maxSilenceMs;
+    }
+
+    @Override
+    public String toString() {
+        return "DeadbandConfiguration{" +
+            "absolute=" + absolute +
+            ", percent=" + percent +
+            ", maxSilenceMs=" + maxSilenceMs +
+            '}';
+    }
+}
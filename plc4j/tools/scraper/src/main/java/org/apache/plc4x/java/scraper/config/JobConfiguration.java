@@ -36,4 +36,18 @@ public interface JobConfiguration {
     List<String> getSources();
 
     Map<String, String> getFields();
+
+    /**
+     * @return handling of runs which are due while the previous scrape is still in progress, or null for the default.
+     */
+    default OverrunPolicy getOverrunPolicy() {
+        return null;
+    }
+
+    /**
+     * @return report-by-exception configuration, or null if every value shall be reported.
+     */
+    default DeadbandConfiguration getDeadband() {
+        return null;
+    }
 }
@@ -35,6 +35,8 @@ public class JobConfigurationImpl implements JobConfiguration {
     protected final Integer scrapeRate;
     protected final List<String> sources;
     protected final Map<String, String> fields;
+    protected final OverrunPolicy overrunPolicy;
+    protected final DeadbandConfiguration deadband;
 
     /**
      * Default constructor
@@ -44,17 +46,48 @@ public class JobConfigurationImpl implements JobConfiguration {
      * @param sources source alias (<b>not</b> connection string but the alias (from @{@link ScraperConfigurationClassicImpl}).
      * @param fields Map from field alias (how it is named in the result map) to plc4x field query
      */
+    public JobConfigurationImpl(String name, String triggerConfig, Integer scrapeRate, List<String> sources, Map<String, String> fields) {
+        this(name, triggerConfig, scrapeRate, sources, fields, null);
+    }
+
+    /**
+     * Default constructor
+     * @param name Job Name / identifier
+     * @param triggerConfig configuration string for triggered jobs
+     * @param scrapeRate    rate in which the data should be acquired
+     * @param sources source alias (<b>not</b> connection string but the alias (from @{@link ScraperConfigurationClassicImpl}).
+     * @param fields Map from field alias (how it is named in the result map) to plc4x field query
+     * @param overrunPolicy handling of runs which are due while the previous scrape is still in progress (optional)
+     */
+    public JobConfigurationImpl(String name, String triggerConfig, Integer scrapeRate, List<String> sources, Map<String, String> fields, OverrunPolicy overrunPolicy) {
+        this(name, triggerConfig, scrapeRate, sources, fields, overrunPolicy, null);
+    }
+
+    /**
+     * Default constructor
+     * @param name Job Name / identifier
+     * @param triggerConfig configuration string for triggered jobs
+     * @param scrapeRate    rate in which the data should be acquired
+     * @param sources source alias (<b>not</b> connection string but the alias (from @{@link ScraperConfigurationClassicImpl}).
+     * @param fields Map from field alias (how it is named in the result map) to plc4x field query
+     * @param overrunPolicy handling of runs which are due while the previous scrape is still in progress (optional)
+     * @param deadband report-by-exception configuration (optional)
+     */
     @JsonCreator
     public JobConfigurationImpl(@JsonProperty(value = "name", required = true) String name,
                                 @JsonProperty(value = "triggerConfig") String triggerConfig,
                                 @JsonProperty(value = "scrapeRate") Integer scrapeRate,
                                 @JsonProperty(value = "sources", required = true) List<String> sources,
-                                @JsonProperty(value = "fields", required = true) Map<String, String> fields) {
+                                @JsonProperty(value = "fields", required = true) Map<String, String> fields,
+                                @JsonProperty(value = "overrunPolicy") OverrunPolicy overrunPolicy,
+                                @JsonProperty(value = "deadband") DeadbandConfiguration deadband) {
         this.name = name;
         this.triggerConfig = triggerConfig;
         this.scrapeRate = scrapeRate;
         this.sources = sources;
         this.fields = fields;
+        this.overrunPolicy = overrunPolicy;
+        this.deadband = deadband;
     }
 
     @Override
@@ -81,4 +114,14 @@ public class JobConfigurationImpl implements JobConfiguration {
     public Integer getScrapeRate() {
         return scrapeRate;
     }
+
+    @Override
+    public OverrunPolicy getOverrunPolicy() {
+        return overrunPolicy;
+    }
+
+    @Override
+    public DeadbandConfiguration getDeadband() {
+        return deadband;
+    }
 }
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.plc4x.java.scraper.config;
+
+/**
+ * Defines what happens to the runs of a scrape job which are due while its previous scrape is still in progress.
+ */
+public enum OverrunPolicy {
+
+    /**
+     * Drop the runs which are due while a scrape is in progress and wait for the next regular start time.
+     * Gives evenly spaced samples, but leaves gaps for slow scrapes (default).
+     */
+    SKIP,
+
+    /**
+     * Merge all runs which are due while a scrape is in progress into a single one,
+     * which is started as soon as the previous scrape completes.
+     */
+    COALESCE,
+
+    /**
+     * Queue all runs which are due while a scrape is in progress and start them back to back, until the schedule
+     * has caught up. No sample is lost as long as the backlog doesn't exceed its limit.
+     */
+    CATCH_UP
+
+}
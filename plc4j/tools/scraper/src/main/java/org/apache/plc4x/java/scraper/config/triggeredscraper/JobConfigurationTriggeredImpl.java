@@ -20,8 +20,10 @@
 package org.apache.plc4x.java.scraper.config.triggeredscraper;
 
 
+import org.apache.plc4x.java.scraper.config.DeadbandConfiguration;
 import org.apache.plc4x.java.scraper.config.JobConfigurationImpl;
 import org.apache.plc4x.java.scraper.config.ScraperConfigurationClassicImpl;
+import org.apache.plc4x.java.scraper.config.OverrunPolicy;
 
 import java.util.List;
 import java.util.Map;
@@ -44,4 +46,33 @@ public class JobConfigurationTriggeredImpl extends JobConfigurationImpl {
     public JobConfigurationTriggeredImpl(String name, String triggerConfig, Integer scrapeRate, List<String> sources, Map<String, String> fields) {
         super(name, triggerConfig, scrapeRate, sources, fields);
     }
+
+    /**
+     * Constructor with an explicit overrun policy
+     *
+     * @param name          Job Name / identifier
+     * @param triggerConfig configuration string for triggered jobs
+     * @param scrapeRate    rate in which the data should be acquired
+     * @param sources       source alias (<b>not</b> connection string but the alias (from @{@link ScraperConfigurationClassicImpl}).
+     * @param fields        Map from field alias (how it is named in the result map) to plc4x field query
+     * @param overrunPolicy handling of runs which are due while the previous scrape is still in progress
+     */
+    public JobConfigurationTriggeredImpl(String name, String triggerConfig, Integer scrapeRate, List<String> sources, Map<String, String> fields, OverrunPolicy overrunPolicy) {
+        super(name, triggerConfig, scrapeRate, sources, fields, overrunPolicy);
+    }
+
+    /**
+     * Constructor with an explicit overrun policy and deadband
+     *
+     * @param name          Job Name / identifier
+     * @param triggerConfig configuration string for triggered jobs
+     * @param scrapeRate    rate in which the data should be acquired
+     * @param sources       source alias (<b>not</b> connection string but the alias (from @{@link ScraperConfigurationClassicImpl}).
+     * @param fields        Map from field alias (how it is named in the result map) to plc4x field query
+     * @param overrunPolicy handling of runs which are due while the previous scrape is still in progress
+     * @param deadband      report-by-exception configuration
+     */
+    public JobConfigurationTriggeredImpl(String name, String triggerConfig, Integer scrapeRate, List<String> sources, Map<String, String> fields, OverrunPolicy overrunPolicy, DeadbandConfiguration deadband) {
+        super(name, triggerConfig, scrapeRate, sources, fields, overrunPolicy, deadband);
+    }
 }
@@ -19,7 +19,9 @@
 
 package org.apache.plc4x.java.scraper.config.triggeredscraper;
 
+import org.apache.plc4x.java.scraper.config.DeadbandConfiguration;
 import org.apache.plc4x.java.scraper.exception.ScraperConfigurationException;
+import org.apache.plc4x.java.scraper.config.OverrunPolicy;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -34,6 +36,8 @@ public class JobConfigurationTriggeredImplBuilder {
 
     private final List<String> sources = new ArrayList<>();
     private final Map<String, String> fields = new HashMap<>();
+    private OverrunPolicy overrunPolicy;
+    private DeadbandConfiguration deadband;
 
     public JobConfigurationTriggeredImplBuilder(ScraperConfigurationTriggeredImplBuilder parent, String name, String triggerConfig) {
         if(parent==null){
@@ -60,8 +64,18 @@ public class JobConfigurationTriggeredImplBuilder {
         return this;
     }
 
+    public JobConfigurationTriggeredImplBuilder overrunPolicy(OverrunPolicy overrunPolicy) {
+        this.overrunPolicy = overrunPolicy;
+        return this;
+    }
+
+    public JobConfigurationTriggeredImplBuilder deadband(double absolute, double percent, long maxSilenceMs) {
+        this.deadband = new DeadbandConfiguration(absolute, percent, maxSilenceMs);
+        return this;
+    }
+
     private JobConfigurationTriggeredImpl buildInternal() {
-        return new JobConfigurationTriggeredImpl(name, triggerConfig, null, sources, fields);
+        return new JobConfigurationTriggeredImpl(name, triggerConfig, null, sources, fields, overrunPolicy, deadband);
     }
 
     public ScraperConfigurationTriggeredImplBuilder build() {
@@ -96,11 +96,21 @@ public class ScraperConfigurationTriggeredImpl implements ScraperConfiguration {
                 scrapeJobs.add(new TriggeredScrapeJobImpl(jobConfiguration.getName(),
                     jobConfiguration.getTriggerConfig(),
                     getSourcesForAliases(jobConfiguration.getSources(),sources),
-                    jobConfiguration.getFields()));
+                    jobConfiguration.getFields(),
+                    jobConfiguration.getOverrunPolicy(),
+                    jobConfiguration.getDeadband()));
             }
             else {
                 if(jobConfiguration.getScrapeRate()!=null){
                     logger.info("Assuming job as classic job because triggerConfig has NOT been set but scrapeRate has.");
+                    if(jobConfiguration.getOverrunPolicy()!=null){
+                        throw new ScraperConfigurationException(
+                            String.format("Job %s sets an overrunPolicy, which is only supported for triggered jobs. Use a triggerConfig instead of the scrapeRate!",jobConfiguration.getName()));
+                    }
+                    if(jobConfiguration.getDeadband()!=null){
+                        throw new ScraperConfigurationException(
+                            String.format("Job %s sets a deadband, which is only supported for triggered jobs. Use a triggerConfig instead of the scrapeRate!",jobConfiguration.getName()));
+                    }
                     scrapeJobs.add(new ScrapeJobImpl(
                         jobConfiguration.getName(),
                         jobConfiguration.getScrapeRate(),
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.plc4x.java.scraper.triggeredscraper;
+
+import org.apache.plc4x.java.scraper.config.DeadbandConfiguration;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Report-by-exception filter of the results of one task as configured by a {@link DeadbandConfiguration}:
+ * only the fields which changed by more than the deadbands since they were reported the last time (or which weren't
+ * reported for the max silence time) pass.
+ * <p>
+ * The last reported values are kept per field in primitive arrays, so numeric values are compared without boxing
+ * or map lookups of their history.
+ */
+public class DeadbandFilter {
+
+    private final double absolute;
+    private final double relative;
+    private final long maxSilenceNanos;
+
+    private final Map<String, Integer> fieldIndices = new HashMap<>();
+
+    // Guarded by this.
+    private final boolean[] reported;
+    private final boolean[] numeric;
+    private final double[] lastNumericValues;
+    private final Object[] lastValues;
+    private final long[] lastReportNanos;
+
+    /**
+     * @param configuration deadbands to apply.
+     * @param fieldAliases  aliases of the fields of the task.
+     */
+    public DeadbandFilter(DeadbandConfiguration configuration, Collection<String> fieldAliases) {
+        this.absolute = configuration.getAbsolute();
+        this.relative = configuration.getPercent() / 100.0;
+        this.maxSilenceNanos = TimeUnit.MILLISECONDS.toNanos(configuration.getMaxSilenceMs());
+        for (String fieldAlias : fieldAliases) {
+            fieldIndices.put(fieldAlias, fieldIndices.size());
+        }
+        int numberOfFields = fieldIndices.size();
+        this.reported = new boolean[numberOfFields];
+        this.numeric = new boolean[numberOfFields];
+        this.lastNumericValues = new double[numberOfFields];
+        this.lastValues = new Object[numberOfFields];
+        this.lastReportNanos = new long[numberOfFields];
+    }
+
+    /**
+     * @param values result of a scrape (field alias -&gt; value).
+     * @return the fields which have to be reported (empty if nothing changed).
+     */
+    public Map<String, Object> filter(Map<String, Object> values) {
+        return filter(values, System.nanoTime());
+    }
+
+    synchronized Map<String, Object> filter(Map<String, Object> values, long nowNanos) {
+        Map<String, Object> changedValues = new HashMap<>();
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            Integer index = fieldIndices.get(entry.getKey());
+            // Fields unknown to the filter are always reported.
+            if ((index == null) || isReportable(index, entry.getValue(), nowNanos)) {
+                changedValues.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return changedValues;
+    }
+
+    private boolean isReportable(int index, Object value, long nowNanos) {
+        boolean report;
+        if (!reported[index]) {
+            report = true;
+        } else if ((maxSilenceNanos > 0) && ((nowNanos - lastReportNanos[index]) >= maxSilenceNanos)) {
+            report = true;
+        } else if (numeric[index] && (value instanceof Number)) {
+            report = exceedsDeadband(lastNumericValues[index], ((Number) value).doubleValue());
+        } else {
+            report = !Objects.deepEquals(lastValues[index], value);
+        }
+        if (report) {
+            reported[index] = true;
+            lastReportNanos[index] = nowNanos;
+            if (value instanceof Number) {
+                numeric[index] = true;
+                lastNumericValues[index] = ((Number) value).doubleValue();
+                lastValues[index] = null;
+            } else {
+                numeric[index] = false;
+                lastValues[index] = value;
+            }
+        }
+        return report;
+    }
+
+    private boolean exceedsDeadband(double lastValue, double value) {
+        if (Double.isNaN(lastValue) || Double.isNaN(value)) {
+            return Double.isNaN(lastValue) != Double.isNaN(value);
+        }
+        if (Double.isInfinite(lastValue) || Double.isInfinite(value)) {
+            return lastValue != value;
+        }
+        double change = Math.abs(value - lastValue);
+        return (change > absolute) && (change > relative * Math.abs(lastValue));
+    }
+}
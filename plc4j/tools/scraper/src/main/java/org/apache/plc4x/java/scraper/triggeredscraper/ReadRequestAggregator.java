@@ -0,0 +1,338 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.plc4x.java.scraper.triggeredscraper;
+
+import org.apache.plc4x.java.PlcDriverManager;
+import org.apache.plc4x.java.api.PlcConnection;
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.java.api.metadata.PlcConnectionMetadata;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.scraper.util.CompletableFutures;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Merges the reads of all scrape jobs targeting the same PLC into one request.
+ * <p>
+ * The reads submitted for a connection within the batch window (i.e. the jobs which are due in the same tick)
+ * and all reads submitted while a request to the connection is still in progress are sent together, so there
+ * is at most one request per connection in flight. Fields which are read by several jobs are only requested once.
+ * The merged request is passed through {@link PlcConnection#prepareReadRequest} so the driver can optimize it,
+ * and it is reused whenever the same fields are due again. The response is split up again per read. A read with a
+ * field the driver can't parse fails on its own, without affecting the reads it would have been merged with.
+ */
+public class ReadRequestAggregator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReadRequestAggregator.class);
+
+    // Number of distinct field sets per connection whose prepared requests are kept.
+    private static final int MAX_PREPARED_REQUESTS = 16;
+
+    private final PlcDriverManager driverManager;
+    private final ScheduledExecutorService scheduler;
+    private final long requestTimeoutMs;
+    private final long batchWindowMs;
+
+    private final Map<String, ConnectionBatcher> batchers = new ConcurrentHashMap<>();
+
+    private final AtomicLong readCounter = new AtomicLong(0);
+    private final AtomicLong requestCounter = new AtomicLong(0);
+
+    /**
+     * @param driverManager    driver manager the connections are requested from.
+     * @param scheduler        scheduler sending the requests and enforcing their timeouts.
+     * @param requestTimeoutMs maximum duration of a request.
+     * @param batchWindowMs    time the first read of a batch waits for other reads to the same connection.
+     */
+    public ReadRequestAggregator(PlcDriverManager driverManager, ScheduledExecutorService scheduler,
+                                 long requestTimeoutMs, long batchWindowMs) {
+        this.driverManager = driverManager;
+        this.scheduler = scheduler;
+        this.requestTimeoutMs = requestTimeoutMs;
+        this.batchWindowMs = batchWindowMs;
+    }
+
+    /**
+     * Reads the given fields as part of the next request to the connection.
+     *
+     * @param connectionString connection to read from.
+     * @param fields           map from field alias (how it is named in the result) to plc4x field query.
+     * @return future completed with the values of the fields, or exceptionally if the request failed.
+     */
+    public CompletableFuture<Result> read(String connectionString, Map<String, String> fields) {
+        PendingRead read = new PendingRead(fields);
+        batchers.computeIfAbsent(connectionString, ConnectionBatcher::new).add(read);
+        return read.future;
+    }
+
+    /**
+     * @return number of reads submitted.
+     */
+    public long getReadCounter() {
+        return readCounter.get();
+    }
+
+    /**
+     * @return number of requests sent for the submitted reads.
+     */
+    public long getRequestCounter() {
+        return requestCounter.get();
+    }
+
+    /**
+     * Values of the fields of one read.
+     */
+    public static final class Result {
+
+        private final PlcReadResponse response;
+        // Field alias -> field name in the response.
+        private final Map<String, String> fieldNames;
+
+        private Result(PlcReadResponse response, Map<String, String> fieldNames) {
+            this.response = response;
+            this.fieldNames = fieldNames;
+        }
+
+        /**
+         * @return result of a response which wasn't merged, so the field names of the response are the aliases.
+         */
+        public static Result of(PlcReadResponse response) {
+            return new Result(response, response.getFieldNames().stream()
+                .collect(Collectors.toMap(Function.identity(), Function.identity())));
+        }
+
+        public Set<String> getFieldNames() {
+            return Collections.unmodifiableSet(fieldNames.keySet());
+        }
+
+        public PlcResponseCode getResponseCode(String alias) {
+            return response.getResponseCode(fieldNames.get(alias));
+        }
+
+        public Object getObject(String alias) {
+            return response.getObject(fieldNames.get(alias));
+        }
+
+        /**
+         * @return map from field alias to value.
+         */
+        public Map<String, Object> toMap() {
+            return fieldNames.keySet().stream()
+                .collect(Collectors.toMap(
+                    Function.identity(),
+                    this::getObject
+                ));
+        }
+    }
+
+    private static final class PendingRead {
+
+        private final Map<String, String> fields;
+        private final CompletableFuture<Result> future = new CompletableFuture<>();
+
+        private PendingRead(Map<String, String> fields) {
+            this.fields = fields;
+        }
+    }
+
+    private final class ConnectionBatcher {
+
+        private final String connectionString;
+
+        // Outcome of parsing the field queries, so one job with an invalid field doesn't fail the reads of the others.
+        private final Set<String> validFieldQueries = ConcurrentHashMap.newKeySet();
+        private final Map<String, RuntimeException> invalidFieldQueries = new ConcurrentHashMap<>();
+
+        // Guarded by itself. Field queries -> prepared request, as jobs with different rates request different fields.
+        private final Map<Set<String>, PlcReadRequest> preparedReadRequests =
+            new LinkedHashMap<Set<String>, PlcReadRequest>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Set<String>, PlcReadRequest> eldest) {
+                    return size() > MAX_PREPARED_REQUESTS;
+                }
+            };
+        // Guarded by preparedReadRequests, the connection the prepared requests belong to.
+        private PlcConnectionMetadata preparedFor;
+
+        // Guarded by this.
+        private List<PendingRead> pendingReads = new ArrayList<>();
+        private boolean flushScheduled;
+        private boolean requestInFlight;
+
+        private ConnectionBatcher(String connectionString) {
+            this.connectionString = connectionString;
+        }
+
+        private synchronized void add(PendingRead read) {
+            readCounter.incrementAndGet();
+            pendingReads.add(read);
+            scheduleFlush();
+        }
+
+        private synchronized void requestCompleted() {
+            requestInFlight = false;
+            if (!pendingReads.isEmpty()) {
+                scheduleFlush();
+            }
+        }
+
+        private void scheduleFlush() {
+            if (!flushScheduled && !requestInFlight) {
+                flushScheduled = true;
+                scheduler.schedule(this::flush, batchWindowMs, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void flush() {
+            List<PendingRead> batch;
+            synchronized (this) {
+                flushScheduled = false;
+                batch = pendingReads;
+                pendingReads = new ArrayList<>();
+                requestInFlight = true;
+            }
+            requestCounter.incrementAndGet();
+            try {
+                CompletableFuture<PlcConnection> connectionFuture = driverManager.getConnectionAsync(connectionString);
+                CompletableFuture<PlcReadResponse> responseFuture = CompletableFutures.thenComposeCancellable(connectionFuture,
+                    connection -> read(connection, batch));
+                CompletableFutures.withTimeout(responseFuture, requestTimeoutMs, scheduler)
+                    .whenComplete((response, throwable) -> {
+                        // Hand back the connection, even if it only arrives after the timeout.
+                        connectionFuture.thenAccept(this::closeConnection);
+                        complete(batch, response, throwable);
+                    });
+            } catch (RuntimeException e) {
+                // Thrown synchronously (e.g. by the driver on creating the connection), the batch still has to be
+                // completed, otherwise no further request would ever be sent to the connection.
+                LOGGER.warn("Unable to send request to {}", connectionString, e);
+                complete(batch, null, e);
+            }
+        }
+
+        private CompletableFuture<? extends PlcReadResponse> read(PlcConnection connection, List<PendingRead> batch) {
+            // Fields read by several jobs are only requested once, named by their field query.
+            Set<String> fieldQueries = new LinkedHashSet<>();
+            for (PendingRead read : batch) {
+                RuntimeException invalidField = validate(connection, read.fields.values());
+                if (invalidField != null) {
+                    read.future.completeExceptionally(invalidField);
+                } else {
+                    fieldQueries.addAll(read.fields.values());
+                }
+            }
+            if (fieldQueries.isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (LOGGER.isTraceEnabled()) {
+                LOGGER.trace("Sending {} reads with {} fields in one request to {}", batch.size(), fieldQueries.size(), connectionString);
+            }
+            return getReadRequest(connection, fieldQueries).execute();
+        }
+
+        private void complete(List<PendingRead> batch, PlcReadResponse response, Throwable throwable) {
+            // Reads with invalid fields were already completed on their own, completing them again has no effect.
+            for (PendingRead read : batch) {
+                if (throwable != null) {
+                    read.future.completeExceptionally(throwable);
+                } else {
+                    read.future.complete(new Result(response, read.fields));
+                }
+            }
+            requestCompleted();
+        }
+
+        /**
+         * @return the exception of the first field query which can't be parsed, or null if all are valid.
+         */
+        private RuntimeException validate(PlcConnection connection, Collection<String> fieldQueries) {
+            for (String fieldQuery : fieldQueries) {
+                if (validFieldQueries.contains(fieldQuery)) {
+                    continue;
+                }
+                RuntimeException invalidField = invalidFieldQueries.get(fieldQuery);
+                if (invalidField == null) {
+                    try {
+                        connection.readRequestBuilder().addItem(fieldQuery, fieldQuery).build();
+                        validFieldQueries.add(fieldQuery);
+                        continue;
+                    } catch (RuntimeException e) {
+                        LOGGER.warn("Invalid field {} for {}, the reads containing it fail", fieldQuery, connectionString, e);
+                        invalidFieldQueries.put(fieldQuery, e);
+                        invalidField = e;
+                    }
+                }
+                return invalidField;
+            }
+            return null;
+        }
+
+        /**
+         * Prepares the merged request only if it wasn't prepared for the same fields before or if the underlying
+         * connection changed.
+         */
+        private PlcReadRequest getReadRequest(PlcConnection connection, Set<String> fieldQueries) {
+            PlcConnectionMetadata metadata = connection.getMetadata();
+            synchronized (preparedReadRequests) {
+                if ((metadata == null) || (metadata != preparedFor)) {
+                    preparedReadRequests.clear();
+                    preparedFor = metadata;
+                }
+                PlcReadRequest readRequest = preparedReadRequests.get(fieldQueries);
+                if (readRequest == null) {
+                    PlcReadRequest.Builder readRequestBuilder = connection.readRequestBuilder();
+                    for (String fieldQuery : fieldQueries) {
+                        readRequestBuilder.addItem(fieldQuery, fieldQuery);
+                    }
+                    readRequest = connection.prepareReadRequest(readRequestBuilder.build());
+                    if (metadata != null) {
+                        preparedReadRequests.put(fieldQueries, readRequest);
+                    }
+                }
+                return readRequest;
+            }
+        }
+
+        private void closeConnection(PlcConnection connection) {
+            try {
+                connection.close();
+            } catch (Exception e) {
+                LOGGER.warn("Error on closing connection", e);
+            }
+        }
+    }
+}
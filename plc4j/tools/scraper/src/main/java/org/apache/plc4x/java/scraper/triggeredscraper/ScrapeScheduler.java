@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.scraper.triggeredscraper;
+
+import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+import org.apache.commons.math3.stat.descriptive.SynchronizedDescriptiveStatistics;
+import org.apache.plc4x.java.scraper.config.OverrunPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Runs the scrapes of all tasks from one timer.
+ * <p>
+ * The timer threads only start the scrapes: a scrape returns a future as soon as its request is sent, and the
+ * result is processed when the future completes. So thousands of tasks can share a handful of timer threads.
+ * The next run of a task is scheduled relative to its planned start time instead of to the end of the previous run,
+ * so the cycle time doesn't drift. What happens to a run which is due while the previous one is still in progress
+ * is defined by the {@link OverrunPolicy} of the schedule.
+ */
+public class ScrapeScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScrapeScheduler.class);
+
+    /**
+     * Maximum number of runs queued by {@link OverrunPolicy#CATCH_UP}, older runs are dropped.
+     */
+    public static final int MAX_BACKLOG = 100;
+
+    private static final int STATISTICS_WINDOW = 1000;
+
+    private final ScheduledExecutorService timer;
+    private final LongSupplier nanoClock;
+
+    public ScrapeScheduler(ScheduledExecutorService timer) {
+        this(timer, System::nanoTime);
+    }
+
+    /**
+     * @param timer     timer starting the scrapes.
+     * @param nanoClock source of the current time in ns, which has to match the time of the timer (for testing).
+     */
+    ScrapeScheduler(ScheduledExecutorService timer, LongSupplier nanoClock) {
+        this.timer = timer;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Schedules a scrape with {@link OverrunPolicy#SKIP}.
+     *
+     * @see #schedule(String, Supplier, long, long, OverrunPolicy)
+     */
+    public Schedule schedule(String name, Supplier<CompletableFuture<?>> scrape, long initialDelayMs, long rateMs) {
+        return schedule(name, scrape, initialDelayMs, rateMs, OverrunPolicy.SKIP);
+    }
+
+    /**
+     * @param name           name of the schedule (for logging).
+     * @param scrape         starts a single scrape and returns its completion.
+     * @param initialDelayMs delay of the first scrape (the phase of the schedule).
+     * @param rateMs         time between the starts of two scrapes.
+     * @param overrunPolicy  handling of runs which are due while a scrape is still in progress.
+     * @return handle for cancelling the schedule.
+     */
+    public Schedule schedule(String name, Supplier<CompletableFuture<?>> scrape, long initialDelayMs, long rateMs,
+                             OverrunPolicy overrunPolicy) {
+        if (rateMs <= 0) {
+            throw new IllegalArgumentException("Scrape rate must be positive, but was " + rateMs);
+        }
+        Schedule schedule = new Schedule(name, scrape, TimeUnit.MILLISECONDS.toNanos(rateMs), overrunPolicy);
+        schedule.start(TimeUnit.MILLISECONDS.toNanos(initialDelayMs));
+        return schedule;
+    }
+
+    /**
+     * Repeated execution of one scrape.
+     */
+    public final class Schedule {
+
+        private final String name;
+        private final Supplier<CompletableFuture<?>> scrape;
+        private final long rateNanos;
+        private final OverrunPolicy overrunPolicy;
+
+        private final AtomicLong skippedRuns = new AtomicLong(0);
+        private final DescriptiveStatistics lagStatistics = new SynchronizedDescriptiveStatistics(STATISTICS_WINDOW);
+        private final DescriptiveStatistics jitterStatistics = new SynchronizedDescriptiveStatistics(STATISTICS_WINDOW);
+
+        private volatile boolean cancelled;
+        private volatile ScheduledFuture<?> nextRun;
+
+        // Guarded by this.
+        private boolean running;
+        private long plannedStartNanos;
+        private long lastLagNanos = -1;
+        // Planned start times of the runs deferred while a scrape was in progress.
+        private final Deque<Long> backlog = new ArrayDeque<>();
+
+        private Schedule(String name, Supplier<CompletableFuture<?>> scrape, long rateNanos, OverrunPolicy overrunPolicy) {
+            this.name = name;
+            this.scrape = scrape;
+            this.rateNanos = rateNanos;
+            this.overrunPolicy = overrunPolicy;
+        }
+
+        private synchronized void start(long initialDelayNanos) {
+            plannedStartNanos = nanoClock.getAsLong() + initialDelayNanos;
+            nextRun = timer.schedule(this::tick, initialDelayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private synchronized void tick() {
+            if (cancelled) {
+                return;
+            }
+            long now = nanoClock.getAsLong();
+            if (!running) {
+                startScrape(plannedStartNanos, now);
+            } else {
+                defer(plannedStartNanos);
+            }
+            scheduleNext(now);
+        }
+
+        private void defer(long plannedStart) {
+            switch (overrunPolicy) {
+                case COALESCE:
+                    if (!backlog.isEmpty()) {
+                        backlog.clear();
+                        skippedRuns.incrementAndGet();
+                    }
+                    backlog.add(plannedStart);
+                    break;
+                case CATCH_UP:
+                    if (backlog.size() >= MAX_BACKLOG) {
+                        backlog.poll();
+                        skippedRuns.incrementAndGet();
+                    }
+                    backlog.add(plannedStart);
+                    break;
+                default:
+                    skippedRuns.incrementAndGet();
+                    LOGGER.debug("Skipping scrape {} as the previous one is still in progress", name);
+            }
+        }
+
+        private void scheduleNext(long now) {
+            plannedStartNanos += rateNanos;
+            if (plannedStartNanos < now) {
+                // The timer fell behind. Catch up only replays a bounded number of runs,
+                // the others continue with the next start time still in the future.
+                long missedRuns = ((now - plannedStartNanos) / rateNanos) + 1;
+                long droppedRuns = (overrunPolicy == OverrunPolicy.CATCH_UP) ? Math.max(0, missedRuns - MAX_BACKLOG) : missedRuns;
+                plannedStartNanos += droppedRuns * rateNanos;
+                skippedRuns.addAndGet(droppedRuns);
+            }
+            nextRun = timer.schedule(this::tick, Math.max(0, plannedStartNanos - now), TimeUnit.NANOSECONDS);
+        }
+
+        private void startScrape(long plannedStart, long now) {
+            long lagNanos = now - plannedStart;
+            lagStatistics.addValue(lagNanos);
+            if (lastLagNanos >= 0) {
+                jitterStatistics.addValue(Math.abs(lagNanos - lastLagNanos));
+            }
+            lastLagNanos = lagNanos;
+            running = true;
+            try {
+                // Continue on the timer, so a deferred run is neither started on an I/O thread nor recursively.
+                scrape.get().whenCompleteAsync((ignored, throwable) -> scrapeCompleted(), timer);
+            } catch (RuntimeException e) {
+                running = false;
+                LOGGER.warn("Error starting scrape {}", name, e);
+            }
+        }
+
+        private synchronized void scrapeCompleted() {
+            running = false;
+            Long deferredStart = backlog.poll();
+            if ((deferredStart != null) && !cancelled) {
+                startScrape(deferredStart, nanoClock.getAsLong());
+            }
+        }
+
+        public void cancel() {
+            cancelled = true;
+            ScheduledFuture<?> future = nextRun;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public OverrunPolicy getOverrunPolicy() {
+            return overrunPolicy;
+        }
+
+        /**
+         * @return number of runs dropped because the previous scrape was still in progress or the timer fell behind.
+         */
+        public long getSkippedRuns() {
+            return skippedRuns.get();
+        }
+
+        /**
+         * @return number of runs waiting for the scrape in progress to complete.
+         */
+        public synchronized int getBacklogSize() {
+            return backlog.size();
+        }
+
+        /**
+         * @return delay (in ns) between the planned and the actual start of the recent scrapes.
+         */
+        public DescriptiveStatistics getLagStatistics() {
+            return lagStatistics;
+        }
+
+        /**
+         * @return difference (in ns) between the lags of two consecutive scrapes, i.e. how unevenly the samples are spaced.
+         */
+        public DescriptiveStatistics getJitterStatistics() {
+            return jitterStatistics;
+        }
+
+        @Override
+        public String toString() {
+            return "Schedule{" +
+                "name='" + name + '\'' +
+                ", rateMs=" + TimeUnit.NANOSECONDS.toMillis(rateNanos) +
+                ", overrunPolicy=" + overrunPolicy +
+                ", cancelled=" + cancelled +
+                '}';
+        }
+    }
+}
@@ -20,6 +20,8 @@
 package org.apache.plc4x.java.scraper.triggeredscraper;
 
 import org.apache.plc4x.java.scraper.ScrapeJob;
+import org.apache.plc4x.java.scraper.config.DeadbandConfiguration;
+import org.apache.plc4x.java.scraper.config.OverrunPolicy;
 import org.apache.plc4x.java.scraper.exception.ScraperConfigurationException;
 import org.apache.plc4x.java.scraper.exception.ScraperException;
 import org.apache.plc4x.java.scraper.triggeredscraper.triggerhandler.TriggerConfiguration;
@@ -32,10 +34,31 @@ public class TriggeredScrapeJobImpl implements ScrapeJob {
     private final Map<String, String> fields;
     private final String triggerConfig;
     private final TriggerConfiguration triggerConfiguration;
+    private final OverrunPolicy overrunPolicy;
+    private final DeadbandConfiguration deadband;
 
 
     public TriggeredScrapeJobImpl(String jobName, String triggerConfig, Map<String, String> connections, Map<String, String> fields) throws ScraperConfigurationException {
+        this(jobName, triggerConfig, connections, fields, null);
+    }
+
+    /**
+     * @param overrunPolicy handling of runs which are due while the previous scrape is still in progress,
+     *                      {@link OverrunPolicy#SKIP} if null.
+     */
+    public TriggeredScrapeJobImpl(String jobName, String triggerConfig, Map<String, String> connections, Map<String, String> fields, OverrunPolicy overrunPolicy) throws ScraperConfigurationException {
+        this(jobName, triggerConfig, connections, fields, overrunPolicy, null);
+    }
+
+    /**
+     * @param overrunPolicy handling of runs which are due while the previous scrape is still in progress,
+     *                      {@link OverrunPolicy#SKIP} if null.
+     * @param deadband      report-by-exception configuration, null reports every value.
+     */
+    public TriggeredScrapeJobImpl(String jobName, String triggerConfig, Map<String, String> connections, Map<String, String> fields, OverrunPolicy overrunPolicy, DeadbandConfiguration deadband) throws ScraperConfigurationException {
         this.jobName = jobName;
+        this.deadband = deadband;
+        this.overrunPolicy = (overrunPolicy != null) ? overrunPolicy : OverrunPolicy.SKIP;
         this.triggerConfig = triggerConfig;
         this.sourceConnections = connections;
         this.fields = fields;
@@ -71,4 +94,12 @@ public class TriggeredScrapeJobImpl implements ScrapeJob {
     public String getTriggerConfig() {
         return triggerConfig;
     }
+
+    public OverrunPolicy getOverrunPolicy() {
+        return overrunPolicy;
+    }
+
+    public DeadbandConfiguration getDeadband() {
+        return deadband;
+    }
 }
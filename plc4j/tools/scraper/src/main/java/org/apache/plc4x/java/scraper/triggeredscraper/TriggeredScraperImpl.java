@@ -24,12 +24,9 @@ import org.apache.commons.collections4.multimap.ArrayListValuedHashMap;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
-import org.apache.commons.pool2.impl.GenericKeyedObjectPool;
-import org.apache.commons.pool2.impl.GenericKeyedObjectPoolConfig;
 import org.apache.plc4x.java.PlcDriverManager;
 import org.apache.plc4x.java.api.PlcConnection;
-import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
-import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
+import org.apache.plc4x.java.api.PlcDriver;
 import org.apache.plc4x.java.api.messages.PlcReadResponse;
 import org.apache.plc4x.java.scraper.*;
 import org.apache.plc4x.java.scraper.config.ScraperConfiguration;
@@ -37,12 +34,15 @@ import org.apache.plc4x.java.scraper.exception.ScraperException;
 import org.apache.plc4x.java.scraper.config.triggeredscraper.ScraperConfigurationTriggeredImpl;
 import org.apache.plc4x.java.scraper.triggeredscraper.triggerhandler.collector.TriggerCollector;
 import org.apache.plc4x.java.scraper.util.PercentageAboveThreshold;
-import org.apache.plc4x.java.api.PlcDriver;
+import org.apache.plc4x.java.utils.connectionpool.MultiplexingPlcDriverManager;
 import org.apache.plc4x.java.utils.connectionpool.PooledPlcDriverManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -67,17 +67,25 @@ public class TriggeredScraperImpl implements Scraper, TriggeredScraperMBean {
     private static final String MX_DOMAIN = "org.apache.plc4x.java";
 
     private static final int DEFAULT_FUTURE_TIME_OUT = 2000;
+    // The scheduler threads only start scrapes, they never wait for a response.
+    private static final int DEFAULT_POOL_SIZE_SCHEDULER = 2;
+    private static final int DEFAULT_POOL_SIZE_EXECUTOR = 5;
+    // Jobs due within this time are merged into one request per connection.
+    private static final long DEFAULT_BATCH_WINDOW_MS = 1;
 
     private final ScheduledExecutorService scheduler;
+    private final ScrapeScheduler scrapeScheduler;
     private final ExecutorService executorService;
+    private final ReadRequestAggregator readRequestAggregator;
 
     private final ResultHandler resultHandler;
 
     private final MultiValuedMap<ScrapeJob, ScraperTask> tasks = new ArrayListValuedHashMap<>();
-    private final MultiValuedMap<ScraperTask, ScheduledFuture<?>> scraperTaskMap = new ArrayListValuedHashMap<>();
+    private final MultiValuedMap<ScraperTask, ScrapeScheduler.Schedule> scraperTaskMap = new ArrayListValuedHashMap<>();
     private final PlcDriverManager driverManager;
     private final List<ScrapeJob> jobs;
     private MBeanServer mBeanServer;
+    private final List<ObjectName> taskMBeanNames = new ArrayList<>();
 
     private long futureTimeOut;
 
@@ -85,14 +93,14 @@ public class TriggeredScraperImpl implements Scraper, TriggeredScraperMBean {
 
     /**
      * Creates a Scraper instance from a configuration.
-     * By default a {@link PooledPlcDriverManager} is used.
+     * By default a {@link MultiplexingPlcDriverManager} is used.
      * @param config Configuration to use.
      * @param resultHandler handler the defines the processing of acquired data
      * @param triggerCollector the trigger collector
      * @throws ScraperException something went wrong
      */
     public TriggeredScraperImpl(ScraperConfiguration config, ResultHandler resultHandler, TriggerCollector triggerCollector) throws ScraperException {
-        this(resultHandler, createPooledDriverManager(), config.getJobs(),triggerCollector,DEFAULT_FUTURE_TIME_OUT);
+        this(resultHandler, new MultiplexingPlcDriverManager(), config.getJobs(),triggerCollector,DEFAULT_FUTURE_TIME_OUT);
     }
 
     /**
@@ -130,13 +138,28 @@ public class TriggeredScraperImpl implements Scraper, TriggeredScraperMBean {
      * @param futureTimeOut max duration of future to return a result
      */
     public TriggeredScraperImpl(ResultHandler resultHandler, PlcDriverManager plcDriverManager, List<ScrapeJob> jobs,TriggerCollector triggerCollector, long futureTimeOut) {
-        this(resultHandler,plcDriverManager,jobs,triggerCollector,futureTimeOut,20,5);
+        this(resultHandler,plcDriverManager,jobs,triggerCollector,futureTimeOut,DEFAULT_POOL_SIZE_SCHEDULER,DEFAULT_POOL_SIZE_EXECUTOR);
     }
 
     public TriggeredScraperImpl(ResultHandler resultHandler, PlcDriverManager plcDriverManager, List<ScrapeJob> jobs,TriggerCollector triggerCollector, long futureTimeOut, int poolSizeScheduler, int poolSizeExecutor) {
+        this(resultHandler,plcDriverManager,jobs,triggerCollector,futureTimeOut,poolSizeScheduler,poolSizeExecutor,true);
+    }
+
+    /**
+     * Creates a Scraper instance from a list of jobs.
+     * @param plcDriverManager external DriverManager
+     * @param resultHandler handler the defines the processing of acquired data
+     * @param jobs list of jobs that scraper shall handle
+     * @param triggerCollector a collection that centralizes the trigger requests and joins them to grouped plc requests
+     * @param futureTimeOut max duration of future to return a result
+     * @param poolSizeScheduler the pool size of the scheduler
+     * @param poolSizeExecutor the pool size of the executor
+     * @param aggregateRequests if true, the fields of all jobs due at the same time are read with one request per connection
+     */
+    public TriggeredScraperImpl(ResultHandler resultHandler, PlcDriverManager plcDriverManager, List<ScrapeJob> jobs,TriggerCollector triggerCollector, long futureTimeOut, int poolSizeScheduler, int poolSizeExecutor, boolean aggregateRequests) {
         this.resultHandler = resultHandler;
         Validate.notEmpty(jobs);
-        if (!(plcDriverManager instanceof PooledPlcDriverManager)) {
+        if (!isPooled(plcDriverManager)) {
             LOGGER.warn("The Triggered Scraper is intended to be used with a Pooled Connection. In other situations leaks could occur!");
         }
         this.driverManager = plcDriverManager;
@@ -150,6 +173,10 @@ public class TriggeredScraperImpl implements Scraper, TriggeredScraperMBean {
                 .daemon(false)
                 .build()
         );
+        this.scrapeScheduler = new ScrapeScheduler(scheduler);
+        this.readRequestAggregator = aggregateRequests
+            ? new ReadRequestAggregator(plcDriverManager, scheduler, futureTimeOut, DEFAULT_BATCH_WINDOW_MS)
+            : null;
 
         this.executorService = Executors.newFixedThreadPool(poolSizeExecutor,
             new BasicThreadFactory.Builder()
@@ -159,9 +186,9 @@ public class TriggeredScraperImpl implements Scraper, TriggeredScraperMBean {
         );
 
 
+        mBeanServer = ManagementFactory.getPlatformMBeanServer();
         // Register MBean
-        /*mBeanServer = ManagementFactory.getPlatformMBeanServer();
-        try {
+        /*try {
             mBeanServer.registerMBean(this, new ObjectName(MX_DOMAIN, "scraper", "scraper"));
         } catch (InstanceAlreadyExistsException | MBeanRegistrationException | NotCompliantMBeanException | MalformedObjectNameException e) {
             LOGGER.debug("Unable to register Scraper as MBean", e);
@@ -169,21 +196,6 @@ public class TriggeredScraperImpl implements Scraper, TriggeredScraperMBean {
     }
 
 
-    /**
-     * Min Idle per Key is set to 1 for situations where the network is broken.
-     * Then, on reconnect we can fail all getConnection calls (in the ScraperTask) fast until
-     * (in the background) the idle connection is created and the getConnection call returns fast.
-     */
-    private static PooledPlcDriverManager createPooledDriverManager() {
-        return new PooledPlcDriverManager(pooledPlcConnectionFactory -> {
-            GenericKeyedObjectPoolConfig<PlcConnection> poolConfig = new GenericKeyedObjectPoolConfig<>();
-            poolConfig.setMinIdlePerKey(1);
-            poolConfig.setTestOnBorrow(true);
-            poolConfig.setTestOnReturn(true);
-            return new GenericKeyedObjectPool<>(pooledPlcConnectionFactory, poolConfig);
-        });
-    }
-
     /**
      * Start the scraping.
      */
@@ -192,6 +204,7 @@ public class TriggeredScraperImpl implements Scraper, TriggeredScraperMBean {
     public void start() {
         // Schedule all jobs
         LOGGER.info("Starting jobs...");
+        Map<String, Long> phaseOffsets = getPhaseOffsets(jobs, readRequestAggregator != null);
         //start iterating over all available jobs
         for(ScrapeJob job:jobs){
             //iterate over all source the jobs shall performed on
@@ -215,6 +228,8 @@ public class TriggeredScraperImpl implements Scraper, TriggeredScraperMBean {
                         job.getFields(),
                         futureTimeOut,
                         executorService,
+                        scheduler,
+                        readRequestAggregator,
                         resultHandler,
                         (TriggeredScrapeJobImpl) job,
                         triggerCollector);
@@ -225,10 +240,17 @@ public class TriggeredScraperImpl implements Scraper, TriggeredScraperMBean {
                     }
                     registerTaskMBean(triggeredScraperTask);
                     tasks.put(job, triggeredScraperTask);
-                    ScheduledFuture<?> future = scheduler.scheduleAtFixedRate(triggeredScraperTask, 0, job.getScrapeRate(), TimeUnit.MILLISECONDS);
+                    String scheduleName = job.getJobName() + "/" + sourceEntry.getKey();
+                    ScrapeScheduler.Schedule schedule = scrapeScheduler.schedule(
+                        scheduleName,
+                        triggeredScraperTask::runAsync,
+                        phaseOffsets.get(scheduleName),
+                        job.getScrapeRate(),
+                        ((TriggeredScrapeJobImpl) job).getOverrunPolicy());
 
                     // Store the handle for stopping, etc.
-                    scraperTaskMap.put(triggeredScraperTask, future);
+                    triggeredScraperTask.setSchedule(schedule);
+                    scraperTaskMap.put(triggeredScraperTask, schedule);
                 } catch (ScraperException e) {
                     LOGGER.warn("Error executing the job {} for conn {} ({}) at rate {} ms",job.getJobName(), sourceEntry.getKey(), sourceEntry.getValue(), job.getScrapeRate(),e);
                 }
@@ -250,45 +272,135 @@ public class TriggeredScraperImpl implements Scraper, TriggeredScraperMBean {
                     LOGGER.debug(msg);
                 }
             }
+            if(LOGGER.isDebugEnabled()) {
+                for (Map.Entry<ScraperTask, ScrapeScheduler.Schedule> entry : scraperTaskMap.entries()) {
+                    TriggeredScraperTaskMBean task = (TriggeredScraperTaskMBean) entry.getKey();
+                    LOGGER.debug(String.format(Locale.ENGLISH, "Schedule statistics (%s) mean lag: %.2f ms, 99th percentile lag: %.2f ms, mean jitter: %.2f ms, max jitter: %.2f ms, skipped runs: %d, backlog: %d",
+                        entry.getValue(), task.getMeanLagMs(), task.getLagPercentile99Ms(),
+                        task.getMeanJitterMs(), task.getMaxJitterMs(),
+                        task.getSkippedRuns(), task.getBacklogSize()));
+                }
+                if (readRequestAggregator != null) {
+                    LOGGER.debug("Request aggregation: {} reads sent with {} requests",
+                        readRequestAggregator.getReadCounter(), readRequestAggregator.getRequestCounter());
+                }
+            }
         }, 1_000, 1_000, TimeUnit.MILLISECONDS);
     }
 
     /**
-     * Register a task as MBean
+     * Tasks sharing a connection are spread over their cycle, so they don't all hit the PLC at the same time.
+     * If the requests are aggregated, the tasks of a connection with the same scrape rate form a group, which is
+     * started together, so its fields are read with one request. Then the groups are spread over the cycle instead.
+     *
+     * @param jobs              jobs to schedule
+     * @param aggregateRequests true if the requests of the jobs are aggregated
+     * @return delay of the first scrape in ms for each schedule (named "{job name}/{connection alias}")
+     */
+    static Map<String, Long> getPhaseOffsets(List<ScrapeJob> jobs, boolean aggregateRequests) {
+        Map<String, List<Object>> groupsPerConnection = new HashMap<>();
+        for (ScrapeJob job : jobs) {
+            for (Map.Entry<String, String> sourceEntry : job.getSourceConnections().entrySet()) {
+                List<Object> groups = groupsPerConnection.computeIfAbsent(sourceEntry.getValue(), connection -> new ArrayList<>());
+                Object group = getScheduleGroup(job, sourceEntry.getKey(), aggregateRequests);
+                if (!groups.contains(group)) {
+                    groups.add(group);
+                }
+            }
+        }
+        Map<String, Long> phaseOffsets = new HashMap<>();
+        for (ScrapeJob job : jobs) {
+            for (Map.Entry<String, String> sourceEntry : job.getSourceConnections().entrySet()) {
+                List<Object> groups = groupsPerConnection.get(sourceEntry.getValue());
+                int slot = groups.indexOf(getScheduleGroup(job, sourceEntry.getKey(), aggregateRequests));
+                phaseOffsets.put(job.getJobName() + "/" + sourceEntry.getKey(),
+                    getPhaseOffset(slot, groups.size(), job.getScrapeRate()));
+            }
+        }
+        return phaseOffsets;
+    }
+
+    private static Object getScheduleGroup(ScrapeJob job, String connectionAlias, boolean aggregateRequests) {
+        return aggregateRequests ? (Object) job.getScrapeRate() : job.getJobName() + "/" + connectionAlias;
+    }
+
+    /**
+     * @param slot  index of the task (or group of tasks) among the ones using the same connection
+     * @param count number of tasks (or groups of tasks) using the same connection
+     * @param rate  scrape rate of the task in ms
+     * @return delay of the first scrape of the task in ms
+     */
+    static long getPhaseOffset(int slot, long count, long rate) {
+        return (count <= 1) ? 0 : (slot * rate) / count;
+    }
+
+    /**
+     * Register a task as MBean, it's unregistered again when stopping the scraper.
      * @param task task to register
      */
     private void registerTaskMBean(ScraperTask task) {
-        /*try {
-            mBeanServer.registerMBean(task, new ObjectName(MX_DOMAIN + ":type=ScrapeTask,name=" + task.getJobName() + "-" + task.getConnectionAlias()));
+        try {
+            ObjectName name = getTaskObjectName(task);
+            mBeanServer.registerMBean(task, name);
+            taskMBeanNames.add(name);
         } catch (InstanceAlreadyExistsException | MBeanRegistrationException | NotCompliantMBeanException | MalformedObjectNameException e) {
             LOGGER.debug("Unable to register Task as MBean", e);
-        }*/
+        }
+    }
+
+    /**
+     * @param task task to get the name for
+     * @return name the MBean of the task is registered with
+     * @throws MalformedObjectNameException if no valid name can be created
+     */
+    static ObjectName getTaskObjectName(ScraperTask task) throws MalformedObjectNameException {
+        return new ObjectName(MX_DOMAIN + ":type=ScrapeTask,name="
+            + ObjectName.quote(task.getJobName() + "-" + task.getConnectionAlias()));
     }
 
     @Override
     public void stop() {
         // Stop all futures
         LOGGER.info("Stopping scraper...");
-        for (Map.Entry<ScraperTask, ScheduledFuture<?>> entry : scraperTaskMap.entries()) {
+        for (Map.Entry<ScraperTask, ScrapeScheduler.Schedule> entry : scraperTaskMap.entries()) {
             LOGGER.debug("Stopping task {}...", entry.getKey());
-            entry.getValue().cancel(true);
+            entry.getValue().cancel();
         }
         // Clear the map
         scraperTaskMap.clear();
+        for (ObjectName name : taskMBeanNames) {
+            try {
+                mBeanServer.unregisterMBean(name);
+            } catch (InstanceNotFoundException | MBeanRegistrationException e) {
+                LOGGER.debug("Unable to unregister Task MBean {}", name, e);
+            }
+        }
+        taskMBeanNames.clear();
+    }
+
+    /**
+     * @param plcDriverManager driver manager to check
+     * @return true if the connections of the driver manager are pooled (so they may be requested for every scrape).
+     */
+    public static boolean isPooled(PlcDriverManager plcDriverManager) {
+        return (plcDriverManager instanceof MultiplexingPlcDriverManager)
+            || (plcDriverManager instanceof PooledPlcDriverManager);
     }
 
     /**
      * acquires a plc connection from connection pool
      * @param plcDriverManager  Driver manager handling connection and pools
      * @param connectionString  Connection string as defined in the regarding implementation of {@link PlcDriver}
-     * @param executorService   ExecuterService holding a pool as threads handling requests and stuff
+     * @param executorService   not used anymore, the connection is acquired asynchronously by the driver manager
      * @param requestTimeoutMs  maximum awaiting for the the future to return a result
      * @param info              additional info for trace reasons
      * @return the {@link PlcConnection} used for acquiring data from PLC endpoint
      * @throws InterruptedException something went wrong
      * @throws ExecutionException something went wrong
      * @throws TimeoutException something went wrong
+     * @deprecated blocks the calling thread, use {@link PlcDriverManager#getConnectionAsync(String)} instead
      */
+    @Deprecated
     public static PlcConnection getPlcConnection(PlcDriverManager plcDriverManager,
                                                  String connectionString,
                                                  ExecutorService executorService,
@@ -297,43 +409,34 @@ public class TriggeredScraperImpl implements Scraper, TriggeredScraperMBean {
         if(!info.isEmpty() && LOGGER.isTraceEnabled()){
             LOGGER.trace("Additional Info from caller {}", info);
         }
-        CompletableFuture<PlcConnection> future = CompletableFuture.supplyAsync(() -> {
-            try {
-                return plcDriverManager.getConnection(connectionString);
-            } catch (PlcConnectionException e) {
-                LOGGER.warn("Unable to instantiate connection to " + connectionString, e);
-                throw new PlcRuntimeException(e);
-            }
-            catch (Exception e){
-                LOGGER.warn("Unable to instantiate connection to " + connectionString, e);
-                throw new PlcRuntimeException(e);
-            }
-        }, executorService);
         if(LOGGER.isTraceEnabled()){
             LOGGER.trace("try to get a connection to {}", connectionString);
         }
-        PlcConnection plcConnection=null;
+        CompletableFuture<PlcConnection> future = plcDriverManager.getConnectionAsync(connectionString);
         try {
-            plcConnection = future.get(requestTimeoutMs, TimeUnit.MILLISECONDS);
+            return future.get(requestTimeoutMs, TimeUnit.MILLISECONDS);
         }
-        catch (Exception e){
+        catch (InterruptedException | ExecutionException | TimeoutException e){
+            // Hand back the connection, if it only arrives after the caller gave up on it.
+            future.thenAccept(TriggeredScraperImpl::closeQuietly);
             LOGGER.trace("Additional Info from caller {}", info,e);
             throw e;
         }
-        return plcConnection;
     }
 
     /**
      * acquires a plc connection from connection pool
      * @param plcDriverManager  Driver manager handling connection and pools
      * @param connectionString  Connection string as defined in the regarding implementation of {@link PlcDriver}
-     * @param executorService   ExecuterService holding a pool as threads handling requests and stuff
+     * @param executorService   not used anymore, the connection is acquired asynchronously by the driver manager
      * @param requestTimeoutMs  maximum awaiting for the the future to return a result
      * @return the {@link PlcConnection} used for acquiring data from PLC endpoint
      * @throws InterruptedException something went wrong
      * @throws ExecutionException something went wrong
      * @throws TimeoutException something went wrong
+     * @deprecated blocks the calling thread, use {@link PlcDriverManager#getConnectionAsync(String)} instead
      */
+    @Deprecated
     public static PlcConnection getPlcConnection(PlcDriverManager plcDriverManager,
                                                  String connectionString,
                                                  ExecutorService executorService,
@@ -341,6 +444,14 @@ public class TriggeredScraperImpl implements Scraper, TriggeredScraperMBean {
         return getPlcConnection(plcDriverManager,connectionString,executorService,requestTimeoutMs,"");
     }
 
+    private static void closeQuietly(PlcConnection plcConnection) {
+        try {
+            plcConnection.close();
+        } catch (Exception e) {
+            LOGGER.warn("Could not close connection ...", e);
+        }
+    }
+
     /**
      * transforms the results from a {@link PlcReadResponse} into a map
      * @param plcReadResponse response that shall be converted to map for further processing
@@ -364,6 +475,6 @@ public class TriggeredScraperImpl implements Scraper, TriggeredScraperMBean {
 
     @Override
     public int getNumberOfActiveTasks() {
-        return (int) scraperTaskMap.entries().stream().filter(entry -> !entry.getValue().isDone()).count();
+        return (int) scraperTaskMap.entries().stream().filter(entry -> !entry.getValue().isCancelled()).count();
     }
 }
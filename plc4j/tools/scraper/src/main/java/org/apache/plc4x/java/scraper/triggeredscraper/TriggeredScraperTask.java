@@ -19,11 +19,9 @@
 
 package org.apache.plc4x.java.scraper.triggeredscraper;
 
-import org.apache.commons.lang3.time.StopWatch;
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.apache.plc4x.java.PlcDriverManager;
 import org.apache.plc4x.java.api.PlcConnection;
-import org.apache.plc4x.java.api.messages.PlcReadRequest;
 import org.apache.plc4x.java.api.messages.PlcReadResponse;
 import org.apache.plc4x.java.api.types.PlcResponseCode;
 import org.apache.plc4x.java.scraper.ResultHandler;
@@ -32,14 +30,17 @@ import org.apache.plc4x.java.scraper.exception.ScraperException;
 import org.apache.plc4x.java.scraper.triggeredscraper.triggerhandler.TriggerHandler;
 import org.apache.plc4x.java.scraper.triggeredscraper.triggerhandler.TriggerHandlerImpl;
 import org.apache.plc4x.java.scraper.triggeredscraper.triggerhandler.collector.TriggerCollector;
+import org.apache.plc4x.java.scraper.util.CompletableFutures;
+import org.apache.plc4x.java.scraper.util.PreparedReadRequestCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -57,15 +58,40 @@ public class TriggeredScraperTask implements ScraperTask, TriggeredScraperTaskMB
     private final Map<String, String> fields;
     private final long requestTimeoutMs;
     private final ExecutorService executorService;
+    private final ScheduledExecutorService timeoutScheduler;
+    private final ReadRequestAggregator readRequestAggregator;
     private final ResultHandler resultHandler;
     private final TriggerHandler triggerHandler;
+    private final DeadbandFilter deadbandFilter;
 
     private final AtomicLong requestCounter = new AtomicLong(0);
     private final AtomicLong successCounter = new AtomicLong(0);
     private final DescriptiveStatistics latencyStatistics = new DescriptiveStatistics(1000);
     private final DescriptiveStatistics failedStatistics = new DescriptiveStatistics(1000);
 
+    private final PreparedReadRequestCache readRequestCache;
 
+    // Set once the task has been scheduled, provides the timing statistics.
+    private volatile ScrapeScheduler.Schedule schedule;
+
+    public TriggeredScraperTask(PlcDriverManager driverManager,
+                                String jobName,
+                                String connectionAlias,
+                                String connectionString,
+                                Map<String, String> fields,
+                                long requestTimeoutMs,
+                                ExecutorService executorService,
+                                ResultHandler resultHandler,
+                                TriggeredScrapeJobImpl triggeredScrapeJob,
+                                TriggerCollector triggerCollector) throws ScraperException {
+        this(driverManager, jobName, connectionAlias, connectionString, fields, requestTimeoutMs, executorService,
+            null, resultHandler, triggeredScrapeJob, triggerCollector);
+    }
+
+    /**
+     * @param executorService  executor the results are handled with.
+     * @param timeoutScheduler scheduler for the request timeouts of {@link #runAsync()} (null disables them).
+     */
     public TriggeredScraperTask(PlcDriverManager driverManager,
                                 String jobName,
                                 String connectionAlias,
@@ -73,6 +99,29 @@ public class TriggeredScraperTask implements ScraperTask, TriggeredScraperTaskMB
                                 Map<String, String> fields,
                                 long requestTimeoutMs,
                                 ExecutorService executorService,
+                                ScheduledExecutorService timeoutScheduler,
+                                ResultHandler resultHandler,
+                                TriggeredScrapeJobImpl triggeredScrapeJob,
+                                TriggerCollector triggerCollector) throws ScraperException {
+        this(driverManager, jobName, connectionAlias, connectionString, fields, requestTimeoutMs, executorService,
+            timeoutScheduler, null, resultHandler, triggeredScrapeJob, triggerCollector);
+    }
+
+    /**
+     * @param executorService       executor the results are handled with.
+     * @param timeoutScheduler      scheduler for the request timeouts of {@link #runAsync()} (null disables them).
+     * @param readRequestAggregator aggregator merging the reads with the ones of other tasks on the same connection
+     *                              (null sends a request of its own for every scrape).
+     */
+    public TriggeredScraperTask(PlcDriverManager driverManager,
+                                String jobName,
+                                String connectionAlias,
+                                String connectionString,
+                                Map<String, String> fields,
+                                long requestTimeoutMs,
+                                ExecutorService executorService,
+                                ScheduledExecutorService timeoutScheduler,
+                                ReadRequestAggregator readRequestAggregator,
                                 ResultHandler resultHandler,
                                 TriggeredScrapeJobImpl triggeredScrapeJob,
                                 TriggerCollector triggerCollector) throws ScraperException {
@@ -81,90 +130,114 @@ public class TriggeredScraperTask implements ScraperTask, TriggeredScraperTaskMB
         this.connectionAlias = connectionAlias;
         this.connectionString = connectionString;
         this.fields = fields;
+        this.readRequestCache = new PreparedReadRequestCache(fields);
         this.requestTimeoutMs = requestTimeoutMs;
         this.executorService = executorService;
+        this.timeoutScheduler = timeoutScheduler;
+        this.readRequestAggregator = readRequestAggregator;
         this.resultHandler = resultHandler;
         this.triggerHandler = new TriggerHandlerImpl(triggeredScrapeJob.getTriggerConfig(),triggeredScrapeJob,this,triggerCollector);
+        this.deadbandFilter = (triggeredScrapeJob.getDeadband() != null)
+            ? new DeadbandFilter(triggeredScrapeJob.getDeadband(), fields.keySet())
+            : null;
     }
 
+    /**
+     * Performs a single scrape and blocks till it's finished.
+     */
     @Override
     public void run() {
+        runAsync().join();
+    }
+
+    /**
+     * Performs a single scrape (if the trigger is met) without blocking: the connection is requested and the read
+     * request is sent asynchronously and the response is handled as soon as it arrives.
+     *
+     * @return future completed as soon as the scrape is finished. It never completes exceptionally, as all errors
+     * are handled by this task.
+     */
+    public CompletableFuture<Void> runAsync() {
         if(LOGGER.isTraceEnabled()) {
             LOGGER.trace("Check condition for task of job {} for connection {}", jobName, connectionAlias);
         }
-        if(this.triggerHandler.checkTrigger()) {
-            // Does a single fetch only when trigger is valid
-            if(LOGGER.isDebugEnabled()) {
-                LOGGER.debug("Trigger for job {} and device {} is met ... scraping desired data", jobName, connectionAlias);
-            }
-            if(LOGGER.isTraceEnabled()) {
-                LOGGER.trace("Start new scrape of task of job {} for connection {}", jobName, connectionAlias);
-            }
-            requestCounter.incrementAndGet();
-            StopWatch stopWatch = new StopWatch();
-            stopWatch.start();
-            PlcConnection connection = null;
-            try {
-                String info = "";
-                if(LOGGER.isTraceEnabled()) {
-                    info = String.format("acquiring data collecting connection to (%s,%s)", connectionAlias,jobName);
-                    LOGGER.trace("acquiring data collecting connection to ({},{})", connectionAlias,jobName);
-                }
-                connection = TriggeredScraperImpl.getPlcConnection(driverManager,connectionString,executorService,requestTimeoutMs,info);
-                if(LOGGER.isTraceEnabled()) {
-                    LOGGER.trace("Connection to {} established: {}", connectionString, connection);
-                }
-
-                PlcReadResponse plcReadResponse;
-                try {
-                    PlcReadRequest.Builder readRequestBuilder = connection.readRequestBuilder();
-                    for(Map.Entry<String,String> entry:fields.entrySet()){
-                        if(LOGGER.isTraceEnabled()) {
-                            LOGGER.trace("Requesting: {} -> {}", entry.getKey(), entry.getValue());
-                        }
-                        readRequestBuilder.addItem(entry.getKey(),entry.getValue());
-                    }
-                    //build and send request and store result in read response
-                    plcReadResponse = readRequestBuilder
-                        .build()
-                        .execute()
-                        .get(requestTimeoutMs, TimeUnit.MILLISECONDS);
-                } catch (ExecutionException e) {
-                    // Handle execution exception
-                    handleException(e);
-                    return;
+        if(!this.triggerHandler.checkTrigger()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        // Does a single fetch only when trigger is valid
+        if(LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Trigger for job {} and device {} is met ... scraping desired data", jobName, connectionAlias);
+        }
+        if(LOGGER.isTraceEnabled()) {
+            LOGGER.trace("Start new scrape of task of job {} for connection {}", jobName, connectionAlias);
+        }
+        requestCounter.incrementAndGet();
+        long startNanos = System.nanoTime();
+        CompletableFuture<ReadRequestAggregator.Result> resultFuture = (readRequestAggregator != null)
+            ? readRequestAggregator.read(connectionString, fields)
+            : readDirectly();
+        return resultFuture
+            .handle((result, throwable) -> {
+                if (throwable != null) {
+                    Throwable cause = (throwable instanceof CompletionException) ? throwable.getCause() : throwable;
+                    LOGGER.warn("Exception during scraping of Job {}, Connection-Alias {}: Error-message: {} - for stack-trace change logging to DEBUG", jobName,connectionAlias,cause.getMessage());
+                    handleException((cause instanceof Exception) ? (Exception) cause : new ExecutionException(cause));
+                    return null;
                 }
-
                 // Add statistics
                 LOGGER.debug("Performing statistics");
-                stopWatch.stop();
-                latencyStatistics.addValue(stopWatch.getNanoTime());
+                latencyStatistics.addValue(System.nanoTime() - startNanos);
                 failedStatistics.addValue(0.0);
                 successCounter.incrementAndGet();
                 // Validate response
-                validateResponse(plcReadResponse);
-                // Handle response (Async)
-                CompletableFuture.runAsync(() -> resultHandler.handle(jobName, connectionAlias, TriggeredScraperImpl.convertPlcResponseToMap(plcReadResponse)), executorService);
-            } catch (Exception e) {
-                LOGGER.warn("Exception during scraping of Job {}, Connection-Alias {}: Error-message: {} - for stack-trace change logging to DEBUG", jobName,connectionAlias,e.getCause());
-                handleException(e);
-            } finally {
-                if (connection != null) {
-                    try {
-                        connection.close();
-                    } catch (Exception e) {
-                        LOGGER.warn("Error on closing connection",e);
+                validateResponse(result);
+                // Only pass on the fields which changed (if configured)
+                Map<String, Object> values = result.toMap();
+                if (deadbandFilter != null) {
+                    values = deadbandFilter.filter(values);
+                    if (values.isEmpty()) {
+                        LOGGER.trace("No changes outside the deadband for job {} and device {}", jobName, connectionAlias);
+                        return null;
                     }
                 }
+                Map<String, Object> reportedValues = values;
+                // Handle response (Async)
+                CompletableFuture.runAsync(() -> resultHandler.handle(jobName, connectionAlias, reportedValues), executorService);
+                return null;
+            });
+    }
+
+    /**
+     * Reads the fields of this task with a request of its own.
+     */
+    private CompletableFuture<ReadRequestAggregator.Result> readDirectly() {
+        CompletableFuture<PlcConnection> connectionFuture = driverManager.getConnectionAsync(connectionString);
+        CompletableFuture<PlcReadResponse> responseFuture = CompletableFutures.thenComposeCancellable(connectionFuture, connection -> {
+            if(LOGGER.isTraceEnabled()) {
+                LOGGER.trace("Connection to {} established: {}", connectionString, connection);
             }
+            //send request and store result in read response
+            return readRequestCache.getReadRequest(connection).execute();
+        });
+        return CompletableFutures.withTimeout(responseFuture, requestTimeoutMs, timeoutScheduler)
+            // Hand back the connection, even if it only arrives after the timeout.
+            .whenComplete((plcReadResponse, throwable) -> connectionFuture.thenAccept(this::closeConnection))
+            .thenApply(ReadRequestAggregator.Result::of);
+    }
+
+    private void closeConnection(PlcConnection connection) {
+        try {
+            connection.close();
+        } catch (Exception e) {
+            LOGGER.warn("Error on closing connection",e);
         }
     }
 
     /**
-     * detects if {@link PlcReadResponse} is valid
-     * @param response the {@link PlcReadResponse} that should be validated
+     * detects if the result of a read is valid
+     * @param response the {@link ReadRequestAggregator.Result} that should be validated
      */
-    private void validateResponse(PlcReadResponse response) {
+    private void validateResponse(ReadRequestAggregator.Result response) {
         Map<String, PlcResponseCode> failedFields = response.getFieldNames().stream()
             .filter(name -> !PlcResponseCode.OK.equals(response.getResponseCode(name)))
             .collect(Collectors.toMap(
@@ -230,6 +303,10 @@ public class TriggeredScraperTask implements ScraperTask, TriggeredScraperTaskMB
         return requestTimeoutMs;
     }
 
+    void setSchedule(ScrapeScheduler.Schedule schedule) {
+        this.schedule = schedule;
+    }
+
     @Override
     public String toString() {
         return "TriggeredScraperTask{" +
@@ -270,4 +347,34 @@ public class TriggeredScraperTask implements ScraperTask, TriggeredScraperTaskMB
         }
         return percentiles;
     }
+
+    @Override
+    public double getMeanLagMs() {
+        return (schedule != null) ? schedule.getLagStatistics().getMean() * 1e-6 : Double.NaN;
+    }
+
+    @Override
+    public double getLagPercentile99Ms() {
+        return (schedule != null) ? schedule.getLagStatistics().getPercentile(99) * 1e-6 : Double.NaN;
+    }
+
+    @Override
+    public double getMeanJitterMs() {
+        return (schedule != null) ? schedule.getJitterStatistics().getMean() * 1e-6 : Double.NaN;
+    }
+
+    @Override
+    public double getMaxJitterMs() {
+        return (schedule != null) ? schedule.getJitterStatistics().getMax() * 1e-6 : Double.NaN;
+    }
+
+    @Override
+    public long getSkippedRuns() {
+        return (schedule != null) ? schedule.getSkippedRuns() : 0;
+    }
+
+    @Override
+    public int getBacklogSize() {
+        return (schedule != null) ? schedule.getBacklogSize() : 0;
+    }
 }
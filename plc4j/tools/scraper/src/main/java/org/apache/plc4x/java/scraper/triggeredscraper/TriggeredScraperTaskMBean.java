@@ -32,4 +32,34 @@ public interface TriggeredScraperTaskMBean {
 
     String[] getPercentiles();
 
+    /**
+     * @return mean delay between the planned and the actual start of the scrapes in ms.
+     */
+    double getMeanLagMs();
+
+    /**
+     * @return 99th percentile of the delay between the planned and the actual start of the scrapes in ms.
+     */
+    double getLagPercentile99Ms();
+
+    /**
+     * @return mean deviation of the interval between two scrapes from the scrape rate in ms.
+     */
+    double getMeanJitterMs();
+
+    /**
+     * @return maximum deviation of the interval between two scrapes from the scrape rate in ms.
+     */
+    double getMaxJitterMs();
+
+    /**
+     * @return number of runs which were dropped because the previous scrape was still in progress.
+     */
+    long getSkippedRuns();
+
+    /**
+     * @return number of runs which are queued to be started once the current scrape completes.
+     */
+    int getBacklogSize();
+
 }
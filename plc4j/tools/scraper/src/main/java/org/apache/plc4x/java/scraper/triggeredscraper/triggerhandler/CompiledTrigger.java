@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.plc4x.java.scraper.triggeredscraper.triggerhandler;
+
+import org.apache.plc4x.java.scraper.exception.ScraperConfigurationException;
+import org.apache.plc4x.java.scraper.triggeredscraper.triggerhandler.TriggerConfiguration.Comparator;
+import org.apache.plc4x.java.scraper.triggeredscraper.triggerhandler.TriggerConfiguration.ConcatType;
+import org.apache.plc4x.java.scraper.triggeredscraper.triggerhandler.TriggerConfiguration.TriggerElement;
+
+import java.util.List;
+
+/**
+ * Trigger condition compiled once from the {@link TriggerElement}s of a {@link TriggerConfiguration}.
+ * <p>
+ * Every element becomes a condition specialized on its data type, comparator and reference value, and the
+ * conditions are combined from left to right with their AND/OR. Numeric values are compared as primitive doubles
+ * and all intermediate results are kept in preallocated arrays, so checking a trigger doesn't allocate anything.
+ * <p>
+ * Conditions comparing with the previous value ({@code PREV}) or having a hysteresis keep state, so an instance
+ * must only be evaluated by one thread at a time (a trigger is checked by the single scrape of its task anyway).
+ */
+final class CompiledTrigger {
+
+    private static final double TOLERANCE_FLOATING_EQUALITY = 1e-6;
+
+    private final Condition[] conditions;
+    // Concatenation of each condition with the result of the ones before (the first one is unused).
+    private final ConcatType[] concatTypes;
+    private final boolean[] results;
+
+    private CompiledTrigger(Condition[] conditions, ConcatType[] concatTypes) {
+        this.conditions = conditions;
+        this.concatTypes = concatTypes;
+        this.results = new boolean[conditions.length];
+    }
+
+    static CompiledTrigger compile(List<TriggerElement> triggerElements) throws ScraperConfigurationException {
+        Condition[] conditions = new Condition[triggerElements.size()];
+        ConcatType[] concatTypes = new ConcatType[triggerElements.size()];
+        for (int i = 0; i < conditions.length; i++) {
+            TriggerElement triggerElement = triggerElements.get(i);
+            conditions[i] = compile(triggerElement);
+            concatTypes[i] = triggerElement.getConcatType();
+        }
+        return new CompiledTrigger(conditions, concatTypes);
+    }
+
+    private static Condition compile(TriggerElement triggerElement) throws ScraperConfigurationException {
+        Comparator comparator = triggerElement.getComparatorType();
+        if (TriggerConfiguration.validateDataType(triggerElement.getPlcField()).equals(Boolean.class)) {
+            return new BooleanCondition((Boolean) triggerElement.getCompareValue(), comparator == Comparator.EQUAL);
+        }
+        NumericComparator numericComparator = NumericComparator.of(comparator);
+        if (triggerElement.getPreviousMode()) {
+            return new PreviousValueCondition(numericComparator);
+        }
+        double reference = ((Number) triggerElement.getCompareValue()).doubleValue();
+        double hysteresis = triggerElement.getHysteresis();
+        if (hysteresis > 0) {
+            boolean rising = (comparator == Comparator.GREATER) || (comparator == Comparator.GREATER_EQUAL);
+            return new HysteresisCondition(numericComparator, reference, rising ? -hysteresis : hysteresis);
+        }
+        return new ConstantCondition(numericComparator, reference);
+    }
+
+    /**
+     * @param values acquired values of the trigger variables in the order of the trigger elements.
+     * @return true if the trigger condition is met.
+     */
+    boolean evaluate(Object[] values) {
+        if (values.length != conditions.length) {
+            return false;
+        }
+        for (int i = 0; i < conditions.length; i++) {
+            if (!conditions[i].accepts(values[i])) {
+                return false;
+            }
+        }
+        // Every condition is evaluated (no short circuit), as they track the values they have seen.
+        for (int i = 0; i < conditions.length; i++) {
+            results[i] = conditions[i].test(values[i]);
+        }
+        boolean combinedResult = results[0];
+        for (int i = 1; i < results.length; i++) {
+            if (concatTypes[i] == ConcatType.AND) {
+                combinedResult = combinedResult && results[i];
+            } else {
+                combinedResult = combinedResult || results[i];
+            }
+        }
+        if (combinedResult) {
+            for (Condition condition : conditions) {
+                condition.triggered();
+            }
+        }
+        return combinedResult;
+    }
+
+    /**
+     * check for approximate equality to avoid "Floating-point expressions shall not be tested for equality or inequality." Sonar-Bug
+     */
+    private static boolean isApproximately(double self, double other) {
+        return Math.abs(self - other) <= TOLERANCE_FLOATING_EQUALITY;
+    }
+
+    @FunctionalInterface
+    private interface NumericComparator {
+
+        boolean compare(double value, double reference);
+
+        static NumericComparator of(Comparator comparator) throws ScraperConfigurationException {
+            switch (comparator) {
+                case EQUAL:
+                    return CompiledTrigger::isApproximately;
+                case UNEQUAL:
+                    return (value, reference) -> !isApproximately(value, reference);
+                case SMALLER:
+                    return (value, reference) -> value < reference;
+                case SMALLER_EQUAL:
+                    return (value, reference) -> value <= reference;
+                case GREATER:
+                    return (value, reference) -> value > reference;
+                case GREATER_EQUAL:
+                    return (value, reference) -> value >= reference;
+                default:
+                    throw new ScraperConfigurationException("Invalid comparator detected!");
+            }
+        }
+    }
+
+    private abstract static class Condition {
+
+        /**
+         * @return true if the value has the type the condition expects.
+         */
+        abstract boolean accepts(Object value);
+
+        abstract boolean test(Object value);
+
+        /**
+         * Called when the whole trigger condition was met.
+         */
+        void triggered() {
+            // Stateless by default.
+        }
+    }
+
+    private static final class BooleanCondition extends Condition {
+
+        private final boolean reference;
+        private final boolean equal;
+
+        private BooleanCondition(boolean reference, boolean equal) {
+            this.reference = reference;
+            this.equal = equal;
+        }
+
+        @Override
+        boolean accepts(Object value) {
+            return value instanceof Boolean;
+        }
+
+        @Override
+        boolean test(Object value) {
+            return (((Boolean) value) == reference) == equal;
+        }
+    }
+
+    private abstract static class NumericCondition extends Condition {
+
+        @Override
+        final boolean accepts(Object value) {
+            return value instanceof Number;
+        }
+
+        @Override
+        final boolean test(Object value) {
+            return test(((Number) value).doubleValue());
+        }
+
+        abstract boolean test(double value);
+    }
+
+    private static final class ConstantCondition extends NumericCondition {
+
+        private final NumericComparator comparator;
+        private final double reference;
+
+        private ConstantCondition(NumericComparator comparator, double reference) {
+            this.comparator = comparator;
+            this.reference = reference;
+        }
+
+        @Override
+        boolean test(double value) {
+            return comparator.compare(value, reference);
+        }
+    }
+
+    /**
+     * Becomes true as soon as the value passes the reference, but only becomes false again once the value passed
+     * back beyond the hysteresis band, so a value jittering around the reference doesn't toggle the trigger.
+     */
+    private static final class HysteresisCondition extends NumericCondition {
+
+        private final NumericComparator comparator;
+        private final double reference;
+        private final double releaseReference;
+
+        private boolean active;
+
+        /**
+         * @param releaseOffset offset of the reference while the condition is active (towards the release direction).
+         */
+        private HysteresisCondition(NumericComparator comparator, double reference, double releaseOffset) {
+            this.comparator = comparator;
+            this.reference = reference;
+            this.releaseReference = reference + releaseOffset;
+        }
+
+        @Override
+        boolean test(double value) {
+            active = comparator.compare(value, active ? releaseReference : reference);
+            return active;
+        }
+    }
+
+    /**
+     * Compares with the value seen when the trigger fired the last time: the first value always matches, afterwards
+     * the reference is moved to the last matching value whenever the whole trigger condition is met.
+     */
+    private static final class PreviousValueCondition extends NumericCondition {
+
+        private final NumericComparator comparator;
+
+        private boolean initialized;
+        private double reference;
+        private double matchedValue;
+
+        private PreviousValueCondition(NumericComparator comparator) {
+            this.comparator = comparator;
+        }
+
+        @Override
+        boolean test(double value) {
+            if (!initialized) {
+                initialized = true;
+                reference = value;
+                matchedValue = value;
+                return true;
+            }
+            boolean result = comparator.compare(value, reference);
+            if (result) {
+                matchedValue = value;
+            }
+            return result;
+        }
+
+        @Override
+        void triggered() {
+            reference = matchedValue;
+        }
+    }
+}
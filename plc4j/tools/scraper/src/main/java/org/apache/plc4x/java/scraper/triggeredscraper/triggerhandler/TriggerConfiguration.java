@@ -30,6 +30,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -44,15 +45,20 @@ public class TriggerConfiguration{
     private static final String SCHEDULED       = "SCHEDULED";
     private static final String PREVIOUS_DEF    = "PREV";
 
-    private static final double TOLERANCE_FLOATING_EQUALITY = 1e-6;
+    private static final String HYSTERESIS_SEPARATOR = ";";
 
     private static final Pattern TRIGGER_STRATEGY_PATTERN =
-        Pattern.compile("\\((?<strategy>[A-Z_0-9]+),(?<scheduledInterval>\\d+)(,(\\((?<triggerVar>[^!=<>()]+)\\))((?<comp>[!=<>]{1,2}))(\\((?<compVar>[PREVa-z0-9.\\-]+)\\))((?<concatConn>[ANDOR]{2,3})(\\((?<triggerVar2>[^!=<>()]+)\\))((?<comp2>[!=<>]{1,2}))(\\((?<compVar2>[PREVa-z0-9.\\-]+)\\)))?)?\\)");
+        Pattern.compile("\\((?<strategy>[A-Z_0-9]+),(?<scheduledInterval>\\d+)(,(?<conditions>.+))?\\)");
+
+    // one condition of the trigger, every condition but the first one starts with its concat to the ones before
+    private static final Pattern TRIGGER_CONDITION_PATTERN =
+        Pattern.compile("(?<concatConn>AND|OR)?\\((?<triggerVar>[^!=<>()]+)\\)(?<comp>[!=<>]{1,2})\\((?<compVar>[PREVa-z0-9.;\\-]+)\\)");
 
     private final TriggerType triggerType;
     private final Long scrapeInterval;
     private TriggeredScrapeJobImpl triggeredScrapeJobImpl;
     private List<TriggerElement> triggerElementList;
+    private CompiledTrigger compiledTrigger;
 
     /**
      * default constructor when an Field should be used for triggering
@@ -81,6 +87,7 @@ public class TriggerConfiguration{
                 throw new ScraperConfigurationException(exceptionMessage);
             }
             checkTriggerVarList();
+            this.compiledTrigger = CompiledTrigger.compile(this.triggerElementList);
 
             //ToDo add more and other trigger
         }
@@ -135,14 +142,29 @@ public class TriggerConfiguration{
     }
 
     /**
-     * evaluates the trigger dependent of base type and converts acquired respectively ref-value to the needed datatype
+     * evaluates the trigger with the acquired values of the trigger elements
      * @param acquiredValues acquired value
      * @return true when condition is matched, false otherwise
      * @throws ScraperException when something goes wrong
      */
     boolean evaluateTrigger(List<Object> acquiredValues) throws ScraperException {
-        TriggerEvaluation triggerEvaluation = new TriggerEvaluation(acquiredValues,triggerElementList);
-        return triggerEvaluation.evaluateTrigger();
+        return evaluateTrigger(acquiredValues.toArray());
+    }
+
+    /**
+     * evaluates the trigger with the acquired values of the trigger elements, using the conditions compiled once on creation
+     * @param acquiredValues acquired values in the order of the trigger elements
+     * @return true when condition is matched, false otherwise
+     * @throws ScraperException when the trigger has no conditions to evaluate
+     */
+    boolean evaluateTrigger(Object[] acquiredValues) throws ScraperException {
+        if(compiledTrigger==null){
+            throw new ScraperException("No trigger condition defined for trigger type "+triggerType);
+        }
+        if(logger.isTraceEnabled()){
+            logger.trace("eval values for job {} and {}: {}",triggeredScrapeJobImpl.getJobName(),triggerElementList.get(0).getPlcConnectionString(),Arrays.toString(acquiredValues));
+        }
+        return compiledTrigger.evaluate(acquiredValues);
     }
 
 
@@ -152,7 +174,7 @@ public class TriggerConfiguration{
      * @throws ScraperException when an unsupported Type is chosen,which is not (yet) implemented for comparison
      * ToDo check how to handle time-variables if needed
      */
-    private static Class<?> validateDataType(PlcField plcField) throws ScraperConfigurationException {
+    static Class<?> validateDataType(PlcField plcField) throws ScraperConfigurationException {
         if(plcField!=null){
             Class<?> javaDataType = plcField.getDefaultJavaType();
             if(!javaDataType.equals(Boolean.class)
@@ -172,190 +194,6 @@ public class TriggerConfiguration{
 
     }
 
-    /**
-     * nested class performing the trigger evaluation
-     */
-    class TriggerEvaluation{
-        private List<Object> acquiredValuesList;
-        private List<TriggerElement> triggerElementList;
-
-        TriggerEvaluation(List<Object> acquiredValuesList, List<TriggerElement> triggerElementList) {
-            this.acquiredValuesList = acquiredValuesList;
-            this.triggerElementList = triggerElementList;
-        }
-
-        /**
-         * does the evaluation of the trigger conditions are met
-         * //ToDo refactor this to improve readability
-         * @return true if trigger conditions are met, false otherwise
-         * @throws ScraperException if something went wrong
-         */
-        boolean evaluateTrigger() throws ScraperException {
-            List<Boolean> triggerResultList = new ArrayList<>();
-            if(logger.isTraceEnabled()){
-                String connString = "empty";
-                if(!triggerElementList.isEmpty()) {
-                    connString = triggerElementList.get(0).getPlcConnectionString();
-                }
-                logger.trace("eval values for job {} and {}: {}",triggeredScrapeJobImpl.getJobName(),connString,acquiredValuesList);
-            }
-            //iterate through all items of acquirement-list
-            for(int countElements=0; countElements<acquiredValuesList.size();countElements++){
-                TriggerElement triggerElement = triggerElementList.get(countElements);
-                Object acquiredObject = acquiredValuesList.get(countElements);
-                if(validateDataType(triggerElement.getPlcField()).equals(Boolean.class)){
-                    //if given type is Boolean
-                    boolean currentValue;
-                    boolean refValue;
-                    try{
-                        currentValue = (boolean) acquiredObject;
-                        refValue = (boolean) triggerElement.getCompareValue();
-                    }
-                    catch (Exception e){
-                        handleException(e);
-                        return false;
-                    }
-                    if(triggerElement.getComparatorType().equals(Comparator.EQUAL)){
-                        triggerResultList.add(currentValue == refValue);
-                    }
-                    else {
-                        triggerResultList.add(currentValue != refValue);
-                    }
-                }
-                if(validateDataType(triggerElement.getPlcField()).equals(Double.class)
-                    || validateDataType(triggerElement.getPlcField()).equals(Integer.class)
-                    || validateDataType(triggerElement.getPlcField()).equals(Long.class)) {
-                    //if given type is numerical
-                    boolean skipComparison = false; //comparison shall be skipped if previous values was null
-                    double currentValue;
-                    double refValue = 0;
-                    try{
-
-                        if(acquiredObject instanceof Short){
-                            currentValue = ((Short) acquiredObject).doubleValue();
-                        }
-                        else {
-                            if (acquiredObject instanceof Integer) {
-                                currentValue = ((Integer) acquiredObject).doubleValue();
-                            }
-                            else {
-                                if (acquiredObject instanceof Long) {
-                                    currentValue = ((Long) acquiredObject).doubleValue();
-                                }
-                                else{
-                                    if (acquiredObject instanceof Double) {
-                                        currentValue = (Double) acquiredObject;
-                                    }else {
-                                        currentValue = (double) acquiredObject;
-                                    }
-                                }
-                            }
-
-                        }
-                        if(triggerElement.getPreviousMode()){
-                            if(triggerElement.getCompareValue()==null){
-                                triggerElement.setCompareValue(currentValue);
-                                triggerElement.setReservedCompareValue(currentValue);
-                                triggerResultList.add(true);
-                                if(logger.isTraceEnabled()) {
-                                    logger.trace("Initially set compare value to {}", currentValue);
-                                }
-                                skipComparison=true;
-                            }
-                            else{
-                                refValue = (double) triggerElement.getCompareValue();
-                            }
-                        }
-                        else {
-                            refValue = (double) triggerElement.getCompareValue();
-                        }
-
-                    }
-                    catch (Exception e){
-                        handleException(e);
-                        return false;
-                    }
-
-                    boolean triggerResult = false;
-                    if(!skipComparison) {
-                        switch (triggerElement.getComparatorType()) {
-                            case EQUAL:
-                                triggerResult = isApproximately(currentValue, refValue, TOLERANCE_FLOATING_EQUALITY);
-                                break;
-                            case UNEQUAL:
-                                triggerResult = !isApproximately(currentValue, refValue, TOLERANCE_FLOATING_EQUALITY);
-                                break;
-                            case SMALLER:
-                                triggerResult = currentValue < refValue;
-                                break;
-                            case SMALLER_EQUAL:
-                                triggerResult = currentValue <= refValue;
-                                break;
-                            case GREATER:
-                                triggerResult = currentValue > refValue;
-                                break;
-                            case GREATER_EQUAL:
-                                triggerResult = currentValue >= refValue;
-                                break;
-                            default:
-                                triggerResult = false;
-                        }
-                    }
-
-                    if(triggerResult && triggerElement.getPreviousMode()){
-                        triggerElement.setReservedCompareValue(currentValue);
-                        if(logger.isTraceEnabled()) {
-                            logger.trace("Subcondition matched. Previous value: {}, current compare value {} for Job {}",
-                                triggerElement.getReservedCompareValue(),
-                                triggerElement.getCompareValue(),
-                                triggerElement.getTriggerJob());
-                        }
-                    }
-                    triggerResultList.add(triggerResult);
-
-                }
-
-            }
-            if(triggerResultList.isEmpty()){
-                if(logger.isDebugEnabled()) {
-                    logger.debug("No results could be acquired - setting trigger to false");
-                }
-                return false;
-            }
-            //check if there is more then one condition for trigger
-            if(triggerResultList.size()>1) {
-                if(logger.isTraceEnabled()) {
-                    logger.trace("{}", triggerResultList);
-                }
-                boolean combinedResult=triggerResultList.get(0);
-                for (int countElements = 1; countElements < acquiredValuesList.size(); countElements++) {
-                    switch (triggerElementList.get(countElements).getConcatType()){
-                        case AND:
-                            combinedResult = combinedResult && triggerResultList.get(countElements);
-                            break;
-                        case OR:
-                            combinedResult = combinedResult || triggerResultList.get(countElements);
-                            break;
-                        default:
-                            //should not happen
-                            combinedResult = false;
-                    }
-                }
-                if(combinedResult) {
-                    triggerElementList.forEach(TriggerElement::overrideCompareValue);
-                }
-                return combinedResult;
-            }
-            else{
-                if(triggerResultList.get(0)) {
-                    triggerElementList.forEach(TriggerElement::overrideCompareValue);
-                }
-                //return first result because its the only one
-                return triggerResultList.get(0);
-            }
-        }
-    }
-
     /**
      * creates the TriggerConfiguration for a given ScrapeJob from triggerConfig-String
      * @param jobTriggerStrategy config-string from file
@@ -373,56 +211,24 @@ public class TriggerConfiguration{
                 logger.debug("Strategy: {}, scheduled ms: {}", triggerStrategy, scheduledMs);
             }
 
-            String triggerVar = matcher.group("triggerVar");
-            String comparatorString = matcher.group("comp");
-            String comparatorVariable = matcher.group("compVar");
+            String conditions = matcher.group("conditions");
 
             switch (triggerStrategy){
                 case TRIGGER:
 
-                    if(triggerVar ==null || comparatorString==null || comparatorVariable==null){
+                    if(conditions==null){
                         throw new ScraperConfigurationException("TRIGGER_VAR trigger strategy needs the trigger-condition - information missing! given configString: "+jobTriggerStrategy);
                     }
 
-                    List<TriggerElement> triggerElements = new ArrayList<>();
-
                     //TODO Change this (probably only 1 source to get the connection directly)
                     String connectionString = triggeredScrapeJob.getSourceConnections().get(triggeredScrapeJob.getSourceConnections().keySet().iterator().next());
-                    TriggerElement triggerElement = new TriggerElement(
-                        comparatorString,
-                        null,
-                        comparatorVariable,
-                        triggerVar,
-                        triggerStrategy,
-                        connectionString);
-
-                    triggerElement.setTriggerJob(triggeredScrapeJob.getJobName());
-                    triggerElements.add(triggerElement);
-
-                    String concatConn = matcher.group("concatConn");
-                    String triggerVar2 = matcher.group("triggerVar2");
-                    String comparatorString2 = matcher.group("comp2");
-                    String comparatorVariable2 = matcher.group("compVar2");
-
-                    if(triggerVar2 != null && comparatorString2 != null && comparatorVariable2 != null && concatConn != null){
-                        TriggerElement triggerElement2 = new TriggerElement(
-                            comparatorString2,
-                            concatConn,
-                            comparatorVariable2,
-                            triggerVar2,
-                            triggerStrategy,
-                            connectionString);
-
-
-                        triggerElement2.setTriggerJob(triggeredScrapeJob.getJobName());
-                        triggerElements.add(triggerElement2);
-
+                    List<TriggerElement> triggerElements = parseConditions(conditions,triggerStrategy,connectionString,triggeredScrapeJob);
+                    if(triggerElements.isEmpty()){
+                        break;
                     }
-
-                    //ToDo add clever Strategy to concat more than two conditions if needed
                     return new TriggerConfiguration(TriggerType.TRIGGER_VAR,scheduledMs,triggerElements,triggeredScrapeJob);
                 case SCHEDULED:
-                    if(triggerVar !=null || comparatorString!=null || comparatorVariable!=null){
+                    if(conditions!=null){
                         throw new ScraperConfigurationException("SCHEDULED trigger strategy must only be used with scheduled interval - nothing more!  given configString: "+jobTriggerStrategy);
                     }
                     return new TriggerConfiguration(TriggerType.SCHEDULED,scheduledMs);
@@ -435,6 +241,38 @@ public class TriggerConfiguration{
         throw new ScraperConfigurationException("Invalid trigger strategy string description: "+jobTriggerStrategy);
     }
 
+    /**
+     * splits the conditions of a trigger strategy into trigger elements (any number of conditions concatenated by AND or OR)
+     * @param conditions condition part of the config-string
+     * @param triggerStrategy used trigger strategy
+     * @param connectionString connection of the trigger variables
+     * @param triggeredScrapeJob job belonging to the config
+     * @return one trigger element per condition, empty if the conditions could not be parsed completely
+     * @throws ScraperConfigurationException when a condition is invalid
+     */
+    private static List<TriggerElement> parseConditions(String conditions, String triggerStrategy, String connectionString, TriggeredScrapeJobImpl triggeredScrapeJob) throws ScraperConfigurationException {
+        List<TriggerElement> triggerElements = new ArrayList<>();
+        Matcher matcher = TRIGGER_CONDITION_PATTERN.matcher(conditions);
+        int position = 0;
+        while(position<conditions.length()){
+            matcher.region(position,conditions.length());
+            if(!matcher.lookingAt() || (position==0 && matcher.group("concatConn")!=null)){
+                return new ArrayList<>();
+            }
+            TriggerElement triggerElement = new TriggerElement(
+                matcher.group("comp"),
+                matcher.group("concatConn"),
+                matcher.group("compVar"),
+                matcher.group("triggerVar"),
+                triggerStrategy,
+                connectionString);
+            triggerElement.setTriggerJob(triggeredScrapeJob.getJobName());
+            triggerElements.add(triggerElement);
+            position = matcher.end();
+        }
+        return triggerElements;
+    }
+
     private void handleException(Exception e){
         //push up if needed
         if(logger.isDebugEnabled()) {
@@ -454,18 +292,6 @@ public class TriggerConfiguration{
         return triggerElementList;
     }
 
-    /**
-     * check for approximate equality to avoid "Floating-point expressions shall not be tested for equality or inequality." Sonar-Bug
-     * @param self current value
-     * @param other reference value
-     * @param within tolerance band
-     * @return if approximate equal, false otherwise
-     */
-    private static boolean isApproximately(double self, double other, double within)
-    {
-        return Math.abs(self - other) <= within;
-    }
-
     public enum Comparator {
         EQUAL,
         UNEQUAL,
@@ -493,6 +319,8 @@ public class TriggerConfiguration{
         //if trigger should be compared to previous value
         private Boolean previousMode;
         private Object compareValue;
+        //band the value has to pass back beyond the compare value before the condition is released again
+        private double hysteresis;
         private PlcField plcField;
         private String plcFieldString;
 
@@ -502,9 +330,6 @@ public class TriggerConfiguration{
 
         private String triggerJob;
 
-        //storage for overwrite if condition matched
-        private Object reservedCompareValue;
-
         public TriggerElement() {
             this.comparatorType = null;
             this.concatType = null;
@@ -512,7 +337,6 @@ public class TriggerConfiguration{
             this.compareValue = null;
             this.plcField = null;
             this.plcFieldString = null;
-            this.reservedCompareValue = null;
             this.plcConnectionString="not defined";
             this.triggerJob = "Not yet defined";
             this.uuid = "";
@@ -534,6 +358,12 @@ public class TriggerConfiguration{
             this.plcField = plcField;
         }
 
+        public TriggerElement(Comparator comparatorType, ConcatType concatType, double compareValue, double hysteresis, PlcField plcField) {
+            this(comparatorType, compareValue, plcField);
+            this.concatType = concatType;
+            this.hysteresis = hysteresis;
+        }
+
         TriggerElement(String comparator, String concatType, String compareValue, String plcField, String triggerStrategy, String plcConnectionString) throws ScraperConfigurationException {
             this();
             this.plcFieldString = plcField;
@@ -596,6 +426,11 @@ public class TriggerConfiguration{
                         this.previousMode=true;
                         return null;
                     }
+                    int hysteresisIndex = compareValue.indexOf(HYSTERESIS_SEPARATOR);
+                    if(hysteresisIndex>=0){
+                        this.hysteresis = Double.parseDouble(compareValue.substring(hysteresisIndex+1));
+                        compareValue = compareValue.substring(0,hysteresisIndex);
+                    }
                     return Double.parseDouble(compareValue);
                 }
                 catch (Exception e){
@@ -660,6 +495,14 @@ public class TriggerConfiguration{
                 String exceptionMessage = String.format("Trigger-Data-Type (%s) and Comparator (%s) do not match",this.plcField.getDefaultJavaType(),this.comparatorType);
                 throw new ScraperConfigurationException(exceptionMessage);
             }
+            if(this.hysteresis<0 || Double.isNaN(this.hysteresis) || Double.isInfinite(this.hysteresis)){
+                String exceptionMessage = String.format("Invalid hysteresis %s, it must be a finite number not below 0",this.hysteresis);
+                throw new ScraperConfigurationException(exceptionMessage);
+            }
+            if(this.hysteresis>0 && (this.comparatorType.equals(Comparator.EQUAL) || this.comparatorType.equals(Comparator.UNEQUAL))){
+                String exceptionMessage = String.format("Hysteresis can only be used with the comparators <, <=, > and >=, not with %s",this.comparatorType);
+                throw new ScraperConfigurationException(exceptionMessage);
+            }
             //all other combinations are valid
         }
 
@@ -679,6 +522,10 @@ public class TriggerConfiguration{
             return compareValue;
         }
 
+        double getHysteresis() {
+            return hysteresis;
+        }
+
         PlcField getPlcField() {
             return plcField;
         }
@@ -687,18 +534,6 @@ public class TriggerConfiguration{
             return plcFieldString;
         }
 
-        void setCompareValue(Object compareValue) {
-            this.compareValue = compareValue;
-        }
-
-        Object getReservedCompareValue() {
-            return reservedCompareValue;
-        }
-
-        void setReservedCompareValue(Object reservedCompareValue) {
-            this.reservedCompareValue = reservedCompareValue;
-        }
-
         String getTriggerJob() {
             return triggerJob;
         }
@@ -707,15 +542,6 @@ public class TriggerConfiguration{
             this.triggerJob = triggerJob;
         }
 
-        void overrideCompareValue(){
-            if(this.previousMode && this.reservedCompareValue!=null){
-                if(logger.isDebugEnabled()) {
-                    logger.debug("Compare value overridden, before: {}, now: {}; for Trigger {}", this.compareValue, this.reservedCompareValue, this.triggerJob);
-                }
-                this.compareValue = this.reservedCompareValue;
-            }
-        }
-
         public String getPlcConnectionString() {
             return plcConnectionString;
         }
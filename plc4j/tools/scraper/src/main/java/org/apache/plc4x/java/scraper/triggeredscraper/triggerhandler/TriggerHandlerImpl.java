@@ -25,7 +25,7 @@ import org.apache.plc4x.java.scraper.triggeredscraper.triggerhandler.collector.T
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.*;
+import java.util.List;
 
 /**
  * holds the handler for the regarding trigger-scraper on rising-trigger edge
@@ -37,6 +37,9 @@ public class TriggerHandlerImpl implements TriggerHandler {
 
     private final TriggerCollector triggerCollector;
 
+    //reused for every check, filled in the order of the trigger elements
+    private final Object[] acquiredValues;
+
     //used to enable trigger only on rising edge
     private boolean lastTriggerState;
 
@@ -49,6 +52,7 @@ public class TriggerHandlerImpl implements TriggerHandler {
             triggerElement.setUuid(triggerCollector.submitTrigger(triggerElement.getPlcFieldString(),parentScraperTask.getConnectionString(),this.triggerConfiguration.getScrapeInterval()));
         }
 
+        this.acquiredValues = new Object[triggerConfiguration.getTriggerElementList().size()];
         this.lastTriggerState = false;
         this.triggerCollector = triggerCollector;
     }
@@ -64,9 +68,8 @@ public class TriggerHandlerImpl implements TriggerHandler {
                 //used base scheduling -> trigger is always true
                 return true;
             case S7_TRIGGER_VAR:
-                return checkS7TriggerVariable();
             case TRIGGER_VAR:
-                return checkGenericTrigger();
+                return checkTriggerVariable();
             default:
                 //should not happen
                 return false;
@@ -74,62 +77,28 @@ public class TriggerHandlerImpl implements TriggerHandler {
     }
 
     /**
-     * acquires the given S7Field from S7 and evaluates if trigger is released
+     * acquires the values of the trigger variables and evaluates if trigger is released
      * @return true if rising-edge of trigger is detected, false otherwise
      */
-    private boolean checkS7TriggerVariable(){
-
-        List<Object> acquiredValuesList = new ArrayList<>();
-        for(TriggerConfiguration.TriggerElement triggerElement:triggerConfiguration.getTriggerElementList()){
+    private boolean checkTriggerVariable(){
+        List<TriggerConfiguration.TriggerElement> triggerElements = triggerConfiguration.getTriggerElementList();
+        for(int i = 0; i < acquiredValues.length; i++){
             try {
-                Object result = triggerCollector.requestResult(triggerElement.getUuid());
+                Object result = triggerCollector.requestResult(triggerElements.get(i).getUuid());
                 if(result==null){
                     return false;
                 }
-                acquiredValuesList.add(result);
-            } catch (ScraperException e) {
-                LOGGER.warn("Went wrong",e);
-            }
-        }
-
-        //check if trigger condition from TriggerConfiguration is fulfilled
-        boolean trigger = false;
-        try {
-            trigger = triggerConfiguration.evaluateTrigger(acquiredValuesList);
-        } catch (ScraperException e) {
-            LOGGER.warn("Could not evaluate trigger");
-        }
-
-        //only trigger scraping of data on rising edge of trigger
-        if(trigger && !this.lastTriggerState){
-            this.lastTriggerState = true;
-            return true;
-        }
-        else{
-            this.lastTriggerState = trigger;
-            return false;
-        }
-
-    }
-
-    private boolean checkGenericTrigger(){
-        List<Object> acquiredValuesList = new ArrayList<>();
-        for(TriggerConfiguration.TriggerElement triggerElement:triggerConfiguration.getTriggerElementList()){
-            try {
-                Object result = triggerCollector.requestResult(triggerElement.getUuid());
-                if(result==null){
-                    return false;
-                }
-                acquiredValuesList.add(result);
+                acquiredValues[i] = result;
             } catch (ScraperException e) {
                 LOGGER.warn("Went wrong",e);
+                return false;
             }
         }
 
         //check if trigger condition from TriggerConfiguration is fulfilled
         boolean trigger = false;
         try {
-            trigger = triggerConfiguration.evaluateTrigger(acquiredValuesList);
+            trigger = triggerConfiguration.evaluateTrigger(acquiredValues);
         } catch (ScraperException e) {
             LOGGER.warn("Could not evaluate trigger");
         }
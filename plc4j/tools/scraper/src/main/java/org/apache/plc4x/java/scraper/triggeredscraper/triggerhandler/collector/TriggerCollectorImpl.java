@@ -25,7 +25,7 @@ import org.apache.plc4x.java.api.messages.PlcReadRequest;
 import org.apache.plc4x.java.api.messages.PlcReadResponse;
 import org.apache.plc4x.java.scraper.exception.ScraperException;
 import org.apache.plc4x.java.scraper.triggeredscraper.TriggeredScraperImpl;
-import org.apache.plc4x.java.utils.connectionpool.PooledPlcDriverManager;
+import org.apache.plc4x.java.scraper.util.CompletableFutures;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,10 +50,20 @@ public class TriggerCollectorImpl implements TriggerCollector {
     private final long futureTimeout;
 
     private final ScheduledExecutorService scheduledExecutorService;
-    private final ExecutorService executorService;
+    // Connections whose trigger request is still in progress.
+    private final Set<String> pendingConnections = ConcurrentHashMap.newKeySet();
 
+    /**
+     * @deprecated the trigger requests don't block any threads anymore, so one scheduler thread is enough and
+     * the executor isn't needed at all. Use {@link #TriggerCollectorImpl(PlcDriverManager, long, long)}.
+     */
+    @Deprecated
     public TriggerCollectorImpl(PlcDriverManager plcDriverManager, long schedulerInterval, long futureTimeout, int poolSizeScheduler, int poolSizeExecutor) {
-        if (!(plcDriverManager instanceof PooledPlcDriverManager)) {
+        this(plcDriverManager, schedulerInterval, futureTimeout, poolSizeScheduler);
+    }
+
+    private TriggerCollectorImpl(PlcDriverManager plcDriverManager, long schedulerInterval, long futureTimeout, int poolSizeScheduler) {
+        if (!TriggeredScraperImpl.isPooled(plcDriverManager)) {
             logger.warn("The Triggered Scraper is intended to be used with a Pooled Connection. In other situations leaks could occur!");
         }
         this.plcDriverManager = plcDriverManager;
@@ -67,17 +77,10 @@ public class TriggerCollectorImpl implements TriggerCollector {
                 .daemon(false)
                 .build()
         );
-        this.executorService = Executors.newFixedThreadPool(poolSizeExecutor,
-            new BasicThreadFactory.Builder()
-                .namingPattern("triggercollector-executerService-thread-%d")
-                .daemon(true)
-                .build()
-        );
-
     }
 
     public TriggerCollectorImpl(PlcDriverManager plcDriverManager, long schedulerInterval, long futureTimeout) {
-        this(plcDriverManager,schedulerInterval,futureTimeout,10,20);
+        this(plcDriverManager,schedulerInterval,futureTimeout,1);
     }
 
     public TriggerCollectorImpl(PlcDriverManager plcDriverManager) {
@@ -130,77 +133,71 @@ public class TriggerCollectorImpl implements TriggerCollector {
 
     /**
      * acquire all triggers within given interval from definition
+     * (one request per connection, which is processed asynchronously)
      */
     private void processActiveTrigger(){
         LocalDateTime currentTimestamp = LocalDateTime.now();
-        Map<String, PlcReadRequest.Builder> plcReadRequestBuilderMap = new HashMap<>();
-        Map<String, PlcReadResponse> plcReadResponseMap = new HashMap<>();
-        List<RequestElement> activeRequestElements = new ArrayList<>();
-        List<PlcConnection> plcConnectionList = new ArrayList<>();
-        PlcConnection plcConnection=null;
-        for(Map.Entry<String,RequestElement> entry:currentRequestElements.entrySet()){
-            if(entry.getValue().getLastAcquirement().isBefore(
+        Map<String, List<RequestElement>> activeRequestElements = new HashMap<>();
+        for(RequestElement requestElement:currentRequestElements.values()){
+            if(requestElement.getLastAcquirement().isBefore(
                 currentTimestamp
-                    .minus(entry.getValue().scanIntervalMs,ChronoUnit.MILLIS))
+                    .minus(requestElement.getScanIntervalMs(),ChronoUnit.MILLIS))
             ){
-                String plcConnectionString = entry.getValue().plcConnectionString;
-                if(!plcReadRequestBuilderMap.containsKey(plcConnectionString)){
-                    try {
-                        String info = "";
-                        if(logger.isTraceEnabled()) {
-                            info = String.format("acquiring trigger connection to (%s)", plcConnectionString);
-                            logger.trace("acquiring trigger connection to ({})", plcConnectionString);
-                        }
-                        plcConnection = TriggeredScraperImpl.getPlcConnection(plcDriverManager,plcConnectionString,executorService,futureTimeout,info);
-                        plcConnectionList.add(plcConnection);
-                        plcReadRequestBuilderMap.put(plcConnectionString,plcConnection.readRequestBuilder());
-                        plcReadRequestBuilderMap.get(plcConnectionString).addItem(entry.getKey(),entry.getValue().getPlcField());
-                        activeRequestElements.add(entry.getValue());
-                    } catch (InterruptedException e) {
-                        logger.warn("Acquirement of PLC-Connection was interrupted",e);
-                        Thread.currentThread().interrupt();
-                    } catch (ExecutionException e) {
-                        logger.warn("Acquirement of PLC-Connection could not be executed",e);
-                    } catch (TimeoutException e) {
-                        logger.warn("Acquirement of PLC-Connection was timeouted",e);
-                    }
-                }
-                else{
-                    plcReadRequestBuilderMap.get(plcConnectionString).addItem(entry.getKey(),entry.getValue().getPlcField());
-                    activeRequestElements.add(entry.getValue());
-                }
+                activeRequestElements.computeIfAbsent(requestElement.getPlcConnectionString(), key -> new ArrayList<>())
+                    .add(requestElement);
             }
         }
 
-        for(Map.Entry<String,PlcReadRequest.Builder> entry: plcReadRequestBuilderMap.entrySet()){
+        for(Map.Entry<String,List<RequestElement>> entry:activeRequestElements.entrySet()){
+            String plcConnectionString = entry.getKey();
+            if(!pendingConnections.add(plcConnectionString)){
+                if(logger.isTraceEnabled()) {
+                    logger.trace("Trigger request to {} still in progress", plcConnectionString);
+                }
+                continue;
+            }
+            if(logger.isTraceEnabled()) {
+                logger.trace("acquiring trigger connection to ({})", plcConnectionString);
+            }
             try {
-                PlcReadResponse plcReadResponse = entry.getValue().build().execute().get(futureTimeout, TimeUnit.MILLISECONDS);
-                plcReadResponseMap.put(entry.getKey(), plcReadResponse);
-            } catch (InterruptedException e) {
-                logger.warn("Extraction of PlcResponse was interrupted",e);
-                Thread.currentThread().interrupt();
-            } catch (ExecutionException e) {
-                logger.warn("Extraction of PlcResponse could not be executed",e);
-            } catch (TimeoutException e) {
-                logger.warn("Extraction of PlcResponse was timeouted",e);
+                CompletableFuture<PlcConnection> connectionFuture = plcDriverManager.getConnectionAsync(plcConnectionString);
+                CompletableFuture<PlcReadResponse> responseFuture = CompletableFutures.thenComposeCancellable(connectionFuture, plcConnection -> {
+                    PlcReadRequest.Builder readRequestBuilder = plcConnection.readRequestBuilder();
+                    for(RequestElement requestElement:entry.getValue()){
+                        readRequestBuilder.addItem(requestElement.getUuid(),requestElement.getPlcField());
+                    }
+                    return readRequestBuilder.build().execute();
+                });
+                CompletableFutures.withTimeout(responseFuture, futureTimeout, scheduledExecutorService)
+                    .whenComplete((plcReadResponse, throwable) -> {
+                        // Hand back the connection, even if it only arrives after the timeout.
+                        connectionFuture.thenAccept(this::closeConnection);
+                        pendingConnections.remove(plcConnectionString);
+                        if(throwable != null){
+                            logger.warn("Acquirement of triggers from {} failed", plcConnectionString, throwable);
+                            return;
+                        }
+                        LocalDateTime currentTime = LocalDateTime.now();
+                        for(RequestElement requestElement:entry.getValue()){
+                            requestElement.setResult(plcReadResponse.getObject(requestElement.getUuid()));
+                            requestElement.setLastAcquirement(currentTime);
+                        }
+                    });
+            } catch (RuntimeException e) {
+                // Thrown synchronously (e.g. by the driver on creating the connection), the connection must not stay
+                // pending and the exception must not escape, otherwise no trigger would ever be acquired again.
+                pendingConnections.remove(plcConnectionString);
+                logger.warn("Acquirement of triggers from {} failed", plcConnectionString, e);
             }
         }
+    }
 
-        LocalDateTime currentTime = LocalDateTime.now();
-        for(RequestElement requestElement:activeRequestElements){
-            requestElement.setResult(plcReadResponseMap.get(requestElement.getPlcConnectionString()).getObject(requestElement.getUuid()));
-            requestElement.setLastAcquirement(currentTime);
-        }
-        for(PlcConnection plcConnectionFromList:plcConnectionList){
-            if(plcConnectionFromList!=null){
-                try {
-                    plcConnectionFromList.close();
-                } catch (Exception e) {
-                    logger.warn("Could not close connection ...");
-                }
-            }
+    private void closeConnection(PlcConnection plcConnection) {
+        try {
+            plcConnection.close();
+        } catch (Exception e) {
+            logger.warn("Could not close connection ...");
         }
-
     }
 
     /**
@@ -239,15 +236,15 @@ public class TriggerCollectorImpl implements TriggerCollector {
     @Override
     public void stop() {
         this.scheduledExecutorService.shutdown();
-        this.executorService.shutdown();
     }
 
 
     class RequestElement{
         private String plcConnectionString;
         private String plcField;
-        private LocalDateTime lastAcquirement;
-        private Object result;
+        // Updated by the completion of the trigger requests.
+        private volatile LocalDateTime lastAcquirement;
+        private volatile Object result;
         private String uuid;
         private long scanIntervalMs;
 
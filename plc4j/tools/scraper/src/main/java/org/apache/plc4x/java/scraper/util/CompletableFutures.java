@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.scraper.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Helpers for chaining scrapes without blocking threads.
+ */
+public final class CompletableFutures {
+
+    private CompletableFutures() {
+        // Utility class
+    }
+
+    /**
+     * Java 8 lacks {@code CompletableFuture.orTimeout}, so the timeout is scheduled on the given scheduler.
+     * On a timeout the given future is cancelled, so a request which timed out isn't left pending while the next one
+     * is already sent.
+     *
+     * @param future    future to wait for.
+     * @param timeoutMs timeout in milliseconds (0 or less disables the timeout).
+     * @param scheduler scheduler running the timeout (null disables the timeout).
+     * @return future completed like the given one or exceptionally with a {@link TimeoutException}.
+     */
+    public static <T> CompletableFuture<T> withTimeout(CompletableFuture<T> future, long timeoutMs,
+                                                       ScheduledExecutorService scheduler) {
+        if ((scheduler == null) || (timeoutMs <= 0)) {
+            return future;
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        ScheduledFuture<?> timeout = scheduler.schedule(() -> {
+            result.completeExceptionally(new TimeoutException("No result within " + timeoutMs + " ms"));
+            future.cancel(false);
+        }, timeoutMs, TimeUnit.MILLISECONDS);
+        future.whenComplete((value, throwable) -> {
+            timeout.cancel(false);
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
+            } else {
+                result.complete(value);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Like {@link CompletableFuture#thenCompose(Function)}, but cancelling the returned future also cancels the future
+     * returned by the given function (e.g. the pending request), which {@code thenCompose} doesn't.
+     *
+     * @param future future to compose with.
+     * @param fn     function returning the next future, e.g. sending a request on the connection.
+     * @return future completed like the one returned by the function.
+     */
+    public static <T, U> CompletableFuture<U> thenComposeCancellable(CompletableFuture<T> future,
+                                                                     Function<? super T, ? extends CompletableFuture<? extends U>> fn) {
+        CompletableFuture<U> result = new CompletableFuture<>();
+        future.whenComplete((value, throwable) -> {
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
+                return;
+            }
+            CompletableFuture<? extends U> next;
+            try {
+                next = fn.apply(value);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            next.whenComplete((nextValue, nextThrowable) -> {
+                if (nextThrowable != null) {
+                    result.completeExceptionally(nextThrowable);
+                } else {
+                    result.complete(nextValue);
+                }
+            });
+            result.whenComplete((ignored, resultThrowable) -> {
+                if (result.isCancelled()) {
+                    next.cancel(false);
+                }
+            });
+        });
+        return result;
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.scraper.util;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.plc4x.java.api.PlcConnection;
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.metadata.PlcConnectionMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+
+/**
+ * Builds and prepares the read request of a scraper task only once per connection, so scraping doesn't have to
+ * parse the fields and split up the request again on every run. The prepared request is only valid for the
+ * connection it was prepared with: as pooled connections are wrapped in a new lease every time, the underlying
+ * connection is identified by its metadata.
+ */
+public class PreparedReadRequestCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PreparedReadRequestCache.class);
+
+    private final Map<String, String> fields;
+
+    private volatile Pair<PlcConnectionMetadata, PlcReadRequest> preparedReadRequest;
+
+    /**
+     * @param fields field queries to be read (by alias).
+     */
+    public PreparedReadRequestCache(Map<String, String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * @param connection connection the request is executed with.
+     * @return prepared read request, which is only prepared again if the connection changed.
+     */
+    public PlcReadRequest getReadRequest(PlcConnection connection) {
+        Pair<PlcConnectionMetadata, PlcReadRequest> prepared = preparedReadRequest;
+        PlcConnectionMetadata metadata = connection.getMetadata();
+        if ((prepared != null) && (metadata != null) && (prepared.getLeft() == metadata)) {
+            return prepared.getRight();
+        }
+        PlcReadRequest.Builder readRequestBuilder = connection.readRequestBuilder();
+        for (Map.Entry<String, String> entry : fields.entrySet()) {
+            if (LOGGER.isTraceEnabled()) {
+                LOGGER.trace("Requesting: {} -> {}", entry.getKey(), entry.getValue());
+            }
+            readRequestBuilder.addItem(entry.getKey(), entry.getValue());
+        }
+        PlcReadRequest readRequest = connection.prepareReadRequest(readRequestBuilder.build());
+        preparedReadRequest = Pair.of(metadata, readRequest);
+        return readRequest;
+    }
+
+}
@@ -27,6 +27,7 @@ import org.apache.plc4x.java.scraper.config.JobConfiguration;
 import org.apache.plc4x.java.scraper.config.JobConfigurationClassicImpl;
 import org.apache.plc4x.java.scraper.config.ScraperConfiguration;
 import org.apache.plc4x.java.scraper.config.ScraperConfigurationClassicImpl;
+import org.apache.plc4x.java.scraper.exception.ScraperConfigurationException;
 import org.apache.plc4x.java.scraper.exception.ScraperException;
 import org.assertj.core.api.WithAssertions;
 import org.junit.jupiter.api.Nested;
@@ -189,6 +190,43 @@ class ScraperConfigurationTest implements WithAssertions {
             .containsEntry("field1", "DB1 Field 1");
     }
 
+    @Test
+    void generateScrapeJobs_overrunPolicyOnClassicJob_throws() {
+        String yaml =   "sources:\n" +
+                        "  source1: 'connection string'\n" +
+                        "jobs:\n" +
+                        "  - name: job1\n" +
+                        "    scrapeRate: 10\n" +
+                        "    overrunPolicy: CATCH_UP\n" +
+                        "    sources:\n" +
+                        "      - source1\n" +
+                        "    fields:\n" +
+                        "      field1: 'DB1 Field 1'\n";
+
+        assertThatThrownBy(() -> ScraperConfiguration.fromYaml(yaml, ScraperConfigurationClassicImpl.class).getJobs())
+            .isInstanceOf(ScraperConfigurationException.class)
+            .hasMessageContaining("overrunPolicy");
+    }
+
+    @Test
+    void generateScrapeJobs_deadbandOnClassicJob_throws() {
+        String yaml =   "sources:\n" +
+                        "  source1: 'connection string'\n" +
+                        "jobs:\n" +
+                        "  - name: job1\n" +
+                        "    scrapeRate: 10\n" +
+                        "    deadband:\n" +
+                        "      absolute: 0.5\n" +
+                        "    sources:\n" +
+                        "      - source1\n" +
+                        "    fields:\n" +
+                        "      field1: 'DB1 Field 1'\n";
+
+        assertThatThrownBy(() -> ScraperConfiguration.fromYaml(yaml, ScraperConfigurationClassicImpl.class).getJobs())
+            .isInstanceOf(ScraperConfigurationException.class)
+            .hasMessageContaining("deadband");
+    }
+
     @Nested
     class Files {
 
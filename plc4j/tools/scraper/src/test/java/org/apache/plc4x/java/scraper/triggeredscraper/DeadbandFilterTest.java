@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.plc4x.java.scraper.triggeredscraper;
+
+import org.apache.plc4x.java.scraper.config.DeadbandConfiguration;
+import org.apache.plc4x.java.scraper.exception.ScraperConfigurationException;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+class DeadbandFilterTest implements WithAssertions {
+
+    @Test
+    void firstValuesAreAlwaysReported() {
+        DeadbandFilter SUT = new DeadbandFilter(new DeadbandConfiguration(10.0, null, null), Arrays.asList("a", "b"));
+        Map<String, Object> values = new HashMap<>();
+        values.put("a", 1);
+        values.put("b", "text");
+
+        assertThat(SUT.filter(values, 0)).isEqualTo(values);
+        assertThat(SUT.filter(values, 1)).isEmpty();
+    }
+
+    @Test
+    void changesWithinTheAbsoluteDeadbandAreSuppressed() {
+        DeadbandFilter SUT = new DeadbandFilter(new DeadbandConfiguration(0.5, null, null), Collections.singletonList("a"));
+
+        assertThat(SUT.filter(Collections.singletonMap("a", 10.0), 0)).containsEntry("a", 10.0);
+        assertThat(SUT.filter(Collections.singletonMap("a", 10.4), 1)).isEmpty();
+        // Compared with the last reported value, so creeping changes are reported eventually
+        assertThat(SUT.filter(Collections.singletonMap("a", 10.6), 2)).containsEntry("a", 10.6);
+        assertThat(SUT.filter(Collections.singletonMap("a", 10.2), 3)).isEmpty();
+    }
+
+    @Test
+    void changesHaveToExceedThePercentageDeadband() {
+        DeadbandFilter SUT = new DeadbandFilter(new DeadbandConfiguration(1.0, 5.0, null), Collections.singletonList("a"));
+
+        assertThat(SUT.filter(Collections.singletonMap("a", 100L), 0)).hasSize(1);
+        assertThat(SUT.filter(Collections.singletonMap("a", 104L), 1)).isEmpty();
+        assertThat(SUT.filter(Collections.singletonMap("a", 106L), 2)).hasSize(1);
+        // Near zero the absolute deadband is the lower bound
+        assertThat(SUT.filter(Collections.singletonMap("a", 0L), 3)).hasSize(1);
+        assertThat(SUT.filter(Collections.singletonMap("a", 1L), 4)).isEmpty();
+    }
+
+    @Test
+    void everyChangeIsReportedWithoutDeadbands() {
+        DeadbandFilter SUT = new DeadbandFilter(new DeadbandConfiguration(null, null, null), Arrays.asList("a", "b"));
+
+        assertThat(SUT.filter(Collections.singletonMap("a", 1), 0)).hasSize(1);
+        assertThat(SUT.filter(Collections.singletonMap("a", 1), 1)).isEmpty();
+        assertThat(SUT.filter(Collections.singletonMap("a", 2), 2)).hasSize(1);
+        assertThat(SUT.filter(Collections.singletonMap("b", true), 3)).hasSize(1);
+        assertThat(SUT.filter(Collections.singletonMap("b", true), 4)).isEmpty();
+        assertThat(SUT.filter(Collections.singletonMap("b", false), 5)).hasSize(1);
+        assertThat(SUT.filter(Collections.singletonMap("b", new byte[]{1, 2}), 6)).hasSize(1);
+        assertThat(SUT.filter(Collections.singletonMap("b", new byte[]{1, 2}), 7)).isEmpty();
+    }
+
+    @Test
+    void unchangedValuesAreReportedAfterTheMaxSilence() {
+        DeadbandFilter SUT = new DeadbandFilter(new DeadbandConfiguration(null, null, 1000L), Collections.singletonList("a"));
+        long second = TimeUnit.SECONDS.toNanos(1);
+
+        assertThat(SUT.filter(Collections.singletonMap("a", 1), 0)).hasSize(1);
+        assertThat(SUT.filter(Collections.singletonMap("a", 1), second - 1)).isEmpty();
+        assertThat(SUT.filter(Collections.singletonMap("a", 1), second)).hasSize(1);
+        assertThat(SUT.filter(Collections.singletonMap("a", 1), second + 1)).isEmpty();
+    }
+
+    @Test
+    void negativeDeadbandsAreRejected() {
+        assertThatThrownBy(() -> new DeadbandConfiguration(-1.0, null, null)).isInstanceOf(ScraperConfigurationException.class);
+    }
+}
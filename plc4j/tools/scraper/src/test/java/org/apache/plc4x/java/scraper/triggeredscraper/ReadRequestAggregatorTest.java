@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.plc4x.java.scraper.triggeredscraper;
+
+import org.apache.plc4x.java.PlcDriverManager;
+import org.apache.plc4x.java.api.PlcConnection;
+import org.apache.plc4x.java.api.exceptions.PlcInvalidFieldException;
+import org.apache.plc4x.java.api.metadata.PlcConnectionMetadata;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.api.value.PlcLong;
+import org.apache.plc4x.java.mock.connection.MockConnection;
+import org.apache.plc4x.java.mock.connection.MockDevice;
+import org.apache.plc4x.java.mock.field.MockFieldHandler;
+import org.apache.plc4x.java.spi.connection.PlcFieldHandler;
+import org.apache.plc4x.java.spi.messages.DefaultPlcReadRequest;
+import org.apache.plc4x.java.spi.messages.PlcReader;
+import org.apache.plc4x.java.spi.messages.utils.ResponseItem;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReadRequestAggregatorTest implements WithAssertions {
+
+    private static final String CONNECTION_STRING = "mock:aggregator";
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    private final PlcDriverManager driverManager = new PlcDriverManager();
+
+    private MockConnection connection;
+
+    private MockDevice mockDevice;
+
+    private ReadRequestAggregator SUT;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        connection = (MockConnection) driverManager.getConnection(CONNECTION_STRING);
+        mockDevice = Mockito.mock(MockDevice.class);
+        connection.setDevice(mockDevice);
+        SUT = new ReadRequestAggregator(driverManager, scheduler, 1000, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void readsOfTheSameTickAreMergedIntoOneRequest() throws Exception {
+        when(mockDevice.read("%DB1:DBW0:INT")).thenReturn(new ResponseItem<>(PlcResponseCode.OK, new PlcLong(1L)));
+        when(mockDevice.read("%DB1:DBW2:INT")).thenReturn(new ResponseItem<>(PlcResponseCode.OK, new PlcLong(2L)));
+        Map<String, String> fields = new HashMap<>();
+        fields.put("a", "%DB1:DBW0:INT");
+        fields.put("b", "%DB1:DBW2:INT");
+
+        CompletableFuture<ReadRequestAggregator.Result> first = SUT.read(CONNECTION_STRING, fields);
+        CompletableFuture<ReadRequestAggregator.Result> second = SUT.read(CONNECTION_STRING, Collections.singletonMap("c", "%DB1:DBW0:INT"));
+
+        ReadRequestAggregator.Result firstResult = first.get(1, TimeUnit.SECONDS);
+        assertThat(firstResult.getFieldNames()).containsOnly("a", "b");
+        assertThat(firstResult.getResponseCode("a")).isEqualTo(PlcResponseCode.OK);
+        assertThat(firstResult.getObject("a")).isEqualTo(1L);
+        assertThat(firstResult.getObject("b")).isEqualTo(2L);
+        ReadRequestAggregator.Result secondResult = second.get(1, TimeUnit.SECONDS);
+        assertThat(secondResult.toMap()).containsOnly(entry("c", 1L));
+
+        assertThat(SUT.getReadCounter()).isEqualTo(2);
+        assertThat(SUT.getRequestCounter()).isEqualTo(1);
+        // Fields read by both jobs are only requested once
+        verify(mockDevice, times(1)).read("%DB1:DBW0:INT");
+    }
+
+    @Test
+    void failedRequestFailsAllMergedReads() {
+        when(mockDevice.read(anyString())).thenThrow(new IllegalStateException("broken"));
+
+        CompletableFuture<ReadRequestAggregator.Result> first = SUT.read(CONNECTION_STRING, Collections.singletonMap("a", "%DB1:DBW0:INT"));
+        CompletableFuture<ReadRequestAggregator.Result> second = SUT.read(CONNECTION_STRING, Collections.singletonMap("b", "%DB1:DBW2:INT"));
+
+        assertThatThrownBy(() -> first.get(1, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+        assertThatThrownBy(() -> second.get(1, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+        assertThat(SUT.getRequestCounter()).isEqualTo(1);
+    }
+
+    @Test
+    void synchronousFailureFailsTheBatchAndLaterReadsAreStillSent() throws Exception {
+        PlcDriverManager failingDriverManager = Mockito.mock(PlcDriverManager.class);
+        when(failingDriverManager.getConnectionAsync(CONNECTION_STRING))
+            .thenThrow(new IllegalStateException("broken configuration"))
+            .thenAnswer(invocation -> driverManager.getConnectionAsync(CONNECTION_STRING));
+        when(mockDevice.read("%DB1:DBW0:INT")).thenReturn(new ResponseItem<>(PlcResponseCode.OK, new PlcLong(1L)));
+        SUT = new ReadRequestAggregator(failingDriverManager, scheduler, 1000, 10);
+
+        CompletableFuture<ReadRequestAggregator.Result> failed = SUT.read(CONNECTION_STRING, Collections.singletonMap("a", "%DB1:DBW0:INT"));
+        assertThatThrownBy(() -> failed.get(1, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasRootCauseInstanceOf(IllegalStateException.class);
+
+        CompletableFuture<ReadRequestAggregator.Result> succeeded = SUT.read(CONNECTION_STRING, Collections.singletonMap("a", "%DB1:DBW0:INT"));
+        assertThat(succeeded.get(1, TimeUnit.SECONDS).toMap()).containsOnly(entry("a", 1L));
+        assertThat(SUT.getRequestCounter()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidFieldOnlyFailsItsOwnRead() throws Exception {
+        when(mockDevice.read("%DB1:DBW0:INT")).thenReturn(new ResponseItem<>(PlcResponseCode.OK, new PlcLong(1L)));
+        PlcConnection spiedConnection = spiedConnection();
+        CompletableFuture<ReadRequestAggregator.Result> valid = SUT.read(CONNECTION_STRING, Collections.singletonMap("a", "%DB1:DBW0:INT"));
+        CompletableFuture<ReadRequestAggregator.Result> invalid = SUT.read(CONNECTION_STRING, Collections.singletonMap("b", "invalid"));
+
+        assertThat(valid.get(1, TimeUnit.SECONDS).toMap()).containsOnly(entry("a", 1L));
+        assertThatThrownBy(() -> invalid.get(1, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(PlcInvalidFieldException.class);
+        assertThat(SUT.getRequestCounter()).isEqualTo(1);
+        verify(spiedConnection, times(1)).prepareReadRequest(any());
+    }
+
+    @Test
+    void preparedRequestsAreReusedPerFieldSet() throws Exception {
+        when(mockDevice.read(anyString())).thenReturn(new ResponseItem<>(PlcResponseCode.OK, new PlcLong(1L)));
+        PlcConnection spiedConnection = spiedConnection();
+
+        // Jobs with different rates alternate between the field sets.
+        for (int i = 0; i < 3; i++) {
+            SUT.read(CONNECTION_STRING, Collections.singletonMap("a", "%DB1:DBW0:INT")).get(1, TimeUnit.SECONDS);
+            SUT.read(CONNECTION_STRING, Collections.singletonMap("b", "%DB1:DBW2:INT")).get(1, TimeUnit.SECONDS);
+        }
+
+        assertThat(SUT.getRequestCounter()).isEqualTo(6);
+        verify(spiedConnection, times(2)).prepareReadRequest(any());
+    }
+
+    /**
+     * @return connection handed out to the SUT, which rejects the field "invalid" and always has the same metadata.
+     */
+    private PlcConnection spiedConnection() {
+        PlcConnection spiedConnection = Mockito.spy(connection);
+        PlcFieldHandler fieldHandler = new MockFieldHandler() {
+            @Override
+            public PlcField createField(String fieldQuery) {
+                if ("invalid".equals(fieldQuery)) {
+                    throw new PlcInvalidFieldException(fieldQuery);
+                }
+                return super.createField(fieldQuery);
+            }
+        };
+        doAnswer(invocation -> new DefaultPlcReadRequest.Builder((PlcReader) spiedConnection, fieldHandler))
+            .when(spiedConnection).readRequestBuilder();
+        PlcConnectionMetadata metadata = connection.getMetadata();
+        doReturn(metadata).when(spiedConnection).getMetadata();
+        PlcDriverManager spiedDriverManager = Mockito.mock(PlcDriverManager.class);
+        when(spiedDriverManager.getConnectionAsync(CONNECTION_STRING))
+            .thenAnswer(invocation -> CompletableFuture.completedFuture(spiedConnection));
+        SUT = new ReadRequestAggregator(spiedDriverManager, scheduler, 1000, 10);
+        return spiedConnection;
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.plc4x.java.scraper.triggeredscraper;
+
+import org.apache.plc4x.java.scraper.ScrapeJob;
+import org.apache.plc4x.java.scraper.config.OverrunPolicy;
+import org.apache.plc4x.java.scraper.util.ManualTimer;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ScrapeSchedulerTest implements WithAssertions {
+
+    private final ManualTimer timer = new ManualTimer();
+
+    private final ScrapeScheduler SUT = new ScrapeScheduler(timer, timer::nanoTime);
+
+    @Test
+    void scrapesAreStartedAtTheRate() {
+        AtomicInteger scrapes = new AtomicInteger();
+        ScrapeScheduler.Schedule schedule = SUT.schedule("test", () -> {
+            scrapes.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        }, 5, 10);
+
+        timer.advance(4);
+        assertThat(scrapes.get()).isZero();
+        timer.advance(200);
+        schedule.cancel();
+
+        assertThat(schedule.isCancelled()).isTrue();
+        assertThat(scrapes.get()).isEqualTo(20);
+        assertThat(schedule.getSkippedRuns()).isZero();
+        assertThat(schedule.getLagStatistics().getMax()).isZero();
+        assertThat(schedule.getJitterStatistics().getMax()).isZero();
+        timer.advance(50);
+        assertThat(scrapes.get()).isEqualTo(20);
+    }
+
+    @Test
+    void runsAreSkippedWhileTheScrapeIsInProgress() {
+        AtomicInteger scrapes = new AtomicInteger();
+        CompletableFuture<Void> pendingScrape = new CompletableFuture<>();
+        ScrapeScheduler.Schedule schedule = SUT.schedule("test", () -> {
+            scrapes.incrementAndGet();
+            return pendingScrape;
+        }, 0, 10);
+
+        timer.advance(105);
+        assertThat(scrapes.get()).isEqualTo(1);
+        assertThat(schedule.getSkippedRuns()).isEqualTo(10);
+        assertThat(schedule.getBacklogSize()).isZero();
+
+        pendingScrape.complete(null);
+        timer.advance(0);
+        // The skipped runs are not made up for, the next scrape is started at its regular time.
+        assertThat(scrapes.get()).isEqualTo(1);
+        timer.advance(5);
+        assertThat(scrapes.get()).isEqualTo(2);
+    }
+
+    @Test
+    void coalescedRunsAreStartedOnceTheScrapeCompletes() {
+        AtomicInteger scrapes = new AtomicInteger();
+        CompletableFuture<Void> pendingScrape = new CompletableFuture<>();
+        ScrapeScheduler.Schedule schedule = SUT.schedule("test", () -> {
+            scrapes.incrementAndGet();
+            return pendingScrape;
+        }, 0, 10, OverrunPolicy.COALESCE);
+
+        timer.advance(105);
+        assertThat(scrapes.get()).isEqualTo(1);
+        assertThat(schedule.getBacklogSize()).isEqualTo(1);
+        assertThat(schedule.getSkippedRuns()).isEqualTo(9);
+
+        pendingScrape.complete(null);
+        timer.advance(0);
+        assertThat(scrapes.get()).isEqualTo(2);
+        assertThat(schedule.getBacklogSize()).isZero();
+        // The coalesced run was planned for 100 ms, but only started at 105 ms.
+        assertThat(schedule.getLagStatistics().getMax()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+    }
+
+    @Test
+    void deferredRunsAreNotStartedAfterCancel() {
+        AtomicInteger scrapes = new AtomicInteger();
+        CompletableFuture<Void> pendingScrape = new CompletableFuture<>();
+        ScrapeScheduler.Schedule schedule = SUT.schedule("test", () -> {
+            scrapes.incrementAndGet();
+            return pendingScrape;
+        }, 0, 10, OverrunPolicy.COALESCE);
+
+        timer.advance(15);
+        assertThat(schedule.getBacklogSize()).isEqualTo(1);
+
+        schedule.cancel();
+        pendingScrape.complete(null);
+        timer.advance(100);
+        assertThat(scrapes.get()).isEqualTo(1);
+    }
+
+    @Test
+    void deferredRunsAreCaughtUp() {
+        AtomicInteger scrapes = new AtomicInteger();
+        CompletableFuture<Void> pendingScrape = new CompletableFuture<>();
+        ScrapeScheduler.Schedule schedule = SUT.schedule("test", () -> {
+            scrapes.incrementAndGet();
+            return pendingScrape;
+        }, 0, 100, OverrunPolicy.CATCH_UP);
+
+        timer.advance(350);
+        assertThat(scrapes.get()).isEqualTo(1);
+        assertThat(schedule.getBacklogSize()).isEqualTo(3);
+
+        pendingScrape.complete(null);
+        timer.advance(0);
+        schedule.cancel();
+        assertThat(schedule.getBacklogSize()).isZero();
+        assertThat(scrapes.get()).isEqualTo(4);
+        assertThat(schedule.getSkippedRuns()).isZero();
+    }
+
+    @Test
+    void catchUpBacklogIsBounded() {
+        AtomicInteger scrapes = new AtomicInteger();
+        CompletableFuture<Void> pendingScrape = new CompletableFuture<>();
+        ScrapeScheduler.Schedule schedule = SUT.schedule("test", () -> {
+            scrapes.incrementAndGet();
+            return pendingScrape;
+        }, 0, 1, OverrunPolicy.CATCH_UP);
+
+        timer.advance(ScrapeScheduler.MAX_BACKLOG + 10);
+        assertThat(scrapes.get()).isEqualTo(1);
+        assertThat(schedule.getBacklogSize()).isEqualTo(ScrapeScheduler.MAX_BACKLOG);
+        assertThat(schedule.getSkippedRuns()).isEqualTo(10);
+        schedule.cancel();
+    }
+
+    @Test
+    void phaseOffsetsAreSpreadOverTheCycle() {
+        assertThat(TriggeredScraperImpl.getPhaseOffset(0, 1, 100)).isZero();
+        assertThat(TriggeredScraperImpl.getPhaseOffset(0, 4, 100)).isZero();
+        assertThat(TriggeredScraperImpl.getPhaseOffset(1, 4, 100)).isEqualTo(25);
+        assertThat(TriggeredScraperImpl.getPhaseOffset(3, 4, 100)).isEqualTo(75);
+    }
+
+    @Test
+    void tasksOnAConnectionAreStaggered() {
+        List<ScrapeJob> jobs = Arrays.asList(job("fast1", 100), job("fast2", 100), job("slow", 200));
+
+        Map<String, Long> phaseOffsets = TriggeredScraperImpl.getPhaseOffsets(jobs, false);
+
+        assertThat(phaseOffsets)
+            .containsEntry("fast1/a", 0L)
+            .containsEntry("fast2/a", 33L)
+            .containsEntry("slow/a", 133L)
+            .containsEntry("fast1/b", 0L)
+            .containsEntry("fast2/b", 33L)
+            .containsEntry("slow/b", 133L);
+    }
+
+    @Test
+    void aggregatedGroupsOnAConnectionAreStaggered() {
+        List<ScrapeJob> jobs = Arrays.asList(job("fast1", 100), job("fast2", 100), job("slow", 200));
+
+        Map<String, Long> phaseOffsets = TriggeredScraperImpl.getPhaseOffsets(jobs, true);
+
+        // Jobs with the same rate are started together, so their requests can be aggregated
+        assertThat(phaseOffsets)
+            .containsEntry("fast1/a", 0L)
+            .containsEntry("fast2/a", 0L)
+            .containsEntry("slow/a", 100L)
+            .containsEntry("fast1/b", 0L)
+            .containsEntry("fast2/b", 0L)
+            .containsEntry("slow/b", 100L);
+    }
+
+    private static ScrapeJob job(String name, long rate) {
+        Map<String, String> sourceConnections = new LinkedHashMap<>();
+        sourceConnections.put("a", "mock:a");
+        sourceConnections.put("b", "mock:b");
+        ScrapeJob job = mock(ScrapeJob.class);
+        when(job.getJobName()).thenReturn(name);
+        when(job.getScrapeRate()).thenReturn(rate);
+        when(job.getSourceConnections()).thenReturn(sourceConnections);
+        return job;
+    }
+}
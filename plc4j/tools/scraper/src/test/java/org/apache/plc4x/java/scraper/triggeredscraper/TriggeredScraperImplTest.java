@@ -39,9 +39,16 @@ import org.mockito.stubbing.Answer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.util.Random;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
@@ -113,4 +120,29 @@ public class TriggeredScraperImplTest {
 
         scraper.stop();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void tasksAreRegisteredAsMBeansWhileRunning() throws Exception {
+        when(mockDevice1.read(anyString())).thenReturn(new ResponseItem<>(PlcResponseCode.OK, new PlcBoolean(false)));
+        when(mockDevice2.read(anyString())).thenReturn(new ResponseItem<>(PlcResponseCode.OK, new PlcBoolean(false)));
+
+        ScraperConfiguration configuration = ScraperConfiguration.fromFile("src/test/resources/mock-scraper-config.yml", ScraperConfigurationClassicImpl.class);
+        TriggerCollector triggerCollector = new TriggerCollectorImpl(driverManager);
+        TriggeredScraperImpl scraper = new TriggeredScraperImpl((j, a, m) -> {}, driverManager, configuration.getJobs(), triggerCollector, 1000);
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName taskNames = new ObjectName("org.apache.plc4x.java:type=ScrapeTask,*");
+
+        scraper.start();
+        try {
+            // One task per job and source
+            assertEquals(8, mBeanServer.queryNames(taskNames, null).size());
+            ObjectName task = new ObjectName("org.apache.plc4x.java:type=ScrapeTask,name=\"scheduled-demo-job1-MOCK_1\"");
+            assertTrue(mBeanServer.isRegistered(task));
+            assertNotNull(mBeanServer.getAttribute(task, "ScrapesTotal"));
+        } finally {
+            scraper.stop();
+        }
+
+        assertTrue(mBeanServer.queryNames(taskNames, null).isEmpty());
+    }
+}
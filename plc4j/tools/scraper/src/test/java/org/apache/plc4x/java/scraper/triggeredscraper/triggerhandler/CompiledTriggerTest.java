@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.plc4x.java.scraper.triggeredscraper.triggerhandler;
+
+import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.scraper.exception.ScraperConfigurationException;
+import org.apache.plc4x.java.scraper.triggeredscraper.triggerhandler.TriggerConfiguration.Comparator;
+import org.apache.plc4x.java.scraper.triggeredscraper.triggerhandler.TriggerConfiguration.ConcatType;
+import org.apache.plc4x.java.scraper.triggeredscraper.triggerhandler.TriggerConfiguration.TriggerElement;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+class CompiledTriggerTest implements WithAssertions {
+
+    private final PlcField numericField = field(Double.class);
+
+    private final PlcField booleanField = field(Boolean.class);
+
+    @Test
+    void numericComparisonsAcceptAllNumberTypes() throws ScraperConfigurationException {
+        CompiledTrigger SUT = CompiledTrigger.compile(Collections.singletonList(
+            new TriggerElement(Comparator.GREATER_EQUAL, 10.0, numericField)));
+
+        assertThat(SUT.evaluate(new Object[]{(short) 10})).isTrue();
+        assertThat(SUT.evaluate(new Object[]{9})).isFalse();
+        assertThat(SUT.evaluate(new Object[]{11L})).isTrue();
+        assertThat(SUT.evaluate(new Object[]{9.99f})).isFalse();
+        assertThat(SUT.evaluate(new Object[]{"11"})).isFalse();
+    }
+
+    @Test
+    void conditionsAreCombinedFromLeftToRight() throws ScraperConfigurationException {
+        CompiledTrigger SUT = CompiledTrigger.compile(Arrays.asList(
+            new TriggerElement(Comparator.EQUAL, true, booleanField),
+            new TriggerElement(Comparator.SMALLER, ConcatType.AND, 3, 0, numericField),
+            new TriggerElement(Comparator.EQUAL, ConcatType.OR, 100, 0, numericField)));
+
+        assertThat(SUT.evaluate(new Object[]{true, 2, 0})).isTrue();
+        assertThat(SUT.evaluate(new Object[]{true, 5, 0})).isFalse();
+        assertThat(SUT.evaluate(new Object[]{false, 2, 100.0})).isTrue();
+        assertThat(SUT.evaluate(new Object[]{false, 2})).isFalse();
+    }
+
+    @Test
+    void hysteresisDelaysTheRelease() throws ScraperConfigurationException {
+        CompiledTrigger SUT = CompiledTrigger.compile(Collections.singletonList(
+            new TriggerElement(Comparator.GREATER, null, 10.0, 2.0, numericField)));
+
+        assertThat(SUT.evaluate(new Object[]{9.0})).isFalse();
+        assertThat(SUT.evaluate(new Object[]{11.0})).isTrue();
+        assertThat(SUT.evaluate(new Object[]{9.0})).isTrue();
+        assertThat(SUT.evaluate(new Object[]{7.9})).isFalse();
+        assertThat(SUT.evaluate(new Object[]{9.0})).isFalse();
+    }
+
+    @Test
+    void previousValueIsOnlyTakenOverWhenTriggered() throws ScraperConfigurationException {
+        CompiledTrigger SUT = CompiledTrigger.compile(Collections.singletonList(
+            new TriggerElement(Comparator.GREATER, null, true, null, numericField, "%DB1:DBD0:REAL")));
+
+        assertThat(SUT.evaluate(new Object[]{5})).isTrue();
+        assertThat(SUT.evaluate(new Object[]{4})).isFalse();
+        assertThat(SUT.evaluate(new Object[]{6})).isTrue();
+        assertThat(SUT.evaluate(new Object[]{6})).isFalse();
+    }
+
+    private static PlcField field(Class<?> javaType) {
+        PlcField plcField = mock(PlcField.class);
+        doReturn(javaType).when(plcField).getDefaultJavaType();
+        return plcField;
+    }
+}
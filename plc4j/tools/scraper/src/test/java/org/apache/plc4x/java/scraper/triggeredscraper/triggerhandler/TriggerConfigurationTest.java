@@ -28,12 +28,18 @@ import org.mockito.Mockito;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.core.IsNull.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
 
 /**
  * testing valid and invalid triggerConfigStrings
@@ -126,6 +132,92 @@ class TriggerConfigurationTest {
     }
 
 
+    private static Stream<Arguments> hysteresisTriggerPattern() {
+        return Stream.of(
+            Arguments.of("(TRIGGER_VAR,50,(%temp:REAL)>(80;5))", TriggerConfiguration.Comparator.GREATER, 80.0, 5.0),
+            Arguments.of("(TRIGGER_VAR,50,(%temp:REAL)>=(80;5))", TriggerConfiguration.Comparator.GREATER_EQUAL, 80.0, 5.0),
+            Arguments.of("(TRIGGER_VAR,50,(%temp:REAL)<(20.5;0.5))", TriggerConfiguration.Comparator.SMALLER, 20.5, 0.5),
+            Arguments.of("(TRIGGER_VAR,50,(%count:INT)<=(-10;2))", TriggerConfiguration.Comparator.SMALLER_EQUAL, -10.0, 2.0),
+            Arguments.of("(TRIGGER_VAR,50,(%count:INT)>(10;0))", TriggerConfiguration.Comparator.GREATER, 10.0, 0.0),
+            Arguments.of("(TRIGGER_VAR,50,(%count:INT)>(10))", TriggerConfiguration.Comparator.GREATER, 10.0, 0.0)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("hysteresisTriggerPattern")
+    void testHysteresisParsing(String triggerConfig,
+                               TriggerConfiguration.Comparator comparator,
+                               double compareValue,
+                               double hysteresis) throws ScraperConfigurationException {
+        TriggerConfiguration triggerConfiguration = TriggerConfiguration.createConfiguration(triggerConfig, mockTriggeredScrapeJob());
+
+        assertThat(triggerConfiguration.getTriggerType(), equalTo(TriggerConfiguration.TriggerType.TRIGGER_VAR));
+        assertThat(triggerConfiguration.getTriggerElementList().size(), equalTo(1));
+        TriggerConfiguration.TriggerElement triggerElement = triggerConfiguration.getTriggerElementList().get(0);
+        assertThat(triggerElement.getComparatorType(), equalTo(comparator));
+        assertThat(triggerElement.getCompareValue(), equalTo(compareValue));
+        assertThat(triggerElement.getHysteresis(), equalTo(hysteresis));
+        assertThat(triggerElement.getPreviousMode(), equalTo(false));
+    }
+
+    private static Stream<Arguments> multiConditionTriggerPattern() {
+        return Stream.of(
+            Arguments.of("(TRIGGER_VAR,50,(%a:REAL)>(1)AND(%b:BOOL)==(true)OR(%c:INT)<(PREV))",
+                Arrays.asList(null, TriggerConfiguration.ConcatType.AND, TriggerConfiguration.ConcatType.OR),
+                Arrays.asList(TriggerConfiguration.Comparator.GREATER, TriggerConfiguration.Comparator.EQUAL, TriggerConfiguration.Comparator.SMALLER),
+                Arrays.asList(1.0, true, null)),
+            Arguments.of("(TRIGGER_VAR,100,(%a:REAL)>=(80;5)OR(%b:BOOL)!=(0)OR(%c:INT)>(PREV)AND(%d:INT)<=(-3))",
+                Arrays.asList(null, TriggerConfiguration.ConcatType.OR, TriggerConfiguration.ConcatType.OR, TriggerConfiguration.ConcatType.AND),
+                Arrays.asList(TriggerConfiguration.Comparator.GREATER_EQUAL, TriggerConfiguration.Comparator.UNEQUAL,
+                    TriggerConfiguration.Comparator.GREATER, TriggerConfiguration.Comparator.SMALLER_EQUAL),
+                Arrays.asList(80.0, false, null, -3.0))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("multiConditionTriggerPattern")
+    void testMultiConditionParsing(String triggerConfig,
+                                   List<TriggerConfiguration.ConcatType> concatTypes,
+                                   List<TriggerConfiguration.Comparator> comparators,
+                                   List<Object> compareValues) throws ScraperConfigurationException {
+        TriggerConfiguration triggerConfiguration = TriggerConfiguration.createConfiguration(triggerConfig, mockTriggeredScrapeJob());
+
+        List<TriggerConfiguration.TriggerElement> triggerElements = triggerConfiguration.getTriggerElementList();
+        assertThat(triggerElements.stream().map(TriggerConfiguration.TriggerElement::getConcatType).collect(Collectors.toList()), equalTo(concatTypes));
+        assertThat(triggerElements.stream().map(TriggerConfiguration.TriggerElement::getComparatorType).collect(Collectors.toList()), equalTo(comparators));
+        assertThat(triggerElements.stream().map(TriggerConfiguration.TriggerElement::getCompareValue).collect(Collectors.toList()), equalTo(compareValues));
+        // PREV is stored as previous mode instead of a compare value
+        assertThat(triggerElements.stream().map(TriggerConfiguration.TriggerElement::getPreviousMode).collect(Collectors.toList()),
+            equalTo(compareValues.stream().map(compareValue -> compareValue == null).collect(Collectors.toList())));
+    }
+
+    private static Stream<Arguments> invalidHysteresisTriggerPattern() {
+        return Stream.of(
+            Arguments.of("(TRIGGER_VAR,50,(%temp:REAL)==(80;5))"),
+            Arguments.of("(TRIGGER_VAR,50,(%temp:REAL)!=(80;5))"),
+            Arguments.of("(TRIGGER_VAR,50,(%temp:REAL)>(PREV;5))"),
+            Arguments.of("(TRIGGER_VAR,50,(%temp:REAL)>(80;-5))"),
+            Arguments.of("(TRIGGER_VAR,50,(%temp:REAL)>(80;))"),
+            Arguments.of("(TRIGGER_VAR,50,(%flag:BOOL)==(true;1))"),
+            Arguments.of("(TRIGGER_VAR,50,(%count:INT)>(1)AND(%temp:REAL)==(80;5))")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("invalidHysteresisTriggerPattern")
+    void testInvalidHysteresisIsRejected(String triggerConfig) {
+        TriggeredScrapeJobImpl triggeredScrapeJob = mockTriggeredScrapeJob();
+        assertThrows(ScraperConfigurationException.class,
+            () -> TriggerConfiguration.createConfiguration(triggerConfig, triggeredScrapeJob));
+    }
+
+    private static TriggeredScrapeJobImpl mockTriggeredScrapeJob() {
+        TriggeredScrapeJobImpl triggeredScrapeJob = Mockito.mock(TriggeredScrapeJobImpl.class);
+        when(triggeredScrapeJob.getJobName()).thenReturn("trigger-test");
+        when(triggeredScrapeJob.getSourceConnections()).thenReturn(Collections.singletonMap("source", "mock:trigger"));
+        return triggeredScrapeJob;
+    }
+
 /*    @ParameterizedTest
     @Category(FastTests.class)
     @MethodSource("invalidTriggerPattern")
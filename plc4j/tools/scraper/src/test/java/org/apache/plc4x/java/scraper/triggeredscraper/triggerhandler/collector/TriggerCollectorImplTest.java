@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.plc4x.java.scraper.triggeredscraper.triggerhandler.collector;
+
+import org.apache.plc4x.java.PlcDriverManager;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.api.value.PlcBoolean;
+import org.apache.plc4x.java.mock.connection.MockConnection;
+import org.apache.plc4x.java.mock.connection.MockDevice;
+import org.apache.plc4x.java.spi.messages.utils.ResponseItem;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TriggerCollectorImplTest implements WithAssertions {
+
+    private static final String CONNECTION_STRING = "mock:trigger";
+
+    private final PlcDriverManager driverManager = new PlcDriverManager();
+
+    private MockDevice mockDevice;
+
+    private TriggerCollectorImpl SUT;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockConnection connection = (MockConnection) driverManager.getConnection(CONNECTION_STRING);
+        mockDevice = Mockito.mock(MockDevice.class);
+        connection.setDevice(mockDevice);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (SUT != null) {
+            SUT.stop();
+        }
+    }
+
+    @Test
+    void synchronousFailureDoesNotStopTheAcquirementOfTriggers() throws Exception {
+        PlcDriverManager failingDriverManager = Mockito.mock(PlcDriverManager.class);
+        when(failingDriverManager.getConnectionAsync(CONNECTION_STRING))
+            .thenThrow(new IllegalStateException("broken configuration"))
+            .thenAnswer(invocation -> driverManager.getConnectionAsync(CONNECTION_STRING));
+        when(mockDevice.read("%M0.3:BOOL")).thenReturn(new ResponseItem<>(PlcResponseCode.OK, new PlcBoolean(true)));
+        SUT = new TriggerCollectorImpl(failingDriverManager, 10, 1000);
+
+        String uuid = SUT.submitTrigger("%M0.3:BOOL", CONNECTION_STRING, 10);
+        SUT.start();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (SUT.requestResult(uuid) == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(SUT.requestResult(uuid)).isNotNull();
+        verify(failingDriverManager, atLeast(2)).getConnectionAsync(CONNECTION_STRING);
+    }
+}
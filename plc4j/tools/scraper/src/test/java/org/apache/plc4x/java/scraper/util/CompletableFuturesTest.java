@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.plc4x.java.scraper.util;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+class CompletableFuturesTest implements WithAssertions {
+
+    private final ManualTimer timer = new ManualTimer();
+
+    @Test
+    void resultBeforeTheTimeoutIsPassedOn() throws Exception {
+        CompletableFuture<String> request = new CompletableFuture<>();
+        CompletableFuture<String> result = CompletableFutures.withTimeout(request, 100, timer);
+
+        timer.advance(50);
+        request.complete("value");
+        timer.advance(100);
+
+        assertThat(result.get()).isEqualTo("value");
+    }
+
+    @Test
+    void timedOutRequestIsCancelled() {
+        CompletableFuture<Object> connection = new CompletableFuture<>();
+        CompletableFuture<String> request = new CompletableFuture<>();
+        CompletableFuture<String> response = CompletableFutures.thenComposeCancellable(connection, ignored -> request);
+        CompletableFuture<String> result = CompletableFutures.withTimeout(response, 100, timer);
+        connection.complete(new Object());
+
+        timer.advance(99);
+        assertThat(result).isNotDone();
+        timer.advance(1);
+
+        assertThatThrownBy(result::get)
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(TimeoutException.class);
+        assertThat(request).isCancelled();
+        // The connection is still handed back once it's available.
+        assertThat(connection).isNotCancelled();
+    }
+
+    @Test
+    void failureOfTheFirstFutureIsPassedOn() {
+        CompletableFuture<Object> connection = new CompletableFuture<>();
+        CompletableFuture<String> response = CompletableFutures.thenComposeCancellable(connection, ignored -> {
+            throw new IllegalStateException("not expected to be called");
+        });
+
+        connection.completeExceptionally(new IllegalArgumentException("no connection"));
+
+        assertThatThrownBy(response::get)
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.plc4x.java.scraper.util;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single threaded {@link ScheduledExecutorService} running on a virtual clock, which only moves on when the test
+ * calls {@link #advance(long)}. So scheduling can be tested without sleeping and without depending on the speed of
+ * the machine.
+ */
+public class ManualTimer extends AbstractExecutorService implements ScheduledExecutorService {
+
+    private final PriorityQueue<Task> tasks = new PriorityQueue<>();
+
+    private long nanos;
+
+    private long sequence;
+
+    private boolean shutdown;
+
+    /**
+     * @return current time of the virtual clock in ns.
+     */
+    public long nanoTime() {
+        return nanos;
+    }
+
+    /**
+     * Moves the clock forward and runs all tasks due till then in the order of their execution time, including the
+     * ones scheduled by these tasks.
+     *
+     * @param millis time to move the clock by (0 runs the tasks which are already due).
+     */
+    public void advance(long millis) {
+        long target = nanos + TimeUnit.MILLISECONDS.toNanos(millis);
+        Task task;
+        while (((task = tasks.peek()) != null) && (task.time <= target)) {
+            tasks.poll();
+            nanos = task.time;
+            if (!task.cancelled) {
+                task.done = true;
+                task.command.run();
+            }
+        }
+        nanos = target;
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        if (shutdown) {
+            throw new IllegalStateException("Timer is shut down");
+        }
+        Task task = new Task(command, nanos + Math.max(0, unit.toNanos(delay)), sequence++);
+        tasks.add(task);
+        return task;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        schedule(command, 0, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        tasks.clear();
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown && tasks.isEmpty();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+        return isTerminated();
+    }
+
+    private class Task implements ScheduledFuture<Object> {
+
+        private final Runnable command;
+        private final long time;
+        private final long sequence;
+
+        private boolean cancelled;
+        private boolean done;
+
+        private Task(Runnable command, long time, long sequence) {
+            this.command = command;
+            this.time = time;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(time - nanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            Task task = (Task) other;
+            int result = Long.compare(time, task.time);
+            return (result != 0) ? result : Long.compare(sequence, task.sequence);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (done) {
+                return false;
+            }
+            cancelled = true;
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done || cancelled;
+        }
+
+        @Override
+        public Object get() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
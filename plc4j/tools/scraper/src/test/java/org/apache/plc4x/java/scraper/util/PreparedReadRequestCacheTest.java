@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.scraper.util;
+
+import org.apache.plc4x.java.api.PlcConnection;
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.metadata.PlcConnectionMetadata;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PreparedReadRequestCacheTest implements WithAssertions {
+
+    private final PreparedReadRequestCache SUT =
+        new PreparedReadRequestCache(Collections.singletonMap("counter", "%DB1:DBW0:INT"));
+
+    @Test
+    void requestIsPreparedOncePerConnection() {
+        PlcConnection connection = connection(Mockito.mock(PlcConnectionMetadata.class));
+
+        PlcReadRequest first = SUT.getReadRequest(connection);
+        PlcReadRequest second = SUT.getReadRequest(connection);
+
+        assertThat(second).isSameAs(first);
+        verify(connection, times(1)).prepareReadRequest(any());
+    }
+
+    @Test
+    void requestIsPreparedAgainForAnotherConnection() {
+        PlcConnection connection = connection(Mockito.mock(PlcConnectionMetadata.class));
+        PlcConnection reconnected = connection(Mockito.mock(PlcConnectionMetadata.class));
+
+        PlcReadRequest first = SUT.getReadRequest(connection);
+        PlcReadRequest second = SUT.getReadRequest(reconnected);
+
+        assertThat(second).isNotSameAs(first);
+        verify(reconnected, times(1)).prepareReadRequest(any());
+    }
+
+    private static PlcConnection connection(PlcConnectionMetadata metadata) {
+        PlcConnection connection = Mockito.mock(PlcConnection.class);
+        PlcReadRequest.Builder builder = Mockito.mock(PlcReadRequest.Builder.class);
+        when(builder.addItem(anyString(), anyString())).thenReturn(builder);
+        when(builder.build()).thenReturn(Mockito.mock(PlcReadRequest.class));
+        when(connection.getMetadata()).thenReturn(metadata);
+        when(connection.readRequestBuilder()).thenReturn(builder);
+        when(connection.prepareReadRequest(any())).thenAnswer(invocation -> Mockito.mock(PlcReadRequest.class));
+        return connection;
+    }
+
+}
@@ -23,6 +23,7 @@ import io.netty.channel.*;
 import io.netty.channel.oio.OioEventLoopGroup;
 import org.apache.plc4x.java.spi.configuration.HasConfiguration;
 import org.apache.plc4x.java.spi.connection.NettyChannelFactory;
+import org.apache.plc4x.java.spi.connection.SharedEventLoopGroup;
 import org.apache.plc4x.java.utils.pcap.netty.address.PcapSocketAddress;
 import org.apache.plc4x.java.utils.pcap.netty.config.PcapChannelOption;
 import org.apache.plc4x.java.utils.pcapreplay.netty.PcapReplayChannel;
@@ -69,4 +70,10 @@ public class PcapReplayChannelFactory extends NettyChannelFactory implements Has
         return new OioEventLoopGroup();
     }
 
+    @Override
+    public SharedEventLoopGroup getSharedEventLoopGroup() {
+        // Replaying a capture file blocks the thread of the channel.
+        return null;
+    }
+
 }
@@ -25,6 +25,7 @@ import io.netty.channel.ThreadPerChannelEventLoop;
 import io.netty.channel.oio.OioEventLoopGroup;
 import org.apache.plc4x.java.spi.configuration.HasConfiguration;
 import org.apache.plc4x.java.spi.connection.NettyChannelFactory;
+import org.apache.plc4x.java.spi.connection.SharedEventLoopGroup;
 import org.apache.plc4x.java.utils.pcap.netty.config.PcapChannelOption;
 import org.apache.plc4x.java.utils.rawsockets.netty.address.RawSocketAddress;
 import org.apache.plc4x.java.utils.rawsockets.netty.RawSocketChannel;
@@ -56,6 +57,12 @@ public class RawSocketChannelFactory extends NettyChannelFactory implements HasC
         return new ThreadPerChannelEventLoop(new OioEventLoopGroup());
     }
 
+    @Override
+    public SharedEventLoopGroup getSharedEventLoopGroup() {
+        // Raw sockets are blocking, so every channel gets its own thread.
+        return null;
+    }
+
     @Override
     public void configureBootstrap(Bootstrap bootstrap) {
         if(configuration != null) {
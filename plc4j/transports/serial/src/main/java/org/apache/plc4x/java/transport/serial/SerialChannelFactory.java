@@ -24,6 +24,7 @@ import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import org.apache.plc4x.java.spi.configuration.HasConfiguration;
 import org.apache.plc4x.java.spi.connection.NettyChannelFactory;
+import org.apache.plc4x.java.spi.connection.SharedEventLoopGroup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -66,4 +67,10 @@ public class SerialChannelFactory extends NettyChannelFactory implements HasConf
         return new NioEventLoopGroup(0, (Executor) null, new SerialSelectorProvider());
     }
 
+    @Override
+    public SharedEventLoopGroup getSharedEventLoopGroup() {
+        // Serial ports need their own selector provider.
+        return null;
+    }
+
 }
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.transport.tcp;
+
+import org.apache.plc4x.java.spi.configuration.annotations.ConfigurationParameter;
+import org.apache.plc4x.java.spi.configuration.annotations.defaults.BooleanDefaultValue;
+
+/**
+ * Base class for the configurations of drivers using the TCP transport, which makes the socket options
+ * configurable via the connection string.
+ */
+public abstract class DefaultTcpTransportConfiguration implements TcpTransportConfiguration {
+
+    @ConfigurationParameter("native-transport")
+    @BooleanDefaultValue(false)
+    private boolean nativeTransport;
+
+    @ConfigurationParameter("tcp-no-delay")
+    @BooleanDefaultValue(true)
+    private boolean noDelay = true;
+
+    @ConfigurationParameter("tcp-keep-alive")
+    @BooleanDefaultValue(false)
+    private boolean keepAlive;
+
+    @ConfigurationParameter("tcp-quick-ack")
+    @BooleanDefaultValue(false)
+    private boolean quickAck;
+
+    @Override
+    public boolean isNativeTransport() {
+        return nativeTransport;
+    }
+
+    public void setNativeTransport(boolean nativeTransport) {
+        this.nativeTransport = nativeTransport;
+    }
+
+    @Override
+    public boolean isNoDelay() {
+        return noDelay;
+    }
+
+    public void setNoDelay(boolean noDelay) {
+        this.noDelay = noDelay;
+    }
+
+    @Override
+    public boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    public void setKeepAlive(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    @Override
+    public boolean isQuickAck() {
+        return quickAck;
+    }
+
+    public void setQuickAck(boolean quickAck) {
+        this.quickAck = quickAck;
+    }
+
+}
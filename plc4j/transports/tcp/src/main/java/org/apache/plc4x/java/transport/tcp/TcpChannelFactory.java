@@ -20,10 +20,18 @@ package org.apache.plc4x.java.transport.tcp;
 
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollSocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
 import org.apache.plc4x.java.spi.configuration.HasConfiguration;
+import org.apache.plc4x.java.spi.connection.EpollSupport;
 import org.apache.plc4x.java.spi.connection.NettyChannelFactory;
+import org.apache.plc4x.java.spi.connection.SharedEventLoopGroup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,6 +42,7 @@ public class TcpChannelFactory extends NettyChannelFactory implements HasConfigu
     private static final Logger logger = LoggerFactory.getLogger(TcpChannelFactory.class);
 
     private TcpTransportConfiguration configuration;
+    private boolean epoll;
 
     public TcpChannelFactory(SocketAddress address) {
         super(address);
@@ -42,11 +51,20 @@ public class TcpChannelFactory extends NettyChannelFactory implements HasConfigu
     @Override
     public void setConfiguration(TcpTransportConfiguration configuration) {
         this.configuration = configuration;
+        this.epoll = configuration.isNativeTransport() && EpollSupport.isAvailable();
+        if(configuration.isNativeTransport() && !epoll) {
+            logger.warn("Native epoll transport not available, falling back to NIO");
+        }
     }
 
     @Override
     public Class<? extends Channel> getChannel() {
-        return NioSocketChannel.class;
+        return epoll ? EpollSocketChannel.class : NioSocketChannel.class;
+    }
+
+    @Override
+    public SharedEventLoopGroup getSharedEventLoopGroup() {
+        return epoll ? EpollSupport.getSharedEventLoopGroup() : super.getSharedEventLoopGroup();
     }
 
     @Override
@@ -56,7 +74,43 @@ public class TcpChannelFactory extends NettyChannelFactory implements HasConfigu
             bootstrap.option(ChannelOption.SO_KEEPALIVE, configuration.isKeepAlive());
             bootstrap.option(ChannelOption.TCP_NODELAY, configuration.isNoDelay());
             bootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, configuration.getConnectTimeout());
+            if(epoll) {
+                bootstrap.option(EpollChannelOption.TCP_QUICKACK, configuration.isQuickAck());
+            } else if(configuration.isQuickAck()) {
+                logger.warn("TCP_QUICKACK is only supported by the native epoll transport");
+            }
+        }
+    }
+
+    /**
+     * Linux resets TCP_QUICKACK as soon as it decides to delay an ack again, so setting it once when connecting
+     * only affects the first few segments. If it's enabled, it's set again on every read.
+     */
+    @Override
+    public void initializePipeline(ChannelPipeline pipeline) {
+        if(epoll && configuration.isQuickAck()) {
+            pipeline.addLast(QuickAckHandler.INSTANCE);
         }
     }
 
+    /**
+     * @return true if the channels of this factory use the native epoll transport.
+     */
+    boolean isEpoll() {
+        return epoll;
+    }
+
+    @ChannelHandler.Sharable
+    static class QuickAckHandler extends ChannelInboundHandlerAdapter {
+
+        static final QuickAckHandler INSTANCE = new QuickAckHandler();
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            ctx.channel().config().setOption(EpollChannelOption.TCP_QUICKACK, true);
+            ctx.fireChannelRead(msg);
+        }
+
+    }
+
 }
@@ -46,4 +46,18 @@ public interface TcpTransportConfiguration extends TransportConfiguration {
         return 1000;
     }
 
+    /**
+     * @return true if TCP_QUICKACK should be enabled (Only supported by the native epoll transport).
+     */
+    default boolean isQuickAck() {
+        return false;
+    }
+
+    /**
+     * @return true if the native epoll transport should be used instead of NIO, if it's available.
+     */
+    default boolean isNativeTransport() {
+        return false;
+    }
+
 }
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.transport.tcp;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.apache.plc4x.java.spi.configuration.ConfigurationFactory;
+import org.apache.plc4x.java.spi.connection.EpollSupport;
+import org.apache.plc4x.java.spi.connection.SharedEventLoopGroup;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class TcpChannelFactoryTest {
+
+    @Test
+    void defaultOptions() {
+        TestConfiguration configuration = configuration("");
+
+        assertFalse(configuration.isNativeTransport());
+        assertTrue(configuration.isNoDelay());
+        assertFalse(configuration.isKeepAlive());
+        assertFalse(configuration.isQuickAck());
+
+        Map<ChannelOption<?>, Object> options = bootstrapOptions(factory(configuration));
+        assertEquals(true, options.get(ChannelOption.TCP_NODELAY));
+        assertEquals(false, options.get(ChannelOption.SO_KEEPALIVE));
+        assertEquals(1000, options.get(ChannelOption.CONNECT_TIMEOUT_MILLIS));
+    }
+
+    @Test
+    void socketOptionsAreSetFromTheConnectionString() {
+        TestConfiguration configuration = configuration("tcp-no-delay=false&tcp-keep-alive=true&tcp-quick-ack=true");
+
+        assertFalse(configuration.isNoDelay());
+        assertTrue(configuration.isKeepAlive());
+        assertTrue(configuration.isQuickAck());
+
+        Map<ChannelOption<?>, Object> options = bootstrapOptions(factory(configuration));
+        assertEquals(false, options.get(ChannelOption.TCP_NODELAY));
+        assertEquals(true, options.get(ChannelOption.SO_KEEPALIVE));
+    }
+
+    @Test
+    void nativeTransportFallsBackToNio() {
+        assumeFalse(EpollSupport.isAvailable());
+        TestConfiguration configuration = configuration("native-transport=true&tcp-quick-ack=true");
+        assertTrue(configuration.isNativeTransport());
+
+        TcpChannelFactory factory = factory(configuration);
+
+        assertFalse(factory.isEpoll());
+        assertSame(NioSocketChannel.class, factory.getChannel());
+        assertSame(SharedEventLoopGroup.getInstance(), factory.getSharedEventLoopGroup());
+        // TCP_QUICKACK is only supported by epoll, so it's ignored.
+        assertFalse(bootstrapOptions(factory).containsKey(EpollChannelOption.TCP_QUICKACK));
+        EmbeddedChannel channel = new EmbeddedChannel();
+        factory.initializePipeline(channel.pipeline());
+        assertNull(channel.pipeline().get(TcpChannelFactory.QuickAckHandler.class));
+    }
+
+    @Test
+    void nativeTransportIsUsedIfAvailable() {
+        assumeTrue(EpollSupport.isAvailable());
+        TcpChannelFactory factory = factory(configuration("native-transport=true&tcp-quick-ack=true"));
+
+        assertTrue(factory.isEpoll());
+        assertSame(EpollSocketChannel.class, factory.getChannel());
+        assertSame(EpollSupport.getSharedEventLoopGroup(), factory.getSharedEventLoopGroup());
+        assertEquals(true, bootstrapOptions(factory).get(EpollChannelOption.TCP_QUICKACK));
+        EmbeddedChannel channel = new EmbeddedChannel();
+        factory.initializePipeline(channel.pipeline());
+        assertNotNull(channel.pipeline().get(TcpChannelFactory.QuickAckHandler.class));
+    }
+
+    @Test
+    void nioIsUsedByDefault() {
+        TcpChannelFactory factory = factory(configuration("tcp-quick-ack=true"));
+
+        assertFalse(factory.isEpoll());
+        assertSame(NioSocketChannel.class, factory.getChannel());
+        assertSame(SharedEventLoopGroup.getInstance(), factory.getSharedEventLoopGroup());
+    }
+
+    private static TestConfiguration configuration(String parameters) {
+        return new ConfigurationFactory().createConfiguration(TestConfiguration.class, parameters);
+    }
+
+    private static TcpChannelFactory factory(TcpTransportConfiguration configuration) {
+        TcpChannelFactory factory = new TcpChannelFactory(new InetSocketAddress("localhost", 102));
+        factory.setConfiguration(configuration);
+        return factory;
+    }
+
+    private static Map<ChannelOption<?>, Object> bootstrapOptions(TcpChannelFactory factory) {
+        Bootstrap bootstrap = new Bootstrap();
+        factory.configureBootstrap(bootstrap);
+        return bootstrap.config().options();
+    }
+
+    public static class TestConfiguration extends DefaultTcpTransportConfiguration {
+    }
+
+}
@@ -25,6 +25,7 @@ import io.netty.channel.EventLoopGroup;
 import io.netty.channel.embedded.Plc4xEmbeddedChannel;
 import org.apache.plc4x.java.spi.configuration.HasConfiguration;
 import org.apache.plc4x.java.spi.connection.NettyChannelFactory;
+import org.apache.plc4x.java.spi.connection.SharedEventLoopGroup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -60,6 +61,12 @@ public class TestChannelFactory extends NettyChannelFactory implements HasConfig
         return null;
     }
 
+    @Override
+    public SharedEventLoopGroup getSharedEventLoopGroup() {
+        // Embedded channels don't need any event loop threads.
+        return null;
+    }
+
     @Override
     public void configureBootstrap(Bootstrap bootstrap) {
         bootstrap.localAddress(new TestSocketAddress("lalala"));
@@ -21,9 +21,12 @@ package org.apache.plc4x.java.transport.udp;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelPipeline;
+import io.netty.channel.epoll.EpollDatagramChannel;
 import io.netty.channel.socket.nio.NioDatagramChannel;
 import org.apache.plc4x.java.spi.configuration.HasConfiguration;
+import org.apache.plc4x.java.spi.connection.EpollSupport;
 import org.apache.plc4x.java.spi.connection.NettyChannelFactory;
+import org.apache.plc4x.java.spi.connection.SharedEventLoopGroup;
 import org.apache.plc4x.java.transport.udp.protocol.DatagramUnpackingHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,6 +38,7 @@ public class UdpChannelFactory extends NettyChannelFactory implements HasConfigu
     private static final Logger logger = LoggerFactory.getLogger(UdpChannelFactory.class);
 
     private UdpTransportConfiguration configuration;
+    private boolean epoll;
 
     public UdpChannelFactory(SocketAddress address) {
         super(address);
@@ -43,11 +47,20 @@ public class UdpChannelFactory extends NettyChannelFactory implements HasConfigu
     @Override
     public void setConfiguration(UdpTransportConfiguration configuration) {
         this.configuration = configuration;
+        this.epoll = configuration.isNativeTransport() && EpollSupport.isAvailable();
+        if(configuration.isNativeTransport() && !epoll) {
+            logger.warn("Native epoll transport not available, falling back to NIO");
+        }
     }
 
     @Override
     public Class<? extends Channel> getChannel() {
-        return NioDatagramChannel.class;
+        return epoll ? EpollDatagramChannel.class : NioDatagramChannel.class;
+    }
+
+    @Override
+    public SharedEventLoopGroup getSharedEventLoopGroup() {
+        return epoll ? EpollSupport.getSharedEventLoopGroup() : super.getSharedEventLoopGroup();
     }
 
     @Override
@@ -28,4 +28,11 @@ public interface UdpTransportConfiguration extends TransportConfiguration {
         return NO_DEFAULT_PORT;
     }
 
+    /**
+     * @return true if the native epoll transport should be used instead of NIO, if it's available.
+     */
+    default boolean isNativeTransport() {
+        return false;
+    }
+
 }
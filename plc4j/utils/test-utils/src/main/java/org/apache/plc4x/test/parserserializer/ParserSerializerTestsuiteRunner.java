@@ -71,7 +71,14 @@ public class ParserSerializerTestsuiteRunner {
         return dynamicTests;
     }
 
-    private ParserSerializerTestsuite parseTestsuite(InputStream testsuiteDocumentXml) throws ParserSerializerTestsuiteException {
+    /**
+     * Parses a testsuite document. Also used by the protocol benchmarks, which run the same testcases.
+     *
+     * @param testsuiteDocumentXml stream of the testsuite xml document.
+     * @return parsed testsuite.
+     * @throws ParserSerializerTestsuiteException if the document is invalid.
+     */
+    public static ParserSerializerTestsuite parseTestsuite(InputStream testsuiteDocumentXml) throws ParserSerializerTestsuiteException {
         try {
             SAXReader reader = new SAXReader();
             Document document = reader.read(testsuiteDocumentXml);
@@ -151,84 +158,135 @@ public class ParserSerializerTestsuiteRunner {
         }
     }
 
-    private MessageIO getMessageIOForTestcase(Testcase testcase) throws ParserSerializerTestsuiteException {
-        String className = testcase.getXml().elements().get(0).attributeValue(new QName("className"));
-        String ioRootClassName = className.substring(0, className.lastIndexOf('.') + 1) + testcase.getRootType();
-        String ioClassName = className.substring(0, className.lastIndexOf('.') + 1) + "io." +
-            testcase.getRootType() + "IO";
-        try {
-            Class<?> ioRootClass = Class.forName(ioRootClassName);
-            Class<?> ioClass = Class.forName(ioClassName);
-            Method parseMethodTmp = null;
-            Method serializeMethodTmp = null;
-            final List<Class<?>> parameterTypes = new LinkedList<>();
-            for (Method method : ioClass.getMethods()) {
-                if(method.getName().equals("staticParse") && Modifier.isStatic(method.getModifiers()) &&
-                    (method.getReturnType() == ioRootClass)) {
-                    parseMethodTmp = method;
-
-                    // Get a list of additional parameter types for the parser.
-                    for(int i = 1; i < method.getParameterCount(); i++) {
-                        Class<?> parameterType = parseMethodTmp.getParameterTypes()[i];
-                        parameterTypes.add(parameterType);
+    /**
+     * Looks up the static parse and serialize methods of the generated IO class of the testcase's root type.
+     *
+     * @param testcase testcase to get the IO component for.
+     * @return IO component calling the generated static parse and serialize methods.
+     * @throws ParserSerializerTestsuiteException if the IO class or its methods can't be found.
+     */
+    public static MessageIO getMessageIOForTestcase(Testcase testcase) throws ParserSerializerTestsuiteException {
+        final Method parseMethod = getStaticParseMethod(testcase);
+        final Method serializeMethod = getStaticSerializeMethod(testcase);
+        return new MessageIO() {
+            @Override
+            public Object parse(ReadBuffer io, Object... args) throws ParseException {
+                try {
+                    Class<?>[] parameterTypes = parseMethod.getParameterTypes();
+                    Object[] argValues = new Object[args.length + 1];
+                    argValues[0] = io;
+                    for (int i = 1; i <= args.length; i++) {
+                        argValues[i] = convertParserArgument((String) args[i - 1], parameterTypes[i]);
                     }
+
+                    return parseMethod.invoke(null, argValues);
+                } catch (IllegalAccessException | InvocationTargetException e) {
+                    throw new ParseException("error parsing", e);
                 }
-                if(method.getName().equals("staticSerialize") && Modifier.isStatic(method.getModifiers()) &&
-                    (method.getParameterTypes()[1] == ioRootClass)) {
-                    serializeMethodTmp = method;
+            }
+
+            @Override
+            public void serialize(WriteBuffer io, Object value, Object... args) throws ParseException {
+                try {
+                    serializeMethod.invoke(null, io, value);
+                } catch (IllegalAccessException | InvocationTargetException e) {
+                    throw new ParseException("error serializing", e);
                 }
             }
-            if((parseMethodTmp == null) || (serializeMethodTmp == null)) {
-                throw new ParserSerializerTestsuiteException(
-                    "Unable to instantiate IO component. Missing static parse or serialize methods.");
+        };
+    }
+
+    /**
+     * @param testcase testcase to get the parse method for.
+     * @return generated static parse method of the testcase's root type. The first parameter is the
+     * {@link ReadBuffer}, it's followed by the parser arguments.
+     * @throws ParserSerializerTestsuiteException if the IO class or its parse method can't be found.
+     */
+    public static Method getStaticParseMethod(Testcase testcase) throws ParserSerializerTestsuiteException {
+        Class<?> ioRootClass = getIORootClass(testcase);
+        for (Method method : getIOClass(testcase).getMethods()) {
+            if(method.getName().equals("staticParse") && Modifier.isStatic(method.getModifiers()) &&
+                (method.getReturnType() == ioRootClass)) {
+                return method;
             }
-            final Method parseMethod = parseMethodTmp;
-            final Method serializeMethod = serializeMethodTmp;
-            return new MessageIO() {
-                @Override
-                public Object parse(ReadBuffer io, Object... args) throws ParseException {
-                    try {
-                        Object[] argValues = new Object[args.length + 1];
-                        argValues[0] = io;
-                        for (int i = 1; i <= args.length; i++) {
-                            String parameterValue = (String) args[i - 1];
-                            Class<?> parameterType = parameterTypes.get(i - 1);
-                            if (parameterType == Boolean.class) {
-                                argValues[i] = Boolean.parseBoolean(parameterValue);
-                            } else if (parameterType == Byte.class) {
-                                argValues[i] = Byte.parseByte(parameterValue);
-                            } else if (parameterType == Short.class) {
-                                argValues[i] = Short.parseShort(parameterValue);
-                            } else if (parameterType == Integer.class) {
-                                argValues[i] = Integer.parseInt(parameterValue);
-                            } else if (parameterType == Long.class) {
-                                argValues[i] = Long.parseLong(parameterValue);
-                            } else if (parameterType == Float.class) {
-                                argValues[i] = Float.parseFloat(parameterValue);
-                            } else if (parameterType == Double.class) {
-                                argValues[i] = Double.parseDouble(parameterValue);
-                            } else if (parameterType == String.class) {
-                                argValues[i] = parameterValue;
-                            } else {
-                                throw new ParseException("Currently unsupported parameter type");
-                            }
-                        }
-
-                        return parseMethod.invoke(null, argValues);
-                    } catch (IllegalAccessException | InvocationTargetException e) {
-                        throw new ParseException("error parsing", e);
-                    }
-                }
+        }
+        throw new ParserSerializerTestsuiteException(
+            "Unable to instantiate IO component. Missing static parse method.");
+    }
 
-                @Override
-                public void serialize(WriteBuffer io, Object value, Object... args) throws ParseException {
-                    try {
-                        serializeMethod.invoke(null, io, value);
-                    } catch (IllegalAccessException | InvocationTargetException e) {
-                        throw new ParseException("error serializing", e);
-                    }
-                }
-            };
+    /**
+     * @param testcase testcase to get the serialize method for.
+     * @return generated static serialize method of the testcase's root type, taking the {@link WriteBuffer} and
+     * the message.
+     * @throws ParserSerializerTestsuiteException if the IO class or its serialize method can't be found.
+     */
+    public static Method getStaticSerializeMethod(Testcase testcase) throws ParserSerializerTestsuiteException {
+        Class<?> ioRootClass = getIORootClass(testcase);
+        for (Method method : getIOClass(testcase).getMethods()) {
+            if(method.getName().equals("staticSerialize") && Modifier.isStatic(method.getModifiers()) &&
+                (method.getParameterTypes()[1] == ioRootClass)) {
+                return method;
+            }
+        }
+        throw new ParserSerializerTestsuiteException(
+            "Unable to instantiate IO component. Missing static serialize method.");
+    }
+
+    /**
+     * Converts the parser arguments of the testcase to the types of the additional parameters of the parse method.
+     *
+     * @param testcase testcase containing the parser arguments.
+     * @param parseMethod parse method as returned by {@link #getStaticParseMethod(Testcase)}.
+     * @return typed parser arguments (without the {@link ReadBuffer}).
+     * @throws ParseException if an argument has an unsupported type.
+     */
+    public static Object[] getParserArguments(Testcase testcase, Method parseMethod) throws ParseException {
+        Class<?>[] parameterTypes = parseMethod.getParameterTypes();
+        List<String> parserArguments = testcase.getParserArguments();
+        Object[] argValues = new Object[parserArguments.size()];
+        for (int i = 0; i < argValues.length; i++) {
+            argValues[i] = convertParserArgument(parserArguments.get(i), parameterTypes[i + 1]);
+        }
+        return argValues;
+    }
+
+    private static Object convertParserArgument(String parameterValue, Class<?> parameterType) throws ParseException {
+        if (parameterType == Boolean.class) {
+            return Boolean.parseBoolean(parameterValue);
+        } else if (parameterType == Byte.class) {
+            return Byte.parseByte(parameterValue);
+        } else if (parameterType == Short.class) {
+            return Short.parseShort(parameterValue);
+        } else if (parameterType == Integer.class) {
+            return Integer.parseInt(parameterValue);
+        } else if (parameterType == Long.class) {
+            return Long.parseLong(parameterValue);
+        } else if (parameterType == Float.class) {
+            return Float.parseFloat(parameterValue);
+        } else if (parameterType == Double.class) {
+            return Double.parseDouble(parameterValue);
+        } else if (parameterType == String.class) {
+            return parameterValue;
+        }
+        throw new ParseException("Currently unsupported parameter type");
+    }
+
+    private static Class<?> getIORootClass(Testcase testcase) throws ParserSerializerTestsuiteException {
+        return loadClass(testcase, testcase.getRootType());
+    }
+
+    private static Class<?> getIOClass(Testcase testcase) throws ParserSerializerTestsuiteException {
+        return loadClass(testcase, "io." + testcase.getRootType() + "IO");
+    }
+
+    /**
+     * @return class in the package of the testcase's message class.
+     */
+    private static Class<?> loadClass(Testcase testcase, String relativeClassName)
+        throws ParserSerializerTestsuiteException {
+        String className = testcase.getXml().elements().get(0).attributeValue(new QName("className"));
+        try {
+            return Class.forName(className.substring(0, className.lastIndexOf('.') + 1) + relativeClassName);
         } catch (ClassNotFoundException e) {
             throw new ParserSerializerTestsuiteException("Unable to instantiate IO component", e);
         }